@@ -1,8 +1,6 @@
 package org.vertexium.accumulo;
 
-import com.google.common.base.Function;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.hadoop.io.Text;
@@ -10,15 +8,13 @@ import org.vertexium.*;
 import org.vertexium.accumulo.iterator.EdgeIterator;
 import org.vertexium.accumulo.iterator.model.ElementData;
 import org.vertexium.accumulo.util.DataInputStreamUtils;
+import org.vertexium.accumulo.util.LazyElementValue;
 import org.vertexium.mutation.ExistingEdgeMutation;
 import org.vertexium.mutation.PropertyDeleteMutation;
 import org.vertexium.mutation.PropertySoftDeleteMutation;
 
-import javax.annotation.Nullable;
-import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.util.List;
 
 @SuppressWarnings("unchecked")
 public class AccumuloEdge extends AccumuloElement implements Edge {
@@ -76,54 +72,34 @@ public class AccumuloEdge extends AccumuloElement implements Edge {
         Authorizations authorizations
     ) {
         try {
-            String edgeId;
-            Visibility vertexVisibility;
-            Iterable<Property> properties;
-            Iterable<Visibility> hiddenVisibilities;
-            long timestamp;
-
-            ByteArrayInputStream bain = new ByteArrayInputStream(value.get());
-            try (DataInputStream in = DataInputStreamUtils.decodeHeader(bain, ElementData.TYPE_ID_EDGE)) {
-                edgeId = DataInputStreamUtils.decodeString(in);
-                timestamp = in.readLong();
-                vertexVisibility = new Visibility(DataInputStreamUtils.decodeString(in));
-
-                hiddenVisibilities = Iterables.transform(DataInputStreamUtils.decodeStringSet(in), new Function<String, Visibility>() {
-                    @Nullable
-                    @Override
-                    public Visibility apply(String input) {
-                        return new Visibility(input);
-                    }
-                });
-
-                ImmutableSet<String> additionalVisibilities = DataInputStreamUtils.decodeStringSet(in);
-
-                List<MetadataEntry> metadataEntries = DataInputStreamUtils.decodeMetadataEntries(in);
-                properties = DataInputStreamUtils.decodeProperties(graph, in, metadataEntries, fetchHints);
-                ImmutableSet<String> extendedDataTableNames = DataInputStreamUtils.decodeStringSet(in);
-                String inVertexId = DataInputStreamUtils.decodeString(in);
-                String outVertexId = DataInputStreamUtils.decodeString(in);
-                String label = graph.getNameSubstitutionStrategy().inflate(DataInputStreamUtils.decodeString(in));
-
-                return new AccumuloEdge(
-                    graph,
-                    edgeId,
-                    outVertexId,
-                    inVertexId,
-                    label,
-                    null,
-                    vertexVisibility,
-                    properties,
-                    null,
-                    null,
-                    hiddenVisibilities,
-                    additionalVisibilities,
-                    extendedDataTableNames,
-                    timestamp,
-                    fetchHints,
-                    authorizations
-                );
+            LazyElementValue lazyValue = new LazyElementValue(value, ElementData.TYPE_ID_EDGE, fetchHints);
+            String inVertexId;
+            String outVertexId;
+            String label;
+            try (DataInputStream in = lazyValue.openSection(LazyElementValue.Section.ELEMENT_TYPE_DATA)) {
+                inVertexId = DataInputStreamUtils.decodeString(in);
+                outVertexId = DataInputStreamUtils.decodeString(in);
+                label = graph.getNameSubstitutionStrategy().inflate(DataInputStreamUtils.decodeString(in));
             }
+
+            return new AccumuloEdge(
+                graph,
+                lazyValue.getId(),
+                outVertexId,
+                inVertexId,
+                label,
+                null,
+                lazyValue.getVisibility(),
+                lazyValue.getProperties(graph),
+                null,
+                null,
+                lazyValue.decodeHiddenVisibilities(),
+                lazyValue.decodeAdditionalVisibilities(),
+                lazyValue.decodeExtendedDataTableNames(),
+                lazyValue.getTimestamp(),
+                fetchHints,
+                authorizations
+            );
         } catch (IOException ex) {
             throw new VertexiumException("Could not read vertex", ex);
         }
@@ -16,8 +16,13 @@ import org.vertexium.query.QueryableIterable;
 import org.vertexium.search.IndexHint;
 import org.vertexium.util.PropertyCollection;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Stream;
@@ -54,7 +59,8 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
     private final Set<Visibility> hiddenVisibilities;
     private final Set<String> additionalVisibilities;
 
-    private final PropertyCollection properties;
+    private volatile PropertyCollection properties;
+    private transient volatile Iterable<Property> unloadedProperties;
     private final ImmutableSet<String> extendedDataTableNames;
     private ConcurrentSkipListSet<PropertyDeleteMutation> propertyDeleteMutations;
     private ConcurrentSkipListSet<PropertySoftDeleteMutation> propertySoftDeleteMutations;
@@ -92,12 +98,56 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
         this.hiddenVisibilities = hiddenVisibilityBuilder.build();
         this.additionalVisibilities = Sets.newHashSet(additionalVisibilities);
         updatePropertiesInternal(
-            properties,
+            Collections.emptyList(),
             propertyDeleteMutations,
             propertySoftDeleteMutations,
             null,
             null
         );
+        // the deletes above can not remove anything yet, so adding the properties can wait until they are first read
+        this.unloadedProperties = properties;
+    }
+
+    private PropertyCollection getPropertyCollection() {
+        if (unloadedProperties != null) {
+            loadProperties();
+        }
+        return properties;
+    }
+
+    private synchronized void loadProperties() {
+        Iterable<Property> propertiesToLoad = unloadedProperties;
+        if (propertiesToLoad == null) {
+            return;
+        }
+        Map<Property, Property> loadedProperties = new LinkedHashMap<>();
+        for (Property property : propertiesToLoad) {
+            addPropertyInternal(loadedProperties, property);
+        }
+        this.properties = new PropertyCollection(loadedProperties.values());
+        this.unloadedProperties = null;
+    }
+
+    /**
+     * Properties are equal if they have the same key, name and visibility
+     */
+    private static void addPropertyInternal(Map<Property, Property> properties, Property property) {
+        if (property.getKey() == null) {
+            throw new IllegalArgumentException("key is required for property");
+        }
+        Property existingProperty = properties.get(property);
+        if (existingProperty == null) {
+            properties.put(property, property);
+        } else if (existingProperty instanceof MutableProperty) {
+            ((MutableProperty) existingProperty).update(property);
+        } else {
+            throw new VertexiumException("Could not update property of type: " + existingProperty.getClass().getName());
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getPropertyCollection();
+        out.defaultWriteObject();
     }
 
     @Override
@@ -105,7 +155,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
     public void softDeleteProperty(String key, String name, Visibility visibility, Object eventData, Authorizations authorizations) {
         Property property = getProperty(key, name, visibility);
         if (property != null) {
-            this.properties.removeProperty(property);
+            getPropertyCollection().removeProperty(property);
             getGraph().softDeleteProperty(this, property, eventData, authorizations);
         }
     }
@@ -253,7 +303,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
             return reservedProperty.getValue();
         }
         getFetchHints().assertPropertyIncluded(name);
-        Property property = this.properties.getProperty(key, name, index);
+        Property property = getPropertyCollection().getProperty(key, name, index);
         if (property == null) {
             return null;
         }
@@ -284,7 +334,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
         if (!getFetchHints().isIncludeProperties()) {
             throw new VertexiumMissingFetchHintException(getFetchHints(), "includeProperties");
         }
-        return this.properties.getProperties();
+        return getPropertyCollection().getProperties();
     }
 
     public Iterable<PropertyDeleteMutation> getPropertyDeleteMutations() {
@@ -302,7 +352,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
             return Lists.newArrayList(reservedProperty);
         }
         getFetchHints().assertPropertyIncluded(name);
-        return this.properties.getProperties(key, name);
+        return getPropertyCollection().getProperties(key, name);
     }
 
     private void updateAdditionalVisibilitiesInternal(Iterable<AdditionalVisibilityAddMutation> additionalVisibilities, Iterable<AdditionalVisibilityDeleteMutation> additionalVisibilityDeletes) {
@@ -391,7 +441,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
     protected void removePropertyInternal(String key, String name, Visibility visibility) {
         Property property = getProperty(key, name, visibility);
         if (property != null) {
-            this.properties.removeProperty(property);
+            getPropertyCollection().removeProperty(property);
         }
     }
 
@@ -401,7 +451,7 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
         }
         Property existingProperty = getProperty(property.getKey(), property.getName(), property.getVisibility());
         if (existingProperty == null) {
-            this.properties.addProperty(property);
+            getPropertyCollection().addProperty(property);
         } else {
             if (existingProperty instanceof MutableProperty) {
                 ((MutableProperty) existingProperty).update(property);
@@ -443,6 +493,6 @@ public abstract class AccumuloElement extends ElementBase implements Serializabl
     @Override
     protected Iterable<Property> internalGetProperties(String key, String name) {
         getFetchHints().assertPropertyIncluded(name);
-        return this.properties.getProperties(key, name);
+        return getPropertyCollection().getProperties(key, name);
     }
 }
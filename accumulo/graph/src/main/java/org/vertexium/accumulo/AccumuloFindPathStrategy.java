@@ -1,12 +1,9 @@
 package org.vertexium.accumulo;
 
-import org.apache.accumulo.core.client.ScannerBase;
-import org.apache.accumulo.core.data.Key;
-import org.apache.accumulo.core.data.Value;
+import com.google.common.collect.Iterables;
 import org.apache.accumulo.core.trace.Span;
 import org.apache.accumulo.core.trace.Trace;
 import org.vertexium.*;
-import org.vertexium.accumulo.util.RangeUtils;
 import org.vertexium.util.IterableUtils;
 import org.vertexium.util.VertexiumLogger;
 import org.vertexium.util.VertexiumLoggerFactory;
@@ -14,8 +11,6 @@ import org.vertexium.util.VertexiumLoggerFactory;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static org.vertexium.util.StreamUtils.stream;
-
 public class AccumuloFindPathStrategy {
     private static final VertexiumLogger LOGGER = VertexiumLoggerFactory.getLogger(AccumuloFindPathStrategy.class);
     private final AccumuloGraph graph;
@@ -24,6 +19,8 @@ public class AccumuloFindPathStrategy {
     private final Authorizations authorizations;
     private final Set<String> includeLabels;
     private final Set<String> excludeLabels;
+    private final int frontierBatchSize;
+    private final int maxFrontierSize;
 
     public AccumuloFindPathStrategy(
         AccumuloGraph graph,
@@ -37,6 +34,8 @@ public class AccumuloFindPathStrategy {
         this.authorizations = authorizations;
         this.includeLabels = labelsToSet(graph.getNameSubstitutionStrategy(), options.getLabels());
         this.excludeLabels = labelsToSet(graph.getNameSubstitutionStrategy(), options.getExcludedLabels());
+        this.frontierBatchSize = graph.getConfiguration().getFindPathFrontierBatchSize();
+        this.maxFrontierSize = graph.getConfiguration().getFindPathMaxFrontierSize();
     }
 
     private static Set<String> labelsToSet(AccumuloNameSubstitutionStrategy nameSubstitutionStrategy, String[] labels) {
@@ -110,34 +109,92 @@ public class AccumuloFindPathStrategy {
         );
     }
 
+    /**
+     * Searches from both the source and the destination, always expanding the side with the smaller frontier, until
+     * the two searches together cover the requested number of hops. Every path of at most that length is made of
+     * edges attached to an expanded vertex, so the paths are then enumerated from the expanded vertices only.
+     */
     private void findPathsBreadthFirst(List<Path> foundPaths, String sourceVertexId, String destVertexId, int hops) {
-        Map<String, Set<String>> connectedVertexIds = getConnectedVertexIds(sourceVertexId, destVertexId);
-        // start at 2 since we already got the source and dest vertex connected vertex ids
-        for (int i = 2; i < hops; i++) {
-            progressCallback.progress((double) i / (double) hops, ProgressCallback.Step.FINDING_PATH);
-            Set<String> vertexIdsToSearch = new HashSet<>();
-            for (Map.Entry<String, Set<String>> entry : connectedVertexIds.entrySet()) {
-                vertexIdsToSearch.addAll(entry.getValue());
+        Map<String, Set<String>> connectedVertexIds = new HashMap<>();
+        Set<String> expandedVertexIds = new HashSet<>();
+        SearchSide sourceSide = new SearchSide(sourceVertexId);
+        SearchSide destSide = new SearchSide(destVertexId);
+
+        // expand the source and dest vertices together since both are needed
+        addConnectedVertexIds(connectedVertexIds, getConnectedVertexIds(sourceVertexId, destVertexId));
+        expandedVertexIds.add(sourceVertexId);
+        expandedVertexIds.add(destVertexId);
+        sourceSide.advance(connectedVertexIds);
+        destSide.advance(connectedVertexIds);
+
+        while (sourceSide.getDepth() + destSide.getDepth() < hops) {
+            if (sourceSide.isExhausted() || destSide.isExhausted()) {
+                break;
+            }
+            if (options.isGetAnyPath() && sourceSide.meets(destSide)) {
+                break;
+            }
+            progressCallback.progress(
+                (double) (sourceSide.getDepth() + destSide.getDepth()) / (double) hops,
+                ProgressCallback.Step.FINDING_PATH
+            );
+            SearchSide side = sourceSide.getFrontierSize() <= destSide.getFrontierSize() ? sourceSide : destSide;
+            Set<String> vertexIdsToSearch = new HashSet<>(side.getFrontier());
+            vertexIdsToSearch.removeAll(expandedVertexIds);
+            for (List<String> batch : Iterables.partition(vertexIdsToSearch, frontierBatchSize)) {
+                addConnectedVertexIds(connectedVertexIds, getConnectedVertexIds(new HashSet<>(batch)));
             }
-            vertexIdsToSearch.removeAll(connectedVertexIds.keySet());
-            Map<String, Set<String>> r = getConnectedVertexIds(vertexIdsToSearch);
-            connectedVertexIds.putAll(r);
+            expandedVertexIds.addAll(vertexIdsToSearch);
+            side.advance(connectedVertexIds);
         }
+
         progressCallback.progress(0.9, ProgressCallback.Step.ADDING_PATHS);
+        Map<String, Integer> hopsToDest = getHopsToVertex(connectedVertexIds, destVertexId, hops);
         Set<String> seenVertices = new HashSet<>();
         Path currentPath = new Path(sourceVertexId);
-        findPathsRecursive(connectedVertexIds, foundPaths, sourceVertexId, destVertexId, hops, seenVertices, currentPath, progressCallback);
+        findPathsRecursive(connectedVertexIds, hopsToDest, foundPaths, sourceVertexId, destVertexId, hops, seenVertices, currentPath);
+    }
+
+    /**
+     * Adds the search results to the connected vertex ids in both directions, so the vertices found from an expanded
+     * vertex also lead back to it.
+     */
+    private static void addConnectedVertexIds(Map<String, Set<String>> connectedVertexIds, Map<String, Set<String>> results) {
+        for (Map.Entry<String, Set<String>> entry : results.entrySet()) {
+            connectedVertexIds.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            for (String otherVertexId : entry.getValue()) {
+                connectedVertexIds.computeIfAbsent(otherVertexId, k -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+    }
+
+    private static Map<String, Integer> getHopsToVertex(Map<String, Set<String>> connectedVertexIds, String vertexId, int maxHops) {
+        Map<String, Integer> results = new HashMap<>();
+        results.put(vertexId, 0);
+        Set<String> frontier = Collections.singleton(vertexId);
+        for (int hops = 1; hops <= maxHops && !frontier.isEmpty(); hops++) {
+            Set<String> nextFrontier = new HashSet<>();
+            for (String frontierVertexId : frontier) {
+                for (String otherVertexId : connectedVertexIds.getOrDefault(frontierVertexId, Collections.emptySet())) {
+                    if (results.putIfAbsent(otherVertexId, hops) == null) {
+                        nextFrontier.add(otherVertexId);
+                    }
+                }
+            }
+            frontier = nextFrontier;
+        }
+        return results;
     }
 
     private void findPathsRecursive(
         Map<String, Set<String>> connectedVertexIds,
+        Map<String, Integer> hopsToDest,
         List<Path> foundPaths,
         final String sourceVertexId,
         String destVertexId,
         int hops,
         Set<String> seenVertices,
-        Path currentPath,
-        @SuppressWarnings("UnusedParameters") ProgressCallback progressCallback
+        Path currentPath
     ) {
         if (options.isGetAnyPath() && foundPaths.size() == 1) {
             return;
@@ -149,8 +206,9 @@ public class AccumuloFindPathStrategy {
             Set<String> vertexIds = connectedVertexIds.get(sourceVertexId);
             if (vertexIds != null) {
                 for (String childId : vertexIds) {
-                    if (!seenVertices.contains(childId)) {
-                        findPathsRecursive(connectedVertexIds, foundPaths, childId, destVertexId, hops - 1, seenVertices, new Path(currentPath, childId), progressCallback);
+                    Integer childHopsToDest = hopsToDest.get(childId);
+                    if (childHopsToDest != null && childHopsToDest < hops && !seenVertices.contains(childId)) {
+                        findPathsRecursive(connectedVertexIds, hopsToDest, foundPaths, childId, destVertexId, hops - 1, seenVertices, new Path(currentPath, childId));
                     }
                 }
             }
@@ -187,55 +245,95 @@ public class AccumuloFindPathStrategy {
                 return new HashMap<>();
             }
 
-            List<org.apache.accumulo.core.data.Range> ranges = new ArrayList<>();
-            for (String vertexId : vertexIds) {
-                ranges.add(RangeUtils.createRangeFromString(vertexId));
+            String[] labels = includeLabels == null ? null : includeLabels.toArray(new String[0]);
+            Map<String, Set<String>> otherVertexIdsByVertexId = new HashMap<>();
+            for (AdjacentEdge adjacentEdge : graph.getAdjacentEdges(vertexIds, Direction.BOTH, labels, null, authorizations)) {
+                if (excludeLabels != null && excludeLabels.contains(adjacentEdge.getLabel())) {
+                    continue;
+                }
+                otherVertexIdsByVertexId.computeIfAbsent(adjacentEdge.getVertexId(), k -> new HashSet<>())
+                    .add(adjacentEdge.getOtherVertexId());
             }
 
-            FetchHints fetchHints = new FetchHintsBuilder(FetchHints.EDGE_REFS)
-                .setIncludeEdgeIds(false)
-                .build();
-            ScannerBase scanner = graph.createElementScanner(
-                fetchHints,
-                ElementType.VERTEX,
-                1,
-                null,
-                null,
-                ranges,
-                true,
-                authorizations
-            );
+            Set<String> otherVertexIds = otherVertexIdsByVertexId.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+            Map<String, Boolean> verticesExist = graph.doVerticesExist(otherVertexIds, authorizations);
+            Map<String, Set<String>> results = new HashMap<>();
+            for (Map.Entry<String, Set<String>> entry : otherVertexIdsByVertexId.entrySet()) {
+                Set<String> rowVertexIds = entry.getValue().stream()
+                    .filter(otherVertexId -> verticesExist.getOrDefault(otherVertexId, false))
+                    .collect(Collectors.toSet());
+                results.put(entry.getKey(), rowVertexIds);
+            }
+            return results;
+        } finally {
+            trace.stop();
+        }
+    }
+
+    /**
+     * One side of the bidirectional search: the vertices reached so far and the vertices to expand next.
+     */
+    private class SearchSide {
+        private final String startVertexId;
+        private final Set<String> visited = new HashSet<>();
+        private Set<String> frontier;
+        private int depth;
+
+        SearchSide(String vertexId) {
+            startVertexId = vertexId;
+            visited.add(vertexId);
+            frontier = Collections.singleton(vertexId);
+        }
+
+        int getDepth() {
+            return depth;
+        }
+
+        Set<String> getFrontier() {
+            return frontier;
+        }
+
+        int getFrontierSize() {
+            return frontier.size();
+        }
+
+        boolean isExhausted() {
+            return frontier.isEmpty();
+        }
 
+        boolean meets(SearchSide other) {
+            Set<String> smaller = visited.size() <= other.visited.size() ? visited : other.visited;
+            Set<String> larger = smaller == visited ? other.visited : visited;
+            return smaller.stream().anyMatch(larger::contains);
+        }
 
-            final long timerStartTime = System.currentTimeMillis();
-            try {
-                Map<String, Set<String>> results = new HashMap<>();
-                for (Map.Entry<Key, Value> row : scanner) {
-                    graph.logLargeRow(row.getKey(), row.getValue());
-                    Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, row.getKey(), row.getValue(), fetchHints, authorizations);
-                    Iterable<String> otherVertexIds = stream(vertex.getEdgeInfos(Direction.BOTH, authorizations))
-                        .filter(edgeInfo -> {
-                            if (excludeLabels != null && excludeLabels.contains(edgeInfo.getLabel())) {
-                                return false;
-                            }
-                            return includeLabels == null || includeLabels.contains(edgeInfo.getLabel());
-
-                        })
-                        .map(EdgeInfo::getVertexId)
-                        .collect(Collectors.toSet());
-                    Map<String, Boolean> verticesExist = graph.doVerticesExist(otherVertexIds, authorizations);
-                    Set<String> rowVertexIds = stream(verticesExist.keySet())
-                        .filter(key -> verticesExist.getOrDefault(key, false))
-                        .collect(Collectors.toSet());
-                    results.put(row.getKey().getRow().toString(), rowVertexIds);
+        /**
+         * Moves the frontier to the unvisited vertices connected to the current frontier, which must already have
+         * been expanded into connectedVertexIds.
+         */
+        void advance(Map<String, Set<String>> connectedVertexIds) {
+            Set<String> nextFrontier = new HashSet<>();
+            for (String vertexId : frontier) {
+                for (String otherVertexId : connectedVertexIds.getOrDefault(vertexId, Collections.emptySet())) {
+                    if (visited.add(otherVertexId)) {
+                        nextFrontier.add(otherVertexId);
+                    }
                 }
-                return results;
-            } finally {
-                scanner.close();
-                AccumuloGraph.GRAPH_LOGGER.logEndIterator(System.currentTimeMillis() - timerStartTime);
             }
-        } finally {
-            trace.stop();
+            if (nextFrontier.size() > maxFrontierSize) {
+                throw new VertexiumException(String.format(
+                    "Find path frontier of %d vertices at %d hops from vertex %s exceeds the limit of %d (see %s)",
+                    nextFrontier.size(),
+                    depth + 1,
+                    startVertexId,
+                    maxFrontierSize,
+                    AccumuloGraphConfiguration.FIND_PATH_MAX_FRONTIER_SIZE
+                ));
+            }
+            frontier = nextFrontier;
+            depth++;
         }
     }
 }
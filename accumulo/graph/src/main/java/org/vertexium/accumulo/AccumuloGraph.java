@@ -48,6 +48,8 @@ import org.vertexium.property.StreamingPropertyValueRef;
 import org.vertexium.search.IndexHint;
 import org.vertexium.util.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -2035,6 +2037,7 @@ public class AccumuloGraph extends GraphBaseWithSearchIndex implements Traceable
             fetchHints.isIncludeEdgeVertexIds(),
             fetchHints.isIgnoreAdditionalVisibilities(),
             deflate(fetchHints.getEdgeLabelsOfEdgeRefsToInclude()),
+            fetchHints.getOtherVertexIdsOfEdgeRefsToInclude(),
             fetchHints.isIncludeEdgeLabelsAndCounts(),
             fetchHints.isIncludeExtendedDataTableNames(),
             fetchHints.isIncludePreviousMetadata()
@@ -2372,6 +2375,21 @@ public class AccumuloGraph extends GraphBaseWithSearchIndex implements Traceable
         return listTableSplits(getHistoryEdgesTableName());
     }
 
+    /**
+     * Reindexes a tablet of the vertices or edges table at a time.
+     */
+    @Override
+    protected List<IdRange> getReindexRanges(ElementType elementType, ReindexOptions options) {
+        switch (elementType) {
+            case VERTEX:
+                return Lists.newArrayList(listVerticesTableSplits());
+            case EDGE:
+                return Lists.newArrayList(listEdgesTableSplits());
+            default:
+                throw new VertexiumException("Unhandled element type: " + elementType);
+        }
+    }
+
     public Iterable<IdRange> listDataTableSplits() {
         return listTableSplits(getDataTableName());
     }
@@ -2709,6 +2727,93 @@ public class AccumuloGraph extends GraphBaseWithSearchIndex implements Traceable
         }
     }
 
+    @Override
+    public CloseableIterable<AdjacentEdge> getAdjacentEdges(
+        Iterable<String> vertexIds,
+        Direction direction,
+        String[] labels,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        final List<org.apache.accumulo.core.data.Range> ranges = new ArrayList<>();
+        for (String vertexId : vertexIds) {
+            ranges.add(RangeUtils.createRangeFromString(vertexId));
+        }
+        if (ranges.size() == 0) {
+            return new EmptyClosableIterable<>();
+        }
+
+        FetchHintsBuilder fetchHintsBuilder = FetchHints.builder()
+            .setIncludeOutEdgeRefs(direction == Direction.OUT || direction == Direction.BOTH)
+            .setIncludeInEdgeRefs(direction == Direction.IN || direction == Direction.BOTH);
+        if (labels != null) {
+            fetchHintsBuilder.setEdgeLabelsOfEdgeRefsToInclude(labels);
+        }
+        FetchHints fetchHints = fetchHintsBuilder.build();
+
+        final Span trace = Trace.start("getAdjacentEdges");
+        trace.data("idCount", Integer.toString(ranges.size()));
+        traceDataFetchHints(trace, fetchHints);
+        final long timerStartTime = System.currentTimeMillis();
+
+        return new LookAheadIterable<AdjacentEdge, AdjacentEdge>() {
+            public ScannerBase scanner;
+
+            @Override
+            protected boolean isIncluded(AdjacentEdge src, AdjacentEdge dest) {
+                return true;
+            }
+
+            @Override
+            protected AdjacentEdge convert(AdjacentEdge adjacentEdge) {
+                return adjacentEdge;
+            }
+
+            @Override
+            protected Iterator<AdjacentEdge> createIterator() {
+                Long startTime = null;
+                scanner = createElementScanner(fetchHints, ElementType.VERTEX, 1, startTime, endTime, ranges, false, authorizations);
+                IteratorSetting vertexEdgeRefIteratorSettings = new IteratorSetting(
+                    1000,
+                    VertexEdgeRefIterator.class.getSimpleName(),
+                    VertexEdgeRefIterator.class
+                );
+                VertexEdgeRefIterator.setFetchHints(vertexEdgeRefIteratorSettings, toIteratorFetchHints(fetchHints));
+                VertexEdgeRefIterator.setAuthorizations(vertexEdgeRefIteratorSettings, authorizations.getAuthorizations());
+                scanner.addScanIterator(vertexEdgeRefIteratorSettings);
+                return new SelectManyIterable<Map.Entry<Key, Value>, AdjacentEdge>(scanner) {
+                    @Override
+                    protected Iterable<? extends AdjacentEdge> getIterable(Map.Entry<Key, Value> row) {
+                        return decodeAdjacentEdges(row.getKey(), row.getValue());
+                    }
+                }.iterator();
+            }
+
+            @Override
+            public void close() {
+                super.close();
+                if (scanner != null) {
+                    scanner.close();
+                }
+                trace.stop();
+                GRAPH_LOGGER.logEndIterator(System.currentTimeMillis() - timerStartTime);
+            }
+        };
+    }
+
+    private List<AdjacentEdge> decodeAdjacentEdges(Key key, Value value) {
+        logLargeRow(key, value);
+        String vertexId = key.getRow().toString();
+        List<AdjacentEdge> results = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value.get()))) {
+            DataInputStreamUtils.decodeAdjacentEdges(in, vertexId, Direction.OUT, getNameSubstitutionStrategy(), results);
+            DataInputStreamUtils.decodeAdjacentEdges(in, vertexId, Direction.IN, getNameSubstitutionStrategy(), results);
+        } catch (IOException ex) {
+            throw new VertexiumException("Could not decode edge refs of vertex: " + vertexId, ex);
+        }
+        return results;
+    }
+
     @Override
     public Iterable<Path> findPaths(FindPathOptions options, Authorizations authorizations) {
         ProgressCallback progressCallback = options.getProgressCallback();
@@ -3255,6 +3360,87 @@ public class AccumuloGraph extends GraphBaseWithSearchIndex implements Traceable
         }
     }
 
+    @Override
+    public Map<Visibility, Long> getElementCountsByVisibility(ElementType elementType, Authorizations authorizations) {
+        String tableName = getTableNameFromElementType(elementType);
+        Text signalColumn = elementType == ElementType.VERTEX ? AccumuloVertex.CF_SIGNAL : AccumuloEdge.CF_SIGNAL;
+        Map<String, Long> counts = getGroupCountsFromTable(tableName, signalColumn, ElementCountByVisibilityIterator.class, authorizations);
+        Map<Visibility, Long> results = new HashMap<>();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            results.merge(accumuloVisibilityToVisibility(entry.getKey()), entry.getValue(), Long::sum);
+        }
+        return results;
+    }
+
+    @Override
+    public Map<String, Long> getEdgeCountsByLabel(Authorizations authorizations) {
+        String tableName = getTableNameFromElementType(ElementType.EDGE);
+        return getGroupCountsFromTable(tableName, AccumuloEdge.CF_SIGNAL, EdgeCountByLabelIterator.class, authorizations);
+    }
+
+    @Override
+    public Map<String, Long> getExtendedDataRowCountsByTableName(ElementType elementType, Authorizations authorizations) {
+        IdRange range = KeyHelper.createExtendedDataRowKeyRange(elementType, new IdRange(null, null));
+        return getGroupCountsFromTable(
+            getExtendedDataTableName(),
+            vertexiumRangeToAccumuloRange(range),
+            null,
+            ExtendedDataRowCountByTableNameIterator.class,
+            authorizations
+        );
+    }
+
+    private Map<String, Long> getGroupCountsFromTable(
+        String tableName,
+        Text columnFamily,
+        Class<? extends GroupCountingIterator> iteratorClass,
+        Authorizations authorizations
+    ) {
+        return getGroupCountsFromTable(tableName, new org.apache.accumulo.core.data.Range(), columnFamily, iteratorClass, authorizations);
+    }
+
+    /**
+     * Counts the table with a batch scanner so that each tablet is counted on its tablet server in parallel, then
+     * adds up the per tablet counts of each group.
+     */
+    private Map<String, Long> getGroupCountsFromTable(
+        String tableName,
+        org.apache.accumulo.core.data.Range range,
+        Text columnFamily,
+        Class<? extends GroupCountingIterator> iteratorClass,
+        Authorizations authorizations
+    ) {
+        try {
+            LOGGER.debug("BEGIN getGroupCountsFromTable(%s, %s)", tableName, iteratorClass.getSimpleName());
+            ScannerBase scanner = createBatchScanner(tableName, Collections.singletonList(range), authorizations);
+            try {
+                if (columnFamily != null) {
+                    scanner.fetchColumnFamily(columnFamily);
+                }
+
+                IteratorSetting countingIterator = new IteratorSetting(
+                    100,
+                    iteratorClass.getSimpleName(),
+                    iteratorClass
+                );
+                scanner.addScanIterator(countingIterator);
+
+                GRAPH_LOGGER.logStartIterator(tableName, scanner);
+
+                Map<String, Long> results = new HashMap<>();
+                for (Map.Entry<Key, Value> entry : scanner) {
+                    GroupCountingIterator.decodeCounts(entry.getValue(), results);
+                }
+                LOGGER.debug("getGroupCountsFromTable(%s, %s): %s", tableName, iteratorClass.getSimpleName(), results);
+                return results;
+            } finally {
+                scanner.close();
+            }
+        } catch (TableNotFoundException ex) {
+            throw new VertexiumException("Could not get counts from table: " + tableName, ex);
+        }
+    }
+
     public void traceOn(String description) {
         traceOn(description, new HashMap<>());
     }
@@ -60,6 +60,8 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public static final String COMPRESS_ITERATOR_TRANSFERS = "compressIteratorTransfers";
     public static final String LARGE_VALUE_ERROR_THRESHOLD = "largeValueErrorThreshold";
     public static final String LARGE_VALUE_WARNING_THRESHOLD = "largeValueWarningThreshold";
+    public static final String FIND_PATH_FRONTIER_BATCH_SIZE = "findPath.frontierBatchSize";
+    public static final String FIND_PATH_MAX_FRONTIER_SIZE = "findPath.maxFrontierSize";
 
     public static final String DEFAULT_ACCUMULO_PASSWORD = "password";
     public static final String DEFAULT_ACCUMULO_USERNAME = "root";
@@ -84,6 +86,8 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public static final boolean DEFAULT_COMPRESS_ITERATOR_TRANSFERS = true;
     public static final int DEFAULT_LARGE_VALUE_ERROR_THRESHOLD = 500 * 1024 * 1024;
     public static final int DEFAULT_LARGE_VALUE_WARNING_THRESHOLD = 100 * 1024 * 1024;
+    public static final int DEFAULT_FIND_PATH_FRONTIER_BATCH_SIZE = 1000;
+    public static final int DEFAULT_FIND_PATH_MAX_FRONTIER_SIZE = 1000000;
 
     public static final String[] HADOOP_CONF_FILENAMES = new String[]{
         "core-site.xml",
@@ -295,4 +299,12 @@ public class AccumuloGraphConfiguration extends GraphConfiguration {
     public int getLargeValueWarningThreshold() {
         return getInt(LARGE_VALUE_WARNING_THRESHOLD, DEFAULT_LARGE_VALUE_WARNING_THRESHOLD);
     }
+
+    public int getFindPathFrontierBatchSize() {
+        return getInt(FIND_PATH_FRONTIER_BATCH_SIZE, DEFAULT_FIND_PATH_FRONTIER_BATCH_SIZE);
+    }
+
+    public int getFindPathMaxFrontierSize() {
+        return getInt(FIND_PATH_MAX_FRONTIER_SIZE, DEFAULT_FIND_PATH_MAX_FRONTIER_SIZE);
+    }
 }
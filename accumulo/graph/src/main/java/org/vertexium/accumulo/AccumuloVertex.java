@@ -11,7 +11,7 @@ import org.vertexium.accumulo.iterator.model.ElementData;
 import org.vertexium.accumulo.models.AccumuloEdgeInfo;
 import org.vertexium.accumulo.models.AccumuloEdgesWithEdgeInfo;
 import org.vertexium.accumulo.models.EdgesWithCount;
-import org.vertexium.accumulo.util.DataInputStreamUtils;
+import org.vertexium.accumulo.util.LazyElementValue;
 import org.vertexium.mutation.ExistingElementMutation;
 import org.vertexium.mutation.ExistingElementMutationImpl;
 import org.vertexium.mutation.PropertyDeleteMutation;
@@ -22,11 +22,8 @@ import org.vertexium.util.FilterIterable;
 import org.vertexium.util.JoinIterable;
 import org.vertexium.util.LookAheadIterable;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("unchecked")
 public class AccumuloVertex extends AccumuloElement implements Vertex {
@@ -37,8 +34,9 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
     public static final Text CF_IN_EDGE_SOFT_DELETE = VertexIterator.CF_IN_EDGE_SOFT_DELETE;
     public static final Text CF_OUT_EDGE_HIDDEN = VertexIterator.CF_OUT_EDGE_HIDDEN;
     public static final Text CF_IN_EDGE_HIDDEN = VertexIterator.CF_IN_EDGE_HIDDEN;
-    private final Edges inEdges;
-    private final Edges outEdges;
+    private volatile Edges inEdges;
+    private volatile Edges outEdges;
+    private transient volatile LazyElementValue unloadedEdges;
 
     public AccumuloVertex(
         AccumuloGraph graph,
@@ -106,6 +104,34 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
         this.outEdges = outEdges;
     }
 
+    /**
+     * Creates a vertex whose properties and edges are decoded from the value the first time they are read.
+     */
+    private AccumuloVertex(
+        AccumuloGraph graph,
+        LazyElementValue value,
+        FetchHints fetchHints,
+        Authorizations authorizations
+    ) throws IOException {
+        this(
+            graph,
+            value.getId(),
+            value.getVisibility(),
+            value.getProperties(graph),
+            null,
+            null,
+            value.decodeHiddenVisibilities(),
+            value.decodeAdditionalVisibilities(),
+            value.decodeExtendedDataTableNames(),
+            null,
+            null,
+            value.getTimestamp(),
+            fetchHints,
+            authorizations
+        );
+        this.unloadedEdges = value;
+    }
+
     public static Vertex createFromIteratorValue(
         AccumuloGraph graph,
         Key key,
@@ -114,56 +140,45 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
         Authorizations authorizations
     ) {
         try {
-            String vertexId;
-            Visibility vertexVisibility;
-            Iterable<Property> properties;
-            Set<Visibility> hiddenVisibilities;
-            Edges inEdges;
-            Edges outEdges;
-            long timestamp;
-
-            ByteArrayInputStream bain = new ByteArrayInputStream(value.get());
-            try (DataInputStream in = DataInputStreamUtils.decodeHeader(bain, ElementData.TYPE_ID_VERTEX)) {
-                vertexId = DataInputStreamUtils.decodeString(in);
-                timestamp = in.readLong();
-                vertexVisibility = new Visibility(DataInputStreamUtils.decodeString(in));
-
-                ImmutableSet<String> hiddenVisibilityStrings = DataInputStreamUtils.decodeStringSet(in);
-                hiddenVisibilities = hiddenVisibilityStrings != null ?
-                    hiddenVisibilityStrings.stream().map(Visibility::new).collect(Collectors.toSet()) :
-                    null;
-
-                ImmutableSet<String> additionalVisibilities = DataInputStreamUtils.decodeStringSet(in);
-
-                List<MetadataEntry> metadataEntries = DataInputStreamUtils.decodeMetadataEntries(in);
-                properties = DataInputStreamUtils.decodeProperties(graph, in, metadataEntries, fetchHints);
-
-                ImmutableSet<String> extendedDataTableNames = DataInputStreamUtils.decodeStringSet(in);
-                outEdges = DataInputStreamUtils.decodeEdges(in, graph.getNameSubstitutionStrategy(), fetchHints);
-                inEdges = DataInputStreamUtils.decodeEdges(in, graph.getNameSubstitutionStrategy(), fetchHints);
-
-                return new AccumuloVertex(
-                    graph,
-                    vertexId,
-                    vertexVisibility,
-                    properties,
-                    null,
-                    null,
-                    hiddenVisibilities,
-                    additionalVisibilities,
-                    extendedDataTableNames,
-                    inEdges,
-                    outEdges,
-                    timestamp,
-                    fetchHints,
-                    authorizations
-                );
-            }
+            return new AccumuloVertex(
+                graph,
+                new LazyElementValue(value, ElementData.TYPE_ID_VERTEX, fetchHints),
+                fetchHints,
+                authorizations
+            );
         } catch (IOException ex) {
             throw new VertexiumException("Could not read vertex", ex);
         }
     }
 
+    private Edges getInEdges() {
+        if (unloadedEdges != null) {
+            loadEdges();
+        }
+        return inEdges;
+    }
+
+    private Edges getOutEdges() {
+        if (unloadedEdges != null) {
+            loadEdges();
+        }
+        return outEdges;
+    }
+
+    private synchronized void loadEdges() {
+        LazyElementValue value = unloadedEdges;
+        if (value == null) {
+            return;
+        }
+        try {
+            this.outEdges = value.decodeOutEdges(getGraph().getNameSubstitutionStrategy());
+            this.inEdges = value.decodeInEdges(getGraph().getNameSubstitutionStrategy());
+        } catch (IOException ex) {
+            throw new VertexiumException("Could not read edges of vertex: " + getId(), ex);
+        }
+        this.unloadedEdges = null;
+    }
+
     @Override
     public Iterable<Edge> getEdges(Direction direction, Authorizations authorizations) {
         return getEdges(direction, getGraph().getDefaultFetchHints(), authorizations);
@@ -276,8 +291,8 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
         Map<String, Integer> outEdgeCountsByLabels = new HashMap<>();
         Map<String, Integer> inEdgeCountsByLabels = new HashMap<>();
 
-        if (inEdges instanceof EdgesWithCount) {
-            EdgesWithCount edgesWithCount = (EdgesWithCount) this.inEdges;
+        if (getInEdges() instanceof EdgesWithCount) {
+            EdgesWithCount edgesWithCount = (EdgesWithCount) getInEdges();
             inEdgeCountsByLabels.putAll(edgesWithCount.getEdgeCountsByLabelName());
         } else {
             for (Map.Entry<Text, AccumuloEdgeInfo> entry : getEdgeInfos(Direction.IN)) {
@@ -287,8 +302,8 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
             }
         }
 
-        if (outEdges instanceof EdgesWithCount) {
-            EdgesWithCount edgesWithCount = (EdgesWithCount) this.outEdges;
+        if (getOutEdges() instanceof EdgesWithCount) {
+            EdgesWithCount edgesWithCount = (EdgesWithCount) getOutEdges();
             outEdgeCountsByLabels.putAll(edgesWithCount.getEdgeCountsByLabelName());
         } else {
             for (Map.Entry<Text, AccumuloEdgeInfo> entry : getEdgeInfos(Direction.OUT)) {
@@ -360,16 +375,16 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
                 if (!getFetchHints().isIncludeInEdgeRefs() && !getFetchHints().hasEdgeLabelsOfEdgeRefsToInclude()) {
                     return null;
                 }
-                if (this.inEdges instanceof AccumuloEdgesWithEdgeInfo) {
-                    return ((AccumuloEdgesWithEdgeInfo) this.inEdges).getEntries();
+                if (getInEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+                    return ((AccumuloEdgesWithEdgeInfo) getInEdges()).getEntries();
                 }
                 throw new VertexiumException("Cannot get edge info");
             case OUT:
                 if (!getFetchHints().isIncludeOutEdgeRefs() && !getFetchHints().hasEdgeLabelsOfEdgeRefsToInclude()) {
                     return null;
                 }
-                if (this.outEdges instanceof AccumuloEdgesWithEdgeInfo) {
-                    return ((AccumuloEdgesWithEdgeInfo) this.outEdges).getEntries();
+                if (getOutEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+                    return ((AccumuloEdgesWithEdgeInfo) getOutEdges()).getEntries();
                 }
                 throw new VertexiumException("Cannot get edge info");
             case BOTH:
@@ -525,13 +540,13 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
                 Iterable<String> outVertexIds = getVertexIds(Direction.OUT, labels, authorizations);
                 return new JoinIterable<>(inVertexIds, outVertexIds);
             case IN:
-                if (this.inEdges instanceof AccumuloEdgesWithEdgeInfo) {
-                    return new GetVertexIdsIterable(((AccumuloEdgesWithEdgeInfo) this.inEdges).getEdgeInfos(), labels);
+                if (getInEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+                    return new GetVertexIdsIterable(((AccumuloEdgesWithEdgeInfo) getInEdges()).getEdgeInfos(), labels);
                 }
                 throw new VertexiumException("Cannot get vertex ids");
             case OUT:
-                if (this.outEdges instanceof AccumuloEdgesWithEdgeInfo) {
-                    return new GetVertexIdsIterable(((AccumuloEdgesWithEdgeInfo) this.outEdges).getEdgeInfos(), labels);
+                if (getOutEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+                    return new GetVertexIdsIterable(((AccumuloEdgesWithEdgeInfo) getOutEdges()).getEdgeInfos(), labels);
                 }
                 throw new VertexiumException("Cannot get vertex ids");
             default:
@@ -550,32 +565,32 @@ public class AccumuloVertex extends AccumuloElement implements Vertex {
     }
 
     void addOutEdge(Edge edge) {
-        if (this.outEdges instanceof AccumuloEdgesWithEdgeInfo) {
-            ((AccumuloEdgesWithEdgeInfo) this.outEdges).add(edge.getId(), new AccumuloEdgeInfo(edge.getLabel(), edge.getVertexId(Direction.IN)));
+        if (getOutEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+            ((AccumuloEdgesWithEdgeInfo) getOutEdges()).add(edge.getId(), new AccumuloEdgeInfo(edge.getLabel(), edge.getVertexId(Direction.IN)));
         } else {
             throw new VertexiumException("Cannot add edge");
         }
     }
 
     void removeOutEdge(Edge edge) {
-        if (this.outEdges instanceof AccumuloEdgesWithEdgeInfo) {
-            ((AccumuloEdgesWithEdgeInfo) this.outEdges).remove(edge.getId());
+        if (getOutEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+            ((AccumuloEdgesWithEdgeInfo) getOutEdges()).remove(edge.getId());
         } else {
             throw new VertexiumException("Cannot remove out edge");
         }
     }
 
     void addInEdge(Edge edge) {
-        if (this.inEdges instanceof AccumuloEdgesWithEdgeInfo) {
-            ((AccumuloEdgesWithEdgeInfo) this.inEdges).add(edge.getId(), new AccumuloEdgeInfo(edge.getLabel(), edge.getVertexId(Direction.OUT)));
+        if (getInEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+            ((AccumuloEdgesWithEdgeInfo) getInEdges()).add(edge.getId(), new AccumuloEdgeInfo(edge.getLabel(), edge.getVertexId(Direction.OUT)));
         } else {
             throw new VertexiumException("Cannot add edge");
         }
     }
 
     void removeInEdge(Edge edge) {
-        if (this.inEdges instanceof AccumuloEdgesWithEdgeInfo) {
-            ((AccumuloEdgesWithEdgeInfo) this.inEdges).remove(edge.getId());
+        if (getInEdges() instanceof AccumuloEdgesWithEdgeInfo) {
+            ((AccumuloEdgesWithEdgeInfo) getInEdges()).remove(edge.getId());
         } else {
             throw new VertexiumException("Cannot remove in edge");
         }
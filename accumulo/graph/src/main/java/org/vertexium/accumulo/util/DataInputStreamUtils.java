@@ -2,6 +2,9 @@ package org.vertexium.accumulo.util;
 
 import com.google.common.collect.ImmutableSet;
 import org.apache.hadoop.io.Text;
+import org.vertexium.AdjacentEdge;
+import org.vertexium.AdjacentEdgeImpl;
+import org.vertexium.Direction;
 import org.vertexium.FetchHints;
 import org.vertexium.Property;
 import org.vertexium.Visibility;
@@ -187,6 +190,117 @@ public class DataInputStreamUtils {
         return edges;
     }
 
+    /**
+     * Decodes the edge refs of one direction written by {@link org.vertexium.accumulo.iterator.VertexEdgeRefIterator}.
+     */
+    public static void decodeAdjacentEdges(
+        DataInputStream in,
+        String vertexId,
+        Direction direction,
+        NameSubstitutionStrategy nameSubstitutionStrategy,
+        List<AdjacentEdge> results
+    ) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String label = nameSubstitutionStrategy.inflate(decodeString(in));
+            int edgeByLabelCount = in.readInt();
+            for (int edgeByLabelIndex = 0; edgeByLabelIndex < edgeByLabelCount; edgeByLabelIndex++) {
+                String edgeId = decodeString(in);
+                String otherVertexId = decodeString(in);
+                results.add(new AdjacentEdgeImpl(vertexId, edgeId, label, direction, otherVertexId));
+            }
+        }
+    }
+
+    public static void skipString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length > 0) {
+            skipFully(in, length);
+        }
+    }
+
+    public static void skipStringSet(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            skipString(in);
+        }
+    }
+
+    public static void skipMetadataEntries(DataInputStream in) throws IOException {
+        int i = in.read();
+        if (i != ElementData.METADATA_START) {
+            throw new IOException(String.format("Unexpected metadata start: 0x%02x (expected: 0x%02x)", i, ElementData.METADATA_START));
+        }
+
+        int length = in.readInt();
+        for (i = 0; i < length; i++) {
+            skipString(in);
+            skipString(in);
+            skipFully(in, in.readInt());
+        }
+
+        i = in.read();
+        if (i != ElementData.METADATA_END) {
+            throw new IOException(String.format("Unexpected metadata end: 0x%02x (expected: 0x%02x)", i, ElementData.METADATA_END));
+        }
+    }
+
+    public static void skipProperties(DataInputStream in) throws IOException {
+        while (true) {
+            int propId = in.read();
+            if (propId == ElementData.PROP_END) {
+                break;
+            } else if (propId != ElementData.PROP_START) {
+                throw new IOException("Unexpected prop id: " + propId);
+            }
+            skipString(in);
+            skipString(in);
+            skipString(in);
+            skipFully(in, Long.BYTES);
+            skipFully(in, in.readInt());
+            skipStringSet(in);
+            int metadataIndexCount = in.readInt();
+            if (metadataIndexCount > 0) {
+                skipFully(in, metadataIndexCount * Integer.BYTES);
+            }
+        }
+    }
+
+    public static void skipEdges(DataInputStream in, FetchHints fetchHints) throws IOException {
+        int edgeLabelMarker = in.readByte();
+        if (edgeLabelMarker == DataOutputStreamUtils.EDGE_LABEL_WITH_REFS_MARKER) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                skipString(in);
+                int edgeByLabelCount = in.readInt();
+                for (int edgeByLabelIndex = 0; edgeByLabelIndex < edgeByLabelCount; edgeByLabelIndex++) {
+                    if (fetchHints.isIncludeEdgeIds()) {
+                        skipString(in);
+                    }
+                    skipFully(in, Long.BYTES);
+                    if (fetchHints.isIncludeEdgeVertexIds()) {
+                        skipString(in);
+                    }
+                }
+            }
+        } else if (edgeLabelMarker == DataOutputStreamUtils.EDGE_LABEL_ONLY_MARKER) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                skipString(in);
+                skipFully(in, Integer.BYTES);
+            }
+        } else {
+            throw new IOException("Unexpected edge label marker: " + edgeLabelMarker);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int skipped = in.skipBytes(length);
+        if (skipped != length) {
+            throw new IOException("Unexpected data length expected " + length + " found " + skipped);
+        }
+    }
+
     public static DataInputStream decodeHeader(InputStream in, byte expectedTypeId) throws IOException {
         byte[] header = new byte[ElementData.HEADER.length];
         int read = in.read(header);
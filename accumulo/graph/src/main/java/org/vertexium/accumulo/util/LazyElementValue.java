@@ -0,0 +1,210 @@
+package org.vertexium.accumulo.util;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.accumulo.core.data.Value;
+import org.vertexium.FetchHints;
+import org.vertexium.Property;
+import org.vertexium.VertexiumException;
+import org.vertexium.Visibility;
+import org.vertexium.accumulo.AccumuloGraph;
+import org.vertexium.accumulo.MetadataEntry;
+import org.vertexium.accumulo.iterator.model.Edges;
+import org.vertexium.accumulo.iterator.model.ElementData;
+import org.vertexium.id.NameSubstitutionStrategy;
+import org.vertexium.util.IOUtils;
+import org.xerial.snappy.SnappyInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An element value returned by the vertex and edge iterators which is decoded a section at a time, the first time
+ * the section is needed. Only the id, timestamp and visibility are decoded up front. The other sections are read
+ * straight out of the value's bytes, which are only copied if the value was compressed, so reading the id or a
+ * single property of a vertex does not decode its properties' metadata or its edges.
+ * <p>
+ * The offset of a section is found by skipping over the sections before it, which does not allocate.
+ */
+public class LazyElementValue {
+    private final byte[] data;
+    private final FetchHints fetchHints;
+    private final String id;
+    private final long timestamp;
+    private final Visibility visibility;
+    private final int[] sectionOffsets = new int[Section.values().length];
+    private int lastFoundSectionIndex;
+
+    public LazyElementValue(Value value, byte expectedTypeId, FetchHints fetchHints) throws IOException {
+        this.data = decodeHeader(value.get(), expectedTypeId);
+        this.fetchHints = fetchHints;
+
+        PositionedByteArrayInputStream bain = new PositionedByteArrayInputStream(data, ElementData.HEADER.length + 1);
+        DataInputStream in = new DataInputStream(bain);
+        this.id = DataInputStreamUtils.decodeString(in);
+        this.timestamp = in.readLong();
+        this.visibility = new Visibility(DataInputStreamUtils.decodeString(in));
+        this.sectionOffsets[0] = bain.getPosition();
+        this.lastFoundSectionIndex = 0;
+    }
+
+    private static byte[] decodeHeader(byte[] data, byte expectedTypeId) throws IOException {
+        int headerLength = ElementData.HEADER.length;
+        if (data.length < headerLength + 1) {
+            throw new IOException("Unexpected header length. Expected " + headerLength + " found " + data.length);
+        }
+        if (startsWith(data, ElementData.SNAPPY_HEADER)) {
+            ByteArrayInputStream compressed = new ByteArrayInputStream(data, headerLength, data.length - headerLength);
+            return decodeHeader(IOUtils.toBytes(new SnappyInputStream(compressed)), expectedTypeId);
+        }
+        if (!startsWith(data, ElementData.HEADER)) {
+            throw new IOException("Unexpected header");
+        }
+        int typeId = data[headerLength];
+        if (typeId != expectedTypeId) {
+            throw new IOException("Unexpected type id. Expected " + expectedTypeId + " found " + typeId);
+        }
+        return data;
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Visibility getVisibility() {
+        return visibility;
+    }
+
+    public ImmutableSet<Visibility> decodeHiddenVisibilities() throws IOException {
+        DataInputStream in = openSection(Section.HIDDEN_VISIBILITIES);
+        int count = in.readInt();
+        if (count <= 0) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<Visibility> results = ImmutableSet.builder();
+        for (int i = 0; i < count; i++) {
+            results.add(new Visibility(DataInputStreamUtils.decodeString(in)));
+        }
+        return results.build();
+    }
+
+    public ImmutableSet<String> decodeAdditionalVisibilities() throws IOException {
+        return DataInputStreamUtils.decodeStringSet(openSection(Section.ADDITIONAL_VISIBILITIES));
+    }
+
+    /**
+     * The properties are decoded, along with the metadata they refer to, each time the returned iterable is
+     * iterated.
+     */
+    public Iterable<Property> getProperties(AccumuloGraph graph) {
+        return new Iterable<Property>() {
+            @Override
+            public Iterator<Property> iterator() {
+                try {
+                    DataInputStream in = openSection(Section.PROPERTIES);
+                    List<MetadataEntry> metadataEntries = DataInputStreamUtils.decodeMetadataEntries(in);
+                    return DataInputStreamUtils.decodeProperties(graph, in, metadataEntries, fetchHints).iterator();
+                } catch (IOException ex) {
+                    throw new VertexiumException("Could not read properties of element: " + id, ex);
+                }
+            }
+        };
+    }
+
+    public ImmutableSet<String> decodeExtendedDataTableNames() throws IOException {
+        return DataInputStreamUtils.decodeStringSet(openSection(Section.EXTENDED_DATA_TABLE_NAMES));
+    }
+
+    public Edges decodeOutEdges(NameSubstitutionStrategy nameSubstitutionStrategy) throws IOException {
+        return DataInputStreamUtils.decodeEdges(openSection(Section.ELEMENT_TYPE_DATA), nameSubstitutionStrategy, fetchHints);
+    }
+
+    public Edges decodeInEdges(NameSubstitutionStrategy nameSubstitutionStrategy) throws IOException {
+        return DataInputStreamUtils.decodeEdges(openSection(Section.IN_EDGES), nameSubstitutionStrategy, fetchHints);
+    }
+
+    /**
+     * Opens a stream over the value starting at the given section, for an edge the
+     * {@link Section#ELEMENT_TYPE_DATA} section holds the in vertex id, out vertex id and label.
+     */
+    public DataInputStream openSection(Section section) throws IOException {
+        int offset = getSectionOffset(section);
+        return new DataInputStream(new ByteArrayInputStream(data, offset, data.length - offset));
+    }
+
+    private synchronized int getSectionOffset(Section section) throws IOException {
+        int sectionIndex = section.ordinal();
+        if (sectionIndex > lastFoundSectionIndex) {
+            PositionedByteArrayInputStream bain = new PositionedByteArrayInputStream(data, sectionOffsets[lastFoundSectionIndex]);
+            DataInputStream in = new DataInputStream(bain);
+            while (lastFoundSectionIndex < sectionIndex) {
+                skipSection(in, Section.values()[lastFoundSectionIndex]);
+                lastFoundSectionIndex++;
+                sectionOffsets[lastFoundSectionIndex] = bain.getPosition();
+            }
+        }
+        return sectionOffsets[sectionIndex];
+    }
+
+    private void skipSection(DataInputStream in, Section section) throws IOException {
+        switch (section) {
+            case HIDDEN_VISIBILITIES:
+            case ADDITIONAL_VISIBILITIES:
+            case EXTENDED_DATA_TABLE_NAMES:
+                DataInputStreamUtils.skipStringSet(in);
+                break;
+            case PROPERTIES:
+                DataInputStreamUtils.skipMetadataEntries(in);
+                DataInputStreamUtils.skipProperties(in);
+                break;
+            case ELEMENT_TYPE_DATA:
+                DataInputStreamUtils.skipEdges(in, fetchHints);
+                break;
+            default:
+                throw new VertexiumException("Cannot skip section: " + section);
+        }
+    }
+
+    /**
+     * The sections of an encoded element in the order they are written by {@link ElementData}.
+     */
+    public enum Section {
+        HIDDEN_VISIBILITIES,
+        ADDITIONAL_VISIBILITIES,
+        PROPERTIES,
+        EXTENDED_DATA_TABLE_NAMES,
+        /**
+         * The out edges of a vertex or the in vertex id, out vertex id and label of an edge
+         */
+        ELEMENT_TYPE_DATA,
+        /**
+         * The in edges of a vertex
+         */
+        IN_EDGES
+    }
+
+    private static class PositionedByteArrayInputStream extends ByteArrayInputStream {
+        PositionedByteArrayInputStream(byte[] buf, int offset) {
+            super(buf, offset, buf.length - offset);
+        }
+
+        int getPosition() {
+            return pos;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.vertexium.accumulo;
+
+import com.google.common.collect.Lists;
+import org.apache.accumulo.core.data.Value;
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.vertexium.accumulo.IteratorValueTestUtils.*;
+
+public class AccumuloElementFromIteratorValueTest {
+    private AccumuloGraph graph;
+    private Authorizations authorizations;
+
+    @Before
+    public void before() {
+        graph = createMockGraph();
+        authorizations = new AccumuloAuthorizations();
+    }
+
+    @Test
+    public void testVertex() throws IOException {
+        testVertex(false);
+    }
+
+    @Test
+    public void testCompressedVertex() throws IOException {
+        testVertex(true);
+    }
+
+    private void testVertex(boolean compress) throws IOException {
+        Value value = encodeVertex("v1", 3, 10, FetchHints.ALL, compress);
+        Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, null, value, FetchHints.ALL, authorizations);
+
+        assertEquals("v1", vertex.getId());
+        assertEquals(1L, vertex.getTimestamp());
+        assertEquals(new Visibility(""), vertex.getVisibility());
+        assertEquals(0, Lists.newArrayList(vertex.getHiddenVisibilities()).size());
+        assertEquals(0, vertex.getAdditionalVisibilities().size());
+        assertEquals("value1", vertex.getPropertyValue(PROPERTY_KEY, PROPERTY_NAME_PREFIX + 1));
+        assertEquals(3, Lists.newArrayList(vertex.getProperties()).size());
+        assertEquals("user1", vertex.getProperty(PROPERTY_NAME_PREFIX + 2).getMetadata().getValue(METADATA_KEY));
+        assertTrue(vertex.getExtendedDataTableNames().contains("table1"));
+
+        List<String> inEdgeIds = Lists.newArrayList(vertex.getEdgeIds(Direction.IN, authorizations));
+        assertEquals(10, inEdgeIds.size());
+        assertTrue(inEdgeIds.contains("v1-in-7"));
+        List<String> outVertexIds = Lists.newArrayList(vertex.getVertexIds(Direction.OUT, EDGE_LABEL_PREFIX + 2, authorizations));
+        assertEquals(Lists.newArrayList("v2", "v7"), outVertexIds);
+        EdgesSummary edgesSummary = vertex.getEdgesSummary(authorizations);
+        assertEquals(10, edgesSummary.getCountOfOutEdges());
+        assertEquals(10, edgesSummary.getCountOfInEdges());
+    }
+
+    @Test
+    public void testVertexWithEdgeLabelsOnly() throws IOException {
+        FetchHints fetchHints = new FetchHintsBuilder()
+            .setIncludeAllProperties(true)
+            .setIncludeEdgeLabelsAndCounts(true)
+            .build();
+        Value value = encodeVertex("v1", 3, 10, fetchHints, false);
+        Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, null, value, fetchHints, authorizations);
+
+        assertEquals("value0", vertex.getPropertyValue(PROPERTY_NAME_PREFIX + 0));
+        EdgesSummary edgesSummary = vertex.getEdgesSummary(authorizations);
+        assertEquals(2, (int) edgesSummary.getOutEdgeCountsByLabels().get(EDGE_LABEL_PREFIX + 0));
+        assertEquals(10, edgesSummary.getCountOfInEdges());
+    }
+
+    @Test
+    public void testEdge() throws IOException {
+        Value value = encodeEdge("e1", "v1", "v2", "label1", 2, FetchHints.ALL, true);
+        Edge edge = AccumuloEdge.createFromIteratorValue(graph, null, value, FetchHints.ALL, authorizations);
+
+        assertEquals("e1", edge.getId());
+        assertEquals("v1", edge.getVertexId(Direction.OUT));
+        assertEquals("v2", edge.getVertexId(Direction.IN));
+        assertEquals("label1", edge.getLabel());
+        assertEquals("value1", edge.getPropertyValue(PROPERTY_NAME_PREFIX + 1));
+        assertTrue(edge.getExtendedDataTableNames().contains("table1"));
+    }
+}
@@ -74,6 +74,12 @@ public abstract class AccumuloGraphTestBase extends GraphTestBase {
         return false;
     }
 
+    @Override
+    protected boolean isExactElementCountSupported() {
+        // counts signal rows so additional visibilities, hidden and soft deleted elements are not accounted for
+        return false;
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testDefinePropertiesMultipleGraphs() {
@@ -0,0 +1,143 @@
+package org.vertexium.accumulo;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.vertexium.FetchHints;
+import org.vertexium.JavaVertexiumSerializer;
+import org.vertexium.VertexiumSerializer;
+import org.vertexium.accumulo.iterator.model.*;
+import org.vertexium.id.IdentityNameSubstitutionStrategy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Builds the values the vertex and edge iterators return, so decoding them can be tested without running Accumulo.
+ */
+public class IteratorValueTestUtils {
+    public static final String EDGE_LABEL_PREFIX = "label";
+    public static final String PROPERTY_NAME_PREFIX = "prop";
+    public static final String PROPERTY_KEY = "k1";
+    public static final String METADATA_KEY = "modifiedBy";
+    private static final VertexiumSerializer SERIALIZER = new JavaVertexiumSerializer();
+
+    public static AccumuloGraph createMockGraph() {
+        AccumuloGraph graph = mock(AccumuloGraph.class);
+        when(graph.getNameSubstitutionStrategy()).thenReturn(new AccumuloNameSubstitutionStrategy(new IdentityNameSubstitutionStrategy()));
+        when(graph.getVertexiumSerializer()).thenReturn(SERIALIZER);
+        return graph;
+    }
+
+    /**
+     * Creates a vertex with properties named prop0, prop1, ... each with a value of "value" plus the property index
+     * and an out and an in edge to vertex v0, v1, ... for each edge index, with labels spread across label0 to
+     * label4.
+     */
+    public static Value encodeVertex(String vertexId, int propertyCount, int edgeCount, FetchHints fetchHints, boolean compress) throws IOException {
+        VertexElementData elementData = new VertexElementData();
+        elementData.clear(new EdgeLabels());
+        populateElementData(elementData, vertexId, propertyCount);
+        for (int i = 0; i < edgeCount; i++) {
+            String label = EDGE_LABEL_PREFIX + (i % 5);
+            String otherVertexId = "v" + i;
+            elementData.outEdges.add(
+                new Text(vertexId + "-out-" + i),
+                new IteratorEdgeInfo(elementData.outEdges.getEdgeLabels(), encodeEdgeInfo(label, otherVertexId), i)
+            );
+            elementData.inEdges.add(
+                new Text(vertexId + "-in-" + i),
+                new IteratorEdgeInfo(elementData.inEdges.getEdgeLabels(), encodeEdgeInfo(label, otherVertexId), i)
+            );
+        }
+        return elementData.encode(toIteratorFetchHints(fetchHints), compress);
+    }
+
+    public static Value encodeEdge(String edgeId, String outVertexId, String inVertexId, String label, int propertyCount, FetchHints fetchHints, boolean compress) throws IOException {
+        EdgeElementData elementData = new EdgeElementData();
+        elementData.clear(new EdgeLabels());
+        populateElementData(elementData, edgeId, propertyCount);
+        elementData.outVertexId = new Text(outVertexId);
+        elementData.inVertexId = new Text(inVertexId);
+        elementData.label = new Text(label);
+        return elementData.encode(toIteratorFetchHints(fetchHints), compress);
+    }
+
+    private static void populateElementData(ElementData elementData, String id, int propertyCount) {
+        ByteSequence visibility = new ArrayByteSequence("");
+        elementData.id = new Text(id);
+        elementData.timestamp = 1L;
+        elementData.visibility = new Text("");
+        elementData.extendedTableNames.add("table1");
+        elementData.metadataEntries.add(new IteratorMetadataEntry(
+            new ArrayByteSequence(METADATA_KEY),
+            visibility,
+            SERIALIZER.objectToBytes("user1")
+        ));
+        for (int i = 0; i < propertyCount; i++) {
+            ArrayByteSequence propertyName = new ArrayByteSequence(PROPERTY_NAME_PREFIX + i);
+            ArrayByteSequence propertyKey = new ArrayByteSequence(PROPERTY_KEY);
+            ByteSequence mapKey = KeyBaseByteSequence.getDiscriminator(propertyName, propertyKey, visibility, i);
+            ByteSequence columnQualifier = new ArrayByteSequence(PROPERTY_NAME_PREFIX + i + KeyBase.VALUE_SEPARATOR + PROPERTY_KEY);
+            elementData.propertyColumnQualifiers.put(mapKey, new PropertyColumnQualifierByteSequence(columnQualifier));
+            elementData.propertyValues.put(mapKey, SERIALIZER.objectToBytes("value" + i));
+            elementData.propertyVisibilities.put(mapKey, visibility);
+            elementData.propertyTimestamps.put(mapKey, (long) i);
+            elementData.propertyMetadata.put(mapKey, Collections.singletonList(0));
+        }
+    }
+
+    private static byte[] encodeEdgeInfo(String label, String vertexId) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            byte[] labelBytes = label.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(labelBytes.length);
+            out.write(labelBytes);
+            byte[] vertexIdBytes = vertexId.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(vertexIdBytes.length);
+            out.write(vertexIdBytes);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not encode edge info", ex);
+        }
+    }
+
+    private static IteratorFetchHints toIteratorFetchHints(FetchHints fetchHints) {
+        return new IteratorFetchHints(
+            fetchHints.isIncludeAllProperties(),
+            toByteSequences(fetchHints.getPropertyNamesToInclude()),
+            fetchHints.isIncludeAllPropertyMetadata(),
+            toByteSequences(fetchHints.getMetadataKeysToInclude()),
+            fetchHints.isIncludeHidden(),
+            fetchHints.isIncludeAllEdgeRefs(),
+            fetchHints.isIncludeOutEdgeRefs(),
+            fetchHints.isIncludeInEdgeRefs(),
+            fetchHints.isIncludeEdgeIds(),
+            fetchHints.isIncludeEdgeVertexIds(),
+            fetchHints.isIgnoreAdditionalVisibilities(),
+            fetchHints.getEdgeLabelsOfEdgeRefsToInclude(),
+            fetchHints.getOtherVertexIdsOfEdgeRefsToInclude(),
+            fetchHints.isIncludeEdgeLabelsAndCounts(),
+            fetchHints.isIncludeExtendedDataTableNames(),
+            fetchHints.isIncludePreviousMetadata()
+        );
+    }
+
+    private static ImmutableSet<ByteSequence> toByteSequences(ImmutableSet<String> strings) {
+        if (strings == null) {
+            return null;
+        }
+        return ImmutableSet.copyOf(strings.stream().map(ArrayByteSequence::new).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,103 @@
+package org.vertexium.accumulo.benchmark;
+
+import org.apache.accumulo.core.data.Value;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.vertexium.*;
+import org.vertexium.accumulo.AccumuloAuthorizations;
+import org.vertexium.accumulo.AccumuloGraph;
+import org.vertexium.accumulo.AccumuloVertex;
+import org.vertexium.accumulo.MetadataEntry;
+import org.vertexium.accumulo.iterator.model.ElementData;
+import org.vertexium.accumulo.util.DataInputStreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.vertexium.accumulo.IteratorValueTestUtils.*;
+
+/**
+ * Compares creating a vertex from an iterator value, which only decodes the sections of the value which are read,
+ * against decoding every section of the value up front, for vertices with thousands of edges.
+ * <p>
+ * Run the main method using the accumulo module's test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IteratorValueDecodeBenchmark {
+    @Param({"1000", "10000"})
+    public int edgeCount;
+
+    @Param({"false", "true"})
+    public boolean compress;
+
+    public int propertyCount = 20;
+
+    private AccumuloGraph graph;
+    private Authorizations authorizations;
+    private Value value;
+
+    @Setup
+    public void setup() throws IOException {
+        graph = createMockGraph();
+        authorizations = new AccumuloAuthorizations();
+        value = encodeVertex("v1", propertyCount, edgeCount, FetchHints.ALL, compress);
+    }
+
+    @Benchmark
+    public void lazyId(Blackhole blackhole) {
+        Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, null, value, FetchHints.ALL, authorizations);
+        blackhole.consume(vertex.getId());
+    }
+
+    @Benchmark
+    public void lazySingleProperty(Blackhole blackhole) {
+        Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, null, value, FetchHints.ALL, authorizations);
+        blackhole.consume(vertex.getPropertyValue(PROPERTY_NAME_PREFIX + 0));
+    }
+
+    @Benchmark
+    public void lazyEdgeIds(Blackhole blackhole) {
+        Vertex vertex = AccumuloVertex.createFromIteratorValue(graph, null, value, FetchHints.ALL, authorizations);
+        for (String edgeId : vertex.getEdgeIds(Direction.BOTH, authorizations)) {
+            blackhole.consume(edgeId);
+        }
+    }
+
+    /**
+     * Decodes every section of the value the way vertices were created before sections were decoded lazily.
+     */
+    @Benchmark
+    public void eager(Blackhole blackhole) throws IOException {
+        try (DataInputStream in = DataInputStreamUtils.decodeHeader(new ByteArrayInputStream(value.get()), ElementData.TYPE_ID_VERTEX)) {
+            blackhole.consume(DataInputStreamUtils.decodeString(in));
+            blackhole.consume(in.readLong());
+            blackhole.consume(new Visibility(DataInputStreamUtils.decodeString(in)));
+            blackhole.consume(DataInputStreamUtils.decodeStringSet(in));
+            blackhole.consume(DataInputStreamUtils.decodeStringSet(in));
+            List<MetadataEntry> metadataEntries = DataInputStreamUtils.decodeMetadataEntries(in);
+            blackhole.consume(DataInputStreamUtils.decodeProperties(graph, in, metadataEntries, FetchHints.ALL));
+            blackhole.consume(DataInputStreamUtils.decodeStringSet(in));
+            blackhole.consume(DataInputStreamUtils.decodeEdges(in, graph.getNameSubstitutionStrategy(), FetchHints.ALL));
+            blackhole.consume(DataInputStreamUtils.decodeEdges(in, graph.getNameSubstitutionStrategy(), FetchHints.ALL));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(IteratorValueDecodeBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
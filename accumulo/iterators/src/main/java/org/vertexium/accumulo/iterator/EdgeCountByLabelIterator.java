@@ -0,0 +1,19 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+
+/**
+ * Counts edges grouped by edge label, which is the column qualifier of the newest signal column of the edge. The scan
+ * should only fetch the signal column family of the edge table.
+ */
+public class EdgeCountByLabelIterator extends GroupCountingIterator {
+    @Override
+    protected ByteSequence getGroup(Key key, Value value) {
+        if (isSignalValueDeleted(value)) {
+            return null;
+        }
+        return key.getColumnQualifierData();
+    }
+}
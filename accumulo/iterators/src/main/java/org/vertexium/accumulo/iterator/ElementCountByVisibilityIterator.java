@@ -0,0 +1,19 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+
+/**
+ * Counts vertices or edges grouped by the column visibility of their newest signal column. The scan should only
+ * fetch the signal column family of the table.
+ */
+public class ElementCountByVisibilityIterator extends GroupCountingIterator {
+    @Override
+    protected ByteSequence getGroup(Key key, Value value) {
+        if (isSignalValueDeleted(value)) {
+            return null;
+        }
+        return key.getColumnVisibilityData();
+    }
+}
@@ -9,6 +9,7 @@ import org.apache.accumulo.core.iterators.user.RowDeletingIterator;
 import org.apache.hadoop.io.Text;
 import org.vertexium.accumulo.iterator.model.*;
 import org.vertexium.accumulo.iterator.util.OptionsUtils;
+import org.vertexium.accumulo.iterator.util.SetOfStringsEncoder;
 import org.vertexium.security.Authorizations;
 import org.vertexium.security.ColumnVisibility;
 import org.vertexium.security.VisibilityEvaluator;
@@ -185,12 +186,16 @@ public abstract class ElementIterator<T extends ElementData> implements SortedKe
             Text currentRow = loadElement();
             if (currentRow != null) {
                 topKey = new Key(currentRow);
-                topValue = elementData.encode(fetchHints, compressTransfer);
+                topValue = encodeElementData();
                 break;
             }
         }
     }
 
+    protected Value encodeElementData() throws IOException {
+        return elementData.encode(fetchHints, compressTransfer);
+    }
+
     protected Text loadElement() throws IOException {
         clearElementData();
 
@@ -452,6 +457,7 @@ public abstract class ElementIterator<T extends ElementData> implements SortedKe
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "includeInEdgeRefs", "true to include in edge refs");
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "ignoreAdditionalVisibilities", "true to ignore additional visibilities");
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "edgeLabelsOfEdgeRefsToInclude", "Set of edge labels to include separated by \\u001f");
+        namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "otherVertexIdsOfEdgeRefsToInclude", "Set of vertex ids of the other side of the edge refs to include encoded with SetOfStringsEncoder");
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "includeEdgeLabelsAndCounts", "true to include edge labels with counts");
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "includeExtendedDataTableNames", "true to include extended data table names");
         namedOptions.put(SETTING_FETCH_HINTS_PREFIX + "includePreviousMetadata", "true to include metadata from previous property values");
@@ -481,6 +487,7 @@ public abstract class ElementIterator<T extends ElementData> implements SortedKe
             Boolean.parseBoolean(options.get(SETTING_FETCH_HINTS_PREFIX + "includeEdgeVertexIds")),
             Boolean.parseBoolean(options.get(SETTING_FETCH_HINTS_PREFIX + "ignoreAdditionalVisibilities")),
             OptionsUtils.parseSet(options.get(SETTING_FETCH_HINTS_PREFIX + "edgeLabelsOfEdgeRefsToInclude")),
+            parseOtherVertexIds(options.get(SETTING_FETCH_HINTS_PREFIX + "otherVertexIdsOfEdgeRefsToInclude")),
             Boolean.parseBoolean(options.get(SETTING_FETCH_HINTS_PREFIX + "includeEdgeLabelsAndCounts")),
             Boolean.parseBoolean(options.get(SETTING_FETCH_HINTS_PREFIX + "includeExtendedDataTableNames")),
             Boolean.parseBoolean(options.get(SETTING_FETCH_HINTS_PREFIX + "includePreviousMetadata"))
@@ -512,11 +519,21 @@ public abstract class ElementIterator<T extends ElementData> implements SortedKe
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "includeEdgeVertexIds", Boolean.toString(fetchHints.isIncludeEdgeVertexIds()));
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "ignoreAdditionalVisibilities", Boolean.toString(fetchHints.isIgnoreAdditionalVisibilities()));
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "edgeLabelsOfEdgeRefsToInclude", OptionsUtils.setToString(fetchHints.getEdgeLabelsOfEdgeRefsToInclude()));
+        if (fetchHints.getOtherVertexIdsOfEdgeRefsToInclude() != null) {
+            OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "otherVertexIdsOfEdgeRefsToInclude", SetOfStringsEncoder.encodeToString(fetchHints.getOtherVertexIdsOfEdgeRefsToInclude()));
+        }
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "includeEdgeLabelsAndCounts", Boolean.toString(fetchHints.isIncludeEdgeLabelsAndCounts()));
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "includeExtendedDataTableNames", Boolean.toString(fetchHints.isIncludeExtendedDataTableNames()));
         OptionsUtils.addOption(iteratorSettings, SETTING_FETCH_HINTS_PREFIX + "includePreviousMetadata", Boolean.toString(fetchHints.isIncludePreviousMetadata()));
     }
 
+    private static Set<String> parseOtherVertexIds(String str) {
+        if (str == null) {
+            return null;
+        }
+        return SetOfStringsEncoder.decodeFromString(str);
+    }
+
     public static void setAuthorizations(IteratorSetting iteratorSettings, String[] authorizations) {
         iteratorSettings.addOption("authorizations", String.join("\u001f", authorizations));
     }
@@ -0,0 +1,25 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.vertexium.accumulo.iterator.model.KeyBaseByteSequence;
+import org.vertexium.accumulo.iterator.util.ByteSequenceUtils;
+
+/**
+ * Counts the rows of the extended data table grouped by table name. Extended data row keys are made of the element
+ * type prefix, the element id, the table name and the row id, so the table name is found between the first two
+ * value separators.
+ */
+public class ExtendedDataRowCountByTableNameIterator extends GroupCountingIterator {
+    @Override
+    protected ByteSequence getGroup(Key key, Value value) {
+        ByteSequence row = key.getRowData();
+        int tableNameStart = ByteSequenceUtils.indexOf(row, KeyBaseByteSequence.VALUE_SEPARATOR) + 1;
+        int tableNameEnd = ByteSequenceUtils.indexOf(row, KeyBaseByteSequence.VALUE_SEPARATOR, tableNameStart);
+        if (tableNameStart <= 0 || tableNameEnd < 0) {
+            return null;
+        }
+        return ByteSequenceUtils.subSequence(row, tableNameStart, tableNameEnd);
+    }
+}
@@ -0,0 +1,144 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.vertexium.accumulo.iterator.model.VertexiumAccumuloIteratorException;
+import org.vertexium.accumulo.iterator.util.ArrayUtils;
+import org.vertexium.accumulo.iterator.util.DataOutputStreamUtils;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the rows of the range it is seeked to, grouped by a value taken from the newest entry of each row, and
+ * returns all of the counts as a single entry keyed by the last key read. Like {@link ElementIterator} does with
+ * signal columns, an entry only replaces the group of its row if it is newer than the entry which set it, so an
+ * edge whose label was altered is only counted with its latest label. Each tablet of a batch scan is counted on its
+ * own tablet server and the client adds up the counts of each group with {@link #decodeCounts(Value, Map)}.
+ */
+public abstract class GroupCountingIterator implements SortedKeyValueIterator<Key, Value> {
+    private SortedKeyValueIterator<Key, Value> source;
+    private Key topKey;
+    private Value topValue;
+
+    @Override
+    public void init(SortedKeyValueIterator<Key, Value> source, Map<String, String> options, IteratorEnvironment env) throws IOException {
+        this.source = source;
+    }
+
+    @Override
+    public boolean hasTop() {
+        return topKey != null;
+    }
+
+    @Override
+    public void next() throws IOException {
+        topKey = null;
+        topValue = null;
+    }
+
+    @Override
+    public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+        topKey = null;
+        topValue = null;
+        source.seek(range, columnFamilies, inclusive);
+
+        Map<ByteSequence, Long> counts = new HashMap<>();
+        Key lastKey = null;
+        ByteSequence row = null;
+        ByteSequence rowGroup = null;
+        long rowGroupTimestamp = 0;
+        while (source.hasTop()) {
+            lastKey = source.getTopKey();
+            if (row == null || !row.equals(lastKey.getRowData())) {
+                countRow(counts, rowGroup);
+                // the row and the group may share their bytes with the key which the source is free to reuse
+                row = new ArrayByteSequence(lastKey.getRowData().toArray());
+                rowGroup = null;
+                rowGroupTimestamp = 0;
+            }
+            if (lastKey.getTimestamp() > rowGroupTimestamp) {
+                ByteSequence group = getGroup(lastKey, source.getTopValue());
+                if (group == null) {
+                    rowGroup = null;
+                    rowGroupTimestamp = 0;
+                } else {
+                    rowGroup = new ArrayByteSequence(group.toArray());
+                    rowGroupTimestamp = lastKey.getTimestamp();
+                }
+            }
+            source.next();
+        }
+        countRow(counts, rowGroup);
+        if (lastKey != null) {
+            topKey = new Key(lastKey);
+            topValue = encodeCounts(counts);
+        }
+    }
+
+    private static void countRow(Map<ByteSequence, Long> counts, ByteSequence rowGroup) {
+        if (rowGroup != null) {
+            counts.merge(rowGroup, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * @return the group the row of the entry is counted in, or null if the entry, such as a deleted signal, means
+     * the row should not be counted
+     */
+    protected abstract ByteSequence getGroup(Key key, Value value);
+
+    protected static boolean isSignalValueDeleted(Value value) {
+        return ArrayUtils.startsWith(value.get(), ElementIterator.SIGNAL_VALUE_DELETED.get());
+    }
+
+    @Override
+    public Key getTopKey() {
+        return topKey;
+    }
+
+    @Override
+    public Value getTopValue() {
+        return topValue;
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(IteratorEnvironment env) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static Value encodeCounts(Map<ByteSequence, Long> counts) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(byteArrayOutputStream);
+        out.writeInt(counts.size());
+        for (Map.Entry<ByteSequence, Long> entry : counts.entrySet()) {
+            DataOutputStreamUtils.encodeByteSequence(out, entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        return new Value(byteArrayOutputStream.toByteArray());
+    }
+
+    /**
+     * Adds the counts of an entry returned by this iterator to the results.
+     */
+    public static void decodeCounts(Value value, Map<String, Long> results) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value.get()));
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] group = new byte[in.readInt()];
+                in.readFully(group);
+                results.merge(new String(group, DataOutputStreamUtils.CHARSET), in.readLong(), Long::sum);
+            }
+        } catch (IOException ex) {
+            throw new VertexiumAccumuloIteratorException("Could not decode counts", ex);
+        }
+    }
+}
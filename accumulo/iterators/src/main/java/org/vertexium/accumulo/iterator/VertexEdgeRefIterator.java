@@ -0,0 +1,66 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.vertexium.accumulo.iterator.model.IteratorEdgesWithEdgeInfo;
+import org.vertexium.accumulo.iterator.model.IteratorFetchHints;
+import org.vertexium.accumulo.iterator.util.DataOutputStreamUtils;
+import org.vertexium.security.Authorizations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads vertices like {@link VertexIterator} but only returns their edge refs. The value of each vertex is the out
+ * edges followed by the in edges, each grouped by label with only the edge id and other vertex id of every edge.
+ * <p>
+ * The edge label fetch hint includes edges of the labels in either direction, so the direction is applied again when
+ * encoding to only return edges which match both the labels and the direction.
+ */
+public class VertexEdgeRefIterator extends VertexIterator {
+    public VertexEdgeRefIterator() {
+        super();
+    }
+
+    public VertexEdgeRefIterator(
+        SortedKeyValueIterator<Key, Value> source,
+        IteratorFetchHints fetchHints,
+        Authorizations authorizations
+    ) {
+        super(source, fetchHints, false, authorizations);
+    }
+
+    @Override
+    protected Value encodeElementData() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        encodeEdgeRefs(out, getElementData().outEdges, getFetchHints().isIncludeOutEdgeRefs());
+        encodeEdgeRefs(out, getElementData().inEdges, getFetchHints().isIncludeInEdgeRefs());
+        return new Value(baos.toByteArray());
+    }
+
+    private void encodeEdgeRefs(DataOutputStream out, IteratorEdgesWithEdgeInfo edges, boolean includeDirection) throws IOException {
+        if (!includeDirection && !getFetchHints().isIncludeAllEdgeRefs()) {
+            out.writeInt(0);
+            return;
+        }
+        DataOutputStreamUtils.encodeEdgeRefs(out, edges, getEdgeLabelIndicesOfEdgeRefsToInclude());
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key, Value> deepCopy(IteratorEnvironment env) {
+        return new VertexEdgeRefIterator(
+            getSourceIterator() == null ? null : getSourceIterator().deepCopy(env),
+            getFetchHints(),
+            getAuthorizations()
+        );
+    }
+
+    @Override
+    protected String getDescription() {
+        return "This iterator returns only the edge refs of a Vertex in a single Key/Value pair.";
+    }
+}
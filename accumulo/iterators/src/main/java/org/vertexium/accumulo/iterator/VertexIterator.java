@@ -9,10 +9,14 @@ import org.vertexium.accumulo.iterator.model.IteratorEdgeInfo;
 import org.vertexium.accumulo.iterator.model.IteratorFetchHints;
 import org.vertexium.accumulo.iterator.model.SoftDeleteEdgeInfo;
 import org.vertexium.accumulo.iterator.model.VertexElementData;
+import org.vertexium.accumulo.iterator.util.ByteArrayWrapper;
 import org.vertexium.security.Authorizations;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class VertexIterator extends ElementIterator<VertexElementData> {
     public static final String CF_SIGNAL_STRING = "V";
@@ -43,6 +47,8 @@ public class VertexIterator extends ElementIterator<VertexElementData> {
     public static final Text CF_IN_EDGE_SOFT_DELETE = new Text(CF_IN_EDGE_SOFT_DELETE_STRING);
     public static final byte[] CF_IN_EDGE_SOFT_DELETE_BYTES = CF_IN_EDGE_SOFT_DELETE.getBytes();
 
+    private Set<ByteArrayWrapper> otherVertexIdsOfEdgeRefsToInclude;
+
     public VertexIterator() {
         this(null, false, (String[]) null);
     }
@@ -143,6 +149,9 @@ public class VertexIterator extends ElementIterator<VertexElementData> {
     }
 
     private void processOutEdge(KeyValue keyValue) {
+        if (!isOtherVertexOfEdgeRefIncluded(keyValue)) {
+            return;
+        }
         IteratorEdgeInfo edgeInfo = new IteratorEdgeInfo(getElementData().edgeLabels, keyValue.peekValue().get(), keyValue.getTimestamp());
         if (shouldIncludeOutEdge(edgeInfo)) {
             Text edgeId = keyValue.takeColumnQualifier();
@@ -151,6 +160,9 @@ public class VertexIterator extends ElementIterator<VertexElementData> {
     }
 
     private void processInEdge(KeyValue keyValue) {
+        if (!isOtherVertexOfEdgeRefIncluded(keyValue)) {
+            return;
+        }
         IteratorEdgeInfo edgeInfo = new IteratorEdgeInfo(getElementData().edgeLabels, keyValue.peekValue().get(), keyValue.getTimestamp());
         if (shouldIncludeInEdge(edgeInfo)) {
             Text edgeId = keyValue.takeColumnQualifier();
@@ -158,6 +170,23 @@ public class VertexIterator extends ElementIterator<VertexElementData> {
         }
     }
 
+    /**
+     * Checks the other vertex id before the edge info is created so edges to other vertices are skipped without
+     * copying their vertex ids or adding their labels
+     */
+    private boolean isOtherVertexOfEdgeRefIncluded(KeyValue keyValue) {
+        Set<String> otherVertexIds = getFetchHints().getOtherVertexIdsOfEdgeRefsToInclude();
+        if (otherVertexIds == null) {
+            return true;
+        }
+        if (otherVertexIdsOfEdgeRefsToInclude == null) {
+            otherVertexIdsOfEdgeRefsToInclude = otherVertexIds.stream()
+                .map(vertexId -> new ByteArrayWrapper(vertexId.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toSet());
+        }
+        return otherVertexIdsOfEdgeRefsToInclude.contains(IteratorEdgeInfo.parseVertexIdBytes(keyValue.peekValue().get()));
+    }
+
     private boolean shouldIncludeOutEdge(IteratorEdgeInfo edgeInfo) {
         List<Integer> labelIndices = getEdgeLabelIndicesOfEdgeRefsToInclude();
         if (labelIndices != null && labelIndices.contains(edgeInfo.getLabelIndex())) {
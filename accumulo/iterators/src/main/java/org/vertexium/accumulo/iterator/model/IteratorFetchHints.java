@@ -21,6 +21,7 @@ public class IteratorFetchHints implements Serializable {
     private final boolean includeEdgeVertexIds;
     private final boolean ignoreAdditionalVisibilities;
     private final Set<String> edgeLabelsOfEdgeRefsToInclude;
+    private final Set<String> otherVertexIdsOfEdgeRefsToInclude;
     private final boolean includeEdgeLabelsAndCounts;
     private final boolean includeExtendedDataTableNames;
     private final boolean includePreviousMetadata;
@@ -38,6 +39,7 @@ public class IteratorFetchHints implements Serializable {
         this.includeEdgeVertexIds = true;
         this.ignoreAdditionalVisibilities = false;
         this.edgeLabelsOfEdgeRefsToInclude = null;
+        this.otherVertexIdsOfEdgeRefsToInclude = null;
         this.includeEdgeLabelsAndCounts = false;
         this.includeExtendedDataTableNames = false;
         this.includePreviousMetadata = false;
@@ -56,6 +58,7 @@ public class IteratorFetchHints implements Serializable {
         boolean includeEdgeVertexIds,
         boolean ignoreAdditionalVisibilities,
         Set<String> edgeLabelsOfEdgeRefsToInclude,
+        Set<String> otherVertexIdsOfEdgeRefsToInclude,
         boolean includeEdgeLabelsAndCounts,
         boolean includeExtendedDataTableNames,
         boolean includePreviousMetadata
@@ -72,6 +75,7 @@ public class IteratorFetchHints implements Serializable {
         this.includeEdgeVertexIds = includeEdgeVertexIds;
         this.ignoreAdditionalVisibilities = ignoreAdditionalVisibilities;
         this.edgeLabelsOfEdgeRefsToInclude = edgeLabelsOfEdgeRefsToInclude;
+        this.otherVertexIdsOfEdgeRefsToInclude = otherVertexIdsOfEdgeRefsToInclude;
         this.includeEdgeLabelsAndCounts = includeEdgeLabelsAndCounts;
         this.includeExtendedDataTableNames = includeExtendedDataTableNames;
         this.includePreviousMetadata = includePreviousMetadata;
@@ -121,6 +125,10 @@ public class IteratorFetchHints implements Serializable {
         return edgeLabelsOfEdgeRefsToInclude;
     }
 
+    public Set<String> getOtherVertexIdsOfEdgeRefsToInclude() {
+        return otherVertexIdsOfEdgeRefsToInclude;
+    }
+
     public boolean isIncludeEdgeLabelsAndCounts() {
         return includeEdgeLabelsAndCounts;
     }
@@ -152,6 +160,7 @@ public class IteratorFetchHints implements Serializable {
             ", includeEdgeVertexIds=" + includeEdgeVertexIds +
             ", ignoreAdditionalVisibilities=" + ignoreAdditionalVisibilities +
             ", edgeLabelsOfEdgeRefsToInclude=" + setToString(edgeLabelsOfEdgeRefsToInclude) +
+            ", otherVertexIdsOfEdgeRefsToInclude=" + setToString(otherVertexIdsOfEdgeRefsToInclude) +
             ", includeEdgeLabelsAndCounts=" + includeEdgeLabelsAndCounts +
             ", includeExtendedDataTableNames=" + includeExtendedDataTableNames +
             ", includePreviousMetadata=" + includePreviousMetadata +
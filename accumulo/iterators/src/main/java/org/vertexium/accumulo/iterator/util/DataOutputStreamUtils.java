@@ -151,6 +151,31 @@ public class DataOutputStreamUtils {
         }
     }
 
+    /**
+     * Encodes only the edge ids and other vertex ids of the edges, grouped by label.
+     *
+     * @param labelIndices the indices of the labels to include or null to include all labels
+     */
+    public static void encodeEdgeRefs(
+        DataOutputStream out,
+        IteratorEdgesWithEdgeInfo edges,
+        List<Integer> labelIndices
+    ) throws IOException {
+        Map<Integer, List<Map.Entry<Text, IteratorEdgeInfo>>> edgesByLabels = getEdgesByLabel(edges);
+        if (labelIndices != null) {
+            edgesByLabels.keySet().retainAll(labelIndices);
+        }
+        out.writeInt(edgesByLabels.size());
+        for (Map.Entry<Integer, List<Map.Entry<Text, IteratorEdgeInfo>>> entry : edgesByLabels.entrySet()) {
+            encodeByteArray(out, edges.getEdgeLabels().get(entry.getKey()));
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<Text, IteratorEdgeInfo> edgeEntry : entry.getValue()) {
+                encodeText(out, edgeEntry.getKey());
+                encodeByteArray(out, edgeEntry.getValue().getVertexIdBytes());
+            }
+        }
+    }
+
     private static Map<Integer, List<Map.Entry<Text, IteratorEdgeInfo>>> getEdgesByLabel(IteratorEdgesWithEdgeInfo edges) throws IOException {
         Map<Integer, List<Map.Entry<Text, IteratorEdgeInfo>>> edgesByLabels = new HashMap<>();
         for (Map.Entry<Text, IteratorEdgeInfo> edgeEntry : edges.getEntries()) {
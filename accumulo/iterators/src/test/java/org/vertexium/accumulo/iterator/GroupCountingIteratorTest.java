@@ -0,0 +1,55 @@
+package org.vertexium.accumulo.iterator;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class GroupCountingIteratorTest {
+    private static final Value EMPTY_VALUE = new Value(new byte[0]);
+
+    @Test
+    public void testCountsAlteredEdgeLabelOnce() throws IOException {
+        TreeMap<Key, Value> edges = createEdgesWithAlteredLabel();
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("label1", 1L);
+        expected.put("label2", 1L);
+        assertEquals(expected, count(new EdgeCountByLabelIterator(), edges));
+
+        expected = new HashMap<>();
+        expected.put("a", 1L);
+        expected.put("b", 1L);
+        assertEquals(expected, count(new ElementCountByVisibilityIterator(), edges));
+    }
+
+    private static TreeMap<Key, Value> createEdgesWithAlteredLabel() {
+        TreeMap<Key, Value> edges = new TreeMap<>();
+        // e1 was created with label2 and then altered to label1, the signal of label2 is not deleted
+        edges.put(new Key("e1", EdgeIterator.CF_SIGNAL_STRING, "label2", "a", 1L), EMPTY_VALUE);
+        edges.put(new Key("e1", EdgeIterator.CF_SIGNAL_STRING, "label1", "a", 2L), EMPTY_VALUE);
+        edges.put(new Key("e2", EdgeIterator.CF_SIGNAL_STRING, "label2", "b", 1L), EMPTY_VALUE);
+        edges.put(new Key("e3", EdgeIterator.CF_SIGNAL_STRING, "label1", "a", 3L), ElementIterator.SIGNAL_VALUE_DELETED);
+        return edges;
+    }
+
+    private static Map<String, Long> count(GroupCountingIterator iterator, TreeMap<Key, Value> entries) throws IOException {
+        iterator.init(new SortedMapIterator(entries), Collections.emptyMap(), null);
+        iterator.seek(new Range(), Collections.emptyList(), false);
+        Map<String, Long> results = new HashMap<>();
+        GroupCountingIterator.decodeCounts(iterator.getTopValue(), results);
+        iterator.next();
+        assertFalse(iterator.hasTop());
+        return results;
+    }
+}
@@ -0,0 +1,26 @@
+package org.vertexium;
+
+/**
+ * An edge attached to a vertex, as returned by {@link Graph#getAdjacentEdges(Iterable, Direction, String[], Long, Authorizations)}
+ * without loading the vertex or the edge.
+ */
+public interface AdjacentEdge {
+    /**
+     * @return the id of the vertex the edge was found on
+     */
+    String getVertexId();
+
+    String getEdgeId();
+
+    String getLabel();
+
+    /**
+     * @return the direction of the edge relative to {@link #getVertexId()}
+     */
+    Direction getDirection();
+
+    /**
+     * @return the id of the vertex on the other end of the edge
+     */
+    String getOtherVertexId();
+}
@@ -0,0 +1,90 @@
+package org.vertexium;
+
+public class AdjacentEdgeImpl implements AdjacentEdge {
+    private final String vertexId;
+    private final String edgeId;
+    private final String label;
+    private final Direction direction;
+    private final String otherVertexId;
+
+    public AdjacentEdgeImpl(String vertexId, String edgeId, String label, Direction direction, String otherVertexId) {
+        this.vertexId = vertexId;
+        this.edgeId = edgeId;
+        this.label = label;
+        this.direction = direction;
+        this.otherVertexId = otherVertexId;
+    }
+
+    @Override
+    public String getVertexId() {
+        return vertexId;
+    }
+
+    @Override
+    public String getEdgeId() {
+        return edgeId;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public Direction getDirection() {
+        return direction;
+    }
+
+    @Override
+    public String getOtherVertexId() {
+        return otherVertexId;
+    }
+
+    @Override
+    public String toString() {
+        return "AdjacentEdgeImpl{" +
+            "vertexId='" + vertexId + '\'' +
+            ", edgeId='" + edgeId + '\'' +
+            ", label='" + label + '\'' +
+            ", direction=" + direction +
+            ", otherVertexId='" + otherVertexId + '\'' +
+            '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || !(o instanceof AdjacentEdge)) {
+            return false;
+        }
+
+        AdjacentEdge that = (AdjacentEdge) o;
+
+        if (!vertexId.equals(that.getVertexId())) {
+            return false;
+        }
+        if (!edgeId.equals(that.getEdgeId())) {
+            return false;
+        }
+        if (!label.equals(that.getLabel())) {
+            return false;
+        }
+        if (direction != that.getDirection()) {
+            return false;
+        }
+        if (!otherVertexId.equals(that.getOtherVertexId())) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = vertexId.hashCode();
+        result = 31 * result + edgeId.hashCode();
+        result = 31 * result + direction.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package org.vertexium;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the elements of a graph grouped by the parts of their state which decide whether an element can be seen
+ * (visibility, additional visibilities and hidden visibilities), so that the number of elements a user can see is
+ * found by evaluating each distinct group against the user's authorizations instead of scanning every element.
+ * <p>
+ * A graph which keeps one of these up to date as elements are added, deleted, soft deleted, hidden or have their
+ * visibilities changed can return it from {@link GraphBase#getElementVisibilityCounts(ElementType)}. Deleted and
+ * soft deleted elements should not be counted.
+ */
+public class ElementVisibilityCounts {
+    private final Map<Key, Long> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Moves an element from one group to another.
+     *
+     * @param oldKey the previous state of the element, or null if it was not counted
+     * @param newKey the new state of the element, or null if it should no longer be counted
+     */
+    public void update(Key oldKey, Key newKey) {
+        if (Objects.equals(oldKey, newKey)) {
+            return;
+        }
+        if (oldKey != null) {
+            counts.merge(oldKey, -1L, (count, delta) -> count + delta <= 0 ? null : count + delta);
+        }
+        if (newKey != null) {
+            counts.merge(newKey, 1L, Long::sum);
+        }
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+
+    public long getCount(FetchHints fetchHints, Authorizations authorizations) {
+        long result = 0;
+        for (Map.Entry<Key, Long> entry : counts.entrySet()) {
+            if (entry.getKey().canRead(fetchHints, authorizations)) {
+                result += entry.getValue();
+            }
+        }
+        return result;
+    }
+
+    public Map<Visibility, Long> getCountsByVisibility(FetchHints fetchHints, Authorizations authorizations) {
+        Map<Visibility, Long> results = new HashMap<>();
+        for (Map.Entry<Key, Long> entry : counts.entrySet()) {
+            if (entry.getKey().canRead(fetchHints, authorizations)) {
+                results.merge(entry.getKey().visibility, entry.getValue(), Long::sum);
+            }
+        }
+        return results;
+    }
+
+    public static class Key {
+        private final Visibility visibility;
+        private final Set<String> additionalVisibilities;
+        private final Set<Visibility> hiddenVisibilities;
+
+        public Key(Visibility visibility, Set<String> additionalVisibilities, Set<Visibility> hiddenVisibilities) {
+            this.visibility = visibility;
+            this.additionalVisibilities = additionalVisibilities;
+            this.hiddenVisibilities = hiddenVisibilities;
+        }
+
+        private boolean canRead(FetchHints fetchHints, Authorizations authorizations) {
+            if (visibility.getVisibilityString().length() > 0 && !authorizations.canRead(visibility)) {
+                return false;
+            }
+            if (!fetchHints.isIgnoreAdditionalVisibilities()) {
+                for (String additionalVisibility : additionalVisibilities) {
+                    if (!authorizations.canRead(new Visibility(additionalVisibility))) {
+                        return false;
+                    }
+                }
+            }
+            if (!fetchHints.isIncludeHidden()) {
+                for (Visibility hiddenVisibility : hiddenVisibilities) {
+                    if (authorizations.canRead(hiddenVisibility)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return visibility.equals(key.visibility)
+                && additionalVisibilities.equals(key.additionalVisibilities)
+                && hiddenVisibilities.equals(key.hiddenVisibilities);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(visibility, additionalVisibilities, hiddenVisibilities);
+        }
+    }
+}
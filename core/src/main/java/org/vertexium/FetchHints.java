@@ -20,6 +20,7 @@ public class FetchHints {
     private final boolean includeEdgeIds;
     private final boolean includeEdgeVertexIds;
     private final ImmutableSet<String> edgeLabelsOfEdgeRefsToInclude;
+    private final ImmutableSet<String> otherVertexIdsOfEdgeRefsToInclude;
     private final boolean includeEdgeLabelsAndCounts;
     private final boolean includeExtendedDataTableNames;
     private final boolean ignoreAdditionalVisibilities;
@@ -68,6 +69,7 @@ public class FetchHints {
         boolean includeEdgeIds,
         boolean includeEdgeVertexIds,
         ImmutableSet<String> edgeLabelsOfEdgeRefsToInclude,
+        ImmutableSet<String> otherVertexIdsOfEdgeRefsToInclude,
         boolean includeEdgeLabelsAndCounts,
         boolean includeExtendedDataTableNames,
         boolean ignoreAdditionalVisibilities,
@@ -84,6 +86,7 @@ public class FetchHints {
         this.includeEdgeIds = includeEdgeIds;
         this.includeEdgeVertexIds = includeEdgeVertexIds;
         this.edgeLabelsOfEdgeRefsToInclude = includeAllEdgeRefs ? null : edgeLabelsOfEdgeRefsToInclude;
+        this.otherVertexIdsOfEdgeRefsToInclude = otherVertexIdsOfEdgeRefsToInclude;
         this.includeEdgeLabelsAndCounts = includeEdgeLabelsAndCounts;
         this.includeExtendedDataTableNames = includeExtendedDataTableNames;
         this.ignoreAdditionalVisibilities = ignoreAdditionalVisibilities;
@@ -134,6 +137,14 @@ public class FetchHints {
         return edgeLabelsOfEdgeRefsToInclude;
     }
 
+    /**
+     * If not null, only the edge refs to or from one of these vertices are included, this also limits the edges
+     * counted by {@link #isIncludeEdgeLabelsAndCounts()}
+     */
+    public ImmutableSet<String> getOtherVertexIdsOfEdgeRefsToInclude() {
+        return otherVertexIdsOfEdgeRefsToInclude;
+    }
+
     public boolean isIncludeEdgeLabelsAndCounts() {
         return includeEdgeLabelsAndCounts;
     }
@@ -199,6 +210,10 @@ public class FetchHints {
         return false;
     }
 
+    public boolean isIncludeEdgeRefOtherVertexId(String otherVertexId) {
+        return getOtherVertexIdsOfEdgeRefsToInclude() == null || getOtherVertexIdsOfEdgeRefsToInclude().contains(otherVertexId);
+    }
+
     public boolean isIncludeEdgeRefs() {
         return isIncludeAllEdgeRefs() || isIncludeInEdgeRefs() || isIncludeOutEdgeRefs()
             || (getEdgeLabelsOfEdgeRefsToInclude() != null && getEdgeLabelsOfEdgeRefsToInclude().size() > 0);
@@ -249,6 +264,7 @@ public class FetchHints {
             ", includeHidden=" + includeHidden +
             ", includeAllEdgeRefs=" + includeAllEdgeRefs +
             ", edgeLabelsOfEdgeRefsToInclude=" + setToString(edgeLabelsOfEdgeRefsToInclude) +
+            ", otherVertexIdsOfEdgeRefsToInclude=" + setToString(otherVertexIdsOfEdgeRefsToInclude) +
             ", includeEdgeLabelsAndCounts=" + includeEdgeLabelsAndCounts +
             ", includeExtendedDataTableNames=" + includeExtendedDataTableNames +
             ", ignoreAdditionalVisibilities=" + ignoreAdditionalVisibilities +
@@ -279,7 +295,8 @@ public class FetchHints {
             && includePreviousMetadata == that.includePreviousMetadata
             && Objects.equals(propertyNamesToInclude, that.propertyNamesToInclude)
             && Objects.equals(metadataKeysToInclude, that.metadataKeysToInclude)
-            && Objects.equals(edgeLabelsOfEdgeRefsToInclude, that.edgeLabelsOfEdgeRefsToInclude);
+            && Objects.equals(edgeLabelsOfEdgeRefsToInclude, that.edgeLabelsOfEdgeRefsToInclude)
+            && Objects.equals(otherVertexIdsOfEdgeRefsToInclude, that.otherVertexIdsOfEdgeRefsToInclude);
     }
 
     @Override
@@ -296,6 +313,7 @@ public class FetchHints {
             includeEdgeIds,
             includeEdgeVertexIds,
             edgeLabelsOfEdgeRefsToInclude,
+            otherVertexIdsOfEdgeRefsToInclude,
             includeEdgeLabelsAndCounts,
             includeExtendedDataTableNames,
             ignoreAdditionalVisibilities,
@@ -384,6 +402,11 @@ public class FetchHints {
             return false;
         }
 
+        if ((fetchHints.isIncludeEdgeRefs() || fetchHints.includeEdgeLabelsAndCounts)
+            && !isOtherVertexIdsOfEdgeRefsIncluded(fetchHints.otherVertexIdsOfEdgeRefsToInclude)) {
+            return false;
+        }
+
         if (fetchHints.propertyNamesToInclude != null
             && fetchHints.propertyNamesToInclude.size() > 0
             && !isPropertyNamesIncluded(fetchHints.propertyNamesToInclude)) {
@@ -444,6 +467,16 @@ public class FetchHints {
         return true;
     }
 
+    private boolean isOtherVertexIdsOfEdgeRefsIncluded(ImmutableSet<String> otherVertexIdsOfEdgeRefsToInclude) {
+        if (this.otherVertexIdsOfEdgeRefsToInclude == null) {
+            return true;
+        }
+        if (otherVertexIdsOfEdgeRefsToInclude == null) {
+            return false;
+        }
+        return this.otherVertexIdsOfEdgeRefsToInclude.containsAll(otherVertexIdsOfEdgeRefsToInclude);
+    }
+
     public static FetchHints union(FetchHints... fetchHints) {
         return union(Arrays.asList(fetchHints));
     }
@@ -464,6 +497,8 @@ public class FetchHints {
         Boolean ignoreAdditionalVisibilities = null;
         Boolean includePreviousMetadata = null;
         Set<String> edgeLabelsOfEdgeRefsToInclude = null;
+        boolean includeEdgeRefsOfAllOtherVertices = false;
+        Set<String> otherVertexIdsOfEdgeRefsToInclude = null;
 
         for (FetchHints fetchHint : fetchHints) {
             if (fetchHint.isIncludeAllProperties()) {
@@ -532,6 +567,16 @@ public class FetchHints {
                     edgeLabelsOfEdgeRefsToInclude.addAll(fetchHint.getEdgeLabelsOfEdgeRefsToInclude());
                 }
             }
+
+            if (fetchHint.isIncludeEdgeRefs() || fetchHint.isIncludeEdgeLabelsAndCounts()) {
+                if (fetchHint.getOtherVertexIdsOfEdgeRefsToInclude() == null) {
+                    includeEdgeRefsOfAllOtherVertices = true;
+                } else if (otherVertexIdsOfEdgeRefsToInclude == null) {
+                    otherVertexIdsOfEdgeRefsToInclude = new HashSet<>(fetchHint.getOtherVertexIdsOfEdgeRefsToInclude());
+                } else {
+                    otherVertexIdsOfEdgeRefsToInclude.addAll(fetchHint.getOtherVertexIdsOfEdgeRefsToInclude());
+                }
+            }
         }
 
         return new FetchHints(
@@ -546,6 +591,7 @@ public class FetchHints {
             includeEdgeIds,
             includeEdgeVertexIds,
             edgeLabelsOfEdgeRefsToInclude == null ? null : ImmutableSet.copyOf(edgeLabelsOfEdgeRefsToInclude),
+            includeEdgeRefsOfAllOtherVertices || otherVertexIdsOfEdgeRefsToInclude == null ? null : ImmutableSet.copyOf(otherVertexIdsOfEdgeRefsToInclude),
             includeEdgeLabelsAndCounts,
             includeExtendedDataTableNames,
             ignoreAdditionalVisibilities == null ? false : ignoreAdditionalVisibilities,
@@ -17,6 +17,7 @@ public class FetchHintsBuilder {
     private boolean includeEdgeIds = true;
     private boolean includeEdgeVertexIds = true;
     private Set<String> edgeLabelsOfEdgeRefsToInclude;
+    private Set<String> otherVertexIdsOfEdgeRefsToInclude;
     private boolean includeEdgeLabelsAndCounts;
     private boolean includeExtendedDataTableNames;
     private boolean ignoreAdditionalVisibilities;
@@ -38,6 +39,7 @@ public class FetchHintsBuilder {
         includeEdgeIds = fetchHints.isIncludeEdgeIds();
         includeEdgeVertexIds = fetchHints.isIncludeEdgeVertexIds();
         edgeLabelsOfEdgeRefsToInclude = fetchHints.getEdgeLabelsOfEdgeRefsToInclude();
+        otherVertexIdsOfEdgeRefsToInclude = fetchHints.getOtherVertexIdsOfEdgeRefsToInclude();
         includeEdgeLabelsAndCounts = fetchHints.isIncludeEdgeLabelsAndCounts();
         includeExtendedDataTableNames = fetchHints.isIncludeExtendedDataTableNames();
         ignoreAdditionalVisibilities = fetchHints.isIgnoreAdditionalVisibilities();
@@ -63,6 +65,7 @@ public class FetchHintsBuilder {
             includeEdgeIds,
             includeEdgeVertexIds,
             edgeLabelsOfEdgeRefsToInclude == null ? null : ImmutableSet.copyOf(edgeLabelsOfEdgeRefsToInclude),
+            otherVertexIdsOfEdgeRefsToInclude == null ? null : ImmutableSet.copyOf(otherVertexIdsOfEdgeRefsToInclude),
             includeEdgeLabelsAndCounts,
             includeExtendedDataTableNames,
             ignoreAdditionalVisibilities,
@@ -148,6 +151,20 @@ public class FetchHintsBuilder {
         return this;
     }
 
+    /**
+     * Only include the edge refs to or from these vertices. For a vertex with many edges this keeps the edges which
+     * are not needed, for example when checking if two vertices are connected, from being read.
+     */
+    public FetchHintsBuilder setOtherVertexIdsOfEdgeRefsToInclude(Set<String> otherVertexIdsOfEdgeRefsToInclude) {
+        this.otherVertexIdsOfEdgeRefsToInclude = otherVertexIdsOfEdgeRefsToInclude;
+        return this;
+    }
+
+    public FetchHintsBuilder setOtherVertexIdsOfEdgeRefsToInclude(String... otherVertexIdsOfEdgeRefsToInclude) {
+        this.otherVertexIdsOfEdgeRefsToInclude = Sets.newHashSet(otherVertexIdsOfEdgeRefsToInclude);
+        return this;
+    }
+
     public FetchHintsBuilder setIncludeEdgeLabelsAndCounts(boolean includeEdgeLabelsAndCounts) {
         this.includeEdgeLabelsAndCounts = includeEdgeLabelsAndCounts;
         return this;
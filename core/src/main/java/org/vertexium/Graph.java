@@ -893,6 +893,39 @@ public interface Graph {
      */
     Iterable<RelatedEdge> findRelatedEdgeSummary(Iterable<String> vertexIds, Long endTime, Authorizations authorizations);
 
+    /**
+     * Gets the edges attached to the given vertices without loading the vertices or the edges, for traversals which
+     * only need the edge id, label, direction and other vertex id of each edge.
+     *
+     * @param vertexIds      The ids of the vertices to get the edges of.
+     * @param direction      The direction of the edges relative to the vertices.
+     * @param authorizations The authorizations required to load the edges.
+     * @return The edges of the vertices which are visible with the given authorizations.
+     */
+    default Iterable<AdjacentEdge> getAdjacentEdges(Iterable<String> vertexIds, Direction direction, Authorizations authorizations) {
+        return getAdjacentEdges(vertexIds, direction, null, null, authorizations);
+    }
+
+    /**
+     * Gets the edges attached to the given vertices without loading the vertices or the edges, for traversals which
+     * only need the edge id, label, direction and other vertex id of each edge. The other vertices are not checked,
+     * so an edge may be returned even if its other vertex is not visible with the given authorizations.
+     *
+     * @param vertexIds      The ids of the vertices to get the edges of.
+     * @param direction      The direction of the edges relative to the vertices.
+     * @param labels         The labels of the edges to include or null to include all labels.
+     * @param endTime        Include all changes made up until the point in time.
+     * @param authorizations The authorizations required to load the edges.
+     * @return The edges of the vertices which are visible with the given authorizations.
+     */
+    Iterable<AdjacentEdge> getAdjacentEdges(
+        Iterable<String> vertexIds,
+        Direction direction,
+        String[] labels,
+        Long endTime,
+        Authorizations authorizations
+    );
+
     /**
      * Permanently deletes an edge from the graph.
      *
@@ -1079,6 +1112,15 @@ public interface Graph {
      */
     void reindex(Authorizations authorizations);
 
+    /**
+     * Reindex all vertices and edges, splitting them into ranges of ids which are reindexed in parallel. Completed
+     * ranges are recorded in the graph metadata so that a reindex which fails can be resumed.
+     *
+     * @param options        the number of threads, job id used to resume and progress callback of the reindex.
+     * @param authorizations authorizations used to query for the data to reindex.
+     */
+    void reindex(ReindexOptions options, Authorizations authorizations);
+
     /**
      * Sets metadata on the graph.
      *
@@ -1284,6 +1326,32 @@ public interface Graph {
      */
     long getEdgeCount(Authorizations authorizations);
 
+    /**
+     * Gets the number of vertices or edges in the system grouped by the visibility of the element.
+     *
+     * @param elementType    The type of element to count.
+     * @param authorizations The authorizations used to find the elements.
+     * @return The number of elements with each visibility.
+     */
+    Map<Visibility, Long> getElementCountsByVisibility(ElementType elementType, Authorizations authorizations);
+
+    /**
+     * Gets the number of edges in the system grouped by edge label.
+     *
+     * @param authorizations The authorizations used to find the edges.
+     * @return The number of edges with each label.
+     */
+    Map<String, Long> getEdgeCountsByLabel(Authorizations authorizations);
+
+    /**
+     * Gets the number of extended data rows of vertices or edges grouped by extended data table name.
+     *
+     * @param elementType    The type of element the extended data belongs to.
+     * @param authorizations The authorizations used to find the rows.
+     * @return The number of rows in each extended data table.
+     */
+    Map<String, Long> getExtendedDataRowCountsByTableName(ElementType elementType, Authorizations authorizations);
+
     /**
      * Save a pre-made property definition.
      *
@@ -643,10 +643,12 @@ public abstract class GraphBase implements Graph {
 
     @Override
     public Iterable<String> findRelatedEdgeIds(Iterable<String> vertexIds, Long endTime, Authorizations authorizations) {
+        Set<String> vertexIdsSet = IterableUtils.toSet(vertexIds);
         FetchHints fetchHints = new FetchHintsBuilder()
             .setIncludeOutEdgeRefs(true)
+            .setOtherVertexIdsOfEdgeRefsToInclude(vertexIdsSet)
             .build();
-        return findRelatedEdgeIdsForVertices(getVertices(vertexIds, fetchHints, endTime, authorizations), authorizations);
+        return findRelatedEdgeIdsForVertices(getVertices(vertexIdsSet, fetchHints, endTime, authorizations), authorizations);
     }
 
     @Override
@@ -656,10 +658,12 @@ public abstract class GraphBase implements Graph {
 
     @Override
     public Iterable<RelatedEdge> findRelatedEdgeSummary(Iterable<String> vertexIds, Long endTime, Authorizations authorizations) {
+        Set<String> vertexIdsSet = IterableUtils.toSet(vertexIds);
         FetchHints fetchHints = new FetchHintsBuilder()
             .setIncludeOutEdgeRefs(true)
+            .setOtherVertexIdsOfEdgeRefsToInclude(vertexIdsSet)
             .build();
-        return findRelatedEdgeSummaryForVertices(getVertices(vertexIds, fetchHints, endTime, authorizations), authorizations);
+        return findRelatedEdgeSummaryForVertices(getVertices(vertexIdsSet, fetchHints, endTime, authorizations), authorizations);
     }
 
     @Override
@@ -702,6 +706,41 @@ public abstract class GraphBase implements Graph {
         return results;
     }
 
+    @Override
+    public Iterable<AdjacentEdge> getAdjacentEdges(
+        Iterable<String> vertexIds,
+        Direction direction,
+        String[] labels,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        FetchHintsBuilder fetchHints = FetchHints.builder();
+        if (labels == null) {
+            fetchHints.setIncludeOutEdgeRefs(direction == Direction.OUT || direction == Direction.BOTH)
+                .setIncludeInEdgeRefs(direction == Direction.IN || direction == Direction.BOTH);
+        } else {
+            fetchHints.setEdgeLabelsOfEdgeRefsToInclude(labels);
+        }
+        Iterable<Vertex> vertices = getVertices(vertexIds, fetchHints.build(), endTime, authorizations);
+        return new SelectManyIterable<Vertex, AdjacentEdge>(vertices) {
+            @Override
+            protected Iterable<? extends AdjacentEdge> getIterable(Vertex vertex) {
+                return new ConvertingIterable<EdgeInfo, AdjacentEdge>(vertex.getEdgeInfos(direction, labels, authorizations)) {
+                    @Override
+                    protected AdjacentEdge convert(EdgeInfo edgeInfo) {
+                        return new AdjacentEdgeImpl(
+                            vertex.getId(),
+                            edgeInfo.getEdgeId(),
+                            edgeInfo.getLabel(),
+                            edgeInfo.getDirection(),
+                            edgeInfo.getVertexId()
+                        );
+                    }
+                };
+            }
+        };
+    }
+
     protected abstract GraphMetadataStore getGraphMetadataStore();
 
     @Override
@@ -737,6 +776,9 @@ public abstract class GraphBase implements Graph {
     @Override
     public abstract void reindex(Authorizations authorizations);
 
+    @Override
+    public abstract void reindex(ReindexOptions options, Authorizations authorizations);
+
     @Override
     public abstract void flush();
 
@@ -824,14 +866,74 @@ public abstract class GraphBase implements Graph {
 
     @Override
     public long getVertexCount(Authorizations authorizations) {
+        ElementVisibilityCounts counts = getElementVisibilityCounts(ElementType.VERTEX);
+        if (counts != null) {
+            return counts.getCount(getDefaultFetchHints(), authorizations);
+        }
         return count(getVertices(authorizations));
     }
 
     @Override
     public long getEdgeCount(Authorizations authorizations) {
+        ElementVisibilityCounts counts = getElementVisibilityCounts(ElementType.EDGE);
+        if (counts != null) {
+            return counts.getCount(getDefaultFetchHints(), authorizations);
+        }
         return count(getEdges(authorizations));
     }
 
+    @Override
+    public Map<Visibility, Long> getElementCountsByVisibility(ElementType elementType, Authorizations authorizations) {
+        ElementVisibilityCounts counts = getElementVisibilityCounts(elementType);
+        if (counts != null) {
+            return counts.getCountsByVisibility(getDefaultFetchHints(), authorizations);
+        }
+        Map<Visibility, Long> results = new HashMap<>();
+        for (Element element : getElements(elementType, FetchHints.NONE, authorizations)) {
+            results.merge(element.getVisibility(), 1L, Long::sum);
+        }
+        return results;
+    }
+
+    @Override
+    public Map<String, Long> getEdgeCountsByLabel(Authorizations authorizations) {
+        Map<String, Long> results = new HashMap<>();
+        for (Edge edge : getEdges(FetchHints.NONE, authorizations)) {
+            results.merge(edge.getLabel(), 1L, Long::sum);
+        }
+        return results;
+    }
+
+    @Override
+    public Map<String, Long> getExtendedDataRowCountsByTableName(ElementType elementType, Authorizations authorizations) {
+        Map<String, Long> results = new HashMap<>();
+        for (ExtendedDataRow row : getExtendedDataInRange(elementType, new IdRange(null, null), authorizations)) {
+            results.merge(row.getId().getTableName(), 1L, Long::sum);
+        }
+        return results;
+    }
+
+    private Iterable<? extends Element> getElements(ElementType elementType, FetchHints fetchHints, Authorizations authorizations) {
+        switch (elementType) {
+            case VERTEX:
+                return getVertices(fetchHints, authorizations);
+            case EDGE:
+                return getEdges(fetchHints, authorizations);
+            default:
+                throw new VertexiumException("Unhandled element type: " + elementType);
+        }
+    }
+
+    /**
+     * Graphs which maintain counts of their elements as they change can return them here so that
+     * {@link #getVertexCount(Authorizations)} and {@link #getEdgeCount(Authorizations)} do not need to scan.
+     *
+     * @return the counts for the element type, or null if they are not maintained
+     */
+    protected ElementVisibilityCounts getElementVisibilityCounts(ElementType elementType) {
+        return null;
+    }
+
     @Override
     public abstract void deleteVertex(Vertex vertex, Authorizations authorizations);
 
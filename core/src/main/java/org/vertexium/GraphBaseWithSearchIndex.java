@@ -128,6 +128,23 @@ public abstract class GraphBaseWithSearchIndex extends GraphBase implements Grap
         this.searchIndex.addElements(this, getEdges(authorizations), authorizations);
     }
 
+    @Override
+    public void reindex(ReindexOptions options, Authorizations authorizations) {
+        new GraphReindexer(this, options, authorizations).reindex();
+    }
+
+    /**
+     * Splits the ids of the given element type into ranges which {@link #reindex(ReindexOptions, Authorizations)}
+     * can reindex in parallel. The ranges must cover all ids without overlapping. By default all ids are a single
+     * range, graphs should return ranges which {@link #getVerticesInRange(IdRange, FetchHints, Authorizations)} and
+     * {@link #getEdgesInRange(IdRange, FetchHints, Authorizations)} can read without scanning the other ranges.
+     */
+    protected List<IdRange> getReindexRanges(ElementType elementType, ReindexOptions options) {
+        List<IdRange> ranges = new ArrayList<>();
+        ranges.add(new IdRange(null, null));
+        return ranges;
+    }
+
     @Override
     public void flush() {
         flushStackTraceTracker.addStackTrace();
@@ -34,6 +34,8 @@ public class GraphConfiguration {
     public static final boolean DEFAULT_STRICT_TYPING = false;
     public static final String CREATE_TABLES = "createTables";
     public static final boolean DEFAULT_CREATE_TABLES = true;
+    public static final String QUERY_PARALLELISM_THRESHOLD = "queryParallelismThreshold";
+    public static final int DEFAULT_QUERY_PARALLELISM_THRESHOLD = 10000;
 
     private final Map<String, Object> config;
 
@@ -204,4 +206,12 @@ public class GraphConfiguration {
     public boolean isCreateTables() {
         return getBoolean(CREATE_TABLES, DEFAULT_CREATE_TABLES);
     }
+
+    /**
+     * Queries evaluated in process over at least this many elements match and aggregate them in parallel, if the
+     * graph can split its elements. Zero or less disables parallel evaluation.
+     */
+    public int getQueryParallelismThreshold() {
+        return getInt(QUERY_PARALLELISM_THRESHOLD, DEFAULT_QUERY_PARALLELISM_THRESHOLD);
+    }
 }
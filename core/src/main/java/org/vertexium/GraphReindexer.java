@@ -0,0 +1,176 @@
+package org.vertexium;
+
+import org.vertexium.metric.Counter;
+import org.vertexium.metric.Timer;
+import org.vertexium.util.ConvertingIterable;
+import org.vertexium.util.VertexiumLogger;
+import org.vertexium.util.VertexiumLoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reindexes the vertices and edges of a graph a range of ids at a time, running the ranges in parallel. Each range
+ * is flushed to the search index and then recorded in the graph metadata under the job id, so a reindex which fails
+ * part way through can be run again with the same job id to reindex only the ranges which did not complete.
+ * <p>
+ * The ranges come from {@link GraphBaseWithSearchIndex#getReindexRanges(ElementType, ReindexOptions)}. If they
+ * change between runs, for example because a table was split, the ranges which no longer match are reindexed again.
+ */
+public class GraphReindexer {
+    private static final VertexiumLogger LOGGER = VertexiumLoggerFactory.getLogger(GraphReindexer.class);
+    public static final String METADATA_CHECKPOINT_PREFIX = "reindex.checkpoint.";
+    private final GraphBaseWithSearchIndex graph;
+    private final ReindexOptions options;
+    private final Authorizations authorizations;
+    private final String checkpointMetadataKey;
+    private final Counter elementsCounter;
+    private final Counter rangesCounter;
+    private final Timer rangeTimer;
+    private final Set<String> completedRangeKeys = new HashSet<>();
+
+    public GraphReindexer(GraphBaseWithSearchIndex graph, ReindexOptions options, Authorizations authorizations) {
+        this.graph = graph;
+        this.options = options;
+        this.authorizations = authorizations;
+        this.checkpointMetadataKey = METADATA_CHECKPOINT_PREFIX + options.getJobId();
+        this.elementsCounter = graph.getMetricsRegistry().getCounter(GraphReindexer.class, "elements", "counter");
+        this.rangesCounter = graph.getMetricsRegistry().getCounter(GraphReindexer.class, "ranges", "counter");
+        this.rangeTimer = graph.getMetricsRegistry().getTimer(GraphReindexer.class, "range", "timer");
+    }
+
+    public void reindex() {
+        if (options.isResume()) {
+            completedRangeKeys.addAll(readCheckpoint());
+        }
+
+        List<RangeTask> tasks = new ArrayList<>();
+        for (ElementType elementType : ElementType.values()) {
+            for (IdRange range : graph.getReindexRanges(elementType, options)) {
+                RangeTask task = new RangeTask(elementType, range);
+                if (!completedRangeKeys.contains(task.getKey())) {
+                    tasks.add(task);
+                }
+            }
+        }
+        int totalRangeCount = tasks.size() + completedRangeKeys.size();
+        AtomicInteger completedRangeCount = new AtomicInteger(completedRangeKeys.size());
+        LOGGER.info("reindexing %d ranges, %d already complete (%s)", tasks.size(), completedRangeKeys.size(), options);
+        long startTime = System.currentTimeMillis();
+        long startElementCount = elementsCounter.getCount();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(options.getThreadCount(), new ReindexThreadFactory());
+        try {
+            ExecutorCompletionService<RangeTask> completionService = new ExecutorCompletionService<>(executorService);
+            for (RangeTask task : tasks) {
+                completionService.submit(task);
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                RangeTask task = completionService.take().get();
+                completeRange(task);
+                reportProgress(completedRangeCount.incrementAndGet(), totalRangeCount);
+            }
+        } catch (ExecutionException ex) {
+            throw new VertexiumException("Could not reindex, run again with job id " + options.getJobId() + " to resume", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new VertexiumException("Interrupted while reindexing, run again with job id " + options.getJobId() + " to resume", ex);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        graph.setMetadata(checkpointMetadataKey, null);
+        long elementCount = elementsCounter.getCount() - startElementCount;
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        LOGGER.info("reindexed %d elements in %dms (%d elements/s)", elementCount, elapsed, elementCount * 1000 / elapsed);
+        if (options.getProgressCallback() != null) {
+            options.getProgressCallback().progress(1.0, ProgressCallback.Step.COMPLETE);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> readCheckpoint() {
+        Object checkpoint = graph.getMetadata(checkpointMetadataKey);
+        if (checkpoint == null) {
+            return Collections.emptySet();
+        }
+        if (!(checkpoint instanceof Set)) {
+            throw new VertexiumException("Invalid " + checkpointMetadataKey + " expected Set found " + checkpoint.getClass().getName());
+        }
+        return (Set<String>) checkpoint;
+    }
+
+    private void completeRange(RangeTask task) {
+        completedRangeKeys.add(task.getKey());
+        graph.setMetadata(checkpointMetadataKey, new HashSet<>(completedRangeKeys));
+        rangesCounter.increment();
+    }
+
+    private void reportProgress(int completedRangeCount, int totalRangeCount) {
+        if (options.getProgressCallback() == null) {
+            return;
+        }
+        options.getProgressCallback().progress(
+            (double) completedRangeCount / totalRangeCount,
+            ProgressCallback.Step.REINDEXING_RANGES,
+            completedRangeCount,
+            totalRangeCount
+        );
+    }
+
+    private class RangeTask implements Callable<RangeTask> {
+        private final ElementType elementType;
+        private final IdRange range;
+
+        RangeTask(ElementType elementType, IdRange range) {
+            this.elementType = elementType;
+            this.range = range;
+        }
+
+        String getKey() {
+            return elementType + ":" + range.getStart() + ":" + range.getEnd();
+        }
+
+        @Override
+        public RangeTask call() {
+            rangeTimer.time(() -> {
+                Iterable<? extends Element> elements;
+                switch (elementType) {
+                    case VERTEX:
+                        elements = graph.getVerticesInRange(range, options.getFetchHints(), authorizations);
+                        break;
+                    case EDGE:
+                        elements = graph.getEdgesInRange(range, options.getFetchHints(), authorizations);
+                        break;
+                    default:
+                        throw new VertexiumException("Unhandled element type: " + elementType);
+                }
+                graph.getSearchIndex().addElements(graph, countElements(elements), authorizations);
+                graph.getSearchIndex().flush(graph);
+            });
+            return this;
+        }
+
+        private Iterable<Element> countElements(Iterable<? extends Element> elements) {
+            return new ConvertingIterable<Element, Element>(elements) {
+                @Override
+                protected Element convert(Element element) {
+                    elementsCounter.increment();
+                    return element;
+                }
+            };
+        }
+    }
+
+    private static class ReindexThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "vertexium-reindex-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
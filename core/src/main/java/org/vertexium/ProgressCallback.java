@@ -14,7 +14,8 @@ public abstract class ProgressCallback {
         MERGING_EDGES("Merging edges"),
         ADDING_PATHS("Adding paths"),
         SEARCHING_EDGES("Searching edges %d of %d"),
-        FINDING_PATH("Finding path");
+        FINDING_PATH("Finding path"),
+        REINDEXING_RANGES("Reindexed %d of %d ranges");
 
         private final String messageFormat;
 
@@ -0,0 +1,100 @@
+package org.vertexium;
+
+public class ReindexOptions {
+    public static final String DEFAULT_JOB_ID = "default";
+    public static final int DEFAULT_RANGE_COUNT = 64;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int rangeCount = DEFAULT_RANGE_COUNT;
+    private String jobId = DEFAULT_JOB_ID;
+    private boolean resume = true;
+    private FetchHints fetchHints = FetchHints.ALL;
+    private ProgressCallback progressCallback;
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * The number of ranges to reindex at the same time
+     */
+    public ReindexOptions setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new VertexiumException("threadCount must be at least 1, found " + threadCount);
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    /**
+     * The number of ranges to split the vertices and the edges into for graphs which do not have their own
+     * partitioning, such as table splits
+     */
+    public ReindexOptions setRangeCount(int rangeCount) {
+        if (rangeCount < 1) {
+            throw new VertexiumException("rangeCount must be at least 1, found " + rangeCount);
+        }
+        this.rangeCount = rangeCount;
+        return this;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Identifies the reindex in the graph metadata, a reindex with the same job id picks up where the last one
+     * left off
+     */
+    public ReindexOptions setJobId(String jobId) {
+        this.jobId = jobId;
+        return this;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * If false, ranges completed by an earlier reindex with the same job id are reindexed again
+     */
+    public ReindexOptions setResume(boolean resume) {
+        this.resume = resume;
+        return this;
+    }
+
+    public FetchHints getFetchHints() {
+        return fetchHints;
+    }
+
+    public ReindexOptions setFetchHints(FetchHints fetchHints) {
+        this.fetchHints = fetchHints;
+        return this;
+    }
+
+    public ProgressCallback getProgressCallback() {
+        return progressCallback;
+    }
+
+    /**
+     * Called each time a range completes
+     */
+    public ReindexOptions setProgressCallback(ProgressCallback progressCallback) {
+        this.progressCallback = progressCallback;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ReindexOptions{" +
+            "threadCount=" + threadCount +
+            ", rangeCount=" + rangeCount +
+            ", jobId='" + jobId + '\'' +
+            ", resume=" + resume +
+            ", fetchHints=" + fetchHints +
+            '}';
+    }
+}
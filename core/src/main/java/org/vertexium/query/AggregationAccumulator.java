@@ -0,0 +1,19 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+
+/**
+ * Computes an aggregation in a single pass over the matching objects without retaining them. Accumulators for
+ * bucketing aggregations hold a count and a set of nested accumulators per bucket.
+ */
+public interface AggregationAccumulator {
+    void add(VertexiumObject vertexiumObject);
+
+    /**
+     * Adds the state of another accumulator of the same aggregation, which was given the objects that come after
+     * the objects given to this one.
+     */
+    void merge(AggregationAccumulator other);
+
+    AggregationResult getResult();
+}
@@ -0,0 +1,62 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class AggregationAccumulatorBucket {
+    private final Map<String, AggregationAccumulator> nestedAccumulators = new LinkedHashMap<>();
+    private long count;
+
+    AggregationAccumulatorBucket(Iterable<Aggregation> nestedAggregations) {
+        for (Aggregation nestedAggregation : nestedAggregations) {
+            nestedAccumulators.put(
+                nestedAggregation.getAggregationName(),
+                DefaultGraphQueryIterableWithAggregations.createAccumulator(nestedAggregation)
+            );
+        }
+    }
+
+    void add(VertexiumObject vertexiumObject) {
+        count++;
+        for (AggregationAccumulator nestedAccumulator : nestedAccumulators.values()) {
+            nestedAccumulator.add(vertexiumObject);
+        }
+    }
+
+    void merge(AggregationAccumulatorBucket other) {
+        count += other.count;
+        for (Map.Entry<String, AggregationAccumulator> entry : nestedAccumulators.entrySet()) {
+            entry.getValue().merge(other.nestedAccumulators.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Merges the buckets of another accumulator into the buckets with the same key, adding the buckets which are
+     * missing.
+     */
+    static <TKey, TBucket extends AggregationAccumulatorBucket> void mergeBuckets(Map<TKey, TBucket> buckets, Map<TKey, TBucket> otherBuckets) {
+        for (Map.Entry<TKey, TBucket> entry : otherBuckets.entrySet()) {
+            TBucket bucket = buckets.get(entry.getKey());
+            if (bucket == null) {
+                buckets.put(entry.getKey(), entry.getValue());
+            } else {
+                bucket.merge(entry.getValue());
+            }
+        }
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    Map<String, AggregationResult> getNestedResults() {
+        Map<String, AggregationResult> results = new HashMap<>();
+        for (Map.Entry<String, AggregationAccumulator> entry : nestedAccumulators.entrySet()) {
+            results.put(entry.getKey(), entry.getValue().getResult());
+        }
+        return results;
+    }
+}
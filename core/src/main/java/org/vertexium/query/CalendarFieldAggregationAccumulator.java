@@ -0,0 +1,42 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+
+import java.util.*;
+
+class CalendarFieldAggregationAccumulator implements AggregationAccumulator {
+    private final CalendarFieldAggregation aggregation;
+    private final Calendar calendar;
+    private final Map<Integer, AggregationAccumulatorBucket> buckets = new HashMap<>(24);
+
+    CalendarFieldAggregationAccumulator(CalendarFieldAggregation aggregation) {
+        this.aggregation = aggregation;
+        this.calendar = GregorianCalendar.getInstance(aggregation.getTimeZone());
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Object value : vertexiumObject.getPropertyValues(aggregation.getPropertyName())) {
+            calendar.setTime((Date) value);
+            //noinspection MagicConstant
+            int key = calendar.get(aggregation.getCalendarField());
+            buckets.computeIfAbsent(key, k -> new AggregationAccumulatorBucket(aggregation.getNestedAggregations()))
+                .add(vertexiumObject);
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        AggregationAccumulatorBucket.mergeBuckets(buckets, ((CalendarFieldAggregationAccumulator) other).buckets);
+    }
+
+    @Override
+    public HistogramResult getResult() {
+        List<HistogramBucket> results = new ArrayList<>(buckets.size());
+        for (Map.Entry<Integer, AggregationAccumulatorBucket> entry : buckets.entrySet()) {
+            AggregationAccumulatorBucket bucket = entry.getValue();
+            results.add(new HistogramBucket(entry.getKey(), bucket.getCount(), bucket.getNestedResults()));
+        }
+        return new HistogramResult(results);
+    }
+}
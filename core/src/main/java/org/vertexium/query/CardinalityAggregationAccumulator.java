@@ -0,0 +1,76 @@
+package org.vertexium.query;
+
+import org.vertexium.*;
+import org.vertexium.util.HyperLogLog;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Counts distinct values exactly until {@link #EXACT_THRESHOLD} values have been seen, then switches to a
+ * {@link HyperLogLog} estimate so memory stays bounded.
+ */
+class CardinalityAggregationAccumulator implements AggregationAccumulator {
+    static final int EXACT_THRESHOLD = 10000;
+    private final String propertyName;
+    private Set<Object> values = new HashSet<>();
+    private HyperLogLog hyperLogLog;
+
+    CardinalityAggregationAccumulator(CardinalityAggregation aggregation) {
+        String propertyName = aggregation.getPropertyName();
+        if (!isSupportedPropertyName(propertyName)) {
+            throw new VertexiumException("Cannot use cardinality aggregation on properties with visibility: " + propertyName);
+        }
+        this.propertyName = propertyName;
+    }
+
+    private static boolean isSupportedPropertyName(String propertyName) {
+        return Element.ID_PROPERTY_NAME.equals(propertyName)
+            || Edge.LABEL_PROPERTY_NAME.equals(propertyName)
+            || Edge.OUT_VERTEX_ID_PROPERTY_NAME.equals(propertyName)
+            || Edge.IN_VERTEX_ID_PROPERTY_NAME.equals(propertyName)
+            || ExtendedDataRow.TABLE_NAME.equals(propertyName)
+            || ExtendedDataRow.ROW_ID.equals(propertyName)
+            || ExtendedDataRow.ELEMENT_ID.equals(propertyName)
+            || ExtendedDataRow.ELEMENT_TYPE.equals(propertyName);
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Object value : vertexiumObject.getPropertyValues(propertyName)) {
+            offer(value);
+        }
+    }
+
+    private void offer(Object value) {
+        if (hyperLogLog != null) {
+            hyperLogLog.offer(value);
+        } else if (values.add(value) && values.size() > EXACT_THRESHOLD) {
+            hyperLogLog = new HyperLogLog();
+            values.forEach(hyperLogLog::offer);
+            values = null;
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        CardinalityAggregationAccumulator otherCardinality = (CardinalityAggregationAccumulator) other;
+        if (otherCardinality.hyperLogLog == null) {
+            for (Object value : otherCardinality.values) {
+                offer(value);
+            }
+            return;
+        }
+        if (hyperLogLog == null) {
+            hyperLogLog = new HyperLogLog();
+            values.forEach(hyperLogLog::offer);
+            values = null;
+        }
+        hyperLogLog.merge(otherCardinality.hyperLogLog);
+    }
+
+    @Override
+    public CardinalityResult getResult() {
+        return new CardinalityResult(hyperLogLog == null ? values.size() : hyperLogLog.cardinality());
+    }
+}
@@ -4,19 +4,30 @@ import org.vertexium.*;
 import org.vertexium.util.JoinIterable;
 
 public class DefaultGraphQuery extends GraphQueryBase {
+    private final int parallelismThreshold;
+
     public DefaultGraphQuery(Graph graph, String queryString, Authorizations authorizations) {
+        this(graph, queryString, authorizations, GraphConfiguration.DEFAULT_QUERY_PARALLELISM_THRESHOLD);
+    }
+
+    /**
+     * @param parallelismThreshold See {@link GraphConfiguration#getQueryParallelismThreshold()}.
+     */
+    public DefaultGraphQuery(Graph graph, String queryString, Authorizations authorizations, int parallelismThreshold) {
         super(graph, queryString, authorizations);
+        this.parallelismThreshold = parallelismThreshold;
     }
 
     @Override
     public QueryResultsIterable<Vertex> vertices(FetchHints fetchHints) {
         return new DefaultGraphQueryIterableWithAggregations<>(
             getParameters(),
-            this.<Vertex>getIterableFromElementType(ElementType.VERTEX, fetchHints),
+            this.<Vertex>getCandidatesFromElementType(ElementType.VERTEX, fetchHints),
             true,
             true,
             true,
-            getAggregations()
+            getAggregations(),
+            parallelismThreshold
         );
     }
 
@@ -24,16 +35,25 @@ public class DefaultGraphQuery extends GraphQueryBase {
     public QueryResultsIterable<Edge> edges(FetchHints fetchHints) {
         return new DefaultGraphQueryIterableWithAggregations<>(
             getParameters(),
-            this.<Edge>getIterableFromElementType(ElementType.EDGE, fetchHints),
+            this.<Edge>getCandidatesFromElementType(ElementType.EDGE, fetchHints),
             true,
             true,
             true,
-            getAggregations()
+            getAggregations(),
+            parallelismThreshold
         );
     }
 
+    /**
+     * Gets the elements the has containers, ids and query string of this query are evaluated against. Every element
+     * which could match must be returned, but implementations backed by an index may leave out elements which can not.
+     */
+    protected <T extends Element> Iterable<T> getCandidatesFromElementType(ElementType elementType, FetchHints fetchHints) {
+        return getIterableFromElementType(elementType, fetchHints);
+    }
+
     @SuppressWarnings("unchecked")
-    private <T extends Element> Iterable<T> getIterableFromElementType(ElementType elementType, FetchHints fetchHints) throws VertexiumException {
+    protected <T extends Element> Iterable<T> getIterableFromElementType(ElementType elementType, FetchHints fetchHints) throws VertexiumException {
         switch (elementType) {
             case VERTEX:
                 return (Iterable<T>) getGraph().getVertices(fetchHints, getParameters().getAuthorizations());
@@ -2,13 +2,16 @@ package org.vertexium.query;
 
 import org.vertexium.*;
 import org.vertexium.property.StreamingPropertyValue;
-import org.vertexium.scoring.ScoringStrategy;
+import org.vertexium.util.BoundedPriorityQueue;
 import org.vertexium.util.CloseableIterator;
 import org.vertexium.util.CloseableUtils;
+import org.vertexium.util.SplittableIterable;
 
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 import static org.vertexium.util.IterableUtils.count;
 import static org.vertexium.util.IterableUtils.toList;
@@ -22,6 +25,9 @@ public class DefaultGraphQueryIterable<T> implements
     private final Iterable<T> iterable;
     private final boolean evaluateQueryString;
     private final boolean evaluateHasContainers;
+    private final Comparator<T> topItemsComparator;
+    private final int parallelismThreshold;
+    private List<T> topItems;
 
     public DefaultGraphQueryIterable(
         QueryParameters parameters,
@@ -29,30 +35,105 @@ public class DefaultGraphQueryIterable<T> implements
         boolean evaluateQueryString,
         boolean evaluateHasContainers,
         boolean evaluateSortContainers
+    ) {
+        this(parameters, iterable, evaluateQueryString, evaluateHasContainers, evaluateSortContainers, 0);
+    }
+
+    /**
+     * @param parallelismThreshold Counts, top items and aggregations are matched in parallel if the iterable is a
+     *                             {@link SplittableIterable} with at least this many items. Zero or less disables it.
+     */
+    public DefaultGraphQueryIterable(
+        QueryParameters parameters,
+        Iterable<T> iterable,
+        boolean evaluateQueryString,
+        boolean evaluateHasContainers,
+        boolean evaluateSortContainers,
+        int parallelismThreshold
     ) {
         checkNotNull(iterable, "iterable cannot be null");
         this.parameters = parameters;
         this.evaluateQueryString = evaluateQueryString;
         this.evaluateHasContainers = evaluateHasContainers;
+        this.parallelismThreshold = parallelismThreshold;
+        Comparator<T> comparator;
         if (evaluateSortContainers && this.parameters.getSortContainers().size() > 0) {
-            this.iterable = sortUsingSortContainers(iterable, parameters.getSortContainers());
+            comparator = new SortContainersComparator<>(parameters.getSortContainers());
         } else if (evaluateHasContainers && this.parameters.getScoringStrategy() != null) {
-            this.iterable = sortUsingScoringStrategy(iterable, parameters.getScoringStrategy());
+            comparator = new ScoringStrategyComparator<>(parameters.getScoringStrategy());
         } else {
+            comparator = null;
+        }
+
+        if (comparator == null) {
+            this.iterable = iterable;
+            this.topItemsComparator = null;
+        } else if (parameters.getLimit() != null) {
+            // only the first skip + limit matching items are needed, they are collected lazily by getTopItems
             this.iterable = iterable;
+            this.topItemsComparator = comparator;
+        } else {
+            this.iterable = sort(iterable, comparator);
+            this.topItemsComparator = null;
         }
     }
 
-    private Iterable<T> sortUsingScoringStrategy(Iterable<T> iterable, ScoringStrategy scoringStrategy) {
+    private List<T> sort(Iterable<T> iterable, Comparator<T> comparator) {
         List<T> list = toList(iterable);
-        list.sort(new ScoringStrategyComparator<>(scoringStrategy));
+        list.sort(comparator);
         return list;
     }
 
-    private List<T> sortUsingSortContainers(Iterable<T> iterable, List<QueryBase.SortContainer> sortContainers) {
-        List<T> list = toList(iterable);
-        list.sort(new SortContainersComparator<>(sortContainers));
-        return list;
+    /**
+     * Gets the first skip + limit matching items in sorted order without sorting, or holding on to, every item.
+     */
+    private synchronized List<T> getTopItems() {
+        if (topItems == null) {
+            int maxSize = (int) Math.min(parameters.getSkip() + parameters.getLimit(), Integer.MAX_VALUE);
+            Stream<T> parallelMatches = getParallelMatches();
+            if (parallelMatches != null) {
+                // each split keeps its own top items, the splits are merged in encounter order so that tied items
+                // come back in the same order as when matching in the calling thread
+                topItems = parallelMatches.collect(
+                    () -> new BoundedPriorityQueue<T>(maxSize, topItemsComparator),
+                    BoundedPriorityQueue::offer,
+                    BoundedPriorityQueue::offerAll
+                ).toSortedList();
+            } else {
+                BoundedPriorityQueue<T> queue = new BoundedPriorityQueue<>(maxSize, topItemsComparator);
+                Iterator<T> it = iterable.iterator();
+                try {
+                    while (it.hasNext()) {
+                        T elem = it.next();
+                        if (isMatch(elem)) {
+                            queue.offer(elem);
+                        }
+                    }
+                } finally {
+                    CloseableUtils.closeQuietly(it);
+                }
+                topItems = queue.toSortedList();
+            }
+        }
+        return topItems;
+    }
+
+    /**
+     * Matches the items on the common fork-join pool when the iterable can be split and is large enough. The stream
+     * has the encounter order of the iterable, but terminal operations which do not respect it see the items in any
+     * order.
+     *
+     * @return a parallel stream of the matching items or null if the items should be matched in the calling thread
+     */
+    protected Stream<T> getParallelMatches() {
+        if (parallelismThreshold <= 0 || !(iterable instanceof SplittableIterable)) {
+            return null;
+        }
+        SplittableIterable<T> splittableIterable = (SplittableIterable<T>) iterable;
+        if (splittableIterable.getSourceSize() < parallelismThreshold) {
+            return null;
+        }
+        return splittableIterable.stream(true).filter(this::isMatch);
     }
 
     @Override
@@ -61,7 +142,11 @@ public class DefaultGraphQueryIterable<T> implements
     }
 
     protected Iterator<T> iterator(final boolean iterateAll) {
-        final Iterator<T> it = iterable.iterator();
+        // the top items were already matched when they were selected
+        final boolean iterateTopItems = !iterateAll && topItemsComparator != null;
+        final Iterator<T> it = iterateTopItems
+            ? getTopItems().iterator()
+            : iterable.iterator();
 
         return new CloseableIterator<T>() {
             public T next;
@@ -110,58 +195,7 @@ public class DefaultGraphQueryIterable<T> implements
 
                 while (it.hasNext()) {
                     T elem = it.next();
-                    VertexiumObject vertexiumElem = elem instanceof VertexiumObject ? (VertexiumObject) elem : null;
-
-                    boolean match = true;
-                    if (evaluateHasContainers && vertexiumElem != null) {
-                        for (QueryBase.HasContainer has : parameters.getHasContainers()) {
-                            if (!has.isMatch(vertexiumElem)) {
-                                match = false;
-                                break;
-                            }
-                        }
-                        if (vertexiumElem instanceof Edge && parameters.getEdgeLabels().size() > 0) {
-                            Edge edge = (Edge) vertexiumElem;
-                            if (!parameters.getEdgeLabels().contains(edge.getLabel())) {
-                                match = false;
-                            }
-                        }
-                        if (parameters.getIds() != null) {
-                            if (vertexiumElem instanceof Element) {
-                                if (!parameters.getIds().contains(((Element) vertexiumElem).getId())) {
-                                    match = false;
-                                }
-                            } else if (vertexiumElem instanceof ExtendedDataRow) {
-                                if (!parameters.getIds().contains(((ExtendedDataRow) vertexiumElem).getId().getElementId())) {
-                                    match = false;
-                                }
-                            } else {
-                                throw new VertexiumException("Unhandled element type: " + vertexiumElem.getClass().getName());
-                            }
-                        }
-
-                        if (parameters.getMinScore() != null) {
-                            if (parameters.getScoringStrategy() == null) {
-                                match = false;
-                            } else {
-                                Double elementScore = parameters.getScoringStrategy().getScore(vertexiumElem);
-                                if (elementScore == null) {
-                                    match = false;
-                                } else {
-                                    match = elementScore >= parameters.getMinScore();
-                                }
-                            }
-                        }
-                    }
-                    if (!match) {
-                        continue;
-                    }
-                    if (evaluateQueryString
-                        && vertexiumElem != null
-                        && parameters instanceof QueryStringQueryParameters
-                        && ((QueryStringQueryParameters) parameters).getQueryString() != null
-                        && !evaluateQueryString(vertexiumElem, ((QueryStringQueryParameters) parameters).getQueryString())
-                    ) {
+                    if (!iterateTopItems && !isMatch(elem)) {
                         continue;
                     }
 
@@ -177,6 +211,64 @@ public class DefaultGraphQueryIterable<T> implements
         };
     }
 
+    private boolean isMatch(T elem) {
+        VertexiumObject vertexiumElem = elem instanceof VertexiumObject ? (VertexiumObject) elem : null;
+
+        boolean match = true;
+        if (evaluateHasContainers && vertexiumElem != null) {
+            for (QueryBase.HasContainer has : parameters.getHasContainers()) {
+                if (!has.isMatch(vertexiumElem)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (vertexiumElem instanceof Edge && parameters.getEdgeLabels().size() > 0) {
+                Edge edge = (Edge) vertexiumElem;
+                if (!parameters.getEdgeLabels().contains(edge.getLabel())) {
+                    match = false;
+                }
+            }
+            if (parameters.getIds() != null) {
+                if (vertexiumElem instanceof Element) {
+                    if (!parameters.getIds().contains(((Element) vertexiumElem).getId())) {
+                        match = false;
+                    }
+                } else if (vertexiumElem instanceof ExtendedDataRow) {
+                    if (!parameters.getIds().contains(((ExtendedDataRow) vertexiumElem).getId().getElementId())) {
+                        match = false;
+                    }
+                } else {
+                    throw new VertexiumException("Unhandled element type: " + vertexiumElem.getClass().getName());
+                }
+            }
+
+            if (parameters.getMinScore() != null) {
+                if (parameters.getScoringStrategy() == null) {
+                    match = false;
+                } else {
+                    Double elementScore = parameters.getScoringStrategy().getScore(vertexiumElem);
+                    if (elementScore == null) {
+                        match = false;
+                    } else {
+                        match = elementScore >= parameters.getMinScore();
+                    }
+                }
+            }
+        }
+        if (!match) {
+            return false;
+        }
+        if (evaluateQueryString
+            && vertexiumElem != null
+            && parameters instanceof QueryStringQueryParameters
+            && ((QueryStringQueryParameters) parameters).getQueryString() != null
+            && !evaluateQueryString(vertexiumElem, ((QueryStringQueryParameters) parameters).getQueryString())
+        ) {
+            return false;
+        }
+        return true;
+    }
+
     protected boolean evaluateQueryString(VertexiumObject vertexiumObject, String queryString) {
         if (vertexiumObject instanceof Element) {
             return evaluateQueryString((Element) vertexiumObject, queryString);
@@ -222,6 +314,10 @@ public class DefaultGraphQueryIterable<T> implements
     @Override
     public long getTotalHits() {
         // a limit could be set on a query which could prevent all items being returned
+        Stream<T> parallelMatches = getParallelMatches();
+        if (parallelMatches != null) {
+            return parallelMatches.count();
+        }
         return count(this.iterator(true));
     }
 
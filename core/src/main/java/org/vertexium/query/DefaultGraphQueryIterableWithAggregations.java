@@ -3,12 +3,11 @@ package org.vertexium.query;
 import org.vertexium.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static org.vertexium.query.TermsResult.NOT_COMPUTED;
+import java.util.stream.Stream;
 
 public class DefaultGraphQueryIterableWithAggregations<T extends VertexiumObject> extends DefaultGraphQueryIterable<T> {
     private final Collection<Aggregation> aggregations;
+    private Map<String, AggregationResult> aggregationResults;
 
     public DefaultGraphQueryIterableWithAggregations(
         QueryParameters parameters,
@@ -18,20 +17,84 @@ public class DefaultGraphQueryIterableWithAggregations<T extends VertexiumObject
         boolean evaluateSortContainers,
         Collection<Aggregation> aggregations
     ) {
-        super(parameters, iterable, evaluateQueryString, evaluateHasContainers, evaluateSortContainers);
+        this(parameters, iterable, evaluateQueryString, evaluateHasContainers, evaluateSortContainers, aggregations, 0);
+    }
+
+    public DefaultGraphQueryIterableWithAggregations(
+        QueryParameters parameters,
+        Iterable<T> iterable,
+        boolean evaluateQueryString,
+        boolean evaluateHasContainers,
+        boolean evaluateSortContainers,
+        Collection<Aggregation> aggregations,
+        int parallelismThreshold
+    ) {
+        super(parameters, iterable, evaluateQueryString, evaluateHasContainers, evaluateSortContainers, parallelismThreshold);
         this.aggregations = aggregations;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <TResult extends AggregationResult> TResult getAggregationResult(String name, Class<? extends TResult> resultType) {
         for (Aggregation agg : this.aggregations) {
             if (agg.getAggregationName().equals(name)) {
-                return getAggregationResult(agg, this.iterator(true));
+                return (TResult) getAggregationResults().get(name);
             }
         }
         return super.getAggregationResult(name, resultType);
     }
 
+    /**
+     * Computes all the aggregations in a single pass over the results the first time any of them is requested.
+     */
+    private synchronized Map<String, AggregationResult> getAggregationResults() {
+        if (aggregationResults == null) {
+            Map<String, AggregationAccumulator> accumulators;
+            Stream<T> parallelMatches = getParallelMatches();
+            if (parallelMatches != null) {
+                // each split accumulates into its own accumulators, the splits are merged in encounter order so
+                // that the results do not depend on which thread matched which items
+                accumulators = parallelMatches.collect(
+                    this::createAccumulators,
+                    DefaultGraphQueryIterableWithAggregations::addToAccumulators,
+                    DefaultGraphQueryIterableWithAggregations::mergeAccumulators
+                );
+            } else {
+                accumulators = createAccumulators();
+                Iterator<T> it = this.iterator(true);
+                while (it.hasNext()) {
+                    addToAccumulators(accumulators, it.next());
+                }
+            }
+            Map<String, AggregationResult> results = new HashMap<>();
+            for (Map.Entry<String, AggregationAccumulator> entry : accumulators.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().getResult());
+            }
+            aggregationResults = results;
+        }
+        return aggregationResults;
+    }
+
+    private Map<String, AggregationAccumulator> createAccumulators() {
+        Map<String, AggregationAccumulator> accumulators = new LinkedHashMap<>();
+        for (Aggregation agg : this.aggregations) {
+            accumulators.put(agg.getAggregationName(), createAccumulator(agg));
+        }
+        return accumulators;
+    }
+
+    private static void addToAccumulators(Map<String, AggregationAccumulator> accumulators, VertexiumObject vertexiumObject) {
+        for (AggregationAccumulator accumulator : accumulators.values()) {
+            accumulator.add(vertexiumObject);
+        }
+    }
+
+    private static void mergeAccumulators(Map<String, AggregationAccumulator> accumulators, Map<String, AggregationAccumulator> otherAccumulators) {
+        for (Map.Entry<String, AggregationAccumulator> entry : accumulators.entrySet()) {
+            entry.getValue().merge(otherAccumulators.get(entry.getKey()));
+        }
+    }
+
     public static boolean isAggregationSupported(Aggregation agg) {
         if (agg instanceof TermsAggregation) {
             return true;
@@ -42,164 +105,52 @@ public class DefaultGraphQueryIterableWithAggregations<T extends VertexiumObject
         if (agg instanceof CardinalityAggregation) {
             return true;
         }
+        if (agg instanceof HistogramAggregation) {
+            return HistogramAggregationAccumulator.isSupported((HistogramAggregation) agg);
+        }
+        if (agg instanceof StatisticsAggregation) {
+            return true;
+        }
+        if (agg instanceof PercentilesAggregation) {
+            return true;
+        }
+        if (agg instanceof GeohashAggregation) {
+            return true;
+        }
         return false;
     }
 
-    @SuppressWarnings("unchecked")
-    public <TResult extends AggregationResult> TResult getAggregationResult(Aggregation agg, Iterator<T> it) {
+    public static AggregationAccumulator createAccumulator(Aggregation agg) {
         if (agg instanceof TermsAggregation) {
-            return (TResult) getTermsAggregationResult((TermsAggregation) agg, it);
+            return new TermsAggregationAccumulator((TermsAggregation) agg);
         }
         if (agg instanceof CalendarFieldAggregation) {
-            return (TResult) getCalendarFieldHistogramResult((CalendarFieldAggregation) agg, it);
+            return new CalendarFieldAggregationAccumulator((CalendarFieldAggregation) agg);
         }
         if (agg instanceof CardinalityAggregation) {
-            return (TResult) getCardinalityAggregationResult((CardinalityAggregation) agg, it);
+            return new CardinalityAggregationAccumulator((CardinalityAggregation) agg);
         }
-        throw new VertexiumException("Unhandled aggregation: " + agg.getClass().getName());
-    }
-
-    private CardinalityResult getCardinalityAggregationResult(CardinalityAggregation agg, Iterator<T> it) {
-        String fieldName = agg.getPropertyName();
-
-        if (Element.ID_PROPERTY_NAME.equals(fieldName)
-            || Edge.LABEL_PROPERTY_NAME.equals(fieldName)
-            || Edge.OUT_VERTEX_ID_PROPERTY_NAME.equals(fieldName)
-            || Edge.IN_VERTEX_ID_PROPERTY_NAME.equals(fieldName)
-            || ExtendedDataRow.TABLE_NAME.equals(fieldName)
-            || ExtendedDataRow.ROW_ID.equals(fieldName)
-            || ExtendedDataRow.ELEMENT_ID.equals(fieldName)
-            || ExtendedDataRow.ELEMENT_TYPE.equals(fieldName)) {
-            Set<Object> values = new HashSet<>();
-            while (it.hasNext()) {
-                T vertexiumObject = it.next();
-                Iterable<Object> propertyValues = vertexiumObject.getPropertyValues(fieldName);
-                for (Object propertyValue : propertyValues) {
-                    values.add(propertyValue);
-                }
-            }
-            return new CardinalityResult(values.size());
-        } else {
-            throw new VertexiumException("Cannot use cardinality aggregation on properties with visibility: " + fieldName);
-        }
-    }
-
-    private TermsResult getTermsAggregationResult(TermsAggregation agg, Iterator<T> it) {
-        String propertyName = agg.getPropertyName();
-        String missingFlag = "PROPERTY_MISSING";
-        Map<Object, List<T>> elementsByProperty = getElementsByProperty(it, propertyName, o -> o, missingFlag);
-        elementsByProperty = collapseBucketsByCase(elementsByProperty);
-
-        long hasNotCount = NOT_COMPUTED;
-        if (agg.isIncludeHasNotCount()) {
-            hasNotCount = elementsByProperty.containsKey(missingFlag) ? elementsByProperty.get(missingFlag).size() : 0;
-        }
-        elementsByProperty.remove(missingFlag);
-
-        long other = 0;
-        List<TermsBucket> buckets = new ArrayList<>();
-        for (Map.Entry<Object, List<T>> entry : elementsByProperty.entrySet()) {
-            Object key = entry.getKey();
-            int count = entry.getValue().size();
-            if (agg.getSize() == null || buckets.size() < agg.getSize()) {
-                Map<String, AggregationResult> nestedResults = getNestedResults(agg.getNestedAggregations(), entry.getValue());
-                buckets.add(new TermsBucket(key, count, nestedResults));
-            } else {
-                other += count;
-            }
+        if (agg instanceof HistogramAggregation) {
+            return new HistogramAggregationAccumulator((HistogramAggregation) agg);
         }
-        return new TermsResult(buckets, other, 0, hasNotCount);
-    }
-
-    private Map<Object, List<T>> collapseBucketsByCase(Map<Object, List<T>> elementsByProperty) {
-        Map<String, List<Map.Entry<Object, List<T>>>> stringEntries = new HashMap<>();
-        Map<Object, List<T>> results = new HashMap<>();
-
-        // for strings first group them by there lowercase version
-        for (Map.Entry<Object, List<T>> entry : elementsByProperty.entrySet()) {
-            if (entry.getKey() instanceof String) {
-                String lowerCaseKey = ((String) entry.getKey()).toLowerCase();
-                List<Map.Entry<Object, List<T>>> l = stringEntries.computeIfAbsent(lowerCaseKey, s -> new ArrayList<>());
-                l.add(entry);
-            } else {
-                results.put(entry.getKey(), entry.getValue());
-            }
+        if (agg instanceof StatisticsAggregation) {
+            return new StatisticsAggregationAccumulator((StatisticsAggregation) agg);
         }
-
-        // for strings find the best key (the one with the most entries) and use that as the bucket name
-        for (Map.Entry<String, List<Map.Entry<Object, List<T>>>> entry : stringEntries.entrySet()) {
-            results.put(
-                findBestKey(entry.getValue()),
-                entry.getValue().stream()
-                    .flatMap(l -> l.getValue().stream())
-                    .collect(Collectors.toList())
-            );
-        }
-        return results;
-    }
-
-    private Object findBestKey(List<Map.Entry<Object, List<T>>> value) {
-        int longestListLength = 0;
-        String longestString = null;
-        for (Map.Entry<Object, List<T>> entry : value) {
-            if (entry.getValue().size() >= longestListLength) {
-                longestListLength = entry.getValue().size();
-                longestString = (String) entry.getKey();
-            }
+        if (agg instanceof PercentilesAggregation) {
+            return new PercentilesAggregationAccumulator((PercentilesAggregation) agg);
         }
-        return longestString;
-    }
-
-    private HistogramResult getCalendarFieldHistogramResult(final CalendarFieldAggregation agg, Iterator<T> it) {
-        String propertyName = agg.getPropertyName();
-        final Calendar calendar = GregorianCalendar.getInstance(agg.getTimeZone());
-        Map<Integer, List<T>> elementsByProperty = getElementsByProperty(it, propertyName, o -> {
-            Date d = (Date) o;
-            calendar.setTime(d);
-            //noinspection MagicConstant
-            return calendar.get(agg.getCalendarField());
-        }, null);
-
-        Map<Integer, HistogramBucket> buckets = new HashMap<>(24);
-        for (Map.Entry<Integer, List<T>> entry : elementsByProperty.entrySet()) {
-            int key = entry.getKey();
-            int count = entry.getValue().size();
-            Map<String, AggregationResult> nestedResults = getNestedResults(agg.getNestedAggregations(), entry.getValue());
-            buckets.put(key, new HistogramBucket(key, count, nestedResults));
-        }
-        return new HistogramResult(buckets.values());
-    }
-
-    private Map<String, AggregationResult> getNestedResults(Iterable<Aggregation> nestedAggregations, List<T> elements) {
-        Map<String, AggregationResult> results = new HashMap<>();
-        for (Aggregation nestedAggregation : nestedAggregations) {
-            AggregationResult nestedResult = getAggregationResult(nestedAggregation, elements.iterator());
-            results.put(nestedAggregation.getAggregationName(), nestedResult);
+        if (agg instanceof GeohashAggregation) {
+            return new GeohashAggregationAccumulator((GeohashAggregation) agg);
         }
-        return results;
+        throw new VertexiumException("Unhandled aggregation: " + agg.getClass().getName());
     }
 
-    private <TKey> Map<TKey, List<T>> getElementsByProperty(Iterator<T> it, String propertyName, ValueConverter<TKey> valueConverter, TKey missingFlag) {
-        Map<TKey, List<T>> elementsByProperty = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    public <TResult extends AggregationResult> TResult getAggregationResult(Aggregation agg, Iterator<T> it) {
+        AggregationAccumulator accumulator = createAccumulator(agg);
         while (it.hasNext()) {
-            T vertexiumObject = it.next();
-            Iterable<Object> values = vertexiumObject.getPropertyValues(propertyName);
-            boolean hasValues = false;
-            for (Object value : values) {
-                hasValues = true;
-                TKey convertedValue = valueConverter.convert(value);
-                elementsByProperty.computeIfAbsent(convertedValue, k -> new ArrayList<>())
-                    .add(vertexiumObject);
-            }
-
-            if (!hasValues && missingFlag != null) {
-                elementsByProperty.computeIfAbsent(missingFlag, k -> new ArrayList<>()).add(vertexiumObject);
-            }
+            accumulator.add(it.next());
         }
-        return elementsByProperty;
-    }
-
-    private interface ValueConverter<T> {
-        T convert(Object o);
+        return (TResult) accumulator.getResult();
     }
 }
@@ -0,0 +1,77 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+import org.vertexium.type.GeoHash;
+import org.vertexium.type.GeoPoint;
+import org.vertexium.type.GeoRect;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buckets {@link GeoPoint} values by their geohash at the precision of the aggregation. The point of each bucket is
+ * the center of the values in it.
+ */
+class GeohashAggregationAccumulator implements AggregationAccumulator {
+    private final GeohashAggregation aggregation;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    GeohashAggregationAccumulator(GeohashAggregation aggregation) {
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Object value : vertexiumObject.getPropertyValues(aggregation.getFieldName())) {
+            if (!(value instanceof GeoPoint)) {
+                continue;
+            }
+            GeoPoint geoPoint = (GeoPoint) value;
+            String hash = new GeoHash(geoPoint.getLatitude(), geoPoint.getLongitude(), aggregation.getPrecision()).getHash();
+            buckets.computeIfAbsent(hash, k -> new Bucket(aggregation.getNestedAggregations()))
+                .add(geoPoint, vertexiumObject);
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        AggregationAccumulatorBucket.mergeBuckets(buckets, ((GeohashAggregationAccumulator) other).buckets);
+    }
+
+    @Override
+    public GeohashResult getResult() {
+        List<GeohashBucket> results = new ArrayList<>();
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            String hash = entry.getKey();
+            Bucket bucket = entry.getValue();
+            results.add(new GeohashBucket(hash, bucket.getCount(), GeoPoint.calculateCenter(bucket.geoPoints), bucket.getNestedResults()) {
+                @Override
+                public GeoRect getGeoCell() {
+                    return new GeoHash(hash).toGeoRect();
+                }
+            });
+        }
+        return new GeohashResult(results);
+    }
+
+    private static class Bucket extends AggregationAccumulatorBucket {
+        private final List<GeoPoint> geoPoints = new ArrayList<>();
+
+        Bucket(Iterable<Aggregation> nestedAggregations) {
+            super(nestedAggregations);
+        }
+
+        void add(GeoPoint geoPoint, VertexiumObject vertexiumObject) {
+            geoPoints.add(geoPoint);
+            add(vertexiumObject);
+        }
+
+        @Override
+        void merge(AggregationAccumulatorBucket other) {
+            super.merge(other);
+            geoPoints.addAll(((Bucket) other).geoPoints);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumException;
+import org.vertexium.VertexiumObject;
+
+import java.util.*;
+
+/**
+ * Buckets numeric and date values by a numeric interval (milliseconds for dates) or, for dates, by one of the
+ * calendar intervals in {@link #CALENDAR_INTERVALS}. Calendar intervals are computed in UTC.
+ * <p>
+ * Numeric buckets are keyed by the string form of their lower bound. Date buckets are keyed by the {@link Date}
+ * of their lower bound. When the minimum document count is 0, empty numeric buckets are added between the lowest
+ * and highest bucket, widened to the extended bounds if there are any, up to {@link #MAX_BUCKETS} buckets.
+ */
+class HistogramAggregationAccumulator implements AggregationAccumulator {
+    private static final Map<String, Integer> CALENDAR_INTERVALS = new HashMap<>();
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    /**
+     * The most buckets a histogram can have once empty buckets are added, like Elasticsearch's search.max_buckets.
+     */
+    static final long MAX_BUCKETS = 65535;
+
+    static {
+        CALENDAR_INTERVALS.put("year", Calendar.YEAR);
+        CALENDAR_INTERVALS.put("quarter", Calendar.MONTH);
+        CALENDAR_INTERVALS.put("month", Calendar.MONTH);
+        CALENDAR_INTERVALS.put("week", Calendar.WEEK_OF_YEAR);
+        CALENDAR_INTERVALS.put("day", Calendar.DAY_OF_MONTH);
+        CALENDAR_INTERVALS.put("hour", Calendar.HOUR_OF_DAY);
+        CALENDAR_INTERVALS.put("minute", Calendar.MINUTE);
+        CALENDAR_INTERVALS.put("second", Calendar.SECOND);
+    }
+
+    private final HistogramAggregation aggregation;
+    private final Double interval;
+    private final String calendarInterval;
+    private final TreeMap<Long, AggregationAccumulatorBucket> buckets = new TreeMap<>();
+    private Calendar calendar;
+    private boolean dateValues;
+
+    HistogramAggregationAccumulator(HistogramAggregation aggregation) {
+        this.aggregation = aggregation;
+        this.interval = parseInterval(aggregation.getInterval());
+        if (this.interval == null) {
+            if (!CALENDAR_INTERVALS.containsKey(aggregation.getInterval())) {
+                throw new VertexiumException("Unsupported histogram interval: " + aggregation.getInterval());
+            }
+            this.calendarInterval = aggregation.getInterval();
+        } else {
+            this.calendarInterval = null;
+        }
+    }
+
+    static boolean isSupported(HistogramAggregation aggregation) {
+        return parseInterval(aggregation.getInterval()) != null
+            || CALENDAR_INTERVALS.containsKey(aggregation.getInterval());
+    }
+
+    private static Double parseInterval(String interval) {
+        if (interval == null) {
+            return null;
+        }
+        try {
+            double result = Double.parseDouble(interval);
+            return result > 0 ? result : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Object value : vertexiumObject.getPropertyValues(aggregation.getFieldName())) {
+            Long key = getBucketKey(value);
+            if (key != null) {
+                buckets.computeIfAbsent(key, k -> new AggregationAccumulatorBucket(aggregation.getNestedAggregations()))
+                    .add(vertexiumObject);
+            }
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        HistogramAggregationAccumulator otherHistogram = (HistogramAggregationAccumulator) other;
+        AggregationAccumulatorBucket.mergeBuckets(buckets, otherHistogram.buckets);
+        dateValues = dateValues || otherHistogram.dateValues;
+    }
+
+    /**
+     * @return the start of the bucket in milliseconds for calendar intervals, otherwise the index of the bucket
+     */
+    private Long getBucketKey(Object value) {
+        if (value instanceof Date) {
+            dateValues = true;
+            if (calendarInterval != null) {
+                return truncate((Date) value);
+            }
+            return getBucketIndex(((Date) value).getTime());
+        }
+        if (value instanceof Number && interval != null) {
+            return getBucketIndex(((Number) value).doubleValue());
+        }
+        return null;
+    }
+
+    private long getBucketIndex(double value) {
+        return (long) Math.floor(value / interval);
+    }
+
+    private long truncate(Date date) {
+        if (calendar == null) {
+            calendar = GregorianCalendar.getInstance(UTC);
+        }
+        calendar.setTime(date);
+        int field = CALENDAR_INTERVALS.get(calendarInterval);
+        if (field == Calendar.WEEK_OF_YEAR) {
+            calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+            field = Calendar.DAY_OF_MONTH;
+        } else if (calendarInterval.equals("quarter")) {
+            calendar.set(Calendar.MONTH, calendar.get(Calendar.MONTH) / 3 * 3);
+        }
+        int[] fields = new int[]{Calendar.MONTH, Calendar.DAY_OF_MONTH, Calendar.HOUR_OF_DAY, Calendar.MINUTE, Calendar.SECOND, Calendar.MILLISECOND};
+        int[] firstValues = new int[]{Calendar.JANUARY, 1, 0, 0, 0, 0};
+        boolean clear = field == Calendar.YEAR;
+        for (int i = 0; i < fields.length; i++) {
+            if (clear) {
+                calendar.set(fields[i], firstValues[i]);
+            }
+            clear = clear || fields[i] == field;
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    @Override
+    public HistogramResult getResult() {
+        Long minDocumentCount = aggregation.getMinDocumentCount();
+        if (minDocumentCount != null && minDocumentCount == 0 && interval != null && !dateValues) {
+            addEmptyBuckets();
+        }
+        List<HistogramBucket> results = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, AggregationAccumulatorBucket> entry : buckets.entrySet()) {
+            AggregationAccumulatorBucket bucket = entry.getValue();
+            if (minDocumentCount != null && bucket.getCount() < minDocumentCount) {
+                continue;
+            }
+            results.add(new HistogramBucket(toKey(entry.getKey()), bucket.getCount(), bucket.getNestedResults()));
+        }
+        return new HistogramResult(results);
+    }
+
+    private void addEmptyBuckets() {
+        Long min = buckets.isEmpty() ? null : buckets.firstKey();
+        Long max = buckets.isEmpty() ? null : buckets.lastKey();
+        HistogramAggregation.ExtendedBounds<?> extendedBounds = aggregation.getExtendedBounds();
+        if (extendedBounds != null) {
+            Double boundsMin = StatisticsAggregationAccumulator.toDouble(extendedBounds.getMin());
+            Double boundsMax = StatisticsAggregationAccumulator.toDouble(extendedBounds.getMax());
+            if (boundsMin != null) {
+                min = min == null ? getBucketIndex(boundsMin) : Math.min(min, getBucketIndex(boundsMin));
+            }
+            if (boundsMax != null) {
+                max = max == null ? getBucketIndex(boundsMax) : Math.max(max, getBucketIndex(boundsMax));
+            }
+        }
+        if (min == null || max == null) {
+            return;
+        }
+        // computed as a double so that far apart bounds do not overflow
+        double bucketCount = (double) max - (double) min + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new VertexiumException(String.format(
+                "Histogram aggregation \"%s\" would create %.0f buckets, more than the maximum of %d. Use a larger interval or narrower extended bounds.",
+                aggregation.getAggregationName(),
+                bucketCount,
+                MAX_BUCKETS
+            ));
+        }
+        for (long i = min; i <= max; i++) {
+            buckets.computeIfAbsent(i, k -> new AggregationAccumulatorBucket(aggregation.getNestedAggregations()));
+        }
+    }
+
+    private Object toKey(long bucketKey) {
+        if (calendarInterval != null) {
+            return new Date(bucketKey);
+        }
+        double start = bucketKey * interval;
+        if (dateValues) {
+            return new Date((long) start);
+        }
+        if (start == Math.rint(start) && Math.abs(start) < Long.MAX_VALUE) {
+            return Long.toString((long) start);
+        }
+        return Double.toString(start);
+    }
+}
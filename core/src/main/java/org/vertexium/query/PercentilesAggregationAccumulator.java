@@ -0,0 +1,56 @@
+package org.vertexium.query;
+
+import org.vertexium.Property;
+import org.vertexium.VertexiumObject;
+import org.vertexium.util.TDigest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estimates percentiles with a {@link TDigest}. When the aggregation has a visibility only property values with
+ * that visibility are included.
+ */
+class PercentilesAggregationAccumulator implements AggregationAccumulator {
+    static final double[] DEFAULT_PERCENTS = new double[]{1.0, 5.0, 25.0, 50.0, 75.0, 95.0, 99.0};
+    private final PercentilesAggregation aggregation;
+    private final TDigest digest = new TDigest();
+
+    PercentilesAggregationAccumulator(PercentilesAggregation aggregation) {
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Property property : vertexiumObject.getProperties(aggregation.getFieldName())) {
+            if (aggregation.getVisibility() != null && !aggregation.getVisibility().equals(property.getVisibility())) {
+                continue;
+            }
+            Double d = StatisticsAggregationAccumulator.toDouble(property.getValue());
+            if (d != null) {
+                digest.add(d);
+            }
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        digest.add(((PercentilesAggregationAccumulator) other).digest);
+    }
+
+    @Override
+    public PercentilesResult getResult() {
+        List<Percentile> results = new ArrayList<>();
+        if (digest.size() == 0) {
+            return new PercentilesResult(results);
+        }
+        double[] percents = aggregation.getPercents();
+        if (percents == null || percents.length == 0) {
+            percents = DEFAULT_PERCENTS;
+        }
+        for (double percent : percents) {
+            results.add(new Percentile(percent, digest.quantile(percent / 100.0)));
+        }
+        return new PercentilesResult(results);
+    }
+}
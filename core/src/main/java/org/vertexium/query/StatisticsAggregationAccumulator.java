@@ -0,0 +1,77 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+
+import java.util.Date;
+
+/**
+ * Keeps a running count, sum, min, max and variance (using Welford's method) of the numeric and date values of
+ * a property. The standard deviation is the population standard deviation.
+ */
+class StatisticsAggregationAccumulator implements AggregationAccumulator {
+    private final StatisticsAggregation aggregation;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double sumOfSquaredDifferences;
+
+    StatisticsAggregationAccumulator(StatisticsAggregation aggregation) {
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        for (Object value : vertexiumObject.getPropertyValues(aggregation.getFieldName())) {
+            Double d = toDouble(value);
+            if (d == null) {
+                continue;
+            }
+            count++;
+            sum += d;
+            min = Math.min(min, d);
+            max = Math.max(max, d);
+            double delta = d - mean;
+            mean += delta / count;
+            sumOfSquaredDifferences += delta * (d - mean);
+        }
+    }
+
+    /**
+     * Combines the running values using the parallel form of Welford's method.
+     */
+    @Override
+    public void merge(AggregationAccumulator other) {
+        StatisticsAggregationAccumulator otherStatistics = (StatisticsAggregationAccumulator) other;
+        if (otherStatistics.count == 0) {
+            return;
+        }
+        long newCount = count + otherStatistics.count;
+        double delta = otherStatistics.mean - mean;
+        mean += delta * otherStatistics.count / newCount;
+        sumOfSquaredDifferences += otherStatistics.sumOfSquaredDifferences + delta * delta * count * otherStatistics.count / newCount;
+        count = newCount;
+        sum += otherStatistics.sum;
+        min = Math.min(min, otherStatistics.min);
+        max = Math.max(max, otherStatistics.max);
+    }
+
+    static Double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Date) {
+            return (double) ((Date) value).getTime();
+        }
+        return null;
+    }
+
+    @Override
+    public StatisticsResult getResult() {
+        if (count == 0) {
+            return new StatisticsResult(0, 0.0, 0.0, 0.0, 0.0);
+        }
+        return new StatisticsResult(count, sum, min, max, Math.sqrt(sumOfSquaredDifferences / count));
+    }
+}
@@ -0,0 +1,101 @@
+package org.vertexium.query;
+
+import org.vertexium.VertexiumObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.vertexium.query.TermsResult.NOT_COMPUTED;
+
+/**
+ * String values which differ only by case share a bucket, named after the spelling seen most often.
+ */
+class TermsAggregationAccumulator implements AggregationAccumulator {
+    private final TermsAggregation aggregation;
+    private final Map<Object, Bucket> buckets = new HashMap<>();
+    private long hasNotCount;
+
+    TermsAggregationAccumulator(TermsAggregation aggregation) {
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    public void add(VertexiumObject vertexiumObject) {
+        boolean hasValues = false;
+        for (Object value : vertexiumObject.getPropertyValues(aggregation.getPropertyName())) {
+            hasValues = true;
+            Object bucketKey = value instanceof String ? ((String) value).toLowerCase() : value;
+            buckets.computeIfAbsent(bucketKey, k -> new Bucket(aggregation.getNestedAggregations()))
+                .add(value, vertexiumObject);
+        }
+        if (!hasValues) {
+            hasNotCount++;
+        }
+    }
+
+    @Override
+    public void merge(AggregationAccumulator other) {
+        TermsAggregationAccumulator otherTerms = (TermsAggregationAccumulator) other;
+        AggregationAccumulatorBucket.mergeBuckets(buckets, otherTerms.buckets);
+        hasNotCount += otherTerms.hasNotCount;
+    }
+
+    @Override
+    public TermsResult getResult() {
+        long other = 0;
+        List<TermsBucket> results = new ArrayList<>();
+        for (Bucket bucket : buckets.values()) {
+            if (aggregation.getSize() == null || results.size() < aggregation.getSize()) {
+                results.add(new TermsBucket(bucket.getKey(), bucket.getCount(), bucket.getNestedResults()));
+            } else {
+                other += bucket.getCount();
+            }
+        }
+        return new TermsResult(results, other, 0, aggregation.isIncludeHasNotCount() ? hasNotCount : NOT_COMPUTED);
+    }
+
+    private static class Bucket extends AggregationAccumulatorBucket {
+        private final Map<String, Long> countsBySpelling = new HashMap<>();
+        private Object key;
+
+        Bucket(Iterable<Aggregation> nestedAggregations) {
+            super(nestedAggregations);
+        }
+
+        void add(Object value, VertexiumObject vertexiumObject) {
+            if (value instanceof String) {
+                countsBySpelling.merge((String) value, 1L, Long::sum);
+            } else {
+                key = value;
+            }
+            add(vertexiumObject);
+        }
+
+        @Override
+        void merge(AggregationAccumulatorBucket other) {
+            super.merge(other);
+            Bucket otherBucket = (Bucket) other;
+            otherBucket.countsBySpelling.forEach((spelling, count) -> countsBySpelling.merge(spelling, count, Long::sum));
+            if (otherBucket.key != null) {
+                key = otherBucket.key;
+            }
+        }
+
+        Object getKey() {
+            if (countsBySpelling.isEmpty()) {
+                return key;
+            }
+            long bestCount = 0;
+            String bestSpelling = null;
+            for (Map.Entry<String, Long> entry : countsBySpelling.entrySet()) {
+                if (entry.getValue() >= bestCount) {
+                    bestCount = entry.getValue();
+                    bestSpelling = entry.getKey();
+                }
+            }
+            return bestSpelling;
+        }
+    }
+}
@@ -12,9 +12,16 @@ import java.util.Set;
 import static org.vertexium.util.Preconditions.checkNotNull;
 
 public class DefaultSearchIndex implements SearchIndex {
-    @SuppressWarnings("unused")
+    private final int queryParallelismThreshold;
+
     public DefaultSearchIndex(GraphConfiguration configuration) {
+        this.queryParallelismThreshold = configuration == null
+            ? GraphConfiguration.DEFAULT_QUERY_PARALLELISM_THRESHOLD
+            : configuration.getQueryParallelismThreshold();
+    }
 
+    protected int getQueryParallelismThreshold() {
+        return queryParallelismThreshold;
     }
 
     @Override
@@ -112,7 +119,7 @@ public class DefaultSearchIndex implements SearchIndex {
 
     @Override
     public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
-        return new DefaultGraphQuery(graph, queryString, authorizations);
+        return new DefaultGraphQuery(graph, queryString, authorizations, getQueryParallelismThreshold());
     }
 
     @Override
@@ -0,0 +1,90 @@
+package org.vertexium.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first maxSize items, according to the given comparator, of everything offered to it. Items which
+ * compare equal keep the order in which they were offered, matching the result of a stable sort of all the items.
+ */
+public class BoundedPriorityQueue<T> {
+    private final int maxSize;
+    private final Comparator<T> comparator;
+    private final PriorityQueue<Entry<T>> queue;
+    private long nextSequence;
+
+    public BoundedPriorityQueue(int maxSize, Comparator<T> comparator) {
+        Preconditions.checkArgument(maxSize >= 0, "maxSize cannot be negative");
+        this.maxSize = maxSize;
+        this.comparator = comparator;
+        // the head of the queue is the item which would be sorted last so that it can be evicted cheaply
+        this.queue = new PriorityQueue<>(Math.max(1, Math.min(maxSize, 1024)), (e1, e2) -> compareEntries(e2, e1));
+    }
+
+    /**
+     * @return true if the item was kept
+     */
+    public boolean offer(T item) {
+        if (maxSize == 0) {
+            return false;
+        }
+        Entry<T> entry = new Entry<>(item, nextSequence++);
+        if (queue.size() < maxSize) {
+            queue.add(entry);
+            return true;
+        }
+        if (compareEntries(entry, queue.peek()) < 0) {
+            queue.poll();
+            queue.add(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Offers the kept items of the other queue, in sorted order, as if they were offered after every item already
+     * offered to this queue.
+     */
+    public void offerAll(BoundedPriorityQueue<T> other) {
+        for (T item : other.toSortedList()) {
+            offer(item);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * @return the kept items, in sorted order
+     */
+    public List<T> toSortedList() {
+        List<Entry<T>> entries = new ArrayList<>(queue);
+        entries.sort(this::compareEntries);
+        List<T> results = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            results.add(entry.item);
+        }
+        return results;
+    }
+
+    private int compareEntries(Entry<T> e1, Entry<T> e2) {
+        int result = comparator.compare(e1.item, e2.item);
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(e1.sequence, e2.sequence);
+    }
+
+    private static class Entry<T> {
+        private final T item;
+        private final long sequence;
+
+        private Entry(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.vertexium.util;
+
+/**
+ * Estimates the number of distinct values offered to it using a fixed number of registers, regardless of how many
+ * values are offered. With the default precision of 14 the estimate has a standard error of about 0.8%.
+ */
+public class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 14;
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        Preconditions.checkArgument(precision >= 4 && precision <= 18, "precision must be between 4 and 18");
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void offer(Object value) {
+        offerHash(hash(value));
+    }
+
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the sentinel bit caps the rank when all the remaining bits are zero
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Adds the values offered to another estimator with the same precision.
+     */
+    public void merge(HyperLogLog other) {
+        Preconditions.checkArgument(other.precision == precision, "precision must match");
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeroRegisters > 0) {
+            estimate = m * Math.log((double) m / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1.0 + 1.079 / m);
+        }
+    }
+
+    private static long hash(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        String str = value == null ? "" : value.toString();
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            h ^= str.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
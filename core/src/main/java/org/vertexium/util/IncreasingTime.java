@@ -2,28 +2,28 @@ package org.vertexium.util;
 
 import org.vertexium.VertexiumException;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class IncreasingTime {
-    private static long last = System.currentTimeMillis();
+    private static final AtomicLong last = new AtomicLong(System.currentTimeMillis());
 
-    public static synchronized long currentTimeMillis() {
+    /**
+     * Lock free so that threads writing to a graph at the same time do not serialize on the clock.
+     */
+    public static long currentTimeMillis() {
         long now = System.currentTimeMillis();
-        if (now > last) {
-            last = now;
-        } else {
-            last++;
-        }
-        return last;
+        return last.updateAndGet(previous -> now > previous ? now : previous + 1);
     }
 
     public static void advanceTime(int inc) {
-        last += inc;
+        last.addAndGet(inc);
     }
 
     public static void catchUp() {
         advanceTime(1);
-        while (last > System.currentTimeMillis()) {
+        while (last.get() > System.currentTimeMillis()) {
             try {
-                Thread.sleep(Math.max(0, last - System.currentTimeMillis()));
+                Thread.sleep(Math.max(0, last.get() - System.currentTimeMillis()));
             } catch (InterruptedException e) {
                 throw new VertexiumException("Interrupted waiting for catch up", e);
             }
@@ -2,129 +2,178 @@ package org.vertexium.util;
 
 import org.vertexium.Property;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.ConcurrentSkipListSet;
 
+/**
+ * The properties of an element held in a single array sorted by name, key and visibility. The properties with the
+ * same name, or the same name and key, are next to each other in the array and are found with a binary search.
+ * <p>
+ * Changes copy the array and replace it, so reads never lock and iterating the properties is not affected by
+ * changes made during the iteration.
+ */
 public class PropertyCollection {
-    private final ConcurrentSkipListSet<Property> propertiesList = new ConcurrentSkipListSet<>();
-    private final Map<String, ConcurrentSkipListMap<String, ConcurrentSkipListSet<Property>>> propertiesByNameAndKey = new HashMap<>();
+    private static final Property[] EMPTY = new Property[0];
+    private volatile Property[] properties;
+
+    public PropertyCollection() {
+        this.properties = EMPTY;
+    }
+
+    /**
+     * Creates a collection from properties which have already been merged, when two properties have the same name,
+     * key and visibility only one of them is kept.
+     */
+    public PropertyCollection(Iterable<Property> properties) {
+        List<Property> propertiesList = IterableUtils.toList(properties);
+        Property[] sortedProperties = propertiesList.toArray(new Property[0]);
+        Arrays.sort(sortedProperties);
+        int length = 0;
+        for (Property property : sortedProperties) {
+            if (length == 0 || sortedProperties[length - 1].compareTo(property) != 0) {
+                sortedProperties[length++] = property;
+            }
+        }
+        this.properties = length == sortedProperties.length ? sortedProperties : Arrays.copyOf(sortedProperties, length);
+    }
 
     public Iterable<Property> getProperties() {
-        return propertiesList;
+        return Collections.unmodifiableList(Arrays.asList(properties));
     }
 
-    public synchronized Iterable<Property> getProperties(String key, String name) {
+    public Iterable<Property> getProperties(String key, String name) {
         if (key == null) {
             return getProperties(name);
         }
-
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(name);
-        if (propertiesByKey == null) {
-            return new ArrayList<>();
-        }
-        ConcurrentSkipListSet<Property> properties = propertiesByKey.get(key);
-        if (properties == null) {
-            return new ArrayList<>();
-        }
-        return properties;
+        Property[] properties = this.properties;
+        int start = lowerBound(properties, name, key);
+        int end = upperBound(properties, start, name, key);
+        return slice(properties, start, end);
     }
 
-    public synchronized Iterable<Property> getProperties(String name) {
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(name);
-        if (propertiesByKey == null) {
-            return new ArrayList<>();
-        }
-        List<Property> results = new ArrayList<>();
-        for (ConcurrentSkipListSet<Property> properties : propertiesByKey.values()) {
-            results.addAll(properties);
-        }
-        return results;
+    public Iterable<Property> getProperties(String name) {
+        Property[] properties = this.properties;
+        int start = lowerBound(properties, name, null);
+        int end = upperBound(properties, start, name, null);
+        return slice(properties, start, end);
     }
 
-    public synchronized Property getProperty(String name, int index) {
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(name);
-        if (propertiesByKey == null) {
-            return null;
-        }
-        for (ConcurrentSkipListSet<Property> properties : propertiesByKey.values()) {
-            for (Property property : properties) {
-                if (index == 0) {
-                    return property;
-                }
-                index--;
-            }
-        }
-        return null;
+    public Property getProperty(String name, int index) {
+        Property[] properties = this.properties;
+        int start = lowerBound(properties, name, null);
+        int end = upperBound(properties, start, name, null);
+        return get(properties, start, end, index);
     }
 
-    public synchronized Property getProperty(String key, String name, int index) {
+    public Property getProperty(String key, String name, int index) {
         if (key == null) {
             return getProperty(name, index);
         }
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(name);
-        if (propertiesByKey == null) {
-            return null;
-        }
-        ConcurrentSkipListSet<Property> properties = propertiesByKey.get(key);
-        if (properties == null) {
-            return null;
-        }
-        for (Property property : properties) {
-            if (index == 0) {
-                return property;
-            }
-            index--;
-        }
-        return null;
+        Property[] properties = this.properties;
+        int start = lowerBound(properties, name, key);
+        int end = upperBound(properties, start, name, key);
+        return get(properties, start, end, index);
     }
 
     public synchronized void addProperty(Property property) {
-        ConcurrentSkipListMap<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(property.getName());
-        if (propertiesByKey == null) {
-            propertiesByKey = new ConcurrentSkipListMap<>();
-            this.propertiesByNameAndKey.put(property.getName(), propertiesByKey);
-        }
-        ConcurrentSkipListSet<Property> properties = propertiesByKey.get(property.getKey());
-        if (properties == null) {
-            properties = new ConcurrentSkipListSet<>();
-            propertiesByKey.put(property.getKey(), properties);
+        Property[] properties = this.properties;
+        int index = Arrays.binarySearch(properties, property);
+        if (index >= 0) {
+            return;
         }
-        properties.add(property);
-        this.propertiesList.add(property);
+        int insertionPoint = -index - 1;
+        Property[] newProperties = new Property[properties.length + 1];
+        System.arraycopy(properties, 0, newProperties, 0, insertionPoint);
+        newProperties[insertionPoint] = property;
+        System.arraycopy(properties, insertionPoint, newProperties, insertionPoint + 1, properties.length - insertionPoint);
+        this.properties = newProperties;
     }
 
     public synchronized void removeProperty(Property property) {
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(property.getName());
-        if (propertiesByKey == null) {
-            return;
-        }
-        ConcurrentSkipListSet<Property> properties = propertiesByKey.get(property.getKey());
-        if (properties == null) {
+        Property[] properties = this.properties;
+        int index = Arrays.binarySearch(properties, property);
+        if (index < 0) {
             return;
         }
-        properties.remove(property);
-        this.propertiesList.remove(property);
+        this.properties = remove(properties, index, index + 1);
     }
 
     public synchronized Iterable<Property> removeProperties(String name) {
-        List<Property> removedProperties = new ArrayList<>();
-        Map<String, ConcurrentSkipListSet<Property>> propertiesByKey = propertiesByNameAndKey.get(name);
-        if (propertiesByKey != null) {
-            for (ConcurrentSkipListSet<Property> properties : propertiesByKey.values()) {
-                for (Property property : properties) {
-                    removedProperties.add(property);
-                }
+        Property[] properties = this.properties;
+        int start = lowerBound(properties, name, null);
+        int end = upperBound(properties, start, name, null);
+        if (start == end) {
+            return Collections.emptyList();
+        }
+        this.properties = remove(properties, start, end);
+        return Arrays.asList(Arrays.copyOfRange(properties, start, end));
+    }
+
+    private static Property[] remove(Property[] properties, int start, int end) {
+        if (start == 0 && end == properties.length) {
+            return EMPTY;
+        }
+        Property[] newProperties = new Property[properties.length - (end - start)];
+        System.arraycopy(properties, 0, newProperties, 0, start);
+        System.arraycopy(properties, end, newProperties, start, properties.length - end);
+        return newProperties;
+    }
+
+    private static Iterable<Property> slice(Property[] properties, int start, int end) {
+        if (start == end) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(properties).subList(start, end));
+    }
+
+    private static Property get(Property[] properties, int start, int end, int index) {
+        if (index < 0 || start + index >= end) {
+            return null;
+        }
+        return properties[start + index];
+    }
+
+    /**
+     * @return the index of the first property with the name, and the key if the key is not null, or where it would
+     * be inserted
+     */
+    private static int lowerBound(Property[] properties, String name, String key) {
+        int low = 0;
+        int high = properties.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(properties[mid], name, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
+        return low;
+    }
 
-        for (Property property : removedProperties) {
-            removeProperty(property);
+    /**
+     * @return the index after the last property with the name, and the key if the key is not null
+     */
+    private static int upperBound(Property[] properties, int start, String name, String key) {
+        int low = start;
+        int high = properties.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(properties[mid], name, key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
+    }
 
-        return removedProperties;
+    private static int compare(Property property, String name, String key) {
+        int i = property.getName().compareTo(name);
+        if (i != 0 || key == null) {
+            return i;
+        }
+        return property.getKey().compareTo(key);
     }
 }
@@ -0,0 +1,52 @@
+package org.vertexium.util;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An iterable over a lazily evaluated stream whose source can be split, so that its items can be consumed by several
+ * threads at once. Each iteration creates a new stream, nothing is held between iterations.
+ */
+public class SplittableIterable<T> implements Iterable<T> {
+    private final Supplier<Stream<T>> streamSupplier;
+    private final LongSupplier sourceSizeSupplier;
+
+    /**
+     * @param streamSupplier     Creates a new sequential stream of the items.
+     * @param sourceSizeSupplier Gets the number of items in the source of the stream, before any filtering.
+     */
+    public SplittableIterable(Supplier<Stream<T>> streamSupplier, LongSupplier sourceSizeSupplier) {
+        this.streamSupplier = streamSupplier;
+        this.sourceSizeSupplier = sourceSizeSupplier;
+    }
+
+    public Stream<T> stream(boolean parallel) {
+        Stream<T> stream = streamSupplier.get();
+        return parallel ? stream.parallel() : stream;
+    }
+
+    /**
+     * @return the number of items in the source, used to decide if splitting the stream is worthwhile
+     */
+    public long getSourceSize() {
+        return sourceSizeSupplier.getAsLong();
+    }
+
+    public <TDest> SplittableIterable<TDest> map(Function<? super T, ? extends TDest> mapper) {
+        return new SplittableIterable<>(() -> streamSupplier.get().map(mapper), sourceSizeSupplier);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return stream(false).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return stream(false).spliterator();
+    }
+}
@@ -10,6 +10,7 @@ import org.vertexium.query.Query;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -147,6 +148,62 @@ public class StreamUtils {
         }
     }
 
+    /**
+     * Same as {@link Stream#flatMap(Function)} except that the mapped streams are consumed one element at a time. In
+     * Java 8 {@link Stream#flatMap(Function)} pushes every element of a mapped stream downstream at once, so
+     * short-circuiting operations such as {@link Stream#limit(long)} or {@link Stream#findFirst()} can not stop a large
+     * mapped stream from being fully consumed.
+     */
+    public static <T, R> Stream<R> lazyFlatMap(Stream<T> stream, Function<? super T, ? extends Stream<? extends R>> mapper) {
+        LazyFlatMapSpliterator<T, R> spliterator = new LazyFlatMapSpliterator<>(stream.spliterator(), mapper);
+        return StreamSupport.stream(spliterator, false)
+            .onClose(() -> {
+                try {
+                    spliterator.closeCurrent();
+                } finally {
+                    stream.close();
+                }
+            });
+    }
+
+    private static class LazyFlatMapSpliterator<T, R> extends Spliterators.AbstractSpliterator<R> {
+        private final Spliterator<T> source;
+        private final Function<? super T, ? extends Stream<? extends R>> mapper;
+        private Stream<? extends R> current;
+        private Spliterator<? extends R> currentSpliterator;
+
+        LazyFlatMapSpliterator(Spliterator<T> source, Function<? super T, ? extends Stream<? extends R>> mapper) {
+            super(Long.MAX_VALUE, source.characteristics() & Spliterator.ORDERED);
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (true) {
+                if (currentSpliterator != null && currentSpliterator.tryAdvance(action)) {
+                    return true;
+                }
+                closeCurrent();
+                if (!source.tryAdvance(item -> current = mapper.apply(item))) {
+                    return false;
+                }
+                if (current != null) {
+                    currentSpliterator = current.spliterator();
+                }
+            }
+        }
+
+        void closeCurrent() {
+            currentSpliterator = null;
+            if (current != null) {
+                Stream<? extends R> stream = current;
+                current = null;
+                stream.close();
+            }
+        }
+    }
+
     public static <T> Predicate<T> distinctBy(Function<? super T, ?> fn) {
         Set<Object> seen = ConcurrentHashMap.newKeySet();
         return t -> seen.add(fn.apply(t));
@@ -0,0 +1,173 @@
+package org.vertexium.util;
+
+import java.util.Arrays;
+
+/**
+ * Estimates quantiles of the values offered to it using a merging t-digest. Values are buffered and, once the buffer
+ * fills, merged into a bounded number of weighted centroids which are kept small near the tails of the distribution
+ * so that extreme quantiles stay accurate. Until the first merge every value is kept, so small inputs produce exact
+ * results.
+ */
+public class TDigest {
+    public static final double DEFAULT_COMPRESSION = 100.0;
+    private final double compression;
+    private final double[] buffer;
+    private int bufferSize;
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        Preconditions.checkArgument(compression >= 10, "compression must be at least 10");
+        this.compression = compression;
+        this.buffer = new double[(int) (5 * compression)];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buffer[bufferSize++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (bufferSize == buffer.length) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values of another digest. Values the other digest has not merged into centroids yet are added one by
+     * one, so merging digests of small inputs still produces exact results.
+     */
+    public void add(TDigest other) {
+        for (int i = 0; i < other.bufferSize; i++) {
+            add(other.buffer[i]);
+        }
+        if (other.means.length == 0) {
+            return;
+        }
+        compress();
+        count += other.count - other.bufferSize;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        mergeCentroids(other.means, other.weights, other.means.length);
+    }
+
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @param q the quantile, between 0 and 1
+     * @return the estimated value at the quantile, interpolating between neighbouring values, or NaN if no values
+     * were added
+     */
+    public double quantile(double q) {
+        Preconditions.checkArgument(q >= 0 && q <= 1, "q must be between 0 and 1");
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (means.length == 0) {
+            double[] values = Arrays.copyOf(buffer, bufferSize);
+            Arrays.sort(values);
+            double[] unitWeights = new double[values.length];
+            Arrays.fill(unitWeights, 1.0);
+            return quantile(q, values, unitWeights);
+        }
+        compress();
+        return quantile(q, means, weights);
+    }
+
+    private double quantile(double q, double[] centroidMeans, double[] centroidWeights) {
+        double rank = q * (count - 1);
+        double previousRank = 0.0;
+        double previousValue = min;
+        double weightSoFar = 0.0;
+        for (int i = 0; i < centroidMeans.length; i++) {
+            double centerRank = weightSoFar + (centroidWeights[i] - 1.0) / 2.0;
+            if (rank <= centerRank) {
+                return interpolate(rank, previousRank, previousValue, centerRank, centroidMeans[i]);
+            }
+            previousRank = centerRank;
+            previousValue = centroidMeans[i];
+            weightSoFar += centroidWeights[i];
+        }
+        return interpolate(rank, previousRank, previousValue, count - 1, max);
+    }
+
+    private static double interpolate(double rank, double rank1, double value1, double rank2, double value2) {
+        if (rank2 <= rank1) {
+            return value2;
+        }
+        return value1 + (value2 - value1) * (rank - rank1) / (rank2 - rank1);
+    }
+
+    private void compress() {
+        if (bufferSize == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, bufferSize);
+        mergeCentroids(buffer, null, bufferSize);
+        bufferSize = 0;
+    }
+
+    /**
+     * Merges sorted centroids into the centroids of this digest. The count must already include their weight.
+     *
+     * @param newCentroidWeights the weights of the centroids, or null if every centroid is a single value
+     */
+    private void mergeCentroids(double[] newCentroidMeans, double[] newCentroidWeights, int newCentroidCount) {
+        int inputSize = means.length + newCentroidCount;
+        double[] newMeans = new double[inputSize];
+        double[] newWeights = new double[inputSize];
+        int newSize = 0;
+        double weightSoFar = 0.0;
+        double kLeft = k(0.0);
+        double currentMean = 0.0;
+        double currentWeight = 0.0;
+        int centroidIndex = 0;
+        int newCentroidIndex = 0;
+        while (centroidIndex < means.length || newCentroidIndex < newCentroidCount) {
+            double mean;
+            double weight;
+            if (newCentroidIndex >= newCentroidCount
+                || (centroidIndex < means.length && means[centroidIndex] <= newCentroidMeans[newCentroidIndex])) {
+                mean = means[centroidIndex];
+                weight = weights[centroidIndex];
+                centroidIndex++;
+            } else {
+                mean = newCentroidMeans[newCentroidIndex];
+                weight = newCentroidWeights == null ? 1.0 : newCentroidWeights[newCentroidIndex];
+                newCentroidIndex++;
+            }
+
+            if (currentWeight > 0 && k((weightSoFar + currentWeight + weight) / count) - kLeft > 1.0) {
+                newMeans[newSize] = currentMean;
+                newWeights[newSize] = currentWeight;
+                newSize++;
+                weightSoFar += currentWeight;
+                kLeft = k(weightSoFar / count);
+                currentWeight = 0.0;
+            }
+            currentWeight += weight;
+            currentMean += (mean - currentMean) * weight / currentWeight;
+        }
+        newMeans[newSize] = currentMean;
+        newWeights[newSize] = currentWeight;
+        newSize++;
+
+        means = Arrays.copyOf(newMeans, newSize);
+        weights = Arrays.copyOf(newWeights, newSize);
+    }
+
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1.0, q) - 1);
+    }
+}
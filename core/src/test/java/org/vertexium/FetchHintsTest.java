@@ -458,6 +458,53 @@ public class FetchHintsTest {
         );
     }
 
+    @Test
+    public void hasFetchHints_otherVertexIdsOfEdgeRefsToInclude() {
+        assertHasFetchHints(
+            FetchHints.builder().setIncludeAllEdgeRefs(true).build(),
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build()
+        );
+        assertHasFetchHints(
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1", "v2").build(),
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build()
+        );
+        assertHasFetchHints(
+            FetchHints.builder().setIncludeAllProperties(true).setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build(),
+            FetchHints.builder().setIncludeAllProperties(true).build()
+        );
+        assertDoesNotHaveFetchHints(
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build(),
+            FetchHints.builder().setIncludeAllEdgeRefs(true).build()
+        );
+        assertDoesNotHaveFetchHints(
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build(),
+            FetchHints.builder().setIncludeAllEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1", "v2").build()
+        );
+    }
+
+    @Test
+    public void testUnionOtherVertexIdsOfEdgeRefsToInclude() {
+        assertEquals(
+            FetchHints.builder()
+                .setIncludeAllProperties(true)
+                .setIncludeOutEdgeRefs(true)
+                .setOtherVertexIdsOfEdgeRefsToInclude("v1", "v2")
+                .build(),
+            FetchHints.union(
+                FetchHints.builder().setIncludeOutEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build(),
+                FetchHints.builder().setIncludeOutEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v2").build(),
+                FetchHints.builder().setIncludeAllProperties(true).build()
+            )
+        );
+        assertEquals(
+            FetchHints.builder().setIncludeOutEdgeRefs(true).build(),
+            FetchHints.union(
+                FetchHints.builder().setIncludeOutEdgeRefs(true).setOtherVertexIdsOfEdgeRefsToInclude("v1").build(),
+                FetchHints.builder().setIncludeOutEdgeRefs(true).build()
+            )
+        );
+    }
+
     private void assertDoesNotHaveFetchHints(FetchHints fetchHints, FetchHints fetchHintsTest) {
         if (fetchHints.hasFetchHints(fetchHintsTest)) {
             fail("Fetch hits\n" + fetchHints + "\nshould not have\n" + fetchHintsTest);
@@ -0,0 +1,36 @@
+package org.vertexium.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class BoundedPriorityQueueTest {
+    @Test
+    public void testMatchesStableSort() {
+        Random random = new Random(1);
+        List<int[]> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(new int[]{random.nextInt(50), i});
+        }
+        Comparator<int[]> comparator = Comparator.comparingInt(item -> item[0]);
+
+        List<int[]> sorted = new ArrayList<>(items);
+        sorted.sort(comparator);
+
+        for (int maxSize : new int[]{0, 1, 20, 999, 1000, 5000}) {
+            BoundedPriorityQueue<int[]> queue = new BoundedPriorityQueue<>(maxSize, comparator);
+            items.forEach(queue::offer);
+            List<int[]> expected = sorted.subList(0, Math.min(maxSize, sorted.size()));
+            List<int[]> found = queue.toSortedList();
+            assertEquals(expected.size(), found.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals("maxSize " + maxSize + " index " + i, expected.get(i)[1], found.get(i)[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.vertexium.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class HyperLogLogTest {
+    @Test
+    public void testCardinality() {
+        for (int distinctValues : new int[]{0, 10, 1000, 100000}) {
+            HyperLogLog hyperLogLog = new HyperLogLog();
+            for (int repeat = 0; repeat < 3; repeat++) {
+                for (int i = 0; i < distinctValues; i++) {
+                    hyperLogLog.offer("v" + i);
+                }
+            }
+            assertEquals("distinct values " + distinctValues, distinctValues, hyperLogLog.cardinality(), Math.max(1, distinctValues * 0.03));
+        }
+    }
+
+    @Test
+    public void testNumbers() {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (long i = 0; i < 50000; i++) {
+            hyperLogLog.offer(i);
+            hyperLogLog.offer(i);
+        }
+        assertEquals(50000, hyperLogLog.cardinality(), 50000 * 0.03);
+    }
+
+    @Test
+    public void testMerge() {
+        HyperLogLog all = new HyperLogLog();
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 30000; i++) {
+            all.offer("v" + i);
+            (i < 20000 ? first : second).offer("v" + i);
+            if (i >= 10000 && i < 20000) {
+                second.offer("v" + i);
+            }
+        }
+        first.merge(second);
+        assertEquals(all.cardinality(), first.cardinality());
+    }
+}
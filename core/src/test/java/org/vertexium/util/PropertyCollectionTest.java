@@ -0,0 +1,89 @@
+package org.vertexium.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.vertexium.FetchHints;
+import org.vertexium.Property;
+import org.vertexium.Visibility;
+import org.vertexium.property.MutablePropertyImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4.class)
+public class PropertyCollectionTest {
+    @Test
+    public void testGetProperties() {
+        PropertyCollection properties = new PropertyCollection();
+        properties.addProperty(createProperty("k2", "name", "a"));
+        properties.addProperty(createProperty("k1", "name", "b"));
+        properties.addProperty(createProperty("k1", "name", "a"));
+        properties.addProperty(createProperty("k1", "age", ""));
+        properties.addProperty(createProperty("k1", "zip", ""));
+
+        assertProperties(properties.getProperties(), "age:k1:", "name:k1:a", "name:k1:b", "name:k2:a", "zip:k1:");
+        assertProperties(properties.getProperties("name"), "name:k1:a", "name:k1:b", "name:k2:a");
+        assertProperties(properties.getProperties("k1", "name"), "name:k1:a", "name:k1:b");
+        assertProperties(properties.getProperties("k3", "name"));
+        assertProperties(properties.getProperties("missing"));
+        assertProperties(properties.getProperties(null, "age"), "age:k1:");
+
+        assertEquals("name:k2:a", toString(properties.getProperty("name", 2)));
+        assertNull(properties.getProperty("name", 3));
+        assertEquals("name:k1:b", toString(properties.getProperty("k1", "name", 1)));
+        assertNull(properties.getProperty("k1", "name", 2));
+        assertNull(properties.getProperty("missing", 0));
+    }
+
+    @Test
+    public void testAddExistingPropertyKeepsFirst() {
+        PropertyCollection properties = new PropertyCollection();
+        Property first = createProperty("k1", "name", "a");
+        properties.addProperty(first);
+        properties.addProperty(createProperty("k1", "name", "a"));
+
+        assertProperties(properties.getProperties(), "name:k1:a");
+        assertSame(first, properties.getProperty("k1", "name", 0));
+    }
+
+    @Test
+    public void testRemove() {
+        PropertyCollection properties = new PropertyCollection(Arrays.asList(
+            createProperty("k1", "name", "a"),
+            createProperty("k2", "name", "a"),
+            createProperty("k1", "age", ""),
+            createProperty("k1", "name", "a")
+        ));
+        assertProperties(properties.getProperties(), "age:k1:", "name:k1:a", "name:k2:a");
+
+        Iterator<Property> iteratorBeforeRemove = properties.getProperties().iterator();
+        properties.removeProperty(createProperty("k1", "name", "a"));
+        assertProperties(properties.getProperties(), "age:k1:", "name:k2:a");
+        assertProperties(() -> iteratorBeforeRemove, "age:k1:", "name:k1:a", "name:k2:a");
+
+        assertProperties(properties.removeProperties("name"), "name:k2:a");
+        assertProperties(properties.getProperties(), "age:k1:");
+        assertProperties(properties.removeProperties("name"));
+    }
+
+    private static Property createProperty(String key, String name, String visibility) {
+        return new MutablePropertyImpl(key, name, "value", null, 1L, null, new Visibility(visibility), FetchHints.ALL);
+    }
+
+    private static void assertProperties(Iterable<Property> properties, String... expected) {
+        List<String> found = new ArrayList<>();
+        for (Property property : properties) {
+            found.add(toString(property));
+        }
+        assertEquals(Arrays.asList(expected), found);
+    }
+
+    private static String toString(Property property) {
+        return property.getName() + ":" + property.getKey() + ":" + property.getVisibility().getVisibilityString();
+    }
+}
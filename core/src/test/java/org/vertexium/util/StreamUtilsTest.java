@@ -0,0 +1,46 @@
+package org.vertexium.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamUtilsTest {
+    @Test
+    public void testLazyFlatMap() {
+        List<Integer> results = StreamUtils.lazyFlatMap(Stream.of(1, 2, 3), i -> i == 2 ? Stream.empty() : Stream.of(i, i * 10))
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(1, 10, 3, 30), results);
+    }
+
+    @Test
+    public void testLazyFlatMapStopsPullingWhenLimited() {
+        AtomicInteger sourceCount = new AtomicInteger();
+        AtomicInteger mappedCount = new AtomicInteger();
+        List<Integer> results = StreamUtils.lazyFlatMap(
+            Stream.of(1, 2, 3).peek(i -> sourceCount.incrementAndGet()),
+            i -> IntStream.range(0, 1000).boxed().peek(j -> mappedCount.incrementAndGet())
+        )
+            .limit(3)
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(0, 1, 2), results);
+        assertEquals(1, sourceCount.get());
+        assertEquals(3, mappedCount.get());
+    }
+
+    @Test
+    public void testLazyFlatMapClosesStreams() {
+        AtomicInteger closeCount = new AtomicInteger();
+        Stream<Integer> source = Stream.of(1, 2).onClose(closeCount::incrementAndGet);
+        try (Stream<Integer> stream = StreamUtils.lazyFlatMap(source, i -> Stream.of(i).onClose(closeCount::incrementAndGet))) {
+            assertEquals(1, (int) stream.findFirst().get());
+        }
+        assertEquals(2, closeCount.get());
+    }
+}
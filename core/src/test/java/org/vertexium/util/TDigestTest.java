@@ -0,0 +1,89 @@
+package org.vertexium.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class TDigestTest {
+    @Test
+    public void testSmallInputIsExact() {
+        TDigest digest = new TDigest();
+        for (int i = 100; i >= 0; i--) {
+            digest.add(i);
+        }
+        assertEquals(0.0, digest.quantile(0.0), 0.0);
+        assertEquals(25.0, digest.quantile(0.25), 0.0);
+        assertEquals(99.99, digest.quantile(0.9999), 0.0001);
+        assertEquals(100.0, digest.quantile(1.0), 0.0);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+    }
+
+    @Test
+    public void testLargeInput() {
+        Random random = new Random(1);
+        TDigest digest = new TDigest();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            double value = random.nextGaussian() * 100;
+            values.add(value);
+            digest.add(value);
+        }
+        Collections.sort(values);
+        assertEquals(values.size(), digest.size());
+        assertEquals(values.get(0), digest.quantile(0.0), 0.0);
+        assertEquals(values.get(values.size() - 1), digest.quantile(1.0), 0.0);
+        for (double q : new double[]{0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999}) {
+            double expected = values.get((int) (q * (values.size() - 1)));
+            assertEquals("quantile " + q, expected, digest.quantile(q), 2.0);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        TDigest small = new TDigest();
+        TDigest otherSmall = new TDigest();
+        for (int i = 0; i <= 100; i++) {
+            (i % 2 == 0 ? small : otherSmall).add(i);
+        }
+        small.add(otherSmall);
+        assertEquals(101, small.size());
+        assertEquals(25.0, small.quantile(0.25), 0.0);
+        assertEquals(100.0, small.quantile(1.0), 0.0);
+
+        Random random = new Random(1);
+        TDigest digest = new TDigest();
+        List<Double> values = new ArrayList<>();
+        for (int part = 0; part < 10; part++) {
+            TDigest partDigest = new TDigest();
+            for (int i = 0; i < 10000; i++) {
+                double value = random.nextGaussian() * 100;
+                values.add(value);
+                partDigest.add(value);
+            }
+            digest.add(partDigest);
+        }
+        Collections.sort(values);
+        assertEquals(values.size(), digest.size());
+        assertEquals(values.get(0), digest.quantile(0.0), 0.0);
+        assertEquals(values.get(values.size() - 1), digest.quantile(1.0), 0.0);
+        // the centroids of merged digests are coarser at the tails, so compare the rank of the estimate instead
+        for (double q : new double[]{0.001, 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99, 0.999}) {
+            int rank = Collections.binarySearch(values, digest.quantile(q));
+            rank = rank < 0 ? -rank - 1 : rank;
+            assertEquals("quantile " + q, q, (double) rank / values.size(), 0.001);
+        }
+    }
+}
@@ -27,10 +27,20 @@ public class VertexiumCypherQuery {
         return new VertexiumCypherQuery(statement);
     }
 
+    public CypherStatement getStatement() {
+        return statement;
+    }
+
     public VertexiumCypherResult execute(VertexiumCypherQueryContext ctx) {
-        LOGGER.info("Executing:\n%s", statement);
-        ExecutionPlan plan = ctx.getExecutionPlanBuilder().build(ctx, statement);
-        LOGGER.info("Execution plan:\n%s", plan.toStringFull());
+        LOGGER.debug("Executing:\n%s", statement);
+        ExecutionPlan plan = getExecutionPlan(ctx);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Execution plan:\n%s", plan.toStringFull());
+        }
         return plan.execute(ctx);
     }
+
+    protected ExecutionPlan getExecutionPlan(VertexiumCypherQueryContext ctx) {
+        return ctx.getExecutionPlanBuilder().build(ctx, statement);
+    }
 }
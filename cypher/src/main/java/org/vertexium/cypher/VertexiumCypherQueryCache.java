@@ -0,0 +1,121 @@
+package org.vertexium.cypher;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.vertexium.FetchHints;
+import org.vertexium.cypher.ast.CypherCompilerContext;
+import org.vertexium.cypher.ast.model.CypherStatement;
+import org.vertexium.cypher.executionPlan.ExecutionPlan;
+import org.vertexium.cypher.executionPlan.ExecutionPlanBuilder;
+import org.vertexium.metric.Counter;
+import org.vertexium.metric.VertexiumMetricRegistry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds parsed queries, keyed by query text, so that repeatedly issued queries skip parsing and execution plan
+ * building. Parameters are read from the {@link VertexiumCypherQueryContext} each time a query is executed so
+ * parameterized queries can be shared between executions.
+ * <p>
+ * A cached query also keeps the execution plans built for it, keyed by the context's class, execution plan builder
+ * and fetch hints, since the plans depend on them. Contexts used with a cache should have the same functions.
+ */
+public class VertexiumCypherQueryCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    private final Cache<String, CachedVertexiumCypherQuery> queries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public VertexiumCypherQueryCache(VertexiumMetricRegistry metricRegistry) {
+        this(metricRegistry, DEFAULT_MAX_SIZE);
+    }
+
+    public VertexiumCypherQueryCache(VertexiumMetricRegistry metricRegistry, int maxSize) {
+        this.queries = Cache2kBuilder.of(String.class, CachedVertexiumCypherQuery.class)
+            .name(VertexiumCypherQueryCache.class, "queries-" + System.identityHashCode(this))
+            .entryCapacity(maxSize)
+            .eternal(true)
+            .build();
+        this.hitCounter = metricRegistry.getCounter(VertexiumCypherQueryCache.class, "hit", "counter");
+        this.missCounter = metricRegistry.getCounter(VertexiumCypherQueryCache.class, "miss", "counter");
+    }
+
+    /**
+     * Gets the parsed query for the given query text, parsing it if it is not already cached. Queries which fail
+     * to parse are not cached.
+     */
+    public VertexiumCypherQuery parse(CypherCompilerContext ctx, String queryString) {
+        CachedVertexiumCypherQuery query = queries.peek(queryString);
+        if (query != null) {
+            hitCounter.increment();
+            return query;
+        }
+        missCounter.increment();
+        query = new CachedVertexiumCypherQuery(VertexiumCypherQuery.parse(ctx, queryString).getStatement());
+        queries.put(queryString, query);
+        return query;
+    }
+
+    public void clear() {
+        queries.clear();
+    }
+
+    private static class CachedVertexiumCypherQuery extends VertexiumCypherQuery {
+        private static final int MAX_PLANS = 16;
+        private final Map<PlanKey, ExecutionPlan> plans = new ConcurrentHashMap<>();
+
+        CachedVertexiumCypherQuery(CypherStatement statement) {
+            super(statement);
+        }
+
+        @Override
+        protected ExecutionPlan getExecutionPlan(VertexiumCypherQueryContext ctx) {
+            PlanKey key = new PlanKey(ctx);
+            ExecutionPlan plan = plans.get(key);
+            if (plan == null) {
+                plan = super.getExecutionPlan(ctx);
+                // plans for contexts beyond the first few are built each time instead of growing without bound
+                if (plans.size() < MAX_PLANS) {
+                    ExecutionPlan existingPlan = plans.putIfAbsent(key, plan);
+                    if (existingPlan != null) {
+                        plan = existingPlan;
+                    }
+                }
+            }
+            return plan;
+        }
+    }
+
+    private static class PlanKey {
+        private final Class<?> contextClass;
+        private final ExecutionPlanBuilder executionPlanBuilder;
+        private final FetchHints fetchHints;
+
+        PlanKey(VertexiumCypherQueryContext ctx) {
+            this.contextClass = ctx.getClass();
+            this.executionPlanBuilder = ctx.getExecutionPlanBuilder();
+            this.fetchHints = ctx.getFetchHints();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanKey planKey = (PlanKey) o;
+            return contextClass == planKey.contextClass
+                && executionPlanBuilder == planKey.executionPlanBuilder
+                && Objects.equals(fetchHints, planKey.fetchHints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contextClass, System.identityHashCode(executionPlanBuilder), fetchHints);
+        }
+    }
+}
@@ -280,6 +280,29 @@ public abstract class VertexiumCypherQueryContext {
         return FetchHints.ALL;
     }
 
+    /**
+     * The most paths a variable length relationship such as [*1..5] may expand to for a single row. Expanding
+     * further fails the query instead of holding an unbounded number of paths in memory.
+     */
+    public int getMaxVariableLengthPathCount() {
+        return 100_000;
+    }
+
+    /**
+     * Gets the fetch hints for matched vertices and edges of which the plan only reads the given properties, the
+     * labels and the edges.
+     */
+    public FetchHints getFetchHints(Set<String> referencedPropertyNames) {
+        Set<String> propertyNames = referencedPropertyNames.stream()
+            .map(this::normalizePropertyName)
+            .collect(Collectors.toSet());
+        propertyNames.add(getLabelPropertyName());
+        return new FetchHintsBuilder(getFetchHints())
+            .setIncludeAllProperties(false)
+            .setPropertyNamesToInclude(propertyNames)
+            .build();
+    }
+
     public String calculateVertexId(CreateNodePatternExecutionStep nodePattern, CypherResultRow row) {
         return null;
     }
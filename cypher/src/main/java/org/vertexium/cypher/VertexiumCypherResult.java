@@ -1,5 +1,7 @@
 package org.vertexium.cypher;
 
+import org.vertexium.util.StreamUtils;
+
 import java.util.*;
 import java.util.function.*;
 import java.util.stream.*;
@@ -85,14 +87,18 @@ public class VertexiumCypherResult implements Stream<CypherResultRow> {
         return stream.mapToDouble(mapper);
     }
 
+    /**
+     * Unlike {@link Stream#flatMap(Function)} the mapped streams are consumed lazily, so a limit further down the
+     * pipeline stops the upstream matches from being produced.
+     */
     @Override
     public <R> Stream<R> flatMap(Function<? super CypherResultRow, ? extends Stream<? extends R>> mapper) {
-        return stream.flatMap(mapper);
+        return StreamUtils.lazyFlatMap(stream, mapper);
     }
 
     public VertexiumCypherResult flatMapCypherResult(Function<? super CypherResultRow, ? extends Stream<? extends CypherResultRow>> mapper) {
         return new VertexiumCypherResult(
-            stream.flatMap(mapper),
+            StreamUtils.lazyFlatMap(stream, mapper),
             getColumnNames()
         );
     }
@@ -146,6 +152,42 @@ public class VertexiumCypherResult implements Stream<CypherResultRow> {
         return stream.limit(maxSize);
     }
 
+    /**
+     * Limits the number of rows, reading the limit from the first row so that it can be computed by the execution
+     * plan. No more rows are pulled from upstream once the limit is reached.
+     */
+    public VertexiumCypherResult limit(ToLongFunction<? super CypherResultRow> limitFunction) {
+        Spliterator<CypherResultRow> source = stream.spliterator();
+        Spliterator<CypherResultRow> limited = new Spliterators.AbstractSpliterator<CypherResultRow>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private long limit = -1;
+            private long count;
+            private boolean accepted;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super CypherResultRow> action) {
+                if (limit >= 0 && count >= limit) {
+                    return false;
+                }
+                accepted = false;
+                boolean advanced = source.tryAdvance(row -> {
+                    if (limit < 0) {
+                        limit = limitFunction.applyAsLong(row);
+                    }
+                    if (count < limit) {
+                        count++;
+                        accepted = true;
+                        action.accept(row);
+                    }
+                });
+                return advanced && accepted;
+            }
+        };
+        return new VertexiumCypherResult(
+            StreamSupport.stream(limited, false).onClose(stream::close),
+            getColumnNames()
+        );
+    }
+
     @Override
     public Stream<CypherResultRow> skip(long n) {
         return stream.skip(n);
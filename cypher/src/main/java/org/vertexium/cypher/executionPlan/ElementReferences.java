@@ -0,0 +1,97 @@
+package org.vertexium.cypher.executionPlan;
+
+import org.vertexium.cypher.ast.model.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds which parts of the matched elements a statement references, so that elements can be fetched with only the
+ * properties the rest of the plan reads.
+ * <p>
+ * A variable only referenced through property lookups (n.name) or label checks (n:Person) needs just those
+ * properties. Any other use of a variable, such as returning it, passing it to a function or renaming it in a WITH,
+ * requires the whole element. Statements which update the graph, return * or name a path always use the full
+ * fetch hints.
+ */
+public class ElementReferences {
+    private final Map<String, Set<String>> propertyNamesByVariableName = new HashMap<>();
+    private final Set<String> fullyReferencedVariableNames = new HashSet<>();
+    private boolean readOnly = true;
+    private boolean allElementsFullyReferenced;
+
+    private ElementReferences() {
+    }
+
+    public static ElementReferences find(CypherStatement statement) {
+        ElementReferences references = new ElementReferences();
+        references.visit(statement);
+        return references;
+    }
+
+    /**
+     * @return true if the statement does not create, update or delete anything
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @param variableName the name of the matched element, or null for an unnamed element
+     * @return the property names referenced through the variable, or null if the whole element is needed
+     */
+    public Set<String> getReferencedPropertyNames(String variableName) {
+        if (!readOnly || allElementsFullyReferenced) {
+            return null;
+        }
+        if (variableName == null) {
+            return new HashSet<>();
+        }
+        if (fullyReferencedVariableNames.contains(variableName)) {
+            return null;
+        }
+        return new HashSet<>(propertyNamesByVariableName.getOrDefault(variableName, new HashSet<>()));
+    }
+
+    private void visit(CypherAstBase node) {
+        if (node == null) {
+            return;
+        }
+        if (node instanceof CypherCreateClause
+            || node instanceof CypherMergeClause
+            || node instanceof CypherSetClause
+            || node instanceof CypherRemoveClause
+            || node instanceof CypherDeleteClause) {
+            readOnly = false;
+        } else if (node instanceof CypherAllLiteral) {
+            allElementsFullyReferenced = true;
+        } else if (node instanceof CypherPatternPart && ((CypherPatternPart) node).getName() != null) {
+            allElementsFullyReferenced = true;
+        } else if (node instanceof CypherVariable) {
+            fullyReferencedVariableNames.add(((CypherVariable) node).getName());
+        } else if (node instanceof CypherLookup && ((CypherLookup) node).getAtom() instanceof CypherVariable) {
+            CypherLookup lookup = (CypherLookup) node;
+            String variableName = ((CypherVariable) lookup.getAtom()).getName();
+            Set<String> propertyNames = propertyNamesByVariableName.computeIfAbsent(variableName, k -> new HashSet<>());
+            if (lookup.getProperty() != null) {
+                propertyNames.add(lookup.getProperty().split("\\.")[0]);
+            }
+            lookup.getLabels().forEach(this::visit);
+            return;
+        } else if (node instanceof CypherElementPattern && ((CypherElementPattern) node).getName() != null) {
+            CypherElementPattern elementPattern = (CypherElementPattern) node;
+            propertyNamesByVariableName.computeIfAbsent(elementPattern.getName(), k -> new HashSet<>())
+                .addAll(elementPattern.getPropertiesMap().getKeys());
+        } else if (node instanceof CypherListLiteral) {
+            for (Object item : (CypherListLiteral<?>) node) {
+                if (item instanceof CypherAstBase) {
+                    visit((CypherAstBase) item);
+                }
+            }
+            return;
+        }
+        node.getChildren().forEach(this::visit);
+    }
+}
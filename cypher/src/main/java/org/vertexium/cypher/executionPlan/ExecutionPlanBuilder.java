@@ -9,38 +9,40 @@ import org.vertexium.cypher.exceptions.VertexiumCypherNotImplemented;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ExecutionPlanBuilder {
     public ExecutionPlan build(VertexiumCypherQueryContext ctx, CypherStatement statement) {
-        return new ExecutionPlan(visitStatement(ctx, statement));
+        ElementReferences references = ElementReferences.find(statement);
+        return new ExecutionPlan(visitStatement(ctx, references, statement));
     }
 
-    private ExecutionStep visitStatement(VertexiumCypherQueryContext ctx, CypherStatement statement) {
-        return visitQueryOrUnion(ctx, statement.getQuery());
+    private ExecutionStep visitStatement(VertexiumCypherQueryContext ctx, ElementReferences references, CypherStatement statement) {
+        return visitQueryOrUnion(ctx, references, statement.getQuery());
     }
 
-    private ExecutionStep visitQueryOrUnion(VertexiumCypherQueryContext ctx, CypherAstBase query) {
+    private ExecutionStep visitQueryOrUnion(VertexiumCypherQueryContext ctx, ElementReferences references, CypherAstBase query) {
         if (query instanceof CypherQuery) {
-            return visitQuery(ctx, (CypherQuery) query);
+            return visitQuery(ctx, references, (CypherQuery) query);
         } else if (query instanceof CypherUnion) {
-            return visitUnion(ctx, (CypherUnion) query);
+            return visitUnion(ctx, references, (CypherUnion) query);
         } else {
             throw new VertexiumCypherNotImplemented("unhandled query type: " + query.getClass().getName());
         }
     }
 
-    private ExecutionStep visitUnion(VertexiumCypherQueryContext ctx, CypherUnion union) {
+    private ExecutionStep visitUnion(VertexiumCypherQueryContext ctx, ElementReferences references, CypherUnion union) {
         return new UnionExecutionStep(
             union.isAll(),
-            visitQueryOrUnion(ctx, union.getLeft()),
-            visitQueryOrUnion(ctx, union.getRight())
+            visitQueryOrUnion(ctx, references, union.getLeft()),
+            visitQueryOrUnion(ctx, references, union.getRight())
         );
     }
 
-    private ExecutionStep visitQuery(VertexiumCypherQueryContext ctx, CypherQuery query) {
+    private ExecutionStep visitQuery(VertexiumCypherQueryContext ctx, ElementReferences references, CypherQuery query) {
         SeriesExecutionStep executionPlan = new SeriesExecutionStep();
         ImmutableList<CypherClause> clauses = query.getClauses();
         for (int i = 0; i < clauses.size(); i++) {
@@ -48,7 +50,10 @@ public class ExecutionPlanBuilder {
             if (clause instanceof CypherCreateClause) {
                 executionPlan.addChildStep(visitCreateClause(ctx, (CypherCreateClause) clause));
             } else if (clause instanceof CypherMatchClause) {
-                executionPlan.addChildStep(visitMatchClause(ctx, (CypherMatchClause) clause));
+                CypherReturnClause returnClause = i == 0 && clauses.size() == 2 && clauses.get(1) instanceof CypherReturnClause
+                    ? (CypherReturnClause) clauses.get(1)
+                    : null;
+                executionPlan.addChildStep(visitMatchClause(ctx, references, (CypherMatchClause) clause, i == 0, returnClause));
             } else if (clause instanceof CypherReturnClause) {
                 executionPlan.addChildStep(visitReturnClause(ctx, (CypherReturnClause) clause));
             } else if (clause instanceof CypherUnwindClause) {
@@ -62,7 +67,7 @@ public class ExecutionPlanBuilder {
             } else if (clause instanceof CypherWithClause) {
                 executionPlan.addChildStep(visitWithClause(ctx, (CypherWithClause) clause));
             } else if (clause instanceof CypherMergeClause) {
-                executionPlan.addChildStep(visitMergeClause(ctx, (CypherMergeClause) clause));
+                executionPlan.addChildStep(visitMergeClause(ctx, references, (CypherMergeClause) clause));
             } else {
                 throw new VertexiumCypherNotImplemented("unhandled clause type (" + clause.getClass().getName() + "): " + clause);
             }
@@ -75,7 +80,7 @@ public class ExecutionPlanBuilder {
         return executionPlan;
     }
 
-    private ExecutionStep visitMergeClause(VertexiumCypherQueryContext ctx, CypherMergeClause clause) {
+    private ExecutionStep visitMergeClause(VertexiumCypherQueryContext ctx, ElementReferences references, CypherMergeClause clause) {
         CypherPatternPart patternPart = clause.getPatternPart();
         for (CypherElementPattern elementPattern : patternPart.getElementPatterns()) {
             String resultName = elementPattern.getName();
@@ -86,7 +91,7 @@ public class ExecutionPlanBuilder {
         return new SeriesExecutionStep(
             new MatchExecutionStep(
                 new PatternPartExecutionStep[]{
-                    visitPatternPart(ctx, true, patternPart)
+                    visitPatternPart(ctx, references, true, patternPart, null)
                 },
                 null
             ),
@@ -385,27 +390,72 @@ public class ExecutionPlanBuilder {
         return new GetVariableExecutionStep(resultName, expression.getName());
     }
 
-    private MatchExecutionStep visitMatchClause(VertexiumCypherQueryContext ctx, CypherMatchClause clause) {
+    /**
+     * @param firstClause  true if the match is the first clause of the query, in which case filters on the first
+     *                     node are pushed down to the query which finds it
+     * @param returnClause the RETURN clause if it directly follows the match and is the last clause of the query
+     */
+    private MatchExecutionStep visitMatchClause(
+        VertexiumCypherQueryContext ctx,
+        ElementReferences references,
+        CypherMatchClause clause,
+        boolean firstClause,
+        CypherReturnClause returnClause
+    ) {
+        CypherListLiteral<CypherPatternPart> patternParts = clause.getPatternParts();
+        CypherAstBase whereExpression = clause.getWhereExpression();
+        QueryPushdown queryPushdown = null;
+        CypherElementPattern firstElementPattern = patternParts.get(0).getElementPatterns().get(0);
+        if (firstClause
+            && !clause.isOptional()
+            && firstElementPattern instanceof CypherNodePattern
+            && firstElementPattern.getName() != null) {
+            QueryPushdownBuilder queryPushdownBuilder = new QueryPushdownBuilder(this, ctx, firstElementPattern.getName());
+            whereExpression = queryPushdownBuilder.addWhereExpression(whereExpression);
+            if (whereExpression == null
+                && returnClause != null
+                && patternParts.size() == 1
+                && patternParts.get(0).getElementPatterns().size() == 1) {
+                queryPushdownBuilder.addReturnClause(returnClause);
+            }
+            queryPushdown = queryPushdownBuilder.build();
+        }
+
+        PatternPartExecutionStep[] patternPartExecutionSteps = new PatternPartExecutionStep[patternParts.size()];
+        for (int i = 0; i < patternParts.size(); i++) {
+            patternPartExecutionSteps[i] = visitPatternPart(
+                ctx,
+                references,
+                clause.isOptional(),
+                patternParts.get(i),
+                i == 0 ? queryPushdown : null
+            );
+        }
         return new MatchExecutionStep(
-            clause.getPatternParts().stream()
-                .map(patternPart -> visitPatternPart(ctx, clause.isOptional(), patternPart))
-                .toArray(PatternPartExecutionStep[]::new),
-            clause.getWhereExpression() == null ? null : visitWhereExpression(ctx, clause.getWhereExpression())
+            patternPartExecutionSteps,
+            whereExpression == null ? null : visitWhereExpression(ctx, whereExpression)
         );
     }
 
     @SuppressWarnings("unchecked")
-    private PatternPartExecutionStep visitPatternPart(VertexiumCypherQueryContext ctx, boolean optional, CypherPatternPart patternPart) {
+    private PatternPartExecutionStep visitPatternPart(
+        VertexiumCypherQueryContext ctx,
+        ElementReferences references,
+        boolean optional,
+        CypherPatternPart patternPart,
+        QueryPushdown firstNodeQueryPushdown
+    ) {
         CypherListLiteral<CypherElementPattern> elementPatterns = patternPart.getElementPatterns();
-        List<MatchPartExecutionStep> steps = elementPatterns.stream()
-            .map(elementPattern -> {
-                String resultName = elementPattern.getName();
-                if (resultName == null) {
-                    resultName = UUID.randomUUID().toString();
-                }
-                return createMatchPartExecutionStep(ctx, resultName, optional, elementPattern);
-            })
-            .collect(Collectors.toList());
+        List<MatchPartExecutionStep> steps = new ArrayList<>();
+        for (int i = 0; i < elementPatterns.size(); i++) {
+            CypherElementPattern elementPattern = elementPatterns.get(i);
+            String resultName = elementPattern.getName();
+            if (resultName == null) {
+                resultName = UUID.randomUUID().toString();
+            }
+            QueryPushdown queryPushdown = i == 0 ? firstNodeQueryPushdown : null;
+            steps.add(createMatchPartExecutionStep(ctx, references, resultName, optional, elementPattern, queryPushdown));
+        }
 
         MatchPartExecutionStep[] matchPartExecutionSteps = new MatchPartExecutionStep[steps.size()];
         for (int i = 0; i < steps.size(); i++) {
@@ -426,21 +476,31 @@ public class ExecutionPlanBuilder {
 
     private MatchPartExecutionStep createMatchPartExecutionStep(
         VertexiumCypherQueryContext ctx,
+        ElementReferences references,
         String resultName,
         boolean optional,
-        CypherElementPattern elementPattern
+        CypherElementPattern elementPattern,
+        QueryPushdown queryPushdown
     ) {
         if (elementPattern instanceof CypherNodePattern) {
             CypherNodePattern nodePattern = (CypherNodePattern) elementPattern;
+            Set<String> referencedPropertyNames = references.getReferencedPropertyNames(elementPattern.getName());
             return new MatchNodePartExecutionStep(
                 elementPattern.getName(),
                 resultName,
                 optional,
                 nodePattern.getLabelNames().stream().map(CypherLiteral::getValue).collect(Collectors.toSet()),
-                visitPropertyMap(ctx, nodePattern.getPropertiesMap())
+                visitPropertyMap(ctx, nodePattern.getPropertiesMap()),
+                referencedPropertyNames == null ? ctx.getFetchHints() : ctx.getFetchHints(referencedPropertyNames),
+                references.isReadOnly() ? MatchNodePartExecutionStep.DEFAULT_VERTEX_BATCH_SIZE : 1,
+                queryPushdown
             );
         } else if (elementPattern instanceof CypherRelationshipPattern) {
             CypherRelationshipPattern relPattern = (CypherRelationshipPattern) elementPattern;
+            Set<String> referencedPropertyNames = references.getReferencedPropertyNames(elementPattern.getName());
+            if (referencedPropertyNames != null) {
+                referencedPropertyNames.addAll(relPattern.getPropertiesMap().getKeys());
+            }
             return new MatchRelationshipPartExecutionStep(
                 elementPattern.getName(),
                 resultName,
@@ -450,7 +510,8 @@ public class ExecutionPlanBuilder {
                     : relPattern.getRelTypeNames().stream().map(CypherLiteral::getValue).collect(Collectors.toList()),
                 relPattern.getDirection(),
                 relPattern.getRange(),
-                visitPropertyMap(ctx, relPattern.getPropertiesMap())
+                visitPropertyMap(ctx, relPattern.getPropertiesMap()),
+                referencedPropertyNames == null ? ctx.getFetchHints() : ctx.getFetchHints(referencedPropertyNames)
             );
         } else {
             throw new VertexiumCypherException("Expected a node or relationship pattern found " + elementPattern.getClass().getName());
@@ -1,32 +1,60 @@
 package org.vertexium.cypher.executionPlan;
 
+import com.google.common.collect.Iterators;
 import org.vertexium.Element;
+import org.vertexium.FetchHints;
 import org.vertexium.Vertex;
 import org.vertexium.cypher.CypherResultRow;
 import org.vertexium.cypher.RelationshipRangePathResult;
 import org.vertexium.cypher.VertexiumCypherQueryContext;
+import org.vertexium.cypher.VertexiumCypherResult;
 import org.vertexium.cypher.exceptions.VertexiumCypherException;
 import org.vertexium.query.Query;
 import org.vertexium.query.QueryResultsIterable;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.vertexium.util.StreamUtils.stream;
+
 public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRelationshipPartExecutionStep> {
+    public static final int DEFAULT_VERTEX_BATCH_SIZE = 100;
     private final Set<String> labelNames;
+    private final FetchHints fetchHints;
+    private final int vertexBatchSize;
+    private final QueryPushdown queryPushdown;
 
+    /**
+     * @param fetchHints      the fetch hints used to get the matched vertices
+     * @param vertexBatchSize the number of rows whose connected vertices are fetched together. Statements which
+     *                        update the graph should use 1 so that each row sees the changes made by the rows
+     *                        before it.
+     * @param queryPushdown   filters, sort and limit added to the query which finds the vertices or null
+     */
     public MatchNodePartExecutionStep(
         String originalName,
         String resultName,
         boolean optional,
         Set<String> labelNames,
-        List<ExecutionStepWithResultName> properties
+        List<ExecutionStepWithResultName> properties,
+        FetchHints fetchHints,
+        int vertexBatchSize,
+        QueryPushdown queryPushdown
     ) {
         super(originalName, resultName, optional, properties);
         this.labelNames = labelNames;
+        this.fetchHints = fetchHints;
+        this.vertexBatchSize = vertexBatchSize;
+        this.queryPushdown = queryPushdown;
+        if (queryPushdown != null) {
+            queryPushdown.getValueSteps().forEach(this::addChildStep);
+        }
+    }
+
+    @Override
+    protected boolean applyQueryPushdown(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q) {
+        return queryPushdown == null || queryPushdown.apply(ctx, row, q);
     }
 
     @Override
@@ -35,12 +63,44 @@ public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRela
         for (String labelName : labelNames) {
             q = q.has(ctx.getLabelPropertyName(), ctx.normalizeLabelName(labelName));
         }
-        elements = q.vertices(ctx.getFetchHints()); // TODO calculate best fetch hints
+        elements = q.vertices(fetchHints);
         return elements;
     }
 
+    @Override
+    public VertexiumCypherResult executeConnectedQuery(VertexiumCypherQueryContext ctx, VertexiumCypherResult source) {
+        return new VertexiumCypherResult(
+            stream(Iterators.partition(source.iterator(), vertexBatchSize))
+                .flatMap(rows -> executeConnectedGetElements(ctx, rows)),
+            source.getColumnNames()
+        );
+    }
+
     @Override
     protected Stream<? extends CypherResultRow> executeConnectedGetElements(VertexiumCypherQueryContext ctx, CypherResultRow row) {
+        return executeConnectedGetElements(ctx, Collections.singletonList(row));
+    }
+
+    private Stream<CypherResultRow> executeConnectedGetElements(VertexiumCypherQueryContext ctx, List<CypherResultRow> rows) {
+        Set<String> vertexIds = rows.stream()
+            .filter(row -> row.get(getResultName()) == null)
+            .map(this::getOtherVertexIds)
+            .filter(ids -> ids.size() == 1)
+            .map(ids -> ids.iterator().next())
+            .collect(Collectors.toSet());
+        Map<String, Vertex> verticesById = vertexIds.size() == 0
+            ? Collections.emptyMap()
+            : stream(ctx.getGraph().getVertices(vertexIds, fetchHints, ctx.getAuthorizations()))
+            .collect(Collectors.toMap(Element::getId, v -> v));
+        return rows.stream()
+            .flatMap(row -> executeConnectedGetElements(ctx, row, verticesById));
+    }
+
+    private Stream<? extends CypherResultRow> executeConnectedGetElements(
+        VertexiumCypherQueryContext ctx,
+        CypherResultRow row,
+        Map<String, Vertex> verticesById
+    ) {
         if (row.get(getResultName()) != null) {
             // TODO apply additional filters?
             return Stream.of(row);
@@ -55,10 +115,7 @@ public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRela
             return Stream.of(row);
         }
 
-        Set<String> vertexIds = getConnectedSteps().stream()
-            .map(step -> step.getOtherVertexId(row, this))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
+        Set<String> vertexIds = getOtherVertexIds(row);
         if (vertexIds.size() == 0) {
             if (isConnectedToZeroLengthEdge(row)) {
                 return executeInitialQuery(ctx, row);
@@ -69,7 +126,7 @@ public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRela
             throw new VertexiumCypherException("expecting only a single vertex but found: " + vertexIds.size());
         }
         String vertexId = vertexIds.iterator().next();
-        Vertex vertex = ctx.getGraph().getVertex(vertexId, ctx.getAuthorizations()); // TODO fetch hints
+        Vertex vertex = verticesById.get(vertexId);
         if (vertex == null) {
             throw new VertexiumCypherException("could not find vertex " + vertexId);
         }
@@ -87,6 +144,16 @@ public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRela
         return Stream.of(row);
     }
 
+    private Set<String> getOtherVertexIds(CypherResultRow row) {
+        if (getConnectedSteps().size() == 0 || (isOptional() && isAllConnectedStepsCompletedAndNull(row))) {
+            return Collections.emptySet();
+        }
+        return getConnectedSteps().stream()
+            .map(step -> step.getOtherVertexId(row, this))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
     private boolean isConnectedToZeroLengthEdge(CypherResultRow row) {
         return getConnectedSteps().stream()
             .anyMatch(step -> {
@@ -108,6 +175,6 @@ public class MatchNodePartExecutionStep extends MatchPartExecutionStep<MatchRela
 
     @Override
     public String toString() {
-        return String.format("%s {labelNames=%s}", super.toString(), labelNames);
+        return String.format("%s {labelNames=%s, queryPushdown=%s}", super.toString(), labelNames, queryPushdown);
     }
 }
@@ -82,13 +82,17 @@ public abstract class MatchPartExecutionStep<TC extends MatchPartExecutionStep>
             q.has(propertyName, value);
         }
 
-        QueryResultsIterable<? extends Element> elements = getElements(ctx, q);
-        if (elements.getTotalHits() == 0 && isOptional()) {
+        QueryResultsIterable<? extends Element> elements = applyQueryPushdown(ctx, row, q) ? getElements(ctx, q) : null;
+        if ((elements == null || elements.getTotalHits() == 0) && isOptional()) {
             CypherResultRow newRow = row.clone()
                 .set(getResultName(), null);
             return new SingleRowVertexiumCypherResult(newRow);
         }
 
+        if (elements == null) {
+            return Stream.empty();
+        }
+
         return stream(elements)
             .map(element -> {
                 CypherResultRow newRow = row.clone();
@@ -97,6 +101,15 @@ public abstract class MatchPartExecutionStep<TC extends MatchPartExecutionStep>
             });
     }
 
+    /**
+     * Adds the filters which were pushed down from the rest of the query.
+     *
+     * @return false if no element can match
+     */
+    protected boolean applyQueryPushdown(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q) {
+        return true;
+    }
+
     protected abstract QueryResultsIterable<? extends Element> getElements(VertexiumCypherQueryContext ctx, Query q);
 
     public VertexiumCypherResult executeConnectedQuery(VertexiumCypherQueryContext ctx, VertexiumCypherResult source) {
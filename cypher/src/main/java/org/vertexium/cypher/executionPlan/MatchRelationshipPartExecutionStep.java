@@ -1,9 +1,6 @@
 package org.vertexium.cypher.executionPlan;
 
-import org.vertexium.Direction;
-import org.vertexium.Edge;
-import org.vertexium.Element;
-import org.vertexium.Vertex;
+import org.vertexium.*;
 import org.vertexium.cypher.CypherResultRow;
 import org.vertexium.cypher.PathResultBase;
 import org.vertexium.cypher.RelationshipRangePathResult;
@@ -27,7 +24,12 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
     private final List<String> relTypesNames;
     private final CypherDirection direction;
     private final CypherRangeLiteral range;
+    private final FetchHints fetchHints;
 
+    /**
+     * @param fetchHints the fetch hints used to get the matched edges. Edges are only fetched once their relationship
+     *                   type and other vertex have been checked against the edge infos of the connected vertex.
+     */
     public MatchRelationshipPartExecutionStep(
         String originalName,
         String resultName,
@@ -35,12 +37,14 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
         List<String> relTypesNames,
         CypherDirection direction,
         CypherRangeLiteral range,
-        List<ExecutionStepWithResultName> properties
+        List<ExecutionStepWithResultName> properties,
+        FetchHints fetchHints
     ) {
         super(originalName, resultName, optional, properties);
         this.relTypesNames = relTypesNames;
         this.direction = direction;
         this.range = range;
+        this.fetchHints = fetchHints;
     }
 
     @Override
@@ -49,7 +53,7 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
         if (relTypesNames.size() > 0) {
             throw new VertexiumCypherNotImplemented("cannot filter rel types names");
         }
-        elements = q.edges(ctx.getFetchHints()); // TODO calculate best fetch hints
+        elements = q.edges(fetchHints);
         return elements;
     }
 
@@ -80,30 +84,26 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
 
         Set<EdgeData> edgeDatas = new HashSet<>();
 
+        // a single relationship between two matched vertices must end at the other vertex, a range may pass
+        // through any number of vertices first
         if (left != null) {
             Direction direction = toVertexiumQueryDirection(this.direction);
-            Set<EdgeData> leftEdgeData = stream(left.getEdgeIds(direction, ctx.getAuthorizations()))
-                .map(edgeId -> new EdgeData(left, edgeId))
-                .collect(Collectors.toSet());
-            edgeDatas.addAll(leftEdgeData);
+            String otherVertexId = range == null && right != null ? right.getId() : null;
+            edgeDatas.addAll(getEdgeDatas(ctx, left, direction, otherVertexId, Collections.emptySet()));
         }
 
         // if this is a cyclic edge (left == right) don't add the edge id twice
         if (right != null && left != right) {
             Direction direction = toVertexiumQueryDirection(this.direction).reverse();
-            Set<EdgeData> rightEdgeData = stream(right.getEdgeIds(direction, ctx.getAuthorizations()))
-                .map(edgeId -> new EdgeData(right, edgeId))
-                .collect(Collectors.toSet());
-            edgeDatas.addAll(rightEdgeData);
+            String otherVertexId = range == null && left != null ? left.getId() : null;
+            edgeDatas.addAll(getEdgeDatas(ctx, right, direction, otherVertexId, Collections.emptySet()));
         }
 
         edgeDatas = populateAndFilterEdgeData(ctx, row, edgeDatas);
 
         Stream<Object> result;
         if (range != null) {
-            result = edgeDatas.stream()
-                .map(edgeData -> new RelationshipRangePathResult(edgeData.source, edgeData.edge))
-                .flatMap(path -> expandPath(ctx, row, path, range))
+            result = expandRange(ctx, row, edgeDatas).stream()
                 .map(path -> new RelationshipRangePathResult(path.getElements().skip(1).collect(Collectors.toList())))
                 .filter(p -> p.getTailElement() instanceof Edge)
                 .distinct()
@@ -124,49 +124,129 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
         }
     }
 
-    private Stream<PathResultBase> expandPath(
+    /**
+     * Expands the paths of a variable length relationship one hop at a time, all paths of the same length together,
+     * so each hop fetches the vertices at the end of the paths and then their matching edges in one batch. An edge
+     * is used at most once per path.
+     *
+     * @return the paths in range, each starting with the vertex it was expanded from
+     */
+    private List<RelationshipRangePathResult> expandRange(VertexiumCypherQueryContext ctx, CypherResultRow row, Set<EdgeData> edgeDatas) {
+        List<RelationshipRangePathResult> results = new ArrayList<>();
+        if (range.getTo() != null && range.getTo() == 0) {
+            return results;
+        }
+
+        int maxPathCount = ctx.getMaxVariableLengthPathCount();
+        List<RangePath> frontier = edgeDatas.stream()
+            .map(edgeData -> new RangePath(new RelationshipRangePathResult(edgeData.source, edgeData.edge), edgeData.direction))
+            .collect(Collectors.toList());
+        if (frontier.size() > maxPathCount) {
+            throw tooManyPathsException(maxPathCount);
+        }
+        for (int length = 1; frontier.size() > 0; length++) {
+            if (range.isInRange(length)) {
+                frontier.forEach(rangePath -> results.add(rangePath.path));
+            }
+            if (range.getTo() != null && length >= range.getTo()) {
+                break;
+            }
+            frontier = expandFrontier(ctx, row, frontier, maxPathCount - results.size(), maxPathCount);
+        }
+        return results;
+    }
+
+    /**
+     * @param maxExpandedPaths the most paths the frontier may expand to, checked as each path is added so a
+     *                         frontier with many edges fails before all of its paths are built
+     */
+    private List<RangePath> expandFrontier(
         VertexiumCypherQueryContext ctx,
         CypherResultRow row,
-        RelationshipRangePathResult path,
-        CypherRangeLiteral range
+        List<RangePath> frontier,
+        int maxExpandedPaths,
+        int maxPathCount
     ) {
-        Stream<PathResultBase> results;
-        if (range.getTo() != null && range.getTo() == 0) {
-            return Stream.empty();
-        }
-        if (range.isInRange(path.getLength())) {
-            results = Stream.of(path);
-        } else {
-            results = Stream.empty();
+        Set<String> tailVertexIds = frontier.stream()
+            .map(RangePath::getTailVertexId)
+            .collect(Collectors.toSet());
+        Map<String, Vertex> verticesById = stream(ctx.getGraph().getVertices(tailVertexIds, ctx.getFetchHints(), ctx.getAuthorizations()))
+            .collect(Collectors.toMap(Element::getId, v -> v));
+
+        List<RangePath> expandedPaths = new ArrayList<>();
+        Map<RangePath, Set<EdgeData>> edgeDatasByPath = new LinkedHashMap<>();
+        for (RangePath rangePath : frontier) {
+            Vertex vertex = verticesById.get(rangePath.getTailVertexId());
+            if (vertex == null) {
+                continue;
+            }
+            RelationshipRangePathResult path = new RelationshipRangePathResult(rangePath.path, vertex);
+            Set<String> pathEdgeIds = path.getEdges().map(Element::getId).collect(Collectors.toSet());
+            Set<EdgeData> edgeDatas = getEdgeDatas(ctx, vertex, rangePath.direction, null, pathEdgeIds);
+            edgeDatasByPath.put(new RangePath(path, rangePath.direction), edgeDatas);
         }
 
-        Element lastElement = path.getTailElement();
-        if (lastElement instanceof Edge) {
-            Edge edge = (Edge) lastElement;
-            String vertexId = edge.getOtherVertexId(path.getLastVertex().getId());
-            if (path.containsVertexId(vertexId)) {
-                return results;
+        Set<EdgeData> allEdgeDatas = new HashSet<>();
+        edgeDatasByPath.values().forEach(allEdgeDatas::addAll);
+        Map<String, Edge> edgesById = populateAndFilterEdgeData(ctx, row, allEdgeDatas).stream()
+            .collect(Collectors.toMap(edgeData -> edgeData.edgeId, edgeData -> edgeData.edge));
+        for (Map.Entry<RangePath, Set<EdgeData>> entry : edgeDatasByPath.entrySet()) {
+            RangePath rangePath = entry.getKey();
+            for (EdgeData edgeData : entry.getValue()) {
+                Edge edge = edgesById.get(edgeData.edgeId);
+                if (edge == null) {
+                    continue;
+                }
+                if (expandedPaths.size() >= maxExpandedPaths) {
+                    throw tooManyPathsException(maxPathCount);
+                }
+                expandedPaths.add(new RangePath(new RelationshipRangePathResult(rangePath.path, edge), rangePath.direction));
             }
-            Vertex vertex = ctx.getGraph().getVertex(vertexId, ctx.getAuthorizations());
-            return Stream.concat(results, expandPath(ctx, row, new RelationshipRangePathResult(path, vertex), range));
-        } else if (lastElement instanceof Vertex) {
-            Vertex vertex = (Vertex) lastElement;
-            Set<EdgeData> edgeDatas = stream(vertex.getEdgeIds(toVertexiumQueryDirection(this.direction), ctx.getAuthorizations()))
-                .map(edgeId -> new EdgeData(vertex, edgeId))
-                .collect(Collectors.toSet());
-            edgeDatas = populateAndFilterEdgeData(ctx, row, edgeDatas);
-            Stream<PathResultBase> additionalPaths = edgeDatas.stream()
-                .map(edgeData -> new RelationshipRangePathResult(path, edgeData.edge))
-                .flatMap(p -> expandPath(ctx, row, p, range));
-            return Stream.concat(results, additionalPaths);
+        }
+        return expandedPaths;
+    }
+
+    private VertexiumCypherException tooManyPathsException(int maxPathCount) {
+        return new VertexiumCypherException(String.format(
+            "Variable length relationship %s expanded to more than %d paths",
+            getOriginalName() == null ? "" : getOriginalName(),
+            maxPathCount
+        ));
+    }
+
+    /**
+     * Uses the edge infos of the vertex, which come with the vertex, to find the edges with one of the relationship
+     * types and, if given, ending at the other vertex without fetching any edges.
+     */
+    private Set<EdgeData> getEdgeDatas(
+        VertexiumCypherQueryContext ctx,
+        Vertex vertex,
+        Direction direction,
+        String otherVertexId,
+        Set<String> excludedEdgeIds
+    ) {
+        Iterable<EdgeInfo> edgeInfos;
+        if (relTypesNames.size() > 0) {
+            String[] labels = relTypesNames.stream()
+                .map(ctx::normalizeLabelName)
+                .toArray(String[]::new);
+            edgeInfos = vertex.getEdgeInfos(direction, labels, ctx.getAuthorizations());
         } else {
-            throw new VertexiumCypherNotImplemented("Unhandled element type: " + lastElement.getClass().getName());
+            edgeInfos = vertex.getEdgeInfos(direction, ctx.getAuthorizations());
         }
+        return stream(edgeInfos)
+            .filter(edgeInfo -> otherVertexId == null || otherVertexId.equals(edgeInfo.getVertexId()))
+            .filter(edgeInfo -> !excludedEdgeIds.contains(edgeInfo.getEdgeId()))
+            .map(edgeInfo -> new EdgeData(vertex, direction, edgeInfo.getEdgeId()))
+            .collect(Collectors.toSet());
     }
 
     private Set<EdgeData> populateAndFilterEdgeData(VertexiumCypherQueryContext ctx, CypherResultRow row, Set<EdgeData> edgeDatas) {
+        if (edgeDatas.size() == 0) {
+            return edgeDatas;
+        }
         Iterable<String> edgeIds = edgeDatas.stream().map(ed -> ed.edgeId).collect(Collectors.toList());
-        Map<String, Edge> edgesById = stream(ctx.getGraph().getEdges(edgeIds, ctx.getAuthorizations()))
+        Map<String, Edge> edgesById = stream(ctx.getGraph().getEdges(edgeIds, fetchHints, ctx.getAuthorizations()))
             .collect(Collectors.toMap(Element::getId, e -> e));
         return edgeDatas.stream()
             .peek(edgeData -> edgeData.edge = edgesById.get(edgeData.edgeId))
@@ -245,11 +325,13 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
 
     private static class EdgeData {
         public final Vertex source;
+        public final Direction direction;
         public final String edgeId;
         public Edge edge;
 
-        public EdgeData(Vertex source, String edgeId) {
+        public EdgeData(Vertex source, Direction direction, String edgeId) {
             this.source = source;
+            this.direction = direction;
             this.edgeId = edgeId;
         }
 
@@ -270,4 +352,23 @@ public class MatchRelationshipPartExecutionStep extends MatchPartExecutionStep<M
             return Objects.hash(edgeId);
         }
     }
+
+    /**
+     * A path ending in an edge and the direction it is expanded in, which is reversed for paths expanded from the
+     * right hand vertex of the pattern.
+     */
+    private static class RangePath {
+        public final RelationshipRangePathResult path;
+        public final Direction direction;
+
+        public RangePath(RelationshipRangePathResult path, Direction direction) {
+            this.path = path;
+            this.direction = direction;
+        }
+
+        public String getTailVertexId() {
+            Edge edge = (Edge) path.getTailElement();
+            return edge.getOtherVertexId(path.getLastVertex().getId());
+        }
+    }
 }
@@ -0,0 +1,205 @@
+package org.vertexium.cypher.executionPlan;
+
+import org.vertexium.PropertyDefinition;
+import org.vertexium.cypher.CypherResultRow;
+import org.vertexium.cypher.VertexiumCypherQueryContext;
+import org.vertexium.cypher.exceptions.VertexiumCypherTypeErrorException;
+import org.vertexium.query.Compare;
+import org.vertexium.query.Contains;
+import org.vertexium.query.Predicate;
+import org.vertexium.query.Query;
+import org.vertexium.query.SortDirection;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Predicates, sort and limit taken from the WHERE and RETURN clauses of a query which are added to the
+ * {@link Query} that finds the first node of a MATCH, so the search index filters, sorts and limits the vertices
+ * instead of every vertex being fetched and filtered row by row.
+ */
+public class QueryPushdown {
+    private final List<PushedPredicate> predicates;
+    private final List<String> sortPropertyNames;
+    private final String skipResultName;
+    private final String limitResultName;
+    private final List<ExecutionStepWithResultName> valueSteps;
+
+    QueryPushdown(
+        List<PushedPredicate> predicates,
+        List<String> sortPropertyNames,
+        String skipResultName,
+        String limitResultName,
+        List<ExecutionStepWithResultName> valueSteps
+    ) {
+        this.predicates = predicates;
+        this.sortPropertyNames = sortPropertyNames;
+        this.skipResultName = skipResultName;
+        this.limitResultName = limitResultName;
+        this.valueSteps = valueSteps;
+    }
+
+    /**
+     * The steps which compute the values compared against, these need to run on the row before {@link #apply}.
+     */
+    public List<ExecutionStepWithResultName> getValueSteps() {
+        return valueSteps;
+    }
+
+    /**
+     * @return false if the values in the row mean no vertex can match, for example comparing to null
+     */
+    public boolean apply(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q) {
+        for (PushedPredicate predicate : predicates) {
+            if (!predicate.apply(ctx, row, q)) {
+                return false;
+            }
+        }
+        List<String> normalizedSortPropertyNames = sortPropertyNames.stream()
+            .map(ctx::normalizePropertyName)
+            .collect(Collectors.toList());
+        // the search index compares strings ignoring case where Cypher does not, so the vertices it would return
+        // for anything but a numeric sort may not be the first vertices in Cypher order
+        if (!normalizedSortPropertyNames.stream().allMatch(propertyName -> isNumericProperty(ctx, propertyName))) {
+            return true;
+        }
+        for (String normalizedSortPropertyName : normalizedSortPropertyNames) {
+            q.sort(normalizedSortPropertyName, SortDirection.ASCENDING);
+        }
+        if (limitResultName != null) {
+            Object limit = row.get(limitResultName);
+            Object skip = skipResultName == null ? 0L : row.get(skipResultName);
+            // invalid values are left for the RETURN clause to report
+            if (limit instanceof Number && skip instanceof Number
+                && ((Number) limit).longValue() >= 0 && ((Number) skip).longValue() >= 0) {
+                q.limit(((Number) skip).longValue() + ((Number) limit).longValue());
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNumericProperty(VertexiumCypherQueryContext ctx, String propertyName) {
+        PropertyDefinition propertyDefinition = ctx.getGraph().getPropertyDefinition(propertyName);
+        return propertyDefinition != null && Number.class.isAssignableFrom(propertyDefinition.getDataType());
+    }
+
+    /**
+     * Values of a different type than the property never compare equal or ordered in Cypher, so they can not
+     * match.
+     */
+    private static boolean isSameType(PropertyDefinition propertyDefinition, Object value) {
+        if (propertyDefinition == null) {
+            return true;
+        }
+        Class<?> dataType = propertyDefinition.getDataType();
+        if (Number.class.isAssignableFrom(dataType)) {
+            return value instanceof Number;
+        }
+        if (dataType == String.class || dataType == Boolean.class) {
+            return dataType.isInstance(value);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "QueryPushdown {predicates=%s, sortPropertyNames=%s, skipResultName=%s, limitResultName=%s}",
+            predicates,
+            sortPropertyNames,
+            skipResultName,
+            limitResultName
+        );
+    }
+
+    interface PushedPredicate {
+        boolean apply(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q);
+    }
+
+    static class PropertyPredicate implements PushedPredicate {
+        private final String propertyName;
+        private final Predicate predicate;
+        private final String valueResultName;
+
+        PropertyPredicate(String propertyName, Predicate predicate, String valueResultName) {
+            this.propertyName = propertyName;
+            this.predicate = predicate;
+            this.valueResultName = valueResultName;
+        }
+
+        @Override
+        public boolean apply(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q) {
+            String normalizedPropertyName = ctx.normalizePropertyName(propertyName);
+            PropertyDefinition propertyDefinition = ctx.getGraph().getPropertyDefinition(normalizedPropertyName);
+            Object value = row.get(valueResultName);
+            Object sampleValue = value;
+            if (value == null) {
+                return false;
+            } else if (predicate == Contains.IN) {
+                List<Object> values = toList(value).stream()
+                    .filter(v -> v != null && isSameType(propertyDefinition, v))
+                    .collect(Collectors.toList());
+                if (values.size() == 0) {
+                    return false;
+                }
+                value = values;
+                sampleValue = values.get(0);
+            } else if (predicate == Compare.STARTS_WITH && !(value instanceof String)) {
+                return false;
+            } else if (!isSameType(propertyDefinition, value)) {
+                return false;
+            } else if (predicate != Compare.EQUAL && !(value instanceof Comparable)) {
+                return false;
+            }
+
+            if (propertyDefinition == null) {
+                ctx.defineProperty(normalizedPropertyName, sampleValue);
+            }
+            q.has(normalizedPropertyName, predicate, value);
+            return true;
+        }
+
+        private static List<?> toList(Object value) {
+            if (value instanceof Object[]) {
+                return Arrays.asList((Object[]) value);
+            } else if (value instanceof Collection) {
+                return new ArrayList<>((Collection<?>) value);
+            }
+            throw new VertexiumCypherTypeErrorException(value, Object[].class, Collection.class);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s %s", propertyName, predicate, valueResultName);
+        }
+    }
+
+    /**
+     * Matches vertices with any of the given labels.
+     */
+    static class LabelPredicate implements PushedPredicate {
+        private final List<String> labelNames;
+
+        LabelPredicate(List<String> labelNames) {
+            this.labelNames = labelNames;
+        }
+
+        @Override
+        public boolean apply(VertexiumCypherQueryContext ctx, CypherResultRow row, Query q) {
+            if (labelNames.size() == 1) {
+                q.has(ctx.getLabelPropertyName(), ctx.normalizeLabelName(labelNames.get(0)));
+            } else {
+                List<String> normalizedLabelNames = labelNames.stream()
+                    .map(ctx::normalizeLabelName)
+                    .collect(Collectors.toList());
+                q.has(ctx.getLabelPropertyName(), Contains.IN, normalizedLabelNames);
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("labels IN %s", labelNames);
+        }
+    }
+}
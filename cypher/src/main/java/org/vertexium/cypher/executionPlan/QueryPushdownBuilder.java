@@ -0,0 +1,309 @@
+package org.vertexium.cypher.executionPlan;
+
+import com.google.common.collect.ImmutableMap;
+import org.vertexium.cypher.VertexiumCypherQueryContext;
+import org.vertexium.cypher.ast.model.*;
+import org.vertexium.query.Compare;
+import org.vertexium.query.Contains;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the WHERE expression of a MATCH into the conjuncts about a single node which can be added to the query
+ * that finds the node and the residual expression which still needs to be evaluated on each row.
+ * <p>
+ * The search index compares strings ignoring case, so predicates on strings and on parameters, which may be
+ * strings, only narrow down the vertices fetched and are also kept in the residual expression. Predicates on
+ * numbers, booleans and labels are exact and are removed from it.
+ */
+class QueryPushdownBuilder {
+    private static final Map<String, Compare> COMPARE_OPS = ImmutableMap.<String, Compare>builder()
+        .put("=", Compare.EQUAL)
+        .put("<", Compare.LESS_THAN)
+        .put("<=", Compare.LESS_THAN_EQUAL)
+        .put(">", Compare.GREATER_THAN)
+        .put(">=", Compare.GREATER_THAN_EQUAL)
+        .build();
+    private static final Map<String, Compare> FLIPPED_COMPARE_OPS = ImmutableMap.<String, Compare>builder()
+        .put("=", Compare.EQUAL)
+        .put("<", Compare.GREATER_THAN)
+        .put("<=", Compare.GREATER_THAN_EQUAL)
+        .put(">", Compare.LESS_THAN)
+        .put(">=", Compare.LESS_THAN_EQUAL)
+        .build();
+    private final ExecutionPlanBuilder executionPlanBuilder;
+    private final VertexiumCypherQueryContext ctx;
+    private final String variableName;
+    private final List<QueryPushdown.PushedPredicate> predicates = new ArrayList<>();
+    private final List<String> sortPropertyNames = new ArrayList<>();
+    private final List<ExecutionStepWithResultName> valueSteps = new ArrayList<>();
+    private String skipResultName;
+    private String limitResultName;
+
+    QueryPushdownBuilder(ExecutionPlanBuilder executionPlanBuilder, VertexiumCypherQueryContext ctx, String variableName) {
+        this.executionPlanBuilder = executionPlanBuilder;
+        this.ctx = ctx;
+        this.variableName = variableName;
+    }
+
+    /**
+     * @return the part of the where expression which still needs to be evaluated on each row or null if the query
+     * does all of the filtering
+     */
+    CypherAstBase addWhereExpression(CypherAstBase whereExpression) {
+        if (whereExpression == null) {
+            return null;
+        }
+        List<CypherAstBase> conjuncts = new ArrayList<>();
+        addConjuncts(whereExpression, conjuncts);
+
+        CypherAstBase residualExpression = null;
+        for (CypherAstBase conjunct : conjuncts) {
+            if (addConjunct(conjunct) != PushdownResult.EXACT) {
+                residualExpression = residualExpression == null
+                    ? conjunct
+                    : new CypherBinaryExpression(residualExpression, CypherBinaryExpression.Op.AND, conjunct);
+            }
+        }
+        return residualExpression;
+    }
+
+    /**
+     * Pushes down the ORDER BY, SKIP and LIMIT of a RETURN which directly follows a MATCH of the single node. The
+     * RETURN still sorts and limits the rows, the query only keeps the search index from returning more vertices
+     * than can make it into the result.
+     */
+    void addReturnClause(CypherReturnClause returnClause) {
+        CypherReturnBody returnBody = returnClause.getReturnBody();
+        if (returnClause.isDistinct() || returnBody.getLimit() == null) {
+            return;
+        }
+        for (CypherReturnItem returnItem : returnBody.getReturnItems()) {
+            if (returnItem.getOriginalText().equals("*")) {
+                continue;
+            }
+            CypherAstBase expression = returnItem.getExpression();
+            if (!(expression instanceof CypherVariable || expression instanceof CypherLookup)) {
+                return;
+            }
+            if (variableName.equals(returnItem.getAlias()) && !isVariable(expression)) {
+                return;
+            }
+        }
+
+        List<String> returnSortPropertyNames = new ArrayList<>();
+        if (returnBody.getOrder() != null) {
+            for (CypherSortItem sortItem : returnBody.getOrder().getSortItems()) {
+                // Cypher sorts nulls first when descending while the search index always sorts them last
+                if (sortItem.getDirection() != CypherSortItem.Direction.ASCENDING || !isProperty(sortItem.getExpression())) {
+                    return;
+                }
+                returnSortPropertyNames.add(((CypherLookup) sortItem.getExpression()).getProperty());
+            }
+        }
+
+        CypherAstBase limitExpression = returnBody.getLimit().getExpression();
+        CypherAstBase skipExpression = returnBody.getSkip() == null ? null : returnBody.getSkip().getExpression();
+        if (!isValue(limitExpression) || (skipExpression != null && !isValue(skipExpression))) {
+            return;
+        }
+        sortPropertyNames.addAll(returnSortPropertyNames);
+        limitResultName = addValueStep(limitExpression);
+        skipResultName = skipExpression == null ? null : addValueStep(skipExpression);
+    }
+
+    /**
+     * @return the pushdown or null if nothing could be pushed down
+     */
+    QueryPushdown build() {
+        if (predicates.size() == 0 && limitResultName == null) {
+            return null;
+        }
+        return new QueryPushdown(predicates, sortPropertyNames, skipResultName, limitResultName, valueSteps);
+    }
+
+    private void addConjuncts(CypherAstBase expression, List<CypherAstBase> conjuncts) {
+        if (expression instanceof CypherBinaryExpression
+            && ((CypherBinaryExpression) expression).getOp() == CypherBinaryExpression.Op.AND) {
+            addConjuncts(((CypherBinaryExpression) expression).getLeft(), conjuncts);
+            addConjuncts(((CypherBinaryExpression) expression).getRight(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+
+    private PushdownResult addConjunct(CypherAstBase conjunct) {
+        if (conjunct instanceof CypherComparisonExpression) {
+            return addComparison((CypherComparisonExpression) conjunct);
+        } else if (conjunct instanceof CypherIn) {
+            return addIn((CypherIn) conjunct);
+        } else if (conjunct instanceof CypherStringMatch) {
+            return addStringMatch((CypherStringMatch) conjunct);
+        } else if (conjunct instanceof CypherLookup || conjunct instanceof CypherBinaryExpression) {
+            return addLabels(conjunct);
+        }
+        return PushdownResult.NONE;
+    }
+
+    private PushdownResult addComparison(CypherComparisonExpression comparison) {
+        CypherAstBase property;
+        CypherAstBase value;
+        Compare predicate;
+        if (isProperty(comparison.getLeft()) && isValue(comparison.getRight())) {
+            property = comparison.getLeft();
+            value = comparison.getRight();
+            predicate = COMPARE_OPS.get(comparison.getOp());
+        } else if (isValue(comparison.getLeft()) && isProperty(comparison.getRight())) {
+            property = comparison.getRight();
+            value = comparison.getLeft();
+            predicate = FLIPPED_COMPARE_OPS.get(comparison.getOp());
+        } else {
+            return PushdownResult.NONE;
+        }
+        if (predicate == null) {
+            return PushdownResult.NONE;
+        }
+        predicates.add(new QueryPushdown.PropertyPredicate(
+            ((CypherLookup) property).getProperty(),
+            predicate,
+            addValueStep(value)
+        ));
+        return isExactValue(value) ? PushdownResult.EXACT : PushdownResult.FILTER;
+    }
+
+    private PushdownResult addIn(CypherIn in) {
+        CypherAstBase list = in.getArrayExpression();
+        if (!isProperty(in.getValueExpression())) {
+            return PushdownResult.NONE;
+        }
+        boolean exact;
+        if (list instanceof CypherListLiteral) {
+            exact = true;
+            for (Object item : (CypherListLiteral<?>) list) {
+                if (!(item instanceof CypherAstBase) || !isValue((CypherAstBase) item)) {
+                    return PushdownResult.NONE;
+                }
+                exact &= isExactValue((CypherAstBase) item);
+            }
+        } else if (list instanceof CypherParameter) {
+            exact = false;
+        } else {
+            return PushdownResult.NONE;
+        }
+        predicates.add(new QueryPushdown.PropertyPredicate(
+            ((CypherLookup) in.getValueExpression()).getProperty(),
+            Contains.IN,
+            addValueStep(list)
+        ));
+        return exact ? PushdownResult.EXACT : PushdownResult.FILTER;
+    }
+
+    private PushdownResult addStringMatch(CypherStringMatch stringMatch) {
+        // CONTAINS and ENDS WITH have no exact match equivalent in the query, TextPredicate.CONTAINS is full text
+        if (stringMatch.getOp() != CypherStringMatch.Op.STARTS_WITH
+            || !isProperty(stringMatch.getValueExpression())
+            || !isValue(stringMatch.getStringExpression())) {
+            return PushdownResult.NONE;
+        }
+        predicates.add(new QueryPushdown.PropertyPredicate(
+            ((CypherLookup) stringMatch.getValueExpression()).getProperty(),
+            Compare.STARTS_WITH,
+            addValueStep(stringMatch.getStringExpression())
+        ));
+        return PushdownResult.FILTER;
+    }
+
+    /**
+     * Handles "n:A:B", which needs all the labels, and "n:A OR n:B", which needs any of them.
+     */
+    private PushdownResult addLabels(CypherAstBase expression) {
+        if (expression instanceof CypherLookup) {
+            if (!isLabelLookup(expression)) {
+                return PushdownResult.NONE;
+            }
+            for (CypherLabelName label : ((CypherLookup) expression).getLabels()) {
+                List<String> labelNames = new ArrayList<>();
+                labelNames.add(label.getValue());
+                predicates.add(new QueryPushdown.LabelPredicate(labelNames));
+            }
+            return PushdownResult.EXACT;
+        }
+
+        List<String> labelNames = new ArrayList<>();
+        if (!addLabelDisjunction(expression, labelNames)) {
+            return PushdownResult.NONE;
+        }
+        predicates.add(new QueryPushdown.LabelPredicate(labelNames));
+        return PushdownResult.EXACT;
+    }
+
+    private boolean addLabelDisjunction(CypherAstBase expression, List<String> labelNames) {
+        if (expression instanceof CypherBinaryExpression
+            && ((CypherBinaryExpression) expression).getOp() == CypherBinaryExpression.Op.OR) {
+            return addLabelDisjunction(((CypherBinaryExpression) expression).getLeft(), labelNames)
+                && addLabelDisjunction(((CypherBinaryExpression) expression).getRight(), labelNames);
+        }
+        if (isLabelLookup(expression) && ((CypherLookup) expression).getLabels().size() == 1) {
+            labelNames.add(((CypherLookup) expression).getLabels().get(0).getValue());
+            return true;
+        }
+        return false;
+    }
+
+    private String addValueStep(CypherAstBase expression) {
+        ExecutionStepWithResultName step = executionPlanBuilder.visitExpression(ctx, expression);
+        valueSteps.add(step);
+        return step.getResultName();
+    }
+
+    private boolean isVariable(CypherAstBase expression) {
+        return expression instanceof CypherVariable
+            && variableName.equals(((CypherVariable) expression).getName());
+    }
+
+    private boolean isProperty(CypherAstBase expression) {
+        if (!(expression instanceof CypherLookup)) {
+            return false;
+        }
+        CypherLookup lookup = (CypherLookup) expression;
+        return lookup.getProperty() != null && !lookup.hasLabels() && isVariable(lookup.getAtom());
+    }
+
+    private boolean isLabelLookup(CypherAstBase expression) {
+        if (!(expression instanceof CypherLookup)) {
+            return false;
+        }
+        CypherLookup lookup = (CypherLookup) expression;
+        return lookup.getProperty() == null && lookup.hasLabels() && isVariable(lookup.getAtom());
+    }
+
+    private static boolean isValue(CypherAstBase expression) {
+        return expression instanceof CypherParameter
+            || expression instanceof CypherString
+            || isExactValue(expression);
+    }
+
+    private static boolean isExactValue(CypherAstBase expression) {
+        return expression instanceof CypherInteger
+            || expression instanceof CypherDouble
+            || expression instanceof CypherBoolean
+            || expression instanceof CypherNull;
+    }
+
+    private enum PushdownResult {
+        /**
+         * The conjunct needs to be evaluated on each row
+         */
+        NONE,
+        /**
+         * The query narrows down the vertices but the conjunct still needs to be evaluated on each row
+         */
+        FILTER,
+        /**
+         * The query does all the filtering of the conjunct
+         */
+        EXACT
+    }
+}
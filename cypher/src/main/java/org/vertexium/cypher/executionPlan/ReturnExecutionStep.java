@@ -7,12 +7,11 @@ import org.vertexium.cypher.VertexiumCypherResult;
 import org.vertexium.cypher.exceptions.VertexiumCypherNotImplemented;
 import org.vertexium.cypher.utils.ObjectUtils;
 import org.vertexium.cypher.utils.PredicateWithIndex;
+import org.vertexium.util.BoundedPriorityQueue;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.vertexium.util.StreamUtils.distinctBy;
 
@@ -78,18 +77,24 @@ public class ReturnExecutionStep extends ExecutionStepWithChildren {
 
     private VertexiumCypherResult applyLimit(VertexiumCypherResult result) {
         if (limitExpressionResultName != null) {
-            result = result.filter(new PredicateWithIndex<CypherResultRow>() {
-                @Override
-                protected boolean test(CypherResultRow row, long index) {
-                    Number value = (Number) row.get(limitExpressionResultName);
-                    long limit = value.longValue();
-                    return index < limit;
-                }
-            });
+            result = result.limit(this::getLimit);
         }
         return result;
     }
 
+    private long getLimit(CypherResultRow row) {
+        Number value = (Number) row.get(limitExpressionResultName);
+        return value.longValue();
+    }
+
+    private long getSkip(CypherResultRow row) {
+        if (skipExpressionResultName == null) {
+            return 0;
+        }
+        Number value = (Number) row.get(skipExpressionResultName);
+        return value.longValue();
+    }
+
     private VertexiumCypherResult applySkip(VertexiumCypherResult result) {
         if (skipExpressionResultName != null) {
             result = result.filter(new PredicateWithIndex<CypherResultRow>() {
@@ -105,27 +110,68 @@ public class ReturnExecutionStep extends ExecutionStepWithChildren {
     }
 
     private VertexiumCypherResult applySort(VertexiumCypherResult result) {
-        if (sortItems != null) {
-            result = result.sorted((row1, row2) -> {
-                for (SortItemExecutionStep sortItem : sortItems) {
-                    Object value1 = row1.get(sortItem.getResultName());
-                    Object value2 = row2.get(sortItem.getResultName());
-                    int r = ObjectUtils.compare(value1, value2);
-                    if (r != 0) {
-                        switch (sortItem.getDirection()) {
-                            case ASCENDING:
-                                return r;
-                            case DESCENDING:
-                                return -r;
-                            default:
-                                throw new VertexiumCypherNotImplemented("Invalid direction: " + sortItem.getDirection());
-                        }
-                    }
+        if (sortItems == null) {
+            return result;
+        }
+        if (limitExpressionResultName != null) {
+            return applyTopN(result);
+        }
+        return result.sorted(this::compareRows);
+    }
+
+    /**
+     * When sorting with a limit only the first skip + limit rows need to be kept, which avoids holding and sorting
+     * every row. The skip and limit are then applied to the kept rows as usual.
+     */
+    private VertexiumCypherResult applyTopN(VertexiumCypherResult result) {
+        Stream<CypherResultRow> topRows = StreamSupport.stream(
+            () -> getTopRows(result).spliterator(),
+            Spliterator.ORDERED | Spliterator.SIZED,
+            false
+        );
+        return new VertexiumCypherResult(topRows.onClose(result::close), result.getColumnNames());
+    }
+
+    private List<CypherResultRow> getTopRows(VertexiumCypherResult result) {
+        Iterator<CypherResultRow> rows = result.iterator();
+        if (!rows.hasNext()) {
+            return Collections.emptyList();
+        }
+        CypherResultRow firstRow = rows.next();
+        long maxSize = getSkip(firstRow) + getLimit(firstRow);
+        if (maxSize <= 0) {
+            return Collections.emptyList();
+        }
+        if (maxSize >= Integer.MAX_VALUE) {
+            List<CypherResultRow> allRows = new ArrayList<>();
+            allRows.add(firstRow);
+            rows.forEachRemaining(allRows::add);
+            allRows.sort(this::compareRows);
+            return allRows;
+        }
+        BoundedPriorityQueue<CypherResultRow> queue = new BoundedPriorityQueue<>((int) maxSize, this::compareRows);
+        queue.offer(firstRow);
+        rows.forEachRemaining(queue::offer);
+        return queue.toSortedList();
+    }
+
+    private int compareRows(CypherResultRow row1, CypherResultRow row2) {
+        for (SortItemExecutionStep sortItem : sortItems) {
+            Object value1 = row1.get(sortItem.getResultName());
+            Object value2 = row2.get(sortItem.getResultName());
+            int r = ObjectUtils.compare(value1, value2);
+            if (r != 0) {
+                switch (sortItem.getDirection()) {
+                    case ASCENDING:
+                        return r;
+                    case DESCENDING:
+                        return -r;
+                    default:
+                        throw new VertexiumCypherNotImplemented("Invalid direction: " + sortItem.getDirection());
                 }
-                return 0;
-            });
+            }
         }
-        return result;
+        return 0;
     }
 
     @Override
@@ -0,0 +1,83 @@
+package org.vertexium.cypher;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.Authorizations;
+import org.vertexium.cypher.ast.CypherCompilerContext;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.vertexium.metric.Counter;
+import org.vertexium.metric.VertexiumMetricRegistry;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class VertexiumCypherQueryCacheTest {
+    private TestVertexiumCypherQueryContext ctx;
+    private CypherCompilerContext compilerContext;
+    private VertexiumCypherQueryCache cache;
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @Before
+    public void before() {
+        InMemoryGraph graph = InMemoryGraph.create();
+        Authorizations authorizations = graph.createAuthorizations();
+        ctx = new TestVertexiumCypherQueryContext(graph, authorizations);
+        compilerContext = new CypherCompilerContext(ctx.getFunctions());
+        VertexiumMetricRegistry metricRegistry = graph.getMetricsRegistry();
+        cache = new VertexiumCypherQueryCache(metricRegistry);
+        hitCounter = metricRegistry.getCounter(VertexiumCypherQueryCache.class, "hit", "counter");
+        missCounter = metricRegistry.getCounter(VertexiumCypherQueryCache.class, "miss", "counter");
+    }
+
+    @Test
+    public void testParseReusesQueries() {
+        long hits = hitCounter.getCount();
+        long misses = missCounter.getCount();
+
+        VertexiumCypherQuery query1 = cache.parse(compilerContext, "RETURN $a AS a");
+        VertexiumCypherQuery query2 = cache.parse(compilerContext, "RETURN $a AS a");
+        VertexiumCypherQuery query3 = cache.parse(compilerContext, "RETURN $a + 1 AS a");
+
+        assertSame(query1, query2);
+        assertNotSame(query1, query3);
+        assertEquals(hits + 1, hitCounter.getCount());
+        assertEquals(misses + 2, missCounter.getCount());
+
+        cache.clear();
+        assertNotSame(query1, cache.parse(compilerContext, "RETURN $a AS a"));
+    }
+
+    @Test
+    public void testParametersAreBoundAtExecution() {
+        VertexiumCypherQuery query = cache.parse(compilerContext, "RETURN $a AS a");
+
+        ctx.setParameter("a", 1L);
+        assertEquals(1L, execute(query).get(0));
+
+        ctx.setParameter("a", 2L);
+        assertEquals(2L, execute(cache.parse(compilerContext, "RETURN $a AS a")).get(0));
+    }
+
+    @Test
+    public void testFailedParseIsNotCached() {
+        long misses = missCounter.getCount();
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.parse(compilerContext, "RETURN unknownFunction(1)");
+                fail("expected exception");
+            } catch (Exception ex) {
+                // expected
+            }
+        }
+        assertEquals(misses + 2, missCounter.getCount());
+    }
+
+    private List<Object> execute(VertexiumCypherQuery query) {
+        return query.execute(ctx)
+            .map(row -> row.get("a"))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,55 @@
+package org.vertexium.cypher.executionPlan;
+
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.cypher.TestVertexiumCypherQueryContext;
+import org.vertexium.cypher.ast.CypherAstParser;
+import org.vertexium.cypher.ast.CypherCompilerContext;
+import org.vertexium.inmemory.InMemoryGraph;
+
+import static org.junit.Assert.*;
+
+public class ElementReferencesTest {
+    private CypherCompilerContext compilerContext;
+
+    @Before
+    public void before() {
+        InMemoryGraph graph = InMemoryGraph.create();
+        TestVertexiumCypherQueryContext ctx = new TestVertexiumCypherQueryContext(graph, graph.createAuthorizations());
+        compilerContext = new CypherCompilerContext(ctx.getFunctions());
+    }
+
+    @Test
+    public void testPropertyLookups() {
+        ElementReferences references = find("MATCH (a {name: 'x'})-[r]->(b:Person) WHERE b.age > 10 RETURN a.title, b.name");
+        assertTrue(references.isReadOnly());
+        assertEquals(Sets.newHashSet("name", "title"), references.getReferencedPropertyNames("a"));
+        assertEquals(Sets.newHashSet("age", "name"), references.getReferencedPropertyNames("b"));
+        assertEquals(Sets.newHashSet(), references.getReferencedPropertyNames(null));
+    }
+
+    @Test
+    public void testWholeElementReferences() {
+        ElementReferences references = find("MATCH (a)-->(b) RETURN a, [b.name, labels(b)]");
+        assertNull(references.getReferencedPropertyNames("a"));
+        assertNull(references.getReferencedPropertyNames("b"));
+
+        references = find("MATCH (a)-->(b) RETURN *");
+        assertNull(references.getReferencedPropertyNames("a"));
+
+        references = find("MATCH p = (a)-->(b) RETURN b.name");
+        assertNull(references.getReferencedPropertyNames("b"));
+    }
+
+    @Test
+    public void testUpdatingStatements() {
+        ElementReferences references = find("MATCH (a)-->(b) SET b.name = a.name");
+        assertFalse(references.isReadOnly());
+        assertNull(references.getReferencedPropertyNames("a"));
+    }
+
+    private ElementReferences find(String queryString) {
+        return ElementReferences.find(CypherAstParser.getInstance().parse(compilerContext, queryString));
+    }
+}
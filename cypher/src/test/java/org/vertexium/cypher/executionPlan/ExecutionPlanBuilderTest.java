@@ -0,0 +1,64 @@
+package org.vertexium.cypher.executionPlan;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.vertexium.cypher.TestVertexiumCypherQueryContext;
+import org.vertexium.cypher.ast.CypherAstParser;
+import org.vertexium.cypher.ast.CypherCompilerContext;
+import org.vertexium.inmemory.InMemoryGraph;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutionPlanBuilderTest {
+    private CypherCompilerContext compilerContext;
+    private TestVertexiumCypherQueryContext ctx;
+
+    @Before
+    public void before() {
+        InMemoryGraph graph = InMemoryGraph.create();
+        ctx = new TestVertexiumCypherQueryContext(graph, graph.createAuthorizations());
+        compilerContext = new CypherCompilerContext(ctx.getFunctions());
+    }
+
+    @Test
+    public void testPushdownWhere() {
+        String plan = build("MATCH (n) WHERE (n:A OR n:B) AND n.num >= 2 AND 3 > n.num AND n.name STARTS WITH 'b' AND n.x CONTAINS 'y' RETURN n.name");
+        assertTrue(plan, plan.contains("predicates=[labels IN [A, B], num GREATER_THAN_EQUAL "));
+        assertTrue(plan, plan.contains(", num LESS_THAN "));
+        assertTrue(plan, plan.contains(", name STARTS_WITH "));
+        assertTrue(plan, plan.contains("StartsWithFunction"));
+        assertTrue(plan, plan.contains("ContainsFunction"));
+        assertFalse(plan, plan.contains("ComparisonExpressionExecutionStep"));
+        assertTrue(plan, plan.contains("limitResultName=null"));
+    }
+
+    @Test
+    public void testPushdownSortAndLimit() {
+        String plan = build("MATCH (n:A) WHERE n.num > 5 RETURN n.num AS num ORDER BY n.num SKIP 2 LIMIT 3");
+        assertFalse(plan, plan.contains("WhereExecutionStep"));
+        assertTrue(plan, plan.contains("sortPropertyNames=[num]"));
+        assertFalse(plan, plan.contains("limitResultName=null"));
+
+        plan = build("MATCH (n:A) RETURN n.num AS num ORDER BY n.num DESC LIMIT 3");
+        assertFalse(plan, plan.contains("QueryPushdown"));
+
+        plan = build("MATCH (n:A) WHERE n.name = 'a' RETURN n LIMIT 3");
+        assertTrue(plan, plan.contains("limitResultName=null"));
+    }
+
+    @Test
+    public void testPushdownOnlyFirstNode() {
+        String plan = build("MATCH (n:A)-->(m) WHERE n.num > 5 AND m.num > 2 RETURN n.num AS num LIMIT 3");
+        assertTrue(plan, plan.contains("predicates=[num GREATER_THAN "));
+        assertTrue(plan, plan.contains("limitResultName=null"));
+        assertTrue(plan, plan.contains("GetVariableExecutionStep {name=m"));
+
+        plan = build("OPTIONAL MATCH (n) WHERE n.num > 5 RETURN n");
+        assertFalse(plan, plan.contains("QueryPushdown"));
+    }
+
+    private String build(String queryString) {
+        return new ExecutionPlanBuilder().build(ctx, CypherAstParser.getInstance().parse(compilerContext, queryString)).toStringFull();
+    }
+}
@@ -34,6 +34,7 @@ public class GraphGlue {
 
     public static final Pattern RELATIONSHIP_REGEX = Pattern.compile("^\\[(.*?)(\\{.*\\})\\]$");
     public static final Pattern NODE_REGEX = Pattern.compile("^\\((.*?)(\\{.*\\})?\\)$");
+    private VertexiumCypherQueryCache queryCache;
     private VertexiumCypherQuery query;
     private List<CypherResultRow> lastResultRows;
     private LinkedHashSet<String> lastResultColumnNames;
@@ -68,6 +69,15 @@ public class GraphGlue {
         InMemoryGraph graph = InMemoryGraph.create();
         Authorizations authorizations = graph.createAuthorizations();
         ctx = new TestVertexiumCypherQueryContext(graph, authorizations);
+        // each graph gets its own cache, registered with that graph's metrics
+        queryCache = null;
+    }
+
+    private VertexiumCypherQueryCache getQueryCache() {
+        if (queryCache == null) {
+            queryCache = new VertexiumCypherQueryCache(ctx.getGraph().getMetricsRegistry());
+        }
+        return queryCache;
     }
 
     @Given("^parameters are:$")
@@ -105,7 +115,7 @@ public class GraphGlue {
         lastRuntimeException = null;
         try {
             CypherCompilerContext compilerContext = new CypherCompilerContext(ctx.getFunctions());
-            query = VertexiumCypherQuery.parse(compilerContext, queryString);
+            query = getQueryCache().parse(compilerContext, queryString);
             try {
                 VertexiumCypherResult results = query.execute(ctx);
                 lastResultRows = results
@@ -46,3 +46,117 @@ Feature: Vertexium
       | len |
       | 26  |
     And no side effects
+
+  Scenario: Filter the first node of a match in the query
+    Given an empty graph
+    And having executed:
+      """
+      CREATE (:A {name: 'a', num: 1}), (:B {name: 'B', num: 2}), (:C {name: 'b', num: 3}), (:A {name: 'bc', num: 4})
+      """
+    When executing query:
+      """
+      MATCH (n)
+      WHERE (n:A OR n:B) AND n.num >= 2 AND n.num IN [1, 2, 4, null] AND n.name STARTS WITH 'b'
+      RETURN n.name AS name
+      """
+    Then the result should be:
+      | name |
+      | 'bc' |
+    And no side effects
+
+  Scenario: Compare strings in the query with case
+    Given an empty graph
+    And parameters are:
+      | name | 'b' |
+    And having executed:
+      """
+      CREATE ({name: 'B'}), ({name: 'b'})
+      """
+    When executing query:
+      """
+      MATCH (n)
+      WHERE n.name = $name AND 'a' < n.name
+      RETURN n.name AS name
+      """
+    Then the result should be:
+      | name |
+      | 'b'  |
+    And no side effects
+
+  Scenario: Sort and limit the first node of a match in the query
+    Given an empty graph
+    And having executed:
+      """
+      UNWIND range(1, 20) AS i
+      CREATE (:A {num: 21 - i}), (:B {num: i})
+      """
+    When executing query:
+      """
+      MATCH (n:A)
+      WHERE n.num > 5
+      RETURN n.num AS num
+      ORDER BY n.num
+      SKIP 2
+      LIMIT 3
+      """
+    Then the result should be, in order:
+      | num |
+      | 8   |
+      | 9   |
+      | 10  |
+    And no side effects
+
+  Scenario: Expand only relationships of the type to the matched vertex
+    Given an empty graph
+    And having executed:
+      """
+      CREATE (a {name: 'a'}), (b {name: 'b'}), (c {name: 'c'})
+      CREATE (a)-[:KNOWS {w: 1}]->(b), (a)-[:LIKES {w: 2}]->(b), (a)-[:HATES {w: 3}]->(b), (a)-[:KNOWS {w: 4}]->(c)
+      """
+    When executing query:
+      """
+      MATCH (a {name: 'a'}), (b {name: 'b'})
+      MATCH (a)-[r:KNOWS|LIKES]->(b)
+      RETURN r.w AS w
+      """
+    Then the result should be:
+      | w |
+      | 1 |
+      | 2 |
+    And no side effects
+
+  Scenario: Expand only relationships of the type
+    Given an empty graph
+    And having executed:
+      """
+      CREATE (a {name: 'a'}), (b {name: 'b'}), (c {name: 'c'})
+      CREATE (a)-[:KNOWS]->(b), (a)-[:LIKES]->(b), (c)-[:KNOWS]->(a)
+      """
+    When executing query:
+      """
+      MATCH (a {name: 'a'})-[:KNOWS]-(x)
+      RETURN x.name AS name
+      """
+    Then the result should be:
+      | name |
+      | 'b'  |
+      | 'c'  |
+    And no side effects
+
+  Scenario: Variable length relationships may revisit vertices but not relationships
+    Given an empty graph
+    And having executed:
+      """
+      CREATE (a {name: 'a'}), (b {name: 'b'}), (c {name: 'c'})
+      CREATE (a)-[:R]->(b), (b)-[:R]->(c), (c)-[:R]->(a), (a)-[:OTHER]->(c)
+      """
+    When executing query:
+      """
+      MATCH (a {name: 'a'})-[:R*2..5]->(x)
+      RETURN x.name AS name
+      """
+    Then the result should be:
+      | name |
+      | 'c'  |
+      | 'a'  |
+    And no side effects
@@ -134,6 +134,10 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
             .setMaxBatchSizeInBytes(this.config.getBulkMaxBatchSizeInBytes())
             .setBatchWindowTime(this.config.getBulkBatchWindowTime())
             .setMaxFailCount(this.config.getBulkMaxFailCount())
+            .setAdaptive(this.config.isBulkAdaptive())
+            .setMinBatchSize(this.config.getBulkMinBatchSize())
+            .setMinBatchWindowTime(this.config.getBulkMinBatchWindowTime())
+            .setTargetLatency(this.config.getBulkTargetLatency())
             .setLogRequestSizeLimit(this.config.getLogRequestSizeLimit());
         this.bulkUpdateService = new BulkUpdateService(this, indexRefreshTracker, bulkUpdateServiceConfiguration);
 
@@ -1457,6 +1461,7 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
                 .setPageSize(getConfig().getQueryPageSize())
                 .setPagingLimit(getConfig().getPagingLimit())
                 .setScrollKeepAlive(getConfig().getScrollKeepAlive())
+                .setQueryIterationMode(getConfig().getQueryIterationMode())
                 .setTermAggregationShardSize(getConfig().getTermAggregationShardSize())
                 .setMaxQueryStringTerms(getConfig().getMaxQueryStringTerms()),
             authorizations
@@ -1475,6 +1480,7 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
                 .setPageSize(getConfig().getQueryPageSize())
                 .setPagingLimit(getConfig().getPagingLimit())
                 .setScrollKeepAlive(getConfig().getScrollKeepAlive())
+                .setQueryIterationMode(getConfig().getQueryIterationMode())
                 .setTermAggregationShardSize(getConfig().getTermAggregationShardSize())
                 .setMaxQueryStringTerms(getConfig().getMaxQueryStringTerms()),
             authorizations
@@ -1494,6 +1500,7 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
                 .setPageSize(getConfig().getQueryPageSize())
                 .setPagingLimit(getConfig().getPagingLimit())
                 .setScrollKeepAlive(getConfig().getScrollKeepAlive())
+                .setQueryIterationMode(getConfig().getQueryIterationMode())
                 .setTermAggregationShardSize(getConfig().getTermAggregationShardSize())
                 .setMaxQueryStringTerms(getConfig().getMaxQueryStringTerms()),
             authorizations
@@ -1512,6 +1519,7 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
                 .setPageSize(getConfig().getQueryPageSize())
                 .setPagingLimit(getConfig().getPagingLimit())
                 .setScrollKeepAlive(getConfig().getScrollKeepAlive())
+                .setQueryIterationMode(getConfig().getQueryIterationMode())
                 .setTermAggregationShardSize(getConfig().getTermAggregationShardSize())
                 .setMaxQueryStringTerms(getConfig().getMaxQueryStringTerms()),
             authorizations
@@ -1883,6 +1891,7 @@ public class Elasticsearch7SearchIndex implements SearchIndex, SearchIndexWithVe
                 .setPageSize(getConfig().getQueryPageSize())
                 .setPagingLimit(getConfig().getPagingLimit())
                 .setScrollKeepAlive(getConfig().getScrollKeepAlive())
+                .setQueryIterationMode(getConfig().getQueryIterationMode())
                 .setTermAggregationShardSize(getConfig().getTermAggregationShardSize())
                 .setMaxQueryStringTerms(getConfig().getMaxQueryStringTerms()),
             authorizations
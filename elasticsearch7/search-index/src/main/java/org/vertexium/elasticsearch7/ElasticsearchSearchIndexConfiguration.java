@@ -43,6 +43,8 @@ public class ElasticsearchSearchIndexConfiguration {
     public static final int QUERY_PAGING_LIMIT_DEFAULT = 500;
     public static final String QUERY_SCROLL_KEEP_ALIVE = "queryScrollKeepAlive";
     public static final String QUERY_SCROLL_KEEP_ALIVE_DEFAULT = "5m";
+    public static final String QUERY_ITERATION_MODE = "queryIterationMode";
+    public static final QueryIterationMode QUERY_ITERATION_MODE_DEFAULT = QueryIterationMode.SCROLL;
     public static final String ES_CONFIG_FILE = "elasticsearch.configFile";
     public static final String ES_CONFIG_FILE_DEFAULT = null;
     public static final String INDEX_MAPPING_TOTAL_FIELDS_LIMIT = "indexMappingTotalFieldsLimit";
@@ -72,6 +74,10 @@ public class ElasticsearchSearchIndexConfiguration {
     public static final String BULK_BATCH_WINDOW_TIME = "bulk.batchWindowTime";
     public static final String BULK_MAX_FAIL_COUNT = "bulk.maxFailCount";
     public static final String BULK_REQUEST_TIMEOUT = "bulk.requestTimeout";
+    public static final String BULK_ADAPTIVE = "bulk.adaptive";
+    public static final String BULK_MIN_BATCH_SIZE = "bulk.minBatchSize";
+    public static final String BULK_MIN_BATCH_WINDOW_TIME = "bulk.minBatchWindowTime";
+    public static final String BULK_TARGET_LATENCY = "bulk.targetLatency";
     public static final int BULK_POOL_SIZE_DEFAULT = BulkUpdateServiceConfiguration.POOL_SIZE_DEFAULT;
     public static final int BULK_BACKLOG_SIZE_DEFAULT = BulkUpdateServiceConfiguration.BACKLOG_SIZE_DEFAULT;
     public static final int BULK_MAX_BATCH_SIZE_DEFAULT = BulkUpdateServiceConfiguration.MAX_BATCH_SIZE_DEFAULT;
@@ -79,6 +85,10 @@ public class ElasticsearchSearchIndexConfiguration {
     public static final Duration BULK_BATCH_WINDOW_TIME_DEFAULT = BulkUpdateServiceConfiguration.BATCH_WINDOW_TIME_DEFAULT;
     public static final int BULK_MAX_FAIL_COUNT_DEFAULT = BulkUpdateServiceConfiguration.MAX_FAIL_COUNT_DEFAULT;
     public static final String BULK_REQUEST_TIMEOUT_DEFAULT = "30m";
+    public static final boolean BULK_ADAPTIVE_DEFAULT = BulkUpdateServiceConfiguration.ADAPTIVE_DEFAULT;
+    public static final int BULK_MIN_BATCH_SIZE_DEFAULT = BulkUpdateServiceConfiguration.MIN_BATCH_SIZE_DEFAULT;
+    public static final Duration BULK_MIN_BATCH_WINDOW_TIME_DEFAULT = BulkUpdateServiceConfiguration.MIN_BATCH_WINDOW_TIME_DEFAULT;
+    public static final Duration BULK_TARGET_LATENCY_DEFAULT = BulkUpdateServiceConfiguration.TARGET_LATENCY_DEFAULT;
     public static final String REFRESH_INDEX_ON_FLUSH = "refreshIndexOnFlush";
     public static final boolean REFRESH_INDEX_ON_FLUSH_DEFAULT = false;
 
@@ -194,6 +204,15 @@ public class ElasticsearchSearchIndexConfiguration {
         return TimeValue.parseTimeValue(value, null, "");
     }
 
+    public QueryIterationMode getQueryIterationMode() {
+        String value = graphConfiguration.getString(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + QUERY_ITERATION_MODE, QUERY_ITERATION_MODE_DEFAULT.name());
+        try {
+            return QueryIterationMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new VertexiumException("Invalid " + QUERY_ITERATION_MODE + " \"" + value + "\", expected one of " + Arrays.toString(QueryIterationMode.values()), ex);
+        }
+    }
+
     public String getGeoShapePrecision() {
         return graphConfiguration.getString(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + GEOSHAPE_PRECISION, GEOSHAPE_PRECISION_DEFAULT);
     }
@@ -298,6 +317,22 @@ public class ElasticsearchSearchIndexConfiguration {
         return graphConfiguration.getDuration(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + BULK_REQUEST_TIMEOUT, BULK_REQUEST_TIMEOUT_DEFAULT);
     }
 
+    public boolean isBulkAdaptive() {
+        return graphConfiguration.getBoolean(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + BULK_ADAPTIVE, BULK_ADAPTIVE_DEFAULT);
+    }
+
+    public int getBulkMinBatchSize() {
+        return graphConfiguration.getInt(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + BULK_MIN_BATCH_SIZE, BULK_MIN_BATCH_SIZE_DEFAULT);
+    }
+
+    public Duration getBulkMinBatchWindowTime() {
+        return graphConfiguration.getDuration(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + BULK_MIN_BATCH_WINDOW_TIME, BULK_MIN_BATCH_WINDOW_TIME_DEFAULT);
+    }
+
+    public Duration getBulkTargetLatency() {
+        return graphConfiguration.getDuration(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + BULK_TARGET_LATENCY, BULK_TARGET_LATENCY_DEFAULT);
+    }
+
     public boolean getRefreshIndexOnFlush() {
         return graphConfiguration.getBoolean(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + REFRESH_INDEX_ON_FLUSH, REFRESH_INDEX_ON_FLUSH_DEFAULT);
     }
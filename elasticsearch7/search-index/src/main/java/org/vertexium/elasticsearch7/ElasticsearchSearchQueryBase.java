@@ -51,6 +51,7 @@ import org.vertexium.elasticsearch7.sorting.ElasticsearchSortingStrategy;
 import org.vertexium.elasticsearch7.utils.ElasticsearchTypes;
 import org.vertexium.elasticsearch7.utils.InfiniteScrollIterable;
 import org.vertexium.elasticsearch7.utils.PagingIterable;
+import org.vertexium.elasticsearch7.utils.SearchAfterIterable;
 import org.vertexium.query.*;
 import org.vertexium.scoring.ScoringStrategy;
 import org.vertexium.sorting.SortingStrategy;
@@ -89,6 +90,7 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
     private final int pageSize;
     private final int pagingLimit;
     private final TimeValue scrollKeepAlive;
+    private final QueryIterationMode queryIterationMode;
     private final int termAggregationShardSize;
     private final int maxQueryStringTerms;
     private final String queryString;
@@ -106,6 +108,7 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         this.pageSize = options.pageSize;
         this.indexSelectionStrategy = options.indexSelectionStrategy;
         this.scrollKeepAlive = options.scrollKeepAlive;
+        this.queryIterationMode = options.queryIterationMode;
         this.pagingLimit = options.pagingLimit;
         this.analyzer = options.analyzer;
         this.termAggregationShardSize = options.termAggregationShardSize;
@@ -126,6 +129,7 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         this.pageSize = options.pageSize;
         this.indexSelectionStrategy = options.indexSelectionStrategy;
         this.scrollKeepAlive = options.scrollKeepAlive;
+        this.queryIterationMode = options.queryIterationMode;
         this.pagingLimit = options.pagingLimit;
         this.analyzer = options.analyzer;
         this.termAggregationShardSize = options.termAggregationShardSize;
@@ -442,6 +446,9 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
     public QueryResultsIterable<? extends VertexiumObject> search(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints) {
         validateQueryString();
         if (shouldUseScrollApi()) {
+            if (queryIterationMode == QueryIterationMode.SEARCH_AFTER) {
+                return searchSearchAfter(objectTypes, fetchHints);
+            }
             return searchScroll(objectTypes, fetchHints);
         }
         return searchPaged(objectTypes, fetchHints);
@@ -483,6 +490,15 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         };
     }
 
+    private QueryResultsIterable<? extends VertexiumObject> searchSearchAfter(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints) {
+        return new QuerySearchAfterIterable<VertexiumObject>(objectTypes, fetchHints, getParameters().getLimit()) {
+            @Override
+            protected ElasticsearchGraphQueryIterable<VertexiumObject> searchResponseToIterable(SearchResponse searchResponse) {
+                return ElasticsearchSearchQueryBase.this.searchResponseToVertexiumObjectIterable(searchResponse, fetchHints);
+            }
+        };
+    }
+
     private void closeScroll(String scrollId) {
         try {
             ClearScrollResponse clearScrollResponse = client.prepareClearScroll()
@@ -563,6 +579,9 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
 
     private QueryResultsIterable<SearchHit> searchHits(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints) {
         if (shouldUseScrollApi()) {
+            if (queryIterationMode == QueryIterationMode.SEARCH_AFTER) {
+                return searchSearchAfterHits(objectTypes, fetchHints);
+            }
             return searchScrollHits(objectTypes, fetchHints);
         }
         return searchPagedHits(objectTypes, fetchHints);
@@ -582,6 +601,15 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         };
     }
 
+    private QuerySearchAfterIterable<SearchHit> searchSearchAfterHits(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints) {
+        return new QuerySearchAfterIterable<SearchHit>(objectTypes, fetchHints, getParameters().getLimit()) {
+            @Override
+            protected ElasticsearchGraphQueryIterable<SearchHit> searchResponseToIterable(SearchResponse searchResponse) {
+                return ElasticsearchSearchQueryBase.this.searchResponseToSearchHitsIterable(searchResponse);
+            }
+        };
+    }
+
     private PagingIterable<SearchHit> searchPagedHits(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints) {
         return new PagingIterable<SearchHit>(getParameters().getSkip(), getParameters().getLimit(), pageSize) {
             @Override
@@ -1923,6 +1951,49 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         }
     }
 
+    private abstract class QuerySearchAfterIterable<T> extends SearchAfterIterable<T> {
+        private final EnumSet<VertexiumObjectType> objectTypes;
+        private final FetchHints fetchHints;
+
+        public QuerySearchAfterIterable(EnumSet<VertexiumObjectType> objectTypes, FetchHints fetchHints, Long limit) {
+            super(limit, pageSize);
+            this.objectTypes = objectTypes;
+            this.fetchHints = fetchHints;
+        }
+
+        @Override
+        protected SearchResponse getSearchResponse(Object[] searchAfter) {
+            try {
+                boolean firstPage = searchAfter == null;
+                SearchRequestBuilder q = buildQuery(ElasticsearchDocumentType.fromVertexiumObjectTypes(objectTypes), fetchHints, firstPage)
+                    .setSize(pageSize)
+                    .setTrackTotalHits(firstPage);
+                // the element id alone is not unique across element types and extended data rows
+                q.addSort(SortBuilders.fieldSort(Elasticsearch7SearchIndex.ELEMENT_TYPE_FIELD_NAME).unmappedType(KEYWORD_UNMAPPED_TYPE).order(SortOrder.ASC));
+                q.addSort(SortBuilders.fieldSort(Elasticsearch7SearchIndex.EXTENDED_DATA_TABLE_NAME_FIELD_NAME).unmappedType(KEYWORD_UNMAPPED_TYPE).order(SortOrder.ASC));
+                q.addSort(SortBuilders.fieldSort(Elasticsearch7SearchIndex.EXTENDED_DATA_TABLE_ROW_ID_FIELD_NAME).unmappedType(KEYWORD_UNMAPPED_TYPE).order(SortOrder.ASC));
+                if (!firstPage) {
+                    q.searchAfter(searchAfter);
+                }
+                if (QUERY_LOGGER.isTraceEnabled()) {
+                    QUERY_LOGGER.trace("query: %s", q);
+                }
+                return checkForFailures(q.execute().actionGet());
+            } catch (IndexNotFoundException ex) {
+                LOGGER.debug("Index missing: %s (returning empty iterable)", ex.getMessage());
+                return null;
+            } catch (VertexiumNoMatchingPropertiesException ex) {
+                LOGGER.debug("Could not find property: %s (returning empty iterable)", ex.getPropertyName());
+                return null;
+            }
+        }
+
+        @Override
+        protected IdStrategy getIdStrategy() {
+            return getSearchIndex().getIdStrategy();
+        }
+    }
+
     private static class Ids {
         private final List<String> vertexIds;
         private final List<String> edgeIds;
@@ -1985,6 +2056,7 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
         public int pageSize;
         public IndexSelectionStrategy indexSelectionStrategy;
         public TimeValue scrollKeepAlive;
+        public QueryIterationMode queryIterationMode = ElasticsearchSearchIndexConfiguration.QUERY_ITERATION_MODE_DEFAULT;
         public StandardAnalyzer analyzer = new StandardAnalyzer();
         public int pagingLimit;
         public int termAggregationShardSize;
@@ -2017,6 +2089,15 @@ public class ElasticsearchSearchQueryBase extends QueryBase {
             return this;
         }
 
+        public QueryIterationMode getQueryIterationMode() {
+            return queryIterationMode;
+        }
+
+        public Options setQueryIterationMode(QueryIterationMode queryIterationMode) {
+            this.queryIterationMode = queryIterationMode;
+            return this;
+        }
+
         public StandardAnalyzer getAnalyzer() {
             return analyzer;
         }
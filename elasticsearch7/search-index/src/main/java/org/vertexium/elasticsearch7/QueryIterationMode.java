@@ -0,0 +1,18 @@
+package org.vertexium.elasticsearch7;
+
+/**
+ * How queries which are not satisfied by a single page of results iterate over the remaining hits.
+ */
+public enum QueryIterationMode {
+    /**
+     * Use the scroll API. The scroll holds a point in time view of the index on the server until it is cleared or
+     * the scroll keep alive expires.
+     */
+    SCROLL,
+
+    /**
+     * Request each page with search_after using the sort values of the last hit of the previous page. No state is
+     * held on the server, but documents changed between pages may be seen twice or missed.
+     */
+    SEARCH_AFTER
+}
@@ -0,0 +1,93 @@
+package org.vertexium.elasticsearch7.bulk;
+
+/**
+ * Tunes the batch size and batch window used by {@link BulkItemBatch} from the latency and rejections of bulk
+ * requests using additive increase/multiplicative decrease.
+ * <p>
+ * A bulk request which is slower than the target latency, has items rejected by Elasticsearch or fails outright
+ * halves the batch size and doubles the batch window, so fewer, smaller requests are sent while Elasticsearch is
+ * struggling. Any other request grows the batch size and shrinks the batch window by a tenth of their configured
+ * maximums, so items are sent sooner while Elasticsearch keeps up. The configured maximum batch size, batch size in
+ * bytes and batch window are never exceeded.
+ * <p>
+ * When adaptive batching is disabled the configured values are used as is.
+ */
+public class BulkBatchSizeController {
+    private static final int STEPS = 10;
+    private final boolean enabled;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int maxBatchSizeInBytes;
+    private final long minBatchWindowTimeMillis;
+    private final long maxBatchWindowTimeMillis;
+    private final long targetLatencyMillis;
+    private volatile int batchSize;
+    private volatile int batchSizeInBytes;
+    private volatile long batchWindowTimeMillis;
+
+    public BulkBatchSizeController(BulkUpdateServiceConfiguration configuration) {
+        this.enabled = configuration.isAdaptive();
+        this.maxBatchSize = configuration.getMaxBatchSize();
+        this.minBatchSize = Math.max(1, Math.min(configuration.getMinBatchSize(), maxBatchSize));
+        this.maxBatchSizeInBytes = configuration.getMaxBatchSizeInBytes();
+        this.maxBatchWindowTimeMillis = configuration.getBatchWindowTime().toMillis();
+        this.minBatchWindowTimeMillis = Math.min(configuration.getMinBatchWindowTime().toMillis(), maxBatchWindowTimeMillis);
+        this.targetLatencyMillis = configuration.getTargetLatency().toMillis();
+        this.batchSize = maxBatchSize;
+        this.batchSizeInBytes = maxBatchSizeInBytes;
+        this.batchWindowTimeMillis = maxBatchWindowTimeMillis;
+    }
+
+    /**
+     * @param latencyMillis the time taken by the bulk request
+     * @param rejectedCount the number of items in the request which Elasticsearch rejected because it was overloaded
+     */
+    public synchronized void onBulkResponse(long latencyMillis, int rejectedCount) {
+        if (!enabled) {
+            return;
+        }
+        if (rejectedCount > 0 || latencyMillis > targetLatencyMillis) {
+            decrease();
+        } else {
+            increase();
+        }
+    }
+
+    public synchronized void onBulkFailure() {
+        if (!enabled) {
+            return;
+        }
+        decrease();
+    }
+
+    private void increase() {
+        setBatchSize(batchSize + Math.max(1, maxBatchSize / STEPS));
+        batchWindowTimeMillis = Math.max(minBatchWindowTimeMillis, batchWindowTimeMillis - Math.max(1, maxBatchWindowTimeMillis / STEPS));
+    }
+
+    private void decrease() {
+        setBatchSize(batchSize / 2);
+        batchWindowTimeMillis = Math.min(maxBatchWindowTimeMillis, Math.max(1, batchWindowTimeMillis * 2));
+    }
+
+    private void setBatchSize(int newBatchSize) {
+        batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, newBatchSize));
+        batchSizeInBytes = (int) Math.max(1, (long) maxBatchSizeInBytes * batchSize / maxBatchSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchSizeInBytes() {
+        return batchSizeInBytes;
+    }
+
+    public long getBatchWindowTimeMillis() {
+        return batchWindowTimeMillis;
+    }
+}
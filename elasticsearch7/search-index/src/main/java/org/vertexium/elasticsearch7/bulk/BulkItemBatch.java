@@ -6,7 +6,6 @@ import org.vertexium.util.VertexiumLoggerFactory;
 import org.vertexium.util.VertexiumReadWriteLock;
 import org.vertexium.util.VertexiumStampedLock;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -14,23 +13,17 @@ import java.util.List;
 public class BulkItemBatch {
     private static final VertexiumLogger LOGGER = VertexiumLoggerFactory.getLogger(BulkItemBatch.class);
     private final VertexiumReadWriteLock lock = new VertexiumStampedLock();
-    private final int maxBatchSize;
-    private final int maxBatchSizeInBytes;
-    private final long batchWindowTimeMillis;
+    private final BulkBatchSizeController batchSizeController;
     private final Integer logRequestSizeLimit;
     private long lastFlush;
     private LinkedHashMap<String, BulkItem<?>> batch = new LinkedHashMap<>();
     private int currentBatchSizeInBytes = 0;
 
     public BulkItemBatch(
-        int maxBatchSize,
-        int maxBatchSizeInBytes,
-        Duration batchWindowTime,
+        BulkBatchSizeController batchSizeController,
         Integer logRequestSizeLimit
     ) {
-        this.maxBatchSize = maxBatchSize;
-        this.maxBatchSizeInBytes = maxBatchSizeInBytes;
-        this.batchWindowTimeMillis = batchWindowTime.toMillis();
+        this.batchSizeController = batchSizeController;
         this.logRequestSizeLimit = logRequestSizeLimit;
         this.lastFlush = System.currentTimeMillis();
     }
@@ -84,11 +77,11 @@ public class BulkItemBatch {
             return true;
         }
 
-        if (batch.size() >= maxBatchSize) {
+        if (batch.size() >= batchSizeController.getBatchSize()) {
             return false;
         }
 
-        if (currentBatchSizeInBytes + item.getSize() >= maxBatchSizeInBytes) {
+        if (currentBatchSizeInBytes + item.getSize() >= batchSizeController.getBatchSizeInBytes()) {
             return false;
         }
 
@@ -112,7 +105,7 @@ public class BulkItemBatch {
 
     public boolean shouldFlushByTime() {
         return lock.executeInReadLock(() ->
-            batch.size() > 0 && ((System.currentTimeMillis() - lastFlush) > batchWindowTimeMillis)
+            batch.size() > 0 && ((System.currentTimeMillis() - lastFlush) > batchSizeController.getBatchWindowTimeMillis())
         );
     }
 
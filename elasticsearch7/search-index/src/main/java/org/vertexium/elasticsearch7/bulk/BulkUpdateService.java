@@ -4,12 +4,14 @@ import com.google.common.collect.Lists;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
 import org.vertexium.ElementId;
 import org.vertexium.ElementLocation;
 import org.vertexium.ExtendedDataRowId;
 import org.vertexium.VertexiumException;
 import org.vertexium.elasticsearch7.Elasticsearch7SearchIndex;
 import org.vertexium.elasticsearch7.IndexRefreshTracker;
+import org.vertexium.metric.Counter;
 import org.vertexium.metric.Histogram;
 import org.vertexium.metric.Timer;
 import org.vertexium.metric.VertexiumMetricRegistry;
@@ -26,6 +28,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +38,9 @@ import java.util.stream.Collectors;
  * has to perform. See
  * - https://github.com/elastic/elasticsearch/issues/23792#issuecomment-296149685
  * - https://github.com/debadair/elasticsearch/commit/54cdf40bc5fdecce180ba2e242abca59c7bd1f11
+ * <p>
+ * The size of the batches and how long a partial batch waits before being sent can be tuned from the latency of
+ * the bulk requests, see {@link BulkBatchSizeController}.
  */
 public class BulkUpdateService {
     private static final VertexiumLogger LOGGER = VertexiumLoggerFactory.getLogger(BulkUpdateService.class);
@@ -48,10 +54,14 @@ public class BulkUpdateService {
     private final Timer flushTimer;
     private final Histogram batchSizeHistogram;
     private final Timer processBatchTimer;
+    private final Counter rejectedItemsCounter;
     private final Duration bulkRequestTimeout;
     private final ThreadPoolExecutor ioExecutor;
     private final int maxFailCount;
+    private final BulkBatchSizeController batchSizeController;
     private final BulkItemBatch batch;
+    private final AtomicLong inflightBytes = new AtomicLong();
+    private final AtomicLong blockedTimeMillis = new AtomicLong();
     private volatile boolean shutdown;
 
     public BulkUpdateService(
@@ -76,25 +86,28 @@ public class BulkUpdateService {
             }
         );
 
-        this.processItemsThread = new Thread(this::processIncomingItemsIntoBatches);
-        this.processItemsThread.setName("vertexium-es-processItems");
-        this.processItemsThread.setDaemon(true);
-        this.processItemsThread.start();
-
         this.bulkRequestTimeout = configuration.getBulkRequestTimeout();
         this.maxFailCount = configuration.getMaxFailCount();
-        this.batch = new BulkItemBatch(
-            configuration.getMaxBatchSize(),
-            configuration.getMaxBatchSizeInBytes(),
-            configuration.getBatchWindowTime(),
-            configuration.getLogRequestSizeLimit()
-        );
+        this.batchSizeController = new BulkBatchSizeController(configuration);
+        this.batch = new BulkItemBatch(batchSizeController, configuration.getLogRequestSizeLimit());
 
         VertexiumMetricRegistry metricRegistry = searchIndex.getMetricsRegistry();
         this.flushTimer = metricRegistry.getTimer(BulkUpdateService.class, "flush", "timer");
         this.processBatchTimer = metricRegistry.getTimer(BulkUpdateService.class, "processBatch", "timer");
         this.batchSizeHistogram = metricRegistry.getHistogram(BulkUpdateService.class, "batch", "histogram");
+        this.rejectedItemsCounter = metricRegistry.getCounter(BulkUpdateService.class, "rejectedItems", "counter");
         metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "outstandingItems", "size"), outstandingItems::size);
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "incomingItems", "size"), incomingItems::size);
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "backlog", "size"), () -> ioExecutor.getQueue().size());
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "inflight", "bytes"), inflightBytes::get);
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "blocked", "time"), blockedTimeMillis::get);
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "batchSize", "current"), batchSizeController::getBatchSize);
+        metricRegistry.getGauge(metricRegistry.createName(BulkUpdateService.class, "batchWindowTime", "current"), batchSizeController::getBatchWindowTimeMillis);
+
+        this.processItemsThread = new Thread(this::processIncomingItemsIntoBatches);
+        this.processItemsThread.setName("vertexium-es-processItems");
+        this.processItemsThread.setDaemon(true);
+        this.processItemsThread.start();
     }
 
     public CompletableFuture<Void> addDelete(
@@ -224,7 +237,10 @@ public class BulkUpdateService {
     private void flushBatch() {
         List<BulkItem<?>> batchItems = batch.getItemsAndClear();
         if (batchItems.size() > 0) {
+            // blocks while the backlog of the io executor is full
+            long startTime = System.currentTimeMillis();
             ioExecutor.execute(() -> processBatch(batchItems));
+            blockedTimeMillis.addAndGet(System.currentTimeMillis() - startTime);
         }
     }
 
@@ -264,14 +280,19 @@ public class BulkUpdateService {
                 }
 
                 outstandingItems.waitForItemToNotBeInflightAndMarkThemAsInflight(bulkItems);
+                long sizeInBytes = bulkItems.stream().mapToLong(BulkItem::getSize).sum();
+                inflightBytes.addAndGet(sizeInBytes);
+                long startTime = System.currentTimeMillis();
                 BulkResponse bulkResponse;
                 try {
                     bulkResponse = searchIndex.getClient()
                         .bulk(bulkRequestBuilder.request())
                         .get(bulkRequestTimeout.toMillis(), TimeUnit.MILLISECONDS);
                 } finally {
+                    inflightBytes.addAndGet(-sizeInBytes);
                     outstandingItems.markItemsAsNotInflight(bulkItems);
                 }
+                long latency = System.currentTimeMillis() - startTime;
 
                 Set<String> indexNames = bulkItems.stream()
                     .peek(BulkItem::updateLastTriedTime)
@@ -280,16 +301,23 @@ public class BulkUpdateService {
                 indexRefreshTracker.pushChanges(indexNames);
 
                 int itemIndex = 0;
+                int rejectedCount = 0;
                 for (BulkItemResponse bulkItemResponse : bulkResponse.getItems()) {
                     BulkItem<?> bulkItem = bulkItems.get(itemIndex++);
                     if (bulkItemResponse.isFailed()) {
+                        if (bulkItemResponse.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+                            rejectedCount++;
+                        }
                         handleFailure(bulkItem, bulkItemResponse);
                     } else {
                         handleSuccess(bulkItem);
                     }
                 }
+                rejectedItemsCounter.increment(rejectedCount);
+                batchSizeController.onBulkResponse(latency, rejectedCount);
             } catch (Exception ex) {
                 LOGGER.error("bulk request failed", ex);
+                batchSizeController.onBulkFailure();
                 // if bulk failed try each item individually
                 if (bulkItems.size() > 1) {
                     for (BulkItem<?> bulkItem : bulkItems) {
@@ -4,6 +4,7 @@ package org.vertexium.elasticsearch7.bulk;
 import java.time.Duration;
 
 public class BulkUpdateServiceConfiguration {
+    public static final boolean ADAPTIVE_DEFAULT = false;
     public static final int BACKLOG_SIZE_DEFAULT = 100;
     public static final Duration BATCH_WINDOW_TIME_DEFAULT = Duration.ofMillis(1000);
     public static final Duration BULK_REQUEST_TIMEOUT_DEFAULT = Duration.ofMinutes(30);
@@ -11,7 +12,11 @@ public class BulkUpdateServiceConfiguration {
     public static final int MAX_BATCH_SIZE_DEFAULT = 1000;
     public static final int MAX_BATCH_SIZE_IN_BYTES_DEFAULT = 10 * 1024 * 1024;
     public static final int MAX_FAIL_COUNT_DEFAULT = 10;
+    public static final int MIN_BATCH_SIZE_DEFAULT = 10;
+    public static final Duration MIN_BATCH_WINDOW_TIME_DEFAULT = Duration.ofMillis(10);
     public static final int POOL_SIZE_DEFAULT = 10;
+    public static final Duration TARGET_LATENCY_DEFAULT = Duration.ofMillis(1000);
+    private boolean adaptive = ADAPTIVE_DEFAULT;
     private int backlogSize = BACKLOG_SIZE_DEFAULT;
     private Duration batchWindowTime = BATCH_WINDOW_TIME_DEFAULT;
     private Duration bulkRequestTimeout = BULK_REQUEST_TIMEOUT_DEFAULT;
@@ -19,7 +24,19 @@ public class BulkUpdateServiceConfiguration {
     private int maxBatchSize = MAX_BATCH_SIZE_DEFAULT;
     private int maxBatchSizeInBytes = MAX_BATCH_SIZE_IN_BYTES_DEFAULT;
     private int maxFailCount = MAX_FAIL_COUNT_DEFAULT;
+    private int minBatchSize = MIN_BATCH_SIZE_DEFAULT;
+    private Duration minBatchWindowTime = MIN_BATCH_WINDOW_TIME_DEFAULT;
     private int poolSize = POOL_SIZE_DEFAULT;
+    private Duration targetLatency = TARGET_LATENCY_DEFAULT;
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public BulkUpdateServiceConfiguration setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
 
     public int getBacklogSize() {
         return backlogSize;
@@ -84,6 +101,24 @@ public class BulkUpdateServiceConfiguration {
         return this;
     }
 
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public BulkUpdateServiceConfiguration setMinBatchSize(int minBatchSize) {
+        this.minBatchSize = minBatchSize;
+        return this;
+    }
+
+    public Duration getMinBatchWindowTime() {
+        return minBatchWindowTime;
+    }
+
+    public BulkUpdateServiceConfiguration setMinBatchWindowTime(Duration minBatchWindowTime) {
+        this.minBatchWindowTime = minBatchWindowTime;
+        return this;
+    }
+
     public int getPoolSize() {
         return poolSize;
     }
@@ -92,4 +127,13 @@ public class BulkUpdateServiceConfiguration {
         this.poolSize = poolSize;
         return this;
     }
+
+    public Duration getTargetLatency() {
+        return targetLatency;
+    }
+
+    public BulkUpdateServiceConfiguration setTargetLatency(Duration targetLatency) {
+        this.targetLatency = targetLatency;
+        return this;
+    }
 }
@@ -0,0 +1,182 @@
+package org.vertexium.elasticsearch7.utils;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.SearchHit;
+import org.vertexium.elasticsearch7.ElasticsearchGraphQueryIdIterable;
+import org.vertexium.elasticsearch7.IdStrategy;
+import org.vertexium.query.AggregationResult;
+import org.vertexium.query.IterableWithScores;
+import org.vertexium.query.QueryResultsIterable;
+import org.vertexium.util.CloseableIterator;
+import org.vertexium.util.CloseableUtils;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over all the hits of a query by requesting each page with search_after, using the sort values of the
+ * last hit of the previous page. Unlike {@link InfiniteScrollIterable} nothing is held open on the server so there
+ * is nothing to clean up if the iterable is not fully consumed or closed.
+ * <p>
+ * The sort of the query must be unique per document for pages not to skip or repeat hits.
+ */
+public abstract class SearchAfterIterable<T> implements QueryResultsIterable<T>, IterableWithScores<T> {
+    private final Long limit;
+    private final int pageSize;
+    private QueryResultsIterable<T> firstIterable;
+    private boolean initCalled;
+    private boolean firstCall;
+    private SearchResponse response;
+
+    protected SearchAfterIterable(Long limit, int pageSize) {
+        this.limit = limit;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @param searchAfter the sort values of the last hit of the previous page or null for the first page. The first
+     *                    page should include aggregations and the total hit count.
+     * @return the response or null if there are no results
+     */
+    protected abstract SearchResponse getSearchResponse(Object[] searchAfter);
+
+    protected abstract QueryResultsIterable<T> searchResponseToIterable(SearchResponse searchResponse);
+
+    protected abstract IdStrategy getIdStrategy();
+
+    @Override
+    public void close() {
+    }
+
+    private void init() {
+        if (initCalled) {
+            return;
+        }
+        response = getSearchResponse(null);
+        firstIterable = response == null ? null : searchResponseToIterable(response);
+        firstCall = true;
+        initCalled = true;
+    }
+
+    @Override
+    public <TResult extends AggregationResult> TResult getAggregationResult(String name, Class<? extends TResult> resultType) {
+        init();
+        if (firstIterable == null) {
+            return AggregationResult.createEmptyResult(resultType);
+        }
+        return firstIterable.getAggregationResult(name, resultType);
+    }
+
+    @Override
+    public long getTotalHits() {
+        init();
+        if (firstIterable == null) {
+            return 0;
+        }
+        return firstIterable.getTotalHits();
+    }
+
+    @Override
+    public Double getScore(Object id) {
+        if (response == null) {
+            return null;
+        }
+        for (SearchHit hit : response.getHits()) {
+            Object hitId = ElasticsearchGraphQueryIdIterable.idFromSearchHit(hit, getIdStrategy());
+            if (hitId == null) {
+                continue;
+            }
+            if (id.equals(hitId)) {
+                return (double) hit.getScore();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        init();
+        if (response == null) {
+            return Collections.emptyIterator();
+        }
+
+        Iterator<T> it;
+        if (firstCall) {
+            it = firstIterable.iterator();
+            firstCall = false;
+        } else {
+            response = getSearchResponse(null);
+            if (response == null) {
+                return Collections.emptyIterator();
+            }
+            it = searchResponseToIterable(response).iterator();
+        }
+        return new SearchAfterIterator(response, it);
+    }
+
+    private class SearchAfterIterator implements CloseableIterator<T> {
+        private SearchResponse pageResponse;
+        private Iterator<T> it;
+        private T next;
+        private T current;
+        private long currentResultNumber = 0;
+
+        public SearchAfterIterator(SearchResponse pageResponse, Iterator<T> it) {
+            this.pageResponse = pageResponse;
+            this.it = it;
+        }
+
+        @Override
+        public boolean hasNext() {
+            loadNext();
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            loadNext();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            this.current = this.next;
+            this.next = null;
+            return this.current;
+        }
+
+        private void loadNext() {
+            while (this.next == null && it != null) {
+                boolean isUnderLimit = limit == null || currentResultNumber < limit;
+                if (isUnderLimit && it.hasNext()) {
+                    this.next = it.next();
+                    currentResultNumber++;
+                    return;
+                }
+
+                CloseableUtils.closeQuietly(it);
+                it = null;
+
+                // the graph may filter out hits so the page size of the response, not the number of results
+                // returned from it, decides whether there is another page
+                SearchHit[] hits = pageResponse.getHits().getHits();
+                if (isUnderLimit && hits.length >= pageSize && hits.length > 0) {
+                    pageResponse = getSearchResponse(hits[hits.length - 1].getSortValues());
+                    if (pageResponse != null && pageResponse.getHits().getHits().length > 0) {
+                        it = searchResponseToIterable(pageResponse).iterator();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            CloseableUtils.closeQuietly(it);
+            it = null;
+        }
+    }
+}
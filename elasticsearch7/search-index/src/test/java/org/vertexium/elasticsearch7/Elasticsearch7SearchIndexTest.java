@@ -30,8 +30,10 @@ import org.vertexium.test.GraphTestBase;
 import org.vertexium.util.CloseableUtils;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -418,6 +420,47 @@ public class Elasticsearch7SearchIndexTest extends GraphTestBase {
         assertEquals(ElasticsearchResource.TEST_QUERY_PAGING_LIMIT * 2, resultCount);
     }
 
+    @Test
+    public void testQuerySearchAfterIteration() {
+        Elasticsearch7SearchIndex searchIndex = (Elasticsearch7SearchIndex) ((GraphWithSearchIndex) graph).getSearchIndex();
+        searchIndex.getConfig().getGraphConfiguration().set(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX + "." + ElasticsearchSearchIndexConfiguration.QUERY_ITERATION_MODE, QueryIterationMode.SEARCH_AFTER.name());
+
+        int verticesToCreate = ElasticsearchResource.TEST_QUERY_PAGING_LIMIT * 2;
+        for (int i = 0; i < verticesToCreate; i++) {
+            graph.prepareVertex("v" + i, VISIBILITY_A)
+                .addPropertyValue("k1", "prop1", i % 3 == 0 ? "joe" : "bob", VISIBILITY_A)
+                .save(AUTHORIZATIONS_A);
+            graph.prepareEdge("e" + i, "v" + i, "v0", LABEL_LABEL1, VISIBILITY_A)
+                .save(AUTHORIZATIONS_A);
+        }
+        graph.flush();
+
+        QueryResultsIterable<Vertex> vertices = graph.query(AUTHORIZATIONS_A).vertices();
+        assertEquals(verticesToCreate, vertices.getTotalHits());
+        Set<String> vertexIds = new HashSet<>();
+        for (Vertex vertex : vertices) {
+            assertTrue("duplicate vertex " + vertex.getId(), vertexIds.add(vertex.getId()));
+        }
+        assertEquals(verticesToCreate, vertexIds.size());
+        assertEquals(0, getCurrentScrolls());
+
+        vertexIds.clear();
+        for (Vertex vertex : graph.query(AUTHORIZATIONS_A).sort("prop1", SortDirection.ASCENDING).vertices()) {
+            assertTrue("duplicate vertex " + vertex.getId(), vertexIds.add(vertex.getId()));
+        }
+        assertEquals(verticesToCreate, vertexIds.size());
+        assertEquals(0, getCurrentScrolls());
+
+        int resultCount = count(graph.query(AUTHORIZATIONS_A)
+            .limit(ElasticsearchResource.TEST_QUERY_PAGING_LIMIT + 1)
+            .vertices());
+        assertEquals(ElasticsearchResource.TEST_QUERY_PAGING_LIMIT + 1, resultCount);
+
+        resultCount = count(graph.query(AUTHORIZATIONS_A).elements());
+        assertEquals(verticesToCreate * 2, resultCount);
+        assertEquals(0, getCurrentScrolls());
+    }
+
     @Test
     public void testMultipleThreadsFlushing() throws InterruptedException {
         assumeTrue(benchmarkEnabled());
@@ -0,0 +1,79 @@
+package org.vertexium.elasticsearch7.bulk;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public class BulkBatchSizeControllerTest {
+    private BulkUpdateServiceConfiguration configuration;
+
+    @Before
+    public void before() {
+        configuration = new BulkUpdateServiceConfiguration()
+            .setAdaptive(true)
+            .setMaxBatchSize(100)
+            .setMinBatchSize(5)
+            .setMaxBatchSizeInBytes(1000)
+            .setBatchWindowTime(Duration.ofMillis(1000))
+            .setMinBatchWindowTime(Duration.ofMillis(50))
+            .setTargetLatency(Duration.ofMillis(200));
+    }
+
+    @Test
+    public void testStartsAtConfiguredLimits() {
+        BulkBatchSizeController controller = new BulkBatchSizeController(configuration);
+        assertEquals(100, controller.getBatchSize());
+        assertEquals(1000, controller.getBatchSizeInBytes());
+        assertEquals(1000, controller.getBatchWindowTimeMillis());
+    }
+
+    @Test
+    public void testSlowResponsesDecreaseBatchSize() {
+        BulkBatchSizeController controller = new BulkBatchSizeController(configuration);
+
+        controller.onBulkResponse(500, 0);
+        assertEquals(50, controller.getBatchSize());
+        assertEquals(500, controller.getBatchSizeInBytes());
+
+        controller.onBulkResponse(10, 3);
+        assertEquals(25, controller.getBatchSize());
+
+        controller.onBulkFailure();
+        controller.onBulkFailure();
+        controller.onBulkFailure();
+        assertEquals(5, controller.getBatchSize());
+        assertEquals(50, controller.getBatchSizeInBytes());
+        assertEquals(1000, controller.getBatchWindowTimeMillis());
+    }
+
+    @Test
+    public void testFastResponsesIncreaseBatchSizeAndShrinkWindow() {
+        BulkBatchSizeController controller = new BulkBatchSizeController(configuration);
+        controller.onBulkFailure();
+        controller.onBulkFailure();
+        assertEquals(25, controller.getBatchSize());
+
+        controller.onBulkResponse(10, 0);
+        assertEquals(35, controller.getBatchSize());
+        assertEquals(900, controller.getBatchWindowTimeMillis());
+
+        for (int i = 0; i < 20; i++) {
+            controller.onBulkResponse(10, 0);
+        }
+        assertEquals(100, controller.getBatchSize());
+        assertEquals(1000, controller.getBatchSizeInBytes());
+        assertEquals(50, controller.getBatchWindowTimeMillis());
+    }
+
+    @Test
+    public void testDisabled() {
+        BulkBatchSizeController controller = new BulkBatchSizeController(configuration.setAdaptive(false));
+        controller.onBulkResponse(500, 10);
+        controller.onBulkFailure();
+        assertEquals(100, controller.getBatchSize());
+        assertEquals(1000, controller.getBatchWindowTimeMillis());
+    }
+}
@@ -1,11 +1,7 @@
 package org.vertexium.inmemory;
 
-import org.vertexium.VertexiumException;
+import com.google.common.collect.ImmutableSet;
 import org.vertexium.Visibility;
-import org.vertexium.security.Authorizations;
-import org.vertexium.security.ColumnVisibility;
-import org.vertexium.security.VisibilityEvaluator;
-import org.vertexium.security.VisibilityParseException;
 import org.vertexium.util.ArrayUtils;
 import org.vertexium.util.Preconditions;
 
@@ -15,6 +11,7 @@ import java.util.Arrays;
 public class InMemoryAuthorizations implements org.vertexium.Authorizations, Serializable {
     private static final long serialVersionUID = 1L;
     private final String[] authorizations;
+    private transient volatile ImmutableSet<String> authorizationSet;
 
     public InMemoryAuthorizations(String... authorizations) {
         this.authorizations = authorizations;
@@ -44,13 +41,16 @@ public class InMemoryAuthorizations implements org.vertexium.Authorizations, Ser
             return true;
         }
 
-        VisibilityEvaluator visibilityEvaluator = new VisibilityEvaluator(new Authorizations(this.getAuthorizations()));
-        ColumnVisibility columnVisibility = new ColumnVisibility(visibility.getVisibilityString());
-        try {
-            return visibilityEvaluator.evaluate(columnVisibility);
-        } catch (VisibilityParseException e) {
-            throw new VertexiumException("could not evaluate visibility " + visibility.getVisibilityString(), e);
+        return InMemoryVisibilityCache.canRead(visibility.getVisibilityString(), getAuthorizationSet());
+    }
+
+    private ImmutableSet<String> getAuthorizationSet() {
+        ImmutableSet<String> set = authorizationSet;
+        if (set == null) {
+            set = ImmutableSet.copyOf(authorizations);
+            authorizationSet = set;
         }
+        return set;
     }
 
     @Override
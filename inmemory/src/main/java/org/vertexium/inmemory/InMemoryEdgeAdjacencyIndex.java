@@ -0,0 +1,156 @@
+package org.vertexium.inmemory;
+
+import org.vertexium.Direction;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.vertexium.util.Preconditions.checkNotNull;
+
+/**
+ * Maps vertex ids to the ids of the edges attached to them, grouped by direction and label, so that finding the
+ * edges of a vertex does not require walking the entire edge table.
+ * <p>
+ * The index tracks the current endpoints and label of every edge row in the edge table. Soft deleted edges stay in
+ * the index, just as they stay in the edge table, so that historical and endTime queries can still find them.
+ */
+public class InMemoryEdgeAdjacencyIndex {
+    private final Map<String, VertexAdjacency> adjacencyByVertexId = new ConcurrentHashMap<>();
+
+    public void addEdge(String edgeId, String outVertexId, String inVertexId, String label) {
+        checkNotNull(edgeId, "edgeId cannot be null");
+        checkNotNull(outVertexId, "outVertexId cannot be null");
+        checkNotNull(inVertexId, "inVertexId cannot be null");
+        checkNotNull(label, "label cannot be null");
+        addEdge(outVertexId, Direction.OUT, label, edgeId);
+        addEdge(inVertexId, Direction.IN, label, edgeId);
+    }
+
+    private void addEdge(String vertexId, Direction direction, String label, String edgeId) {
+        adjacencyByVertexId.compute(vertexId, (k, adjacency) -> {
+            if (adjacency == null) {
+                adjacency = new VertexAdjacency();
+            }
+            adjacency.add(direction, label, edgeId);
+            return adjacency;
+        });
+    }
+
+    /**
+     * Moves an edge from its old endpoints and label to its new ones. The new entries are added before the old ones
+     * are removed, so that a concurrent lookup finds the edge under either of them.
+     */
+    public void updateEdge(
+        String edgeId,
+        String oldOutVertexId,
+        String oldInVertexId,
+        String oldLabel,
+        String outVertexId,
+        String inVertexId,
+        String label
+    ) {
+        addEdge(edgeId, outVertexId, inVertexId, label);
+        if (oldLabel == null) {
+            return;
+        }
+        boolean sameLabel = oldLabel.equals(label);
+        if (oldOutVertexId != null && !(sameLabel && oldOutVertexId.equals(outVertexId))) {
+            removeEdge(oldOutVertexId, Direction.OUT, oldLabel, edgeId);
+        }
+        if (oldInVertexId != null && !(sameLabel && oldInVertexId.equals(inVertexId))) {
+            removeEdge(oldInVertexId, Direction.IN, oldLabel, edgeId);
+        }
+    }
+
+    public void removeEdge(String edgeId, String outVertexId, String inVertexId, String label) {
+        if (edgeId == null || outVertexId == null || inVertexId == null || label == null) {
+            return;
+        }
+        removeEdge(outVertexId, Direction.OUT, label, edgeId);
+        removeEdge(inVertexId, Direction.IN, label, edgeId);
+    }
+
+    private void removeEdge(String vertexId, Direction direction, String label, String edgeId) {
+        adjacencyByVertexId.computeIfPresent(vertexId, (k, adjacency) -> {
+            adjacency.remove(direction, label, edgeId);
+            return adjacency.isEmpty() ? null : adjacency;
+        });
+    }
+
+    /**
+     * Gets the ids of the edges attached to the given vertex.
+     *
+     * @param vertexId  The vertex to get edge ids for.
+     * @param direction The direction of the edges relative to the vertex.
+     * @param labels    The labels to include or null to include all labels.
+     * @return The edge ids. Self referencing edges are only returned once.
+     */
+    public Set<String> getEdgeIds(String vertexId, Direction direction, String[] labels) {
+        VertexAdjacency adjacency = adjacencyByVertexId.get(vertexId);
+        if (adjacency == null) {
+            return Collections.emptySet();
+        }
+        Set<String> results = new LinkedHashSet<>();
+        if (direction == Direction.OUT || direction == Direction.BOTH) {
+            adjacency.collect(Direction.OUT, labels, results);
+        }
+        if (direction == Direction.IN || direction == Direction.BOTH) {
+            adjacency.collect(Direction.IN, labels, results);
+        }
+        return results;
+    }
+
+    public void clear() {
+        adjacencyByVertexId.clear();
+    }
+
+    private static class VertexAdjacency {
+        private final Map<String, Set<String>> outEdgeIdsByLabel = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> inEdgeIdsByLabel = new ConcurrentHashMap<>();
+
+        private Map<String, Set<String>> getEdgeIdsByLabel(Direction direction) {
+            switch (direction) {
+                case OUT:
+                    return outEdgeIdsByLabel;
+                case IN:
+                    return inEdgeIdsByLabel;
+                default:
+                    throw new IllegalArgumentException("Unexpected direction: " + direction);
+            }
+        }
+
+        public void add(Direction direction, String label, String edgeId) {
+            getEdgeIdsByLabel(direction).computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet()).add(edgeId);
+        }
+
+        public void remove(Direction direction, String label, String edgeId) {
+            getEdgeIdsByLabel(direction).computeIfPresent(label, (k, edgeIds) -> {
+                edgeIds.remove(edgeId);
+                return edgeIds.isEmpty() ? null : edgeIds;
+            });
+        }
+
+        public void collect(Direction direction, String[] labels, Set<String> results) {
+            Map<String, Set<String>> edgeIdsByLabel = getEdgeIdsByLabel(direction);
+            if (labels == null) {
+                for (Set<String> edgeIds : edgeIdsByLabel.values()) {
+                    results.addAll(edgeIds);
+                }
+            } else {
+                for (String label : labels) {
+                    if (label == null) {
+                        continue;
+                    }
+                    Set<String> edgeIds = edgeIdsByLabel.get(label);
+                    if (edgeIds != null) {
+                        results.addAll(edgeIds);
+                    }
+                }
+            }
+        }
+
+        public boolean isEmpty() {
+            return outEdgeIdsByLabel.isEmpty() && inEdgeIdsByLabel.isEmpty();
+        }
+    }
+}
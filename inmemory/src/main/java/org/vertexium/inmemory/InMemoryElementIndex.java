@@ -0,0 +1,524 @@
+package org.vertexium.inmemory;
+
+import com.google.common.collect.ListMultimap;
+import org.vertexium.DateOnly;
+import org.vertexium.Edge;
+import org.vertexium.Element;
+import org.vertexium.ElementType;
+import org.vertexium.property.StreamingPropertyValue;
+import org.vertexium.property.StreamingPropertyValueRef;
+import org.vertexium.query.*;
+import org.vertexium.type.GeoShape;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting lists of the ids of the elements of one element type, by property value, by trigram of the property values,
+ * by location of geo shape values and by edge label. They are used to find the elements a query could match without
+ * creating every element.
+ * <p>
+ * The postings only ever narrow down the candidates. Every candidate is still evaluated against the query, so
+ * values which can not be ordered or tokenized here (streaming values, geo shapes, booleans, ...) are kept in per
+ * property sets of elements which are always candidates, and predicates which are not understood do not narrow
+ * down the candidates at all.
+ * <p>
+ * This class is not thread safe, {@link InMemorySearchIndex} guards it with a lock.
+ */
+class InMemoryElementIndex {
+    private static final int NGRAM_LENGTH = 3;
+    // DateOnly comparisons truncate dates to a day in the default time zone, so date ranges are widened to cover it
+    private static final long DATE_SLACK = TimeUnit.DAYS.toMillis(2);
+    private static final Set<String> RESERVED_PROPERTY_NAMES = new HashSet<>(Arrays.asList(
+        Element.ID_PROPERTY_NAME,
+        Edge.LABEL_PROPERTY_NAME,
+        Edge.OUT_VERTEX_ID_PROPERTY_NAME,
+        Edge.IN_VERTEX_ID_PROPERTY_NAME,
+        Edge.IN_OR_OUT_VERTEX_ID_PROPERTY_NAME
+    ));
+
+    private final ElementType elementType;
+    private final Map<String, IndexedElement> elements = new HashMap<>();
+    private final Map<String, PropertyIndex> properties = new HashMap<>();
+    private final Postings<String> valueNgrams = new Postings<>(new HashMap<>());
+    private final Set<String> valueNgramsUnindexed = new HashSet<>();
+    private final Postings<String> edgeLabels = new Postings<>(new HashMap<>());
+
+    InMemoryElementIndex(ElementType elementType) {
+        this.elementType = elementType;
+    }
+
+    /**
+     * Replaces the postings of an element with the current state of its row.
+     *
+     * @param id           The id of the element.
+     * @param tableElement The row of the element or null if the element no longer exists.
+     */
+    void update(String id, InMemoryTableElement<?> tableElement) {
+        IndexedElement oldElement = elements.remove(id);
+        if (oldElement != null) {
+            oldElement.update(id, false);
+        }
+        if (tableElement != null) {
+            String edgeLabel = tableElement instanceof InMemoryTableEdge ? ((InMemoryTableEdge) tableElement).getLabel() : null;
+            IndexedElement newElement = new IndexedElement(tableElement.getLatestPropertyValues(), edgeLabel);
+            newElement.update(id, true);
+            elements.put(id, newElement);
+        }
+    }
+
+    void clear() {
+        elements.clear();
+        properties.clear();
+        valueNgrams.clear();
+        valueNgramsUnindexed.clear();
+        edgeLabels.clear();
+    }
+
+    /**
+     * @return the ids of the elements which could match the query or null if every element could match
+     */
+    Set<String> getCandidateIds(QueryParameters parameters) {
+        List<Set<String>> candidates = new ArrayList<>();
+        for (QueryBase.HasContainer hasContainer : parameters.getHasContainers()) {
+            addIfNotNull(candidates, getCandidateIds(hasContainer));
+        }
+        if (elementType == ElementType.EDGE && parameters.getEdgeLabels().size() > 0) {
+            List<Set<String>> labelCandidates = new ArrayList<>();
+            for (String edgeLabel : parameters.getEdgeLabels()) {
+                addIfNotNull(labelCandidates, edgeLabels.get(edgeLabel));
+            }
+            candidates.add(union(labelCandidates));
+        }
+        if (parameters.getIds() != null) {
+            candidates.add(new HashSet<>(parameters.getIds()));
+        }
+        if (parameters instanceof QueryStringQueryParameters) {
+            String queryString = ((QueryStringQueryParameters) parameters).getQueryString();
+            if (queryString != null && !queryString.equals("*")) {
+                Set<String> queryStringCandidates = getNgramCandidateIds(valueNgrams, queryString.toLowerCase());
+                if (queryStringCandidates != null) {
+                    queryStringCandidates.addAll(valueNgramsUnindexed);
+                    candidates.add(queryStringCandidates);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return intersection(candidates);
+    }
+
+    private Set<String> getCandidateIds(QueryBase.HasContainer hasContainer) {
+        if (hasContainer instanceof QueryBase.HasPropertyContainer) {
+            List<Set<String>> results = new ArrayList<>();
+            for (String key : ((QueryBase.HasPropertyContainer) hasContainer).getKeys()) {
+                PropertyIndex propertyIndex = properties.get(key);
+                if (propertyIndex != null) {
+                    results.add(propertyIndex.elementIds);
+                }
+            }
+            return union(results);
+        }
+        if (hasContainer instanceof QueryBase.HasValueContainer) {
+            QueryBase.HasValueContainer hasValueContainer = (QueryBase.HasValueContainer) hasContainer;
+            List<Set<String>> results = new ArrayList<>();
+            for (String key : hasValueContainer.keys) {
+                if (RESERVED_PROPERTY_NAMES.contains(key)) {
+                    return null;
+                }
+                PropertyIndex propertyIndex = properties.get(key);
+                if (propertyIndex == null) {
+                    if (!isNarrowingPredicate(hasValueContainer.predicate)) {
+                        return null;
+                    }
+                    continue;
+                }
+                Set<String> keyResults = propertyIndex.getCandidateIds(hasValueContainer.predicate, hasValueContainer.value);
+                if (keyResults == null) {
+                    return null;
+                }
+                results.add(keyResults);
+            }
+            return union(results);
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the predicate can only match elements which have the property
+     */
+    private static boolean isNarrowingPredicate(Predicate predicate) {
+        return predicate == Compare.EQUAL
+            || predicate == Compare.GREATER_THAN
+            || predicate == Compare.GREATER_THAN_EQUAL
+            || predicate == Compare.LESS_THAN
+            || predicate == Compare.LESS_THAN_EQUAL
+            || predicate == Compare.STARTS_WITH
+            || predicate == Contains.IN
+            || predicate == TextPredicate.CONTAINS
+            || predicate == GeoCompare.INTERSECTS
+            || predicate == GeoCompare.WITHIN;
+    }
+
+    private static void addIfNotNull(List<Set<String>> sets, Set<String> set) {
+        if (set != null) {
+            sets.add(set);
+        }
+    }
+
+    private static Set<String> union(Collection<Set<String>> sets) {
+        Set<String> results = new HashSet<>();
+        for (Set<String> set : sets) {
+            results.addAll(set);
+        }
+        return results;
+    }
+
+    private static Set<String> intersection(List<Set<String>> sets) {
+        sets.sort(Comparator.comparingInt(Set::size));
+        Set<String> results = new HashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !results.isEmpty(); i++) {
+            results.retainAll(sets.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * @return the ids of the elements whose values contain every trigram of the text or null if the text is too short
+     */
+    private static Set<String> getNgramCandidateIds(Postings<String> ngrams, String text) {
+        Set<String> textNgrams = getNgrams(text);
+        if (textNgrams.isEmpty()) {
+            return null;
+        }
+        List<Set<String>> candidates = new ArrayList<>();
+        for (String ngram : textNgrams) {
+            Set<String> ids = ngrams.get(ngram);
+            if (ids == null) {
+                return new HashSet<>();
+            }
+            candidates.add(ids);
+        }
+        return intersection(candidates);
+    }
+
+    private static Set<String> getNgrams(String text) {
+        Set<String> results = new HashSet<>();
+        for (int i = 0; i + NGRAM_LENGTH <= text.length(); i++) {
+            results.add(text.substring(i, i + NGRAM_LENGTH));
+        }
+        return results;
+    }
+
+    private static boolean isStreamingValue(Object value) {
+        return value instanceof StreamingPropertyValue || value instanceof StreamingPropertyValueRef;
+    }
+
+    /**
+     * Applies the same conversions {@link Compare} applies before comparing values.
+     */
+    private static Object normalizeValue(Object value) {
+        if (value instanceof DateOnly) {
+            return ((DateOnly) value).getDate();
+        }
+        if (value instanceof ElementType) {
+            return ((ElementType) value).name();
+        }
+        return value;
+    }
+
+    private static Double toNumber(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private class IndexedElement {
+        private final ListMultimap<String, Object> propertyValues;
+        private final String edgeLabel;
+
+        IndexedElement(ListMultimap<String, Object> propertyValues, String edgeLabel) {
+            this.propertyValues = propertyValues;
+            this.edgeLabel = edgeLabel;
+        }
+
+        void update(String id, boolean add) {
+            if (edgeLabel != null) {
+                edgeLabels.update(edgeLabel, id, add);
+            }
+            for (Map.Entry<String, Object> entry : propertyValues.entries()) {
+                String propertyName = entry.getKey();
+                Object value = entry.getValue();
+                PropertyIndex propertyIndex = add
+                    ? properties.computeIfAbsent(propertyName, k -> new PropertyIndex())
+                    : properties.get(propertyName);
+                if (propertyIndex != null) {
+                    propertyIndex.update(id, value, add);
+                    if (propertyIndex.elementIds.isEmpty()) {
+                        properties.remove(propertyName);
+                    }
+                }
+
+                if (value == null) {
+                    continue;
+                }
+                if (isStreamingValue(value)) {
+                    updateSet(valueNgramsUnindexed, id, add);
+                } else {
+                    for (String ngram : getNgrams(value.toString().toLowerCase())) {
+                        valueNgrams.update(ngram, id, add);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void updateSet(Set<String> set, String id, boolean add) {
+        if (add) {
+            set.add(id);
+        } else {
+            set.remove(id);
+        }
+    }
+
+    private static class PropertyIndex {
+        private final Set<String> elementIds = new HashSet<>();
+        private final Postings<Double> numbers = new Postings<>(new TreeMap<>());
+        private final Postings<String> strings = new Postings<>(new TreeMap<>());
+        private final Postings<Long> dates = new Postings<>(new TreeMap<>());
+        private final Set<String> others = new HashSet<>();
+        private final Postings<String> ngrams = new Postings<>(new HashMap<>());
+        private final Set<String> ngramsUnindexed = new HashSet<>();
+        private final InMemoryGeoIndex geoShapes = new InMemoryGeoIndex();
+        private final Set<String> geoShapesUnindexed = new HashSet<>();
+
+        void update(String id, Object value, boolean add) {
+            updateSet(elementIds, id, add);
+            value = normalizeValue(value);
+            Double number = toNumber(value);
+            if (number != null) {
+                numbers.update(number, id, add);
+            }
+            if (value instanceof String) {
+                String lowerCaseValue = ((String) value).toLowerCase();
+                strings.update(lowerCaseValue, id, add);
+                for (String ngram : getNgrams(lowerCaseValue)) {
+                    ngrams.update(ngram, id, add);
+                }
+            } else {
+                updateSet(ngramsUnindexed, id, add);
+                if (value instanceof Date) {
+                    dates.update(((Date) value).getTime(), id, add);
+                } else if (number == null) {
+                    updateSet(others, id, add);
+                }
+            }
+            if (!(value instanceof GeoShape) || !geoShapes.update(id, (GeoShape) value, add)) {
+                updateSet(geoShapesUnindexed, id, add);
+            }
+        }
+
+        /**
+         * @return the ids of the elements with a value of this property which could match or null if any element
+         * could match
+         */
+        Set<String> getCandidateIds(Predicate predicate, Object value) {
+            if (predicate == Contains.IN) {
+                Iterable<?> values;
+                if (value instanceof Iterable) {
+                    values = (Iterable<?>) value;
+                } else if (value instanceof Object[]) {
+                    values = Arrays.asList((Object[]) value);
+                } else {
+                    return null;
+                }
+                Set<String> results = new HashSet<>();
+                for (Object v : values) {
+                    Set<String> valueResults = getCandidateIds(Compare.EQUAL, v);
+                    if (valueResults == null) {
+                        return null;
+                    }
+                    results.addAll(valueResults);
+                }
+                return results;
+            }
+            if (predicate == TextPredicate.CONTAINS && value instanceof String) {
+                Set<String> results = getNgramCandidateIds(ngrams, ((String) value).toLowerCase());
+                if (results != null) {
+                    results.addAll(ngramsUnindexed);
+                }
+                return results;
+            }
+            if (predicate instanceof GeoCompare && value instanceof GeoShape) {
+                Set<String> results = geoShapes.getCandidateIds((GeoCompare) predicate, (GeoShape) value);
+                if (results != null) {
+                    // shapes of unknown extent could match and other values fail the query when evaluated
+                    results.addAll(geoShapesUnindexed);
+                }
+                return results;
+            }
+            if (!(predicate instanceof Compare)) {
+                return null;
+            }
+            value = normalizeValue(value);
+            Set<String> results;
+            if (value instanceof Number) {
+                results = getCandidateIdsForNumber((Compare) predicate, ((Number) value).doubleValue());
+            } else if (value instanceof String) {
+                results = getCandidateIdsForString((Compare) predicate, (String) value);
+            } else if (value instanceof Date) {
+                results = getCandidateIdsForDate((Compare) predicate, ((Date) value).getTime());
+            } else {
+                return null;
+            }
+            if (results != null) {
+                results.addAll(others);
+            }
+            return results;
+        }
+
+        private Set<String> getCandidateIdsForNumber(Compare predicate, double value) {
+            Set<String> results;
+            switch (predicate) {
+                case EQUAL:
+                    results = numbers.getRange(value, value);
+                    break;
+                case GREATER_THAN:
+                case GREATER_THAN_EQUAL:
+                    // strings which are not numbers compare as greater than any number
+                    results = numbers.getRange(value, null);
+                    results.addAll(strings.getAll());
+                    break;
+                case LESS_THAN:
+                case LESS_THAN_EQUAL:
+                    results = numbers.getRange(null, value);
+                    break;
+                default:
+                    return null;
+            }
+            // dates can not be compared to numbers and fail the query when evaluated
+            results.addAll(dates.getAll());
+            return results;
+        }
+
+        private Set<String> getCandidateIdsForString(Compare predicate, String value) {
+            String lowerCaseValue = value.toLowerCase();
+            Double number = toNumber(value);
+            Set<String> results;
+            switch (predicate) {
+                case EQUAL:
+                    results = strings.getRange(lowerCaseValue, lowerCaseValue);
+                    if (number != null) {
+                        results.addAll(numbers.getRange(number, number));
+                    }
+                    break;
+                case GREATER_THAN:
+                case GREATER_THAN_EQUAL:
+                    results = strings.getRange(lowerCaseValue, null);
+                    if (number != null) {
+                        results.addAll(numbers.getRange(number, null));
+                    }
+                    break;
+                case LESS_THAN:
+                case LESS_THAN_EQUAL:
+                    results = strings.getRange(null, lowerCaseValue);
+                    // numbers compare as less than any string which is not a number
+                    results.addAll(number == null ? numbers.getAll() : numbers.getRange(null, number));
+                    break;
+                case STARTS_WITH:
+                    results = strings.getRange(lowerCaseValue, lowerCaseValue + Character.MAX_VALUE);
+                    results.addAll(numbers.getAll());
+                    break;
+                default:
+                    return null;
+            }
+            // dates can not be compared to strings and fail the query when evaluated
+            results.addAll(dates.getAll());
+            return results;
+        }
+
+        private Set<String> getCandidateIdsForDate(Compare predicate, long value) {
+            Set<String> results;
+            switch (predicate) {
+                case EQUAL:
+                    results = dates.getRange(value - DATE_SLACK, value + DATE_SLACK);
+                    break;
+                case GREATER_THAN:
+                case GREATER_THAN_EQUAL:
+                    results = dates.getRange(value - DATE_SLACK, null);
+                    break;
+                case LESS_THAN:
+                case LESS_THAN_EQUAL:
+                    results = dates.getRange(null, value + DATE_SLACK);
+                    break;
+                default:
+                    return null;
+            }
+            // numbers and strings can not be compared to dates and fail the query when evaluated
+            results.addAll(numbers.getAll());
+            results.addAll(strings.getAll());
+            return results;
+        }
+    }
+
+    private static class Postings<K> {
+        private final Map<K, Set<String>> postings;
+
+        Postings(Map<K, Set<String>> postings) {
+            this.postings = postings;
+        }
+
+        void update(K key, String id, boolean add) {
+            if (add) {
+                postings.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+            } else {
+                Set<String> ids = postings.get(key);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+
+        Set<String> get(K key) {
+            return postings.get(key);
+        }
+
+        Set<String> getAll() {
+            return union(postings.values());
+        }
+
+        /**
+         * Gets the ids of the keys between the given keys, both inclusive. Only supported for sorted postings.
+         *
+         * @param from The lowest key or null for no lower bound.
+         * @param to   The highest key or null for no upper bound.
+         */
+        @SuppressWarnings("unchecked")
+        Set<String> getRange(K from, K to) {
+            NavigableMap<K, Set<String>> range = (NavigableMap<K, Set<String>>) postings;
+            if (from != null) {
+                range = range.tailMap(from, true);
+            }
+            if (to != null) {
+                range = range.headMap(to, true);
+            }
+            return union(range.values());
+        }
+
+        void clear() {
+            postings.clear();
+        }
+    }
+}
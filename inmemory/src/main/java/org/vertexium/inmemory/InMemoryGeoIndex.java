@@ -0,0 +1,298 @@
+package org.vertexium.inmemory;
+
+import org.vertexium.query.GeoCompare;
+import org.vertexium.type.*;
+import org.vertexium.util.GeoUtils;
+
+import java.util.*;
+
+/**
+ * A geohash prefix index of the ids of the elements with geo shape values of one property. Each shape is filed under
+ * the geohash of the smallest cell which contains its bounding box, points under their full precision geohash. A
+ * query only visits the cells which overlap the bounding box of the query shape, the cells inside them and the cells
+ * enclosing them, and then compares bounding boxes, so no shape is converted or tested with trigonometry here.
+ * <p>
+ * Shapes are compared on the same flat latitude/longitude plane {@link GeoUtils} uses, except for circles whose
+ * bounding box comes from {@link GeoUtils#getEnvelope(GeoShape)}.
+ * <p>
+ * This class is not thread safe.
+ */
+class InMemoryGeoIndex {
+    private static final int MAX_PRECISION = 12;
+    private static final int MAX_QUERY_CELLS = 64;
+    // widens query boxes so that rounding in the envelope of circles and shapes touching a cell edge are not missed
+    private static final double SLACK = 0.000001;
+
+    private final NavigableMap<String, Map<String, List<BoundingBox>>> cells = new TreeMap<>();
+
+    /**
+     * @return false if the bounding box of the shape can not be computed, in which case it is not indexed
+     */
+    boolean update(String id, GeoShape geoShape, boolean add) {
+        BoundingBox boundingBox = BoundingBox.of(geoShape);
+        if (boundingBox == null) {
+            return false;
+        }
+        String cell = boundingBox.getCell();
+        if (add) {
+            cells.computeIfAbsent(cell, k -> new HashMap<>())
+                .computeIfAbsent(id, k -> new ArrayList<>())
+                .add(boundingBox);
+        } else {
+            Map<String, List<BoundingBox>> cellIds = cells.get(cell);
+            if (cellIds != null) {
+                // elements are always removed with all their values, so every shape of the element in the cell goes
+                cellIds.remove(id);
+                if (cellIds.isEmpty()) {
+                    cells.remove(cell);
+                }
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        cells.clear();
+    }
+
+    /**
+     * @return the ids of the elements with a shape which could match or null if any element could match
+     */
+    Set<String> getCandidateIds(GeoCompare predicate, GeoShape geoShape) {
+        if (predicate != GeoCompare.INTERSECTS && predicate != GeoCompare.WITHIN) {
+            return null;
+        }
+        if (geoShape instanceof GeoPoint) {
+            // points intersect points within a tolerance
+            GeoPoint geoPoint = (GeoPoint) geoShape;
+            geoShape = new GeoCircle(geoPoint.getLatitude(), geoPoint.getLongitude(), GeoPoint.EQUALS_TOLERANCE_KM);
+        }
+        BoundingBox queryBox = BoundingBox.of(geoShape);
+        if (queryBox == null) {
+            return null;
+        }
+        List<BoundingBox> queryBoxes = queryBox.widen(SLACK).splitAtAntimeridian();
+        // a shape within a query box crossing the antimeridian may lie in both halves, so only require an overlap
+        boolean requireWithin = predicate == GeoCompare.WITHIN && queryBoxes.size() == 1;
+
+        Set<String> visitedCells = new HashSet<>();
+        Set<String> results = new HashSet<>();
+        for (BoundingBox box : queryBoxes) {
+            for (String coveringCell : box.getCoveringCells()) {
+                for (int i = 0; i < coveringCell.length(); i++) {
+                    String enclosingCell = coveringCell.substring(0, i);
+                    if (visitedCells.add(enclosingCell)) {
+                        addCandidateIds(results, cells.get(enclosingCell), queryBoxes, requireWithin);
+                    }
+                }
+                for (Map<String, List<BoundingBox>> cellIds : cells.subMap(coveringCell, true, coveringCell + Character.MAX_VALUE, true).values()) {
+                    addCandidateIds(results, cellIds, queryBoxes, requireWithin);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void addCandidateIds(
+        Set<String> results,
+        Map<String, List<BoundingBox>> cellIds,
+        List<BoundingBox> queryBoxes,
+        boolean requireWithin
+    ) {
+        if (cellIds == null) {
+            return;
+        }
+        for (Map.Entry<String, List<BoundingBox>> entry : cellIds.entrySet()) {
+            if (results.contains(entry.getKey())) {
+                continue;
+            }
+            for (BoundingBox boundingBox : entry.getValue()) {
+                if (isCandidate(boundingBox, queryBoxes, requireWithin)) {
+                    results.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean isCandidate(BoundingBox boundingBox, List<BoundingBox> queryBoxes, boolean requireWithin) {
+        for (BoundingBox queryBox : queryBoxes) {
+            if (requireWithin ? queryBox.contains(boundingBox) : queryBox.intersects(boundingBox)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class BoundingBox {
+        private final double minLatitude;
+        private final double maxLatitude;
+        private final double minLongitude;
+        // less than minLongitude if the box crosses the antimeridian
+        private final double maxLongitude;
+
+        BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+
+        /**
+         * @return the bounding box of the shape or null if it is not a known shape
+         */
+        static BoundingBox of(GeoShape geoShape) {
+            if (geoShape instanceof GeoPoint) {
+                GeoPoint geoPoint = (GeoPoint) geoShape;
+                return new BoundingBox(geoPoint.getLatitude(), geoPoint.getLatitude(), geoPoint.getLongitude(), geoPoint.getLongitude());
+            } else if (geoShape instanceof GeoCircle) {
+                GeoRect envelope = (GeoRect) GeoUtils.getEnvelope(geoShape);
+                return new BoundingBox(
+                    envelope.getSouthEast().getLatitude(),
+                    envelope.getNorthWest().getLatitude(),
+                    envelope.getNorthWest().getLongitude(),
+                    envelope.getSouthEast().getLongitude()
+                );
+            } else if (geoShape instanceof GeoRect) {
+                GeoRect geoRect = (GeoRect) geoShape;
+                return of(Arrays.asList(geoRect.getNorthWest(), geoRect.getSouthEast()));
+            } else if (geoShape instanceof GeoHash) {
+                return of(((GeoHash) geoShape).toGeoRect());
+            } else if (geoShape instanceof GeoLine) {
+                return of(((GeoLine) geoShape).getGeoPoints());
+            } else if (geoShape instanceof GeoPolygon) {
+                return of(((GeoPolygon) geoShape).getOuterBoundary());
+            } else if (geoShape instanceof GeoCollection) {
+                BoundingBox result = null;
+                for (GeoShape shape : ((GeoCollection) geoShape).getGeoShapes()) {
+                    BoundingBox boundingBox = of(shape);
+                    if (boundingBox == null) {
+                        return null;
+                    }
+                    result = result == null ? boundingBox : result.union(boundingBox);
+                }
+                return result;
+            }
+            return null;
+        }
+
+        private static BoundingBox of(List<GeoPoint> geoPoints) {
+            if (geoPoints == null || geoPoints.isEmpty()) {
+                return null;
+            }
+            double minLatitude = Double.POSITIVE_INFINITY;
+            double maxLatitude = Double.NEGATIVE_INFINITY;
+            double minLongitude = Double.POSITIVE_INFINITY;
+            double maxLongitude = Double.NEGATIVE_INFINITY;
+            for (GeoPoint geoPoint : geoPoints) {
+                minLatitude = Math.min(minLatitude, geoPoint.getLatitude());
+                maxLatitude = Math.max(maxLatitude, geoPoint.getLatitude());
+                minLongitude = Math.min(minLongitude, geoPoint.getLongitude());
+                maxLongitude = Math.max(maxLongitude, geoPoint.getLongitude());
+            }
+            return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        }
+
+        private boolean crossesAntimeridian() {
+            return maxLongitude < minLongitude;
+        }
+
+        BoundingBox union(BoundingBox other) {
+            if (crossesAntimeridian() || other.crossesAntimeridian()) {
+                return new BoundingBox(Math.min(minLatitude, other.minLatitude), Math.max(maxLatitude, other.maxLatitude), -180.0, 180.0);
+            }
+            return new BoundingBox(
+                Math.min(minLatitude, other.minLatitude),
+                Math.max(maxLatitude, other.maxLatitude),
+                Math.min(minLongitude, other.minLongitude),
+                Math.max(maxLongitude, other.maxLongitude)
+            );
+        }
+
+        BoundingBox widen(double slack) {
+            return new BoundingBox(minLatitude - slack, maxLatitude + slack, minLongitude - slack, maxLongitude + slack);
+        }
+
+        List<BoundingBox> splitAtAntimeridian() {
+            if (crossesAntimeridian()) {
+                return Arrays.asList(
+                    new BoundingBox(minLatitude, maxLatitude, minLongitude, 180.0),
+                    new BoundingBox(minLatitude, maxLatitude, -180.0, maxLongitude)
+                );
+            }
+            return Collections.singletonList(this);
+        }
+
+        boolean intersects(BoundingBox other) {
+            if (other.crossesAntimeridian()) {
+                return other.splitAtAntimeridian().stream().anyMatch(this::intersects);
+            }
+            return minLatitude <= other.maxLatitude && other.minLatitude <= maxLatitude
+                && minLongitude <= other.maxLongitude && other.minLongitude <= maxLongitude;
+        }
+
+        boolean contains(BoundingBox other) {
+            if (other.crossesAntimeridian()) {
+                return other.splitAtAntimeridian().stream().allMatch(this::contains);
+            }
+            return minLatitude <= other.minLatitude && other.maxLatitude <= maxLatitude
+                && minLongitude <= other.minLongitude && other.maxLongitude <= maxLongitude;
+        }
+
+        /**
+         * @return the geohash of the smallest cell containing this box
+         */
+        String getCell() {
+            if (crossesAntimeridian()) {
+                return "";
+            }
+            String southWest = new GeoHash(minLatitude, minLongitude, MAX_PRECISION).getHash();
+            String northEast = new GeoHash(maxLatitude, maxLongitude, MAX_PRECISION).getHash();
+            int i = 0;
+            while (i < MAX_PRECISION && southWest.charAt(i) == northEast.charAt(i)) {
+                i++;
+            }
+            return southWest.substring(0, i);
+        }
+
+        /**
+         * @return the geohashes of the cells overlapping this box, at the highest precision which needs at most
+         * {@link #MAX_QUERY_CELLS} of them
+         */
+        List<String> getCoveringCells() {
+            int precision = 1;
+            while (precision < MAX_PRECISION && getCellRange(precision + 1, true) * getCellRange(precision + 1, false) <= MAX_QUERY_CELLS) {
+                precision++;
+            }
+            int longitudeBits = (5 * precision + 1) / 2;
+            int latitudeBits = 5 * precision / 2;
+            double cellWidth = 360.0 / (1L << longitudeBits);
+            double cellHeight = 180.0 / (1L << latitudeBits);
+            int firstLongitudeCell = getCellIndex(minLongitude + 180.0, cellWidth, longitudeBits);
+            int firstLatitudeCell = getCellIndex(minLatitude + 90.0, cellHeight, latitudeBits);
+            List<String> results = new ArrayList<>();
+            for (int x = firstLongitudeCell; x <= getCellIndex(maxLongitude + 180.0, cellWidth, longitudeBits); x++) {
+                for (int y = firstLatitudeCell; y <= getCellIndex(maxLatitude + 90.0, cellHeight, latitudeBits); y++) {
+                    double latitude = -90.0 + (y + 0.5) * cellHeight;
+                    double longitude = -180.0 + (x + 0.5) * cellWidth;
+                    results.add(new GeoHash(latitude, longitude, precision).getHash());
+                }
+            }
+            return results;
+        }
+
+        private long getCellRange(int precision, boolean longitude) {
+            int bits = longitude ? (5 * precision + 1) / 2 : 5 * precision / 2;
+            double cellSize = (longitude ? 360.0 : 180.0) / (1L << bits);
+            double offset = longitude ? 180.0 : 90.0;
+            double min = longitude ? minLongitude : minLatitude;
+            double max = longitude ? maxLongitude : maxLatitude;
+            return getCellIndex(max + offset, cellSize, bits) - getCellIndex(min + offset, cellSize, bits) + 1;
+        }
+
+        private static int getCellIndex(double offsetValue, double cellSize, int bits) {
+            long index = (long) Math.floor(offsetValue / cellSize);
+            return (int) Math.max(0, Math.min((1L << bits) - 1, index));
+        }
+    }
+}
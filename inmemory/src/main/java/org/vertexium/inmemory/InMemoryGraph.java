@@ -16,7 +16,6 @@ import org.vertexium.property.StreamingPropertyValueRef;
 import org.vertexium.search.IndexHint;
 import org.vertexium.search.SearchIndex;
 import org.vertexium.util.ArrayUtils;
-import org.vertexium.util.ConvertingIterable;
 import org.vertexium.util.IncreasingTime;
 import org.vertexium.util.IterableUtils;
 
@@ -33,6 +32,7 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
     private final Set<String> validAuthorizations = new HashSet<>();
     private final InMemoryVertexTable vertices;
     private final InMemoryEdgeTable edges;
+    private final InMemoryEdgeAdjacencyIndex edgeAdjacencyIndex = new InMemoryEdgeAdjacencyIndex();
     private final InMemoryExtendedDataTable extendedDataTable;
     private final GraphMetadataStore graphMetadataStore;
 
@@ -48,6 +48,8 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         super(configuration);
         this.vertices = new InMemoryVertexTable(getMetadataPlugin());
         this.edges = new InMemoryEdgeTable(getMetadataPlugin());
+        this.vertices.setMutationRetention(configuration.getMutationRetention());
+        this.edges.setMutationRetention(configuration.getMutationRetention());
         this.extendedDataTable = extendedDataTable;
         this.graphMetadataStore = newGraphMetadataStore(configuration);
     }
@@ -61,6 +63,8 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         super(configuration, idGenerator, searchIndex);
         this.vertices = new InMemoryVertexTable(getMetadataPlugin());
         this.edges = new InMemoryEdgeTable(getMetadataPlugin());
+        this.vertices.setMutationRetention(configuration.getMutationRetention());
+        this.edges.setMutationRetention(configuration.getMutationRetention());
         this.extendedDataTable = extendedDataTable;
         this.graphMetadataStore = newGraphMetadataStore(configuration);
     }
@@ -187,12 +191,13 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
     @Override
     public Iterable<Vertex> getVertices(FetchHints fetchHints, final Long endTime, final Authorizations authorizations) throws VertexiumException {
         validateAuthorizations(authorizations);
-        return new ConvertingIterable<InMemoryVertex, Vertex>(this.vertices.getAll(InMemoryGraph.this, fetchHints, endTime, authorizations)) {
-            @Override
-            protected Vertex convert(InMemoryVertex o) {
-                return o;
-            }
-        };
+        return this.vertices.getAll(InMemoryGraph.this, fetchHints, endTime, authorizations).<Vertex>map(vertex -> vertex);
+    }
+
+    @Override
+    public Iterable<Vertex> getVerticesInRange(IdRange idRange, FetchHints fetchHints, Long endTime, Authorizations authorizations) {
+        validateAuthorizations(authorizations);
+        return this.vertices.getAllInRange(InMemoryGraph.this, idRange, fetchHints, endTime, authorizations).<Vertex>map(vertex -> vertex);
     }
 
     protected void validateAuthorizations(Authorizations authorizations) {
@@ -407,6 +412,9 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         long incrementingTimestamp = timestamp;
         InMemoryTableEdge edgeTableElement = (InMemoryTableEdge) this.edges.getTableElement(edgeBuilder.getId());
         boolean isNew = false;
+        String oldOutVertexId = null;
+        String oldInVertexId = null;
+        String oldLabel = null;
         if (edgeTableElement == null) {
             isNew = true;
             edges.append(
@@ -417,6 +425,9 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
                 new EdgeSetupMutation(incrementingTimestamp++, outVertexId, inVertexId)
             );
         } else {
+            oldOutVertexId = edgeTableElement.getOutVertexId();
+            oldInVertexId = edgeTableElement.getInVertexId();
+            oldLabel = edgeTableElement.getLabel();
             if (!outVertexId.equals(edgeTableElement.getOutVertexId()) || !inVertexId.equals(edgeTableElement.getInVertexId())) {
                 edges.append(
                     edgeBuilder.getId(),
@@ -435,6 +446,12 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         if (edgeBuilder.getNewEdgeLabel() != null) {
             edges.append(edgeBuilder.getId(), new AlterEdgeLabelMutation(incrementingTimestamp, edgeBuilder.getNewEdgeLabel()));
         }
+        edgeTableElement = (InMemoryTableEdge) this.edges.getTableElement(edgeBuilder.getId());
+        if (isNew) {
+            addToEdgeAdjacencyIndex(edgeTableElement);
+        } else {
+            updateEdgeAdjacencyIndex(edgeTableElement, oldOutVertexId, oldInVertexId, oldLabel);
+        }
 
         InMemoryEdge edge = this.edges.get(InMemoryGraph.this, edgeBuilder.getId(), FetchHints.ALL_INCLUDING_HIDDEN, authorizations);
         if (isNew && hasEventListeners()) {
@@ -451,12 +468,97 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
 
     @Override
     public Iterable<Edge> getEdges(FetchHints fetchHints, final Long endTime, final Authorizations authorizations) {
-        return new ConvertingIterable<InMemoryEdge, Edge>(this.edges.getAll(InMemoryGraph.this, fetchHints, endTime, authorizations)) {
-            @Override
-            protected Edge convert(InMemoryEdge o) {
-                return o;
-            }
-        };
+        return this.edges.getAll(InMemoryGraph.this, fetchHints, endTime, authorizations).<Edge>map(edge -> edge);
+    }
+
+    @Override
+    public Iterable<Edge> getEdgesInRange(IdRange idRange, FetchHints fetchHints, Long endTime, Authorizations authorizations) {
+        validateAuthorizations(authorizations);
+        return this.edges.getAllInRange(InMemoryGraph.this, idRange, fetchHints, endTime, authorizations).<Edge>map(edge -> edge);
+    }
+
+    /**
+     * Gets the elements with the given ids in the order of the ids, skipping ids which do not exist or can not be seen.
+     */
+    Iterable<? extends Element> getElementsWithIds(
+        ElementType elementType,
+        Iterable<String> ids,
+        FetchHints fetchHints,
+        Authorizations authorizations
+    ) {
+        validateAuthorizations(authorizations);
+        switch (elementType) {
+            case VERTEX:
+                return this.vertices.getAllWithIds(InMemoryGraph.this, ids, fetchHints, null, authorizations);
+            case EDGE:
+                return this.edges.getAllWithIds(InMemoryGraph.this, ids, fetchHints, null, authorizations);
+            default:
+                throw new VertexiumException("Unhandled element type: " + elementType);
+        }
+    }
+
+    InMemoryTableElement<?> getTableElement(ElementType elementType, String id) {
+        switch (elementType) {
+            case VERTEX:
+                return this.vertices.getTableElement(id);
+            case EDGE:
+                return this.edges.getTableElement(id);
+            default:
+                throw new VertexiumException("Unhandled element type: " + elementType);
+        }
+    }
+
+    /**
+     * Splits the sorted ids of the table into {@link ReindexOptions#getRangeCount()} ranges of about the same size.
+     */
+    @Override
+    protected List<IdRange> getReindexRanges(ElementType elementType, ReindexOptions options) {
+        List<String> rowIds;
+        switch (elementType) {
+            case VERTEX:
+                rowIds = this.vertices.getRowIds();
+                break;
+            case EDGE:
+                rowIds = this.edges.getRowIds();
+                break;
+            default:
+                throw new VertexiumException("Unhandled element type: " + elementType);
+        }
+
+        List<IdRange> ranges = new ArrayList<>();
+        int rangeSize = Math.max(1, (int) Math.ceil((double) rowIds.size() / options.getRangeCount()));
+        String inclusiveStart = null;
+        for (int i = rangeSize; i < rowIds.size(); i += rangeSize) {
+            String exclusiveEnd = rowIds.get(i);
+            ranges.add(new IdRange(inclusiveStart, exclusiveEnd));
+            inclusiveStart = exclusiveEnd;
+        }
+        ranges.add(new IdRange(inclusiveStart, null));
+        return ranges;
+    }
+
+    @Override
+    public long getVertexCount(Authorizations authorizations) {
+        validateAuthorizations(authorizations);
+        return super.getVertexCount(authorizations);
+    }
+
+    @Override
+    public long getEdgeCount(Authorizations authorizations) {
+        validateAuthorizations(authorizations);
+        return super.getEdgeCount(authorizations);
+    }
+
+    @Override
+    protected ElementVisibilityCounts getElementVisibilityCounts(ElementType elementType) {
+        switch (elementType) {
+            case VERTEX:
+                return this.vertices.getVisibilityCounts();
+            case EDGE:
+                return this.edges.getVisibilityCounts();
+            default:
+                return null;
+        }
     }
 
     @Override
@@ -470,6 +572,10 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
 
         deleteAllExtendedDataForElement(edge, authorizations);
 
+        InMemoryTableEdge edgeTableElement = (InMemoryTableEdge) this.edges.getTableElement(edge.getId());
+        if (edgeTableElement != null) {
+            removeFromEdgeAdjacencyIndex(edgeTableElement);
+        }
         this.edges.remove(edge.getId());
         getSearchIndex().deleteElement(this, edge, authorizations);
 
@@ -541,6 +647,47 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         return new InMemoryAuthorizations(auths);
     }
 
+    @Override
+    public Iterable<AdjacentEdge> getAdjacentEdges(
+        Iterable<String> vertexIds,
+        Direction direction,
+        String[] labels,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        return stream(vertexIds)
+            .flatMap(vertexId -> getAdjacentEdges(vertexId, direction, labels, endTime, authorizations))
+            .collect(Collectors.toList());
+    }
+
+    private Stream<AdjacentEdge> getAdjacentEdges(
+        String vertexId,
+        Direction direction,
+        String[] labels,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        InMemoryTableElement vertexTableElement = vertices.getTableElement(vertexId);
+        if (vertexTableElement == null || !isIncludedInTimeSpan(vertexTableElement, FetchHints.NONE, endTime, authorizations)) {
+            return Stream.empty();
+        }
+        return getInMemoryTableEdgesForVertex(vertexId, direction, labels, FetchHints.NONE, endTime, authorizations)
+            .filter(edgeTableElement -> isIncludedInTimeSpan(edgeTableElement, FetchHints.NONE, endTime, authorizations))
+            .flatMap(edgeTableElement -> {
+                String outVertexId = edgeTableElement.getOutVertexId();
+                String inVertexId = edgeTableElement.getInVertexId();
+                String label = edgeTableElement.getLabel(endTime);
+                List<AdjacentEdge> results = new ArrayList<>(1);
+                if (direction != Direction.IN && vertexId.equals(outVertexId)) {
+                    results.add(new AdjacentEdgeImpl(vertexId, edgeTableElement.getId(), label, Direction.OUT, inVertexId));
+                }
+                if (direction != Direction.OUT && vertexId.equals(inVertexId)) {
+                    results.add(new AdjacentEdgeImpl(vertexId, edgeTableElement.getId(), label, Direction.IN, outVertexId));
+                }
+                return results.stream();
+            });
+    }
+
     @Override
     protected void findPathsRecursive(
         FindPathOptions options,
@@ -588,21 +735,19 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         if (sourceVertexId.equals(destVertexId)) {
             foundPaths.add(currentPath);
         } else if (hops > 0) {
-            Stream<Edge> edges = stream(getEdgesFromVertex(sourceVertexId, getDefaultFetchHints(), null, authorizations))
-                .filter(edge -> {
-                    if (options.getExcludedLabels() != null) {
-                        if (ArrayUtils.contains(options.getExcludedLabels(), edge.getLabel())) {
-                            return false;
-                        }
-                    }
-                    return options.getLabels() == null || ArrayUtils.contains(options.getLabels(), edge.getLabel());
-                });
-            List<String> vertexIds = new ArrayList<>();
-            edges.forEach(edge -> {
-                if (edge.getOtherVertex(sourceVertexId, FetchHints.NONE, authorizations) != null) {
-                    vertexIds.add(edge.getOtherVertexId(sourceVertexId));
-                }
-            });
+            Iterable<AdjacentEdge> adjacentEdges = getAdjacentEdges(
+                Collections.singletonList(sourceVertexId),
+                Direction.BOTH,
+                options.getLabels(),
+                null,
+                authorizations
+            );
+            List<String> vertexIds = stream(adjacentEdges)
+                .filter(adjacentEdge -> options.getExcludedLabels() == null
+                    || !ArrayUtils.contains(options.getExcludedLabels(), adjacentEdge.getLabel()))
+                .map(AdjacentEdge::getOtherVertexId)
+                .filter(otherVertexId -> doesVertexExist(otherVertexId, authorizations))
+                .collect(Collectors.toList());
 
             int vertexCount = 0;
             if (firstLevelRecursion) {
@@ -635,31 +780,79 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
         seenVertices.remove(sourceVertexId);
     }
 
-    private Stream<InMemoryTableEdge> getInMemoryTableEdges() {
-        return stream(edges.getAllTableElements());
+    private void addToEdgeAdjacencyIndex(InMemoryTableEdge edgeTableElement) {
+        edgeAdjacencyIndex.addEdge(
+            edgeTableElement.getId(),
+            edgeTableElement.getOutVertexId(),
+            edgeTableElement.getInVertexId(),
+            edgeTableElement.getLabel()
+        );
     }
 
-    private Stream<InMemoryTableEdge> getInMemoryTableEdgesForVertex(String vertexId, FetchHints fetchHints, Authorizations authorizations) {
-        return getInMemoryTableEdges()
-            .filter(inMemoryTableElement -> {
-                EdgeSetupMutation edgeSetupMutation = inMemoryTableElement.findLastMutation(EdgeSetupMutation.class);
-                String inVertexId = edgeSetupMutation.getInVertexId();
-                checkNotNull(inVertexId, "inVertexId was null");
-                String outVertexId = edgeSetupMutation.getOutVertexId();
-                checkNotNull(outVertexId, "outVertexId was null");
+    private void updateEdgeAdjacencyIndex(
+        InMemoryTableEdge edgeTableElement,
+        String oldOutVertexId,
+        String oldInVertexId,
+        String oldLabel
+    ) {
+        edgeAdjacencyIndex.updateEdge(
+            edgeTableElement.getId(),
+            oldOutVertexId,
+            oldInVertexId,
+            oldLabel,
+            edgeTableElement.getOutVertexId(),
+            edgeTableElement.getInVertexId(),
+            edgeTableElement.getLabel()
+        );
+    }
 
-                return (inVertexId.equals(vertexId) || outVertexId.equals(vertexId)) &&
-                    InMemoryGraph.this.isIncluded(inMemoryTableElement, fetchHints, authorizations);
-            });
+    private void removeFromEdgeAdjacencyIndex(InMemoryTableEdge edgeTableElement) {
+        edgeAdjacencyIndex.removeEdge(
+            edgeTableElement.getId(),
+            edgeTableElement.getOutVertexId(),
+            edgeTableElement.getInVertexId(),
+            edgeTableElement.getLabel()
+        );
+    }
+
+    private Stream<InMemoryTableEdge> getInMemoryTableEdgesForVertex(
+        String vertexId,
+        Direction direction,
+        String[] labels,
+        FetchHints fetchHints,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        // the index only knows the current labels, the labels at endTime are read from the mutations of each edge
+        boolean filterLabelsAtEndTime = labels != null && endTime != null;
+        Stream<InMemoryTableEdge> results = edgeAdjacencyIndex.getEdgeIds(vertexId, direction, filterLabelsAtEndTime ? null : labels).stream()
+            .map(edgeId -> (InMemoryTableEdge) edges.getTableElement(edgeId))
+            .filter(Objects::nonNull) // edge deleted since the index was read
+            .filter(inMemoryTableElement -> InMemoryGraph.this.isIncluded(inMemoryTableElement, fetchHints, authorizations));
+        if (filterLabelsAtEndTime) {
+            results = results.filter(inMemoryTableElement -> ArrayUtils.contains(labels, inMemoryTableElement.getLabel(endTime)));
+        }
+        return results;
+    }
+
+    protected Iterable<Edge> getEdgesFromVertex(
+        String vertexId,
+        FetchHints fetchHints,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        return getEdgesFromVertex(vertexId, Direction.BOTH, null, fetchHints, endTime, authorizations);
     }
 
     protected Iterable<Edge> getEdgesFromVertex(
         String vertexId,
+        Direction direction,
+        String[] labels,
         FetchHints fetchHints,
         Long endTime,
         Authorizations authorizations
     ) {
-        return getInMemoryTableEdgesForVertex(vertexId, fetchHints, authorizations)
+        return getInMemoryTableEdgesForVertex(vertexId, direction, labels, fetchHints, endTime, authorizations)
             .map(inMemoryTableElement -> inMemoryTableElement.createElement(InMemoryGraph.this, fetchHints, endTime, authorizations))
             .filter(Objects::nonNull) // edge deleted or outside of time range
             .collect(Collectors.toList());
@@ -947,6 +1140,7 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
     public void truncate() {
         this.vertices.clear();
         this.edges.clear();
+        this.edgeAdjacencyIndex.clear();
         getSearchIndex().truncate(this);
     }
 
@@ -954,11 +1148,14 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
     public void drop() {
         this.vertices.clear();
         this.edges.clear();
+        this.edgeAdjacencyIndex.clear();
         getSearchIndex().drop(this);
     }
 
     protected void alterEdgeLabel(InMemoryTableEdge inMemoryTableEdge, long timestamp, String newEdgeLabel) {
+        String oldLabel = inMemoryTableEdge.getLabel();
         inMemoryTableEdge.appendAlterEdgeLabelMutation(timestamp, newEdgeLabel);
+        updateEdgeAdjacencyIndex(inMemoryTableEdge, inMemoryTableEdge.getOutVertexId(), inMemoryTableEdge.getInVertexId(), oldLabel);
     }
 
     protected void deleteProperty(
@@ -1121,7 +1318,7 @@ public class InMemoryGraph extends GraphBaseWithSearchIndex {
             .setIncludeHidden(true)
             .setIncludeAllEdgeRefs(true)
             .build();
-        return getInMemoryTableEdgesForVertex(vertexId, elementFetchHints, authorizations)
+        return getInMemoryTableEdgesForVertex(vertexId, Direction.BOTH, null, elementFetchHints, null, authorizations)
             .flatMap(inMemoryTableElement -> inMemoryTableElement.getHistoricalEventsForVertex(vertexId, historicalEventsFetchHints, authorizations));
     }
 }
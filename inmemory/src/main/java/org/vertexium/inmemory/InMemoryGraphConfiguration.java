@@ -2,10 +2,22 @@ package org.vertexium.inmemory;
 
 import org.vertexium.GraphConfiguration;
 
+import java.time.Duration;
 import java.util.Map;
 
 public class InMemoryGraphConfiguration extends GraphConfiguration {
+    public static final String MUTATION_RETENTION = "mutationRetention";
+    public static final Duration DEFAULT_MUTATION_RETENTION = Duration.ZERO;
+
     public InMemoryGraphConfiguration(Map<String, Object> config) {
         super(config);
     }
+
+    /**
+     * Property values replaced by a newer value more than this long before the newer value are discarded, so that
+     * frequently updated elements do not keep every value they ever had. Zero or less keeps every value.
+     */
+    public Duration getMutationRetention() {
+        return getDuration(MUTATION_RETENTION, DEFAULT_MUTATION_RETENTION);
+    }
 }
@@ -0,0 +1,157 @@
+package org.vertexium.inmemory;
+
+import org.vertexium.*;
+import org.vertexium.mutation.ExistingElementMutation;
+import org.vertexium.query.DefaultGraphQuery;
+import org.vertexium.query.GraphQuery;
+import org.vertexium.query.QueryParameters;
+import org.vertexium.search.DefaultSearchIndex;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A search index for {@link InMemoryGraph} which keeps posting lists of element ids by property value, by trigram of
+ * the property values, by geohash of geo shape values and by edge label, so that graph queries only create and
+ * evaluate the elements which could match instead of every element in the graph.
+ * <p>
+ * The search index hooks only record which elements changed. The postings of those elements are rebuilt from the
+ * graph's tables before the next query, so the index always reflects every value and visibility of an element no
+ * matter which authorizations were used to change it. Like other search indexes, elements saved with
+ * {@link org.vertexium.search.IndexHint#DO_NOT_INDEX} are not found by queries which filter on property values.
+ * <p>
+ * Configure it with the graph configuration property {@link GraphConfiguration#SEARCH_INDEX_PROP_PREFIX}.
+ */
+public class InMemorySearchIndex extends DefaultSearchIndex {
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final Map<ElementType, InMemoryElementIndex> indexes = new EnumMap<>(ElementType.class);
+    private final Map<ElementType, Set<String>> changedIds = new EnumMap<>(ElementType.class);
+
+    public InMemorySearchIndex(GraphConfiguration configuration) {
+        super(configuration);
+        for (ElementType elementType : ElementType.values()) {
+            indexes.put(elementType, new InMemoryElementIndex(elementType));
+            changedIds.put(elementType, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public void addElement(
+        Graph graph,
+        Element element,
+        Set<String> additionalVisibilities,
+        Set<String> additionalVisibilitiesToDelete,
+        Authorizations authorizations
+    ) {
+        super.addElement(graph, element, additionalVisibilities, additionalVisibilitiesToDelete, authorizations);
+        elementChanged(element);
+    }
+
+    @Override
+    public <TElement extends Element> void updateElement(Graph graph, ExistingElementMutation<TElement> mutation, Authorizations authorizations) {
+        super.updateElement(graph, mutation, authorizations);
+        elementChanged(mutation);
+    }
+
+    @Override
+    public void deleteElement(Graph graph, ElementId element, Authorizations authorizations) {
+        super.deleteElement(graph, element, authorizations);
+        elementChanged(element);
+    }
+
+    @Override
+    public void deleteProperty(Graph graph, Element element, PropertyDescriptor property, Authorizations authorizations) {
+        super.deleteProperty(graph, element, property, authorizations);
+        elementChanged(element);
+    }
+
+    private void elementChanged(ElementId elementId) {
+        changedIds.get(elementId.getElementType()).add(elementId.getId());
+    }
+
+    @Override
+    public GraphQuery queryGraph(Graph graph, String queryString, Authorizations authorizations) {
+        if (!(graph instanceof InMemoryGraph)) {
+            return super.queryGraph(graph, queryString, authorizations);
+        }
+        return new InMemoryGraphQuery((InMemoryGraph) graph, queryString, authorizations);
+    }
+
+    /**
+     * @return the ids of the elements which could match the query or null if every element could match
+     */
+    Set<String> getCandidateIds(InMemoryGraph graph, ElementType elementType, QueryParameters parameters) {
+        updateChangedElements(graph, elementType);
+        indexLock.readLock().lock();
+        try {
+            return indexes.get(elementType).getCandidateIds(parameters);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private void updateChangedElements(InMemoryGraph graph, ElementType elementType) {
+        Set<String> ids = changedIds.get(elementType);
+        if (ids.isEmpty()) {
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            InMemoryElementIndex index = indexes.get(elementType);
+            Iterator<String> it = ids.iterator();
+            while (it.hasNext()) {
+                String id = it.next();
+                it.remove();
+                index.update(id, graph.getTableElement(elementType, id));
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void truncate(Graph graph) {
+        super.truncate(graph);
+        clear();
+    }
+
+    @Override
+    public void drop(Graph graph) {
+        super.drop(graph);
+        clear();
+    }
+
+    private void clear() {
+        indexLock.writeLock().lock();
+        try {
+            for (ElementType elementType : ElementType.values()) {
+                changedIds.get(elementType).clear();
+                indexes.get(elementType).clear();
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private class InMemoryGraphQuery extends DefaultGraphQuery {
+        InMemoryGraphQuery(InMemoryGraph graph, String queryString, Authorizations authorizations) {
+            super(graph, queryString, authorizations, getQueryParallelismThreshold());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <T extends Element> Iterable<T> getCandidatesFromElementType(ElementType elementType, FetchHints fetchHints) {
+            InMemoryGraph graph = (InMemoryGraph) getGraph();
+            Set<String> candidateIds = getCandidateIds(graph, elementType, getParameters());
+            if (candidateIds == null) {
+                return super.getCandidatesFromElementType(elementType, fetchHints);
+            }
+            // sorted so that results come back in the same order as a scan of the table
+            List<String> sortedCandidateIds = new ArrayList<>(candidateIds);
+            Collections.sort(sortedCandidateIds);
+            return (Iterable<T>) graph.getElementsWithIds(elementType, sortedCandidateIds, fetchHints, getParameters().getAuthorizations());
+        }
+    }
+}
@@ -1,26 +1,53 @@
 package org.vertexium.inmemory;
 
 import org.vertexium.Authorizations;
+import org.vertexium.ElementVisibilityCounts;
 import org.vertexium.FetchHints;
+import org.vertexium.IdRange;
 import org.vertexium.MetadataPlugin;
 import org.vertexium.inmemory.mutations.Mutation;
+import org.vertexium.util.SplittableIterable;
 import org.vertexium.util.StreamUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * The rows of an in-memory table. When the rows are a {@link ConcurrentMap}, which is the default, rows are created,
+ * appended to, read and removed concurrently: each row is guarded by its own lock and the table lock is only used
+ * for other maps.
+ */
 public abstract class InMemoryTable<TElement extends InMemoryElement> {
     private final ReadWriteLock rowsLock = new ReentrantReadWriteLock();
     private final Map<String, InMemoryTableElement<TElement>> rows;
+    private final ConcurrentMap<String, InMemoryTableElement<TElement>> concurrentRows;
     private final MetadataPlugin metadataPlugin;
+    private final ElementVisibilityCounts visibilityCounts = new ElementVisibilityCounts();
+    // kept separately since the size of a concurrent skip list map is found by walking it
+    private final LongAdder rowCount = new LongAdder();
+    private volatile long mutationRetentionMillis;
 
     protected InMemoryTable(Map<String, InMemoryTableElement<TElement>> rows, MetadataPlugin metadataPlugin) {
         this.rows = rows;
+        this.concurrentRows = rows instanceof ConcurrentMap ? (ConcurrentMap<String, InMemoryTableElement<TElement>>) rows : null;
         this.metadataPlugin = metadataPlugin;
+        this.rowCount.add(rows.size());
+        for (InMemoryTableElement<TElement> row : rows.values()) {
+            row.setVisibilityCounts(visibilityCounts);
+        }
     }
 
     protected InMemoryTable(MetadataPlugin metadataPlugin) {
@@ -36,6 +63,9 @@ public abstract class InMemoryTable<TElement extends InMemoryElement> {
     }
 
     public InMemoryTableElement<TElement> getTableElement(String id) {
+        if (concurrentRows != null) {
+            return concurrentRows.get(id);
+        }
         rowsLock.readLock().lock();
         try {
             return rows.get(id);
@@ -45,12 +75,19 @@ public abstract class InMemoryTable<TElement extends InMemoryElement> {
     }
 
     public void append(String id, Mutation... newMutations) {
+        if (concurrentRows != null) {
+            appendConcurrently(id, newMutations);
+            return;
+        }
         rowsLock.writeLock().lock();
         try {
             InMemoryTableElement<TElement> inMemoryTableElement = rows.get(id);
             if (inMemoryTableElement == null) {
                 inMemoryTableElement = createInMemoryTableElement(id, metadataPlugin);
+                inMemoryTableElement.setVisibilityCounts(visibilityCounts);
+                inMemoryTableElement.setMutationRetention(mutationRetentionMillis);
                 rows.put(id, inMemoryTableElement);
+                rowCount.increment();
             }
             inMemoryTableElement.addAll(newMutations);
         } finally {
@@ -58,44 +95,245 @@ public abstract class InMemoryTable<TElement extends InMemoryElement> {
         }
     }
 
+    /**
+     * @see InMemoryGraphConfiguration#getMutationRetention()
+     */
+    public void setMutationRetention(Duration mutationRetention) {
+        if (concurrentRows != null) {
+            // rows published after the rows are walked read the new retention themselves, see appendConcurrently
+            this.mutationRetentionMillis = mutationRetention.toMillis();
+            for (InMemoryTableElement<TElement> row : concurrentRows.values()) {
+                row.setMutationRetention(mutationRetentionMillis);
+            }
+            return;
+        }
+        rowsLock.writeLock().lock();
+        try {
+            this.mutationRetentionMillis = mutationRetention.toMillis();
+            for (InMemoryTableElement<TElement> row : rows.values()) {
+                row.setMutationRetention(mutationRetentionMillis);
+            }
+        } finally {
+            rowsLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * New rows are given their first mutations before they are published, so that readers never see a row without
+     * mutations. If another thread publishes the row first, the mutations are appended to its row. Published rows
+     * are then counted and given the retention again, in case either changed while the row was being published.
+     */
+    private void appendConcurrently(String id, Mutation... newMutations) {
+        InMemoryTableElement<TElement> inMemoryTableElement = concurrentRows.get(id);
+        if (inMemoryTableElement == null) {
+            InMemoryTableElement<TElement> newInMemoryTableElement = createInMemoryTableElement(id, metadataPlugin);
+            newInMemoryTableElement.setMutationRetention(mutationRetentionMillis);
+            newInMemoryTableElement.addAll(newMutations);
+            inMemoryTableElement = concurrentRows.putIfAbsent(id, newInMemoryTableElement);
+            if (inMemoryTableElement == null) {
+                rowCount.increment();
+                newInMemoryTableElement.setMutationRetention(mutationRetentionMillis);
+                newInMemoryTableElement.setVisibilityCounts(visibilityCounts);
+                if (concurrentRows.get(id) != newInMemoryTableElement) {
+                    // removed or cleared while it was being counted
+                    newInMemoryTableElement.setVisibilityCounts(null);
+                }
+                return;
+            }
+        }
+        inMemoryTableElement.addAll(newMutations);
+    }
+
     protected abstract InMemoryTableElement<TElement> createInMemoryTableElement(String id, MetadataPlugin metadataPlugin);
 
     public void remove(String id) {
+        if (concurrentRows != null) {
+            InMemoryTableElement<TElement> inMemoryTableElement = concurrentRows.remove(id);
+            if (inMemoryTableElement != null) {
+                rowCount.decrement();
+                inMemoryTableElement.setVisibilityCounts(null);
+            }
+            return;
+        }
         rowsLock.writeLock().lock();
         try {
-            rows.remove(id);
+            InMemoryTableElement<TElement> inMemoryTableElement = rows.remove(id);
+            if (inMemoryTableElement != null) {
+                rowCount.decrement();
+                inMemoryTableElement.setVisibilityCounts(null);
+            }
         } finally {
             rowsLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Concurrent rows are removed one at a time, each removed row is no longer counted. An append which races with
+     * the clear either lands in a removed row and is discarded, as if it happened before the clear, or creates a new
+     * row, as if it happened after the clear.
+     */
     public void clear() {
+        if (concurrentRows != null) {
+            for (Map.Entry<String, InMemoryTableElement<TElement>> row : concurrentRows.entrySet()) {
+                if (concurrentRows.remove(row.getKey(), row.getValue())) {
+                    rowCount.decrement();
+                    row.getValue().setVisibilityCounts(null);
+                }
+            }
+            return;
+        }
         rowsLock.writeLock().lock();
         try {
+            for (InMemoryTableElement<TElement> row : rows.values()) {
+                row.setVisibilityCounts(null);
+            }
             rows.clear();
+            rowCount.reset();
+            visibilityCounts.clear();
         } finally {
             rowsLock.writeLock().unlock();
         }
     }
 
-    public Iterable<TElement> getAll(
+    /**
+     * @return the counts of the elements in this table, kept up to date as rows change
+     */
+    public ElementVisibilityCounts getVisibilityCounts() {
+        return visibilityCounts;
+    }
+
+    /**
+     * Creates the elements lazily as they are iterated. The rows are split between threads when the elements are
+     * streamed in parallel.
+     */
+    public SplittableIterable<TElement> getAll(
         InMemoryGraph graph,
         FetchHints fetchHints,
         Long endTime,
         Authorizations authorizations
     ) {
-        return StreamUtils.stream(getRowValues())
+        return new SplittableIterable<>(
+            () -> streamRowValues()
+                .filter(element -> graph.isIncludedInTimeSpan(element, fetchHints, endTime, authorizations))
+                .map(element -> element.createElement(graph, fetchHints, endTime, authorizations)),
+            this::getRowCount
+        );
+    }
+
+    /**
+     * Only creates the elements whose ids are in the range, instead of creating every element and filtering them.
+     * When the rows are sorted only the rows in the range are visited.
+     */
+    public SplittableIterable<TElement> getAllInRange(
+        InMemoryGraph graph,
+        IdRange idRange,
+        FetchHints fetchHints,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        return new SplittableIterable<>(
+            () -> streamRowValuesInRange(idRange)
+                .filter(element -> graph.isIncludedInTimeSpan(element, fetchHints, endTime, authorizations))
+                .map(element -> element.createElement(graph, fetchHints, endTime, authorizations)),
+            this::getRowCount
+        );
+    }
+
+    /**
+     * Only creates the elements with the given ids, in the order of the ids. Ids without a row are skipped.
+     */
+    public Iterable<TElement> getAllWithIds(
+        InMemoryGraph graph,
+        Iterable<String> ids,
+        FetchHints fetchHints,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        return StreamUtils.stream(ids)
+            .map(this::getTableElement)
+            .filter(Objects::nonNull)
             .filter(element -> graph.isIncludedInTimeSpan(element, fetchHints, endTime, authorizations))
             .map(element -> element.createElement(graph, fetchHints, endTime, authorizations))
             .collect(Collectors.toList());
     }
 
+    /**
+     * @return the ids of all rows, sorted
+     */
+    public List<String> getRowIds() {
+        if (concurrentRows != null) {
+            List<String> rowIds = new ArrayList<>(concurrentRows.keySet());
+            if (!(concurrentRows instanceof SortedMap)) {
+                Collections.sort(rowIds);
+            }
+            return rowIds;
+        }
+        rowsLock.readLock().lock();
+        try {
+            List<String> rowIds = new ArrayList<>(this.rows.keySet());
+            if (!(this.rows instanceof SortedMap)) {
+                Collections.sort(rowIds);
+            }
+            return rowIds;
+        } finally {
+            rowsLock.readLock().unlock();
+        }
+    }
+
     public Iterable<InMemoryTableElement<TElement>> getRowValues() {
+        return () -> streamRowValues().iterator();
+    }
+
+    /**
+     * Concurrent rows are streamed without copying them, the stream is weakly consistent with concurrent changes.
+     * Other rows are copied under the read lock.
+     */
+    private Stream<InMemoryTableElement<TElement>> streamRowValuesInRange(IdRange idRange) {
+        if (!(rows instanceof NavigableMap)) {
+            return streamRowValues().filter(element -> idRange.isInRange(element.getId()));
+        }
+        if (concurrentRows != null) {
+            return subMap((NavigableMap<String, InMemoryTableElement<TElement>>) rows, idRange).values().stream();
+        }
         rowsLock.readLock().lock();
         try {
-            return new ArrayList<>(this.rows.values());
+            return new ArrayList<>(subMap((NavigableMap<String, InMemoryTableElement<TElement>>) rows, idRange).values()).stream();
         } finally {
             rowsLock.readLock().unlock();
         }
     }
+
+    private static <T> NavigableMap<String, T> subMap(NavigableMap<String, T> map, IdRange idRange) {
+        String start = idRange.getStart();
+        String end = idRange.getEnd();
+        if (start != null && end != null) {
+            if (start.compareTo(end) > 0) {
+                return Collections.emptyNavigableMap();
+            }
+            return map.subMap(start, idRange.isInclusiveStart(), end, idRange.isInclusiveEnd());
+        }
+        if (start != null) {
+            return map.tailMap(start, idRange.isInclusiveStart());
+        }
+        if (end != null) {
+            return map.headMap(end, idRange.isInclusiveEnd());
+        }
+        return map;
+    }
+
+    private Stream<InMemoryTableElement<TElement>> streamRowValues() {
+        if (concurrentRows != null) {
+            return concurrentRows.values().stream();
+        }
+        rowsLock.readLock().lock();
+        try {
+            return new ArrayList<>(this.rows.values()).stream();
+        } finally {
+            rowsLock.readLock().unlock();
+        }
+    }
+
+    private long getRowCount() {
+        return rowCount.sum();
+    }
 }
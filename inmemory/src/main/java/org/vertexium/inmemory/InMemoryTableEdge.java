@@ -5,7 +5,6 @@ import org.vertexium.historicalEvent.HistoricalAddEdgeToVertexEvent;
 import org.vertexium.historicalEvent.HistoricalEvent;
 import org.vertexium.historicalEvent.HistoricalSoftDeleteEdgeToVertexEvent;
 import org.vertexium.inmemory.mutations.*;
-import org.vertexium.util.IterableUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -88,7 +87,7 @@ public class InMemoryTableEdge extends InMemoryTableElement<InMemoryEdge> {
     }
 
     public String getOutVertexId() {
-        EdgeSetupMutation m = IterableUtils.last(findMutations(EdgeSetupMutation.class));
+        EdgeSetupMutation m = findLastMutation(EdgeSetupMutation.class);
         if (m == null) {
             return null;
         }
@@ -96,10 +95,35 @@ public class InMemoryTableEdge extends InMemoryTableElement<InMemoryEdge> {
     }
 
     public String getInVertexId() {
-        EdgeSetupMutation m = IterableUtils.last(findMutations(EdgeSetupMutation.class));
+        EdgeSetupMutation m = findLastMutation(EdgeSetupMutation.class);
         if (m == null) {
             return null;
         }
         return m.getInVertexId();
     }
+
+    public String getLabel() {
+        AlterEdgeLabelMutation m = findLastMutation(AlterEdgeLabelMutation.class);
+        if (m == null) {
+            return null;
+        }
+        return m.getNewEdgeLabel();
+    }
+
+    /**
+     * @return the label of the edge at the given time, or the current label if endTime is null
+     */
+    public String getLabel(Long endTime) {
+        if (endTime == null) {
+            return getLabel();
+        }
+        String label = null;
+        for (AlterEdgeLabelMutation m : findMutations(AlterEdgeLabelMutation.class)) {
+            if (m.getTimestamp() > endTime) {
+                break;
+            }
+            label = m.getNewEdgeLabel();
+        }
+        return label;
+    }
 }
@@ -1,7 +1,9 @@
 package org.vertexium.inmemory;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 import org.vertexium.*;
 import org.vertexium.historicalEvent.*;
@@ -12,6 +14,8 @@ import org.vertexium.property.StreamingPropertyValueRef;
 import org.vertexium.util.IncreasingTime;
 import org.vertexium.util.LookAheadIterable;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
 import java.util.*;
@@ -26,6 +30,10 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
     private final String id;
     private final MetadataPlugin metadataPlugin;
     protected final TreeSet<Mutation> mutations = new TreeSet<>();
+    private transient CurrentState currentState = new CurrentState();
+    private transient long mutationRetentionMillis;
+    private transient ElementVisibilityCounts visibilityCounts;
+    private transient ElementVisibilityCounts.Key visibilityCountsKey;
 
     protected InMemoryTableElement(String id, MetadataPlugin metadataPlugin) {
         this.id = id;
@@ -41,23 +49,180 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
         mutationLock.writeLock().lock();
         try {
             Collections.addAll(mutations, newMutations);
+            applyToCurrentState(newMutations);
+            for (Mutation newMutation : newMutations) {
+                if (isVisibilityCountsMutation(newMutation)) {
+                    updateVisibilityCounts();
+                    break;
+                }
+            }
+        } finally {
+            mutationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts this element in the given counts, removing it from the counts it was previously in.
+     *
+     * @param visibilityCounts the counts to add this element to, or null to stop counting it
+     */
+    void setVisibilityCounts(ElementVisibilityCounts visibilityCounts) {
+        mutationLock.writeLock().lock();
+        try {
+            if (this.visibilityCounts != null) {
+                this.visibilityCounts.update(visibilityCountsKey, null);
+            }
+            this.visibilityCounts = visibilityCounts;
+            this.visibilityCountsKey = null;
+            updateVisibilityCounts();
         } finally {
             mutationLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Property values which were replaced by a newer value of the same property more than the retention before
+     * the newer value are removed from the mutations. Their metadata is kept, merged into a single metadata mutation,
+     * so that reads which include previous metadata are unchanged. The removed values are no longer returned by
+     * historical queries or queries as of an end time within that time. Values already replaced for longer than the
+     * retention are removed when it is set.
+     *
+     * @param mutationRetentionMillis the retention in milliseconds, zero or less keeps every mutation
+     */
+    void setMutationRetention(long mutationRetentionMillis) {
+        mutationLock.writeLock().lock();
+        try {
+            this.mutationRetentionMillis = mutationRetentionMillis;
+            compactAllPropertyMutations();
+        } finally {
+            mutationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the mutation write lock, after the mutations were added to the log. Property
+     * mutations are inserted in order into the mutations of their property, whatever their timestamp. The other
+     * mutations are applied to the current state if they sort after every other mutation applied so far, otherwise
+     * only the state which is not kept by property is folded again from the log.
+     */
+    private void applyToCurrentState(Mutation... newMutations) {
+        Mutation[] sortedMutations = newMutations.clone();
+        Arrays.sort(sortedMutations);
+        boolean foldElementState = false;
+        for (Mutation m : sortedMutations) {
+            if (m instanceof PropertyMutation) {
+                currentState.apply(m);
+                if (mutationRetentionMillis > 0 && m instanceof AddPropertyValueMutation) {
+                    currentState.compactPropertyMutations(toMapKey((PropertyMutation) m), mutationRetentionMillis, this.mutations);
+                }
+            } else if (foldElementState || !currentState.canApply(m)) {
+                foldElementState = true;
+            } else {
+                currentState.apply(m);
+            }
+        }
+        if (foldElementState) {
+            currentState.foldElementState(this.mutations);
+        }
+    }
+
+    /**
+     * Must be called while holding the mutation write lock.
+     */
+    private void rebuildCurrentState() {
+        currentState = new CurrentState();
+        for (Mutation m : this.mutations) {
+            currentState.apply(m);
+        }
+        compactAllPropertyMutations();
+    }
+
+    /**
+     * Must be called while holding the mutation write lock.
+     */
+    private void compactAllPropertyMutations() {
+        if (mutationRetentionMillis <= 0) {
+            return;
+        }
+        for (String mapKey : new ArrayList<>(currentState.propertyMutations.keySet())) {
+            currentState.compactPropertyMutations(mapKey, mutationRetentionMillis, this.mutations);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rebuildCurrentState();
+    }
+
+    private static boolean isVisibilityCountsMutation(Mutation mutation) {
+        return mutation instanceof AlterVisibilityMutation
+            || mutation instanceof AddAdditionalVisibilityMutation
+            || mutation instanceof DeleteAdditionalVisibilityMutation
+            || mutation instanceof MarkHiddenMutation
+            || mutation instanceof MarkVisibleMutation
+            || mutation instanceof SoftDeleteMutation
+            || mutation instanceof ElementTimestampMutation;
+    }
+
+    /**
+     * Must be called while holding the mutation write lock.
+     */
+    private void updateVisibilityCounts() {
+        if (visibilityCounts == null) {
+            return;
+        }
+        ElementVisibilityCounts.Key newKey = getVisibilityCountsKey();
+        visibilityCounts.update(visibilityCountsKey, newKey);
+        visibilityCountsKey = newKey;
+    }
+
+    /**
+     * Collects the state used by {@link #canRead(FetchHints, Authorizations)}, {@link #isHidden(Authorizations)}
+     * and {@link #isDeleted(Long, Authorizations)} from the current state. Must be called while holding the
+     * mutation lock.
+     *
+     * @return the key of this element, or null if the element is deleted or has no visibility yet
+     */
+    private ElementVisibilityCounts.Key getVisibilityCountsKey() {
+        AlterVisibilityMutation alterVisibilityMutation = (AlterVisibilityMutation) currentState.getLastMutation(AlterVisibilityMutation.class);
+        if (currentState.deleted || alterVisibilityMutation == null) {
+            return null;
+        }
+        return new ElementVisibilityCounts.Key(
+            alterVisibilityMutation.getNewVisibility(),
+            currentState.additionalVisibilitiesCopy,
+            new HashSet<>(currentState.hiddenVisibilities)
+        );
+    }
+
     public long getFirstTimestamp() {
         return findFirstMutation(ElementTimestampMutation.class).getTimestamp();
     }
 
     @SuppressWarnings("unchecked")
     protected <T extends Mutation> T findLastMutation(Class<T> clazz) {
+        if (!isPropertyMutationClass(clazz)) {
+            mutationLock.readLock().lock();
+            try {
+                return (T) currentState.getLastMutation(clazz);
+            } finally {
+                mutationLock.readLock().unlock();
+            }
+        }
         List<Mutation> filteredMutations = getFilteredMutations(m -> clazz.isAssignableFrom(m.getClass()));
         return filteredMutations.isEmpty() ? null : (T) filteredMutations.get(filteredMutations.size() - 1);
     }
 
     @SuppressWarnings("unchecked")
     protected <T extends Mutation> T findFirstMutation(Class<T> clazz) {
+        if (!isPropertyMutationClass(clazz)) {
+            mutationLock.readLock().lock();
+            try {
+                return (T) currentState.getFirstMutation(clazz);
+            } finally {
+                mutationLock.readLock().unlock();
+            }
+        }
         List<Mutation> filteredMutations = getFilteredMutations(m -> clazz.isAssignableFrom(m.getClass()));
         //noinspection unchecked
         return filteredMutations.isEmpty() ? null : (T) filteredMutations.get(0);
@@ -106,6 +271,7 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
         mutationLock.writeLock().lock();
         try {
             this.mutations.removeAll(propertyMutations);
+            rebuildCurrentState();
         } finally {
             mutationLock.writeLock().unlock();
         }
@@ -413,13 +579,37 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
         throw new VertexiumException("Unhandled Mutation: " + m.getClass().getName());
     }
 
+    /**
+     * @return the mutations of the matching properties in the order of the mutation log, a null argument matches
+     * any value
+     */
     private List<PropertyMutation> findPropertyMutations(String key, String name, Visibility visibility) {
-        return getFilteredMutations(m ->
-            m instanceof PropertyMutation &&
-                (key == null || ((PropertyMutation) m).getPropertyKey().equals(key))
-                && (name == null || ((PropertyMutation) m).getPropertyName().equals(name))
-                && (visibility == null || ((PropertyMutation) m).getPropertyVisibility().equals(visibility))
-        ).stream().map(m -> (PropertyMutation) m).collect(Collectors.toList());
+        mutationLock.readLock().lock();
+        try {
+            Collection<PropertyMutations> propertiesMutations;
+            if (key != null && name != null && visibility != null) {
+                PropertyMutations propertyMutations = currentState.propertyMutations.get(toMapKey(name, key, visibility));
+                propertiesMutations = propertyMutations == null ? Collections.emptyList() : Collections.singletonList(propertyMutations);
+            } else {
+                propertiesMutations = currentState.propertyMutations.values();
+            }
+            List<PropertyMutation> results = new ArrayList<>();
+            for (PropertyMutations propertyMutations : propertiesMutations) {
+                for (PropertyMutation m : propertyMutations.mutations) {
+                    if ((key == null || m.getPropertyKey().equals(key))
+                        && (name == null || m.getPropertyName().equals(name))
+                        && (visibility == null || m.getPropertyVisibility().equals(visibility))) {
+                        results.add(m);
+                    }
+                }
+            }
+            if (propertiesMutations.size() > 1) {
+                Collections.sort(results);
+            }
+            return results;
+        } finally {
+            mutationLock.readLock().unlock();
+        }
     }
 
     @SuppressWarnings("deprecation")
@@ -512,15 +702,28 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
     }
 
     public Iterable<Property> getProperties(FetchHints fetchHints, Long endTime, Authorizations authorizations) {
-        final TreeMap<String, List<PropertyMutation>> propertiesMutations = new TreeMap<>();
-        for (PropertyMutation m : findMutations(PropertyMutation.class)) {
-            if (endTime != null && m.getTimestamp() > endTime) {
-                continue;
+        final Collection<List<PropertyMutation>> propertiesMutations;
+        if (endTime == null) {
+            mutationLock.readLock().lock();
+            try {
+                propertiesMutations = currentState.propertyMutations.values().stream()
+                    .map(PropertyMutations::snapshot)
+                    .collect(Collectors.toList());
+            } finally {
+                mutationLock.readLock().unlock();
             }
+        } else {
+            TreeMap<String, List<PropertyMutation>> propertiesMutationsAtEndTime = new TreeMap<>();
+            for (PropertyMutation m : findMutations(PropertyMutation.class)) {
+                if (m.getTimestamp() > endTime) {
+                    continue;
+                }
 
-            String mapKey = toMapKey(m);
-            List<PropertyMutation> propertyMutations = propertiesMutations.computeIfAbsent(mapKey, k -> new ArrayList<>());
-            propertyMutations.add(m);
+                String mapKey = toMapKey(m);
+                List<PropertyMutation> propertyMutations = propertiesMutationsAtEndTime.computeIfAbsent(mapKey, k -> new ArrayList<>());
+                propertyMutations.add(m);
+            }
+            propertiesMutations = propertiesMutationsAtEndTime.values();
         }
         return new LookAheadIterable<List<PropertyMutation>, Property>() {
             @Override
@@ -535,11 +738,34 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
 
             @Override
             protected Iterator<List<PropertyMutation>> createIterator() {
-                return propertiesMutations.values().iterator();
+                return propertiesMutations.iterator();
             }
         };
     }
 
+    /**
+     * Gets the latest value of every property keyed by property name, regardless of authorizations and of whether
+     * the property is hidden or soft deleted.
+     */
+    public ListMultimap<String, Object> getLatestPropertyValues() {
+        ListMultimap<String, Object> results = ArrayListMultimap.create();
+        mutationLock.readLock().lock();
+        try {
+            for (PropertyMutations propertyMutations : currentState.propertyMutations.values()) {
+                for (int i = propertyMutations.mutations.size() - 1; i >= 0; i--) {
+                    PropertyMutation m = propertyMutations.mutations.get(i);
+                    if (m instanceof AddPropertyValueMutation) {
+                        results.put(m.getPropertyName(), ((AddPropertyValueMutation) m).getValue());
+                        break;
+                    }
+                }
+            }
+        } finally {
+            mutationLock.readLock().unlock();
+        }
+        return results;
+    }
+
     private Property toProperty(List<PropertyMutation> propertyMutations, FetchHints fetchHints, Authorizations authorizations) {
         String propertyKey = null;
         String propertyName = null;
@@ -634,8 +860,16 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
         return streamingPropertyValueRef.toStreamingPropertyValue(null, timestamp);
     }
 
-    private String toMapKey(PropertyMutation m) {
-        return m.getPropertyName() + m.getPropertyKey() + m.getPropertyVisibility().getVisibilityString();
+    private static String toMapKey(PropertyMutation m) {
+        return toMapKey(m.getPropertyName(), m.getPropertyKey(), m.getPropertyVisibility());
+    }
+
+    private static String toMapKey(String name, String key, Visibility visibility) {
+        return name + key + visibility.getVisibilityString();
+    }
+
+    private static boolean isPropertyMutationClass(Class<?> clazz) {
+        return PropertyMutation.class.isAssignableFrom(clazz) || clazz.isAssignableFrom(PropertyMutation.class);
     }
 
     public void appendSoftDeleteMutation(Long timestamp, Object data) {
@@ -774,52 +1008,30 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
     }
 
     private Visibility getAdditionalVisibilitiesAsVisibility() {
-        Set<String> additionalVisibilities = getAdditionalVisibilities();
-        if (additionalVisibilities.size() == 0) {
-            return null;
+        mutationLock.readLock().lock();
+        try {
+            return currentState.additionalVisibilitiesAsVisibility;
+        } finally {
+            mutationLock.readLock().unlock();
         }
-        String visibilityString = Joiner.on("&").join(
-            additionalVisibilities.stream()
-                .map(av -> String.format("(%s)", av))
-                .collect(Collectors.toSet())
-        );
-        return new Visibility(visibilityString);
     }
 
     public ImmutableSet<String> getAdditionalVisibilities() {
-        Set<String> results = new HashSet<>();
-
         mutationLock.readLock().lock();
         try {
-            for (Mutation m : this.mutations) {
-                if (m instanceof AddAdditionalVisibilityMutation) {
-                    results.add(((AddAdditionalVisibilityMutation) m).getAdditionalVisibility());
-                } else if (m instanceof DeleteAdditionalVisibilityMutation) {
-                    results.remove(((DeleteAdditionalVisibilityMutation) m).getAdditionalVisibility());
-                }
-            }
+            return currentState.additionalVisibilitiesCopy;
         } finally {
             mutationLock.readLock().unlock();
         }
-        return ImmutableSet.copyOf(results);
     }
 
     public Set<Visibility> getHiddenVisibilities() {
-        Set<Visibility> results = new HashSet<>();
-
         mutationLock.readLock().lock();
         try {
-            for (Mutation m : this.mutations) {
-                if (m instanceof MarkHiddenMutation) {
-                    results.add(m.getVisibility());
-                } else if (m instanceof MarkVisibleMutation) {
-                    results.remove(m.getVisibility());
-                }
-            }
+            return new HashSet<>(currentState.hiddenVisibilities);
         } finally {
             mutationLock.readLock().unlock();
         }
-        return results;
     }
 
     public boolean isHidden(Authorizations authorizations) {
@@ -846,6 +1058,15 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
     }
 
     public boolean isDeleted(Long endTime, Authorizations authorizations) {
+        if (endTime == null) {
+            // soft delete and element timestamp mutations have no visibility so the authorizations do not matter
+            mutationLock.readLock().lock();
+            try {
+                return currentState.deleted;
+            } finally {
+                mutationLock.readLock().unlock();
+            }
+        }
         List<Mutation> filteredMutations = getFilteredMutations(m ->
             canRead(m.getVisibility(), authorizations) &&
                 (endTime == null || m.getTimestamp() <= endTime) &&
@@ -871,8 +1092,233 @@ public abstract class InMemoryTableElement<TElement extends InMemoryElement> imp
         mutationLock.writeLock().lock();
         try {
             this.mutations.add(mutation);
+            applyToCurrentState(mutation);
+            if (isVisibilityCountsMutation(mutation)) {
+                updateVisibilityCounts();
+            }
         } finally {
             mutationLock.writeLock().unlock();
         }
     }
+
+    /**
+     * The state of the element as of its latest mutation. It is updated as mutations are appended so that reads
+     * which are not as of an end time do not fold the whole mutation log. Must only be used while holding the
+     * mutation lock.
+     */
+    private static class CurrentState {
+        private final Map<Class<?>, Mutation> firstMutations = new HashMap<>();
+        private final Map<Class<?>, Mutation> lastMutations = new HashMap<>();
+        private final TreeMap<String, PropertyMutations> propertyMutations = new TreeMap<>();
+        private final Set<String> additionalVisibilities = new HashSet<>();
+        private ImmutableSet<String> additionalVisibilitiesCopy = ImmutableSet.of();
+        private Visibility additionalVisibilitiesAsVisibility;
+        private final Set<Visibility> hiddenVisibilities = new HashSet<>();
+        private boolean deleted = true;
+        private Mutation lastAppliedElementMutation;
+
+        /**
+         * @return true if the mutation is a property mutation, which may be applied in any order, or sorts after
+         * every other mutation applied so far
+         */
+        boolean canApply(Mutation m) {
+            return m instanceof PropertyMutation
+                || lastAppliedElementMutation == null
+                || m.compareTo(lastAppliedElementMutation) > 0;
+        }
+
+        /**
+         * Property mutations are only kept by property, since they may be removed by compaction.
+         */
+        void apply(Mutation m) {
+            if (m instanceof PropertyMutation) {
+                PropertyMutation pm = (PropertyMutation) m;
+                propertyMutations.computeIfAbsent(toMapKey(pm), k -> new PropertyMutations()).add(pm);
+                return;
+            }
+
+            lastAppliedElementMutation = m;
+            firstMutations.putIfAbsent(m.getClass(), m);
+            lastMutations.put(m.getClass(), m);
+            if (m instanceof AddAdditionalVisibilityMutation) {
+                if (additionalVisibilities.add(((AddAdditionalVisibilityMutation) m).getAdditionalVisibility())) {
+                    additionalVisibilitiesChanged();
+                }
+            } else if (m instanceof DeleteAdditionalVisibilityMutation) {
+                if (additionalVisibilities.remove(((DeleteAdditionalVisibilityMutation) m).getAdditionalVisibility())) {
+                    additionalVisibilitiesChanged();
+                }
+            } else if (m instanceof MarkHiddenMutation) {
+                hiddenVisibilities.add(m.getVisibility());
+            } else if (m instanceof MarkVisibleMutation) {
+                hiddenVisibilities.remove(m.getVisibility());
+            } else if (m instanceof SoftDeleteMutation) {
+                deleted = true;
+            } else if (m instanceof ElementTimestampMutation) {
+                deleted = false;
+            }
+        }
+
+        /**
+         * Folds the state which is not kept by property again from the mutation log, leaving the property mutations
+         * as they are.
+         */
+        void foldElementState(Set<Mutation> mutations) {
+            firstMutations.clear();
+            lastMutations.clear();
+            additionalVisibilities.clear();
+            additionalVisibilitiesChanged();
+            hiddenVisibilities.clear();
+            deleted = true;
+            lastAppliedElementMutation = null;
+            for (Mutation m : mutations) {
+                if (!(m instanceof PropertyMutation)) {
+                    apply(m);
+                }
+            }
+        }
+
+        private void additionalVisibilitiesChanged() {
+            additionalVisibilitiesCopy = ImmutableSet.copyOf(additionalVisibilities);
+            if (additionalVisibilities.isEmpty()) {
+                additionalVisibilitiesAsVisibility = null;
+            } else {
+                String visibilityString = Joiner.on("&").join(
+                    additionalVisibilities.stream()
+                        .map(av -> String.format("(%s)", av))
+                        .collect(Collectors.toSet())
+                );
+                additionalVisibilitiesAsVisibility = new Visibility(visibilityString);
+            }
+        }
+
+        Mutation getFirstMutation(Class<?> clazz) {
+            Mutation result = null;
+            for (Map.Entry<Class<?>, Mutation> entry : firstMutations.entrySet()) {
+                if (clazz.isAssignableFrom(entry.getKey()) && (result == null || entry.getValue().compareTo(result) < 0)) {
+                    result = entry.getValue();
+                }
+            }
+            return result;
+        }
+
+        Mutation getLastMutation(Class<?> clazz) {
+            Mutation result = null;
+            for (Map.Entry<Class<?>, Mutation> entry : lastMutations.entrySet()) {
+                if (clazz.isAssignableFrom(entry.getKey()) && (result == null || entry.getValue().compareTo(result) > 0)) {
+                    result = entry.getValue();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Replaces the values and metadata of the property which are older than the retention before its latest
+         * value with one metadata mutation holding their metadata merged in order. The values are superseded by the
+         * latest value, which has the same visibility and so is readable by the same authorizations. Hidden, visible
+         * and soft delete mutations are kept since their visibilities differ from the property's.
+         *
+         * @param mutations the mutation log of the element, updated along with the current state
+         */
+        void compactPropertyMutations(String mapKey, long mutationRetentionMillis, Set<Mutation> mutations) {
+            PropertyMutations existing = propertyMutations.get(mapKey);
+            AddPropertyValueMutation latest = existing == null ? null : existing.getLatestValue();
+            if (latest == null) {
+                return;
+            }
+            long cutoff = latest.getTimestamp() - mutationRetentionMillis;
+            List<PropertyMutation> retained = new ArrayList<>(existing.mutations.size());
+            List<PropertyMutation> removed = new ArrayList<>();
+            for (PropertyMutation m : existing.mutations) {
+                if (m != latest
+                    && m.getTimestamp() < cutoff
+                    && (m instanceof AddPropertyValueMutation || m instanceof AddPropertyMetadataMutation)
+                    && m.getPropertyKey().equals(latest.getPropertyKey())
+                    && m.getPropertyName().equals(latest.getPropertyName())
+                    && m.getPropertyVisibility().equals(latest.getPropertyVisibility())) {
+                    removed.add(m);
+                } else {
+                    retained.add(m);
+                }
+            }
+            if (removed.isEmpty() || (removed.size() == 1 && removed.get(0) instanceof AddPropertyMetadataMutation)) {
+                // nothing to compact, or only the metadata of an earlier compaction
+                return;
+            }
+
+            Metadata previousMetadata = null;
+            for (PropertyMutation m : removed) {
+                Metadata metadata = m instanceof AddPropertyValueMutation
+                    ? ((AddPropertyValueMutation) m).getMetadata(FetchHints.ALL)
+                    : ((AddPropertyMetadataMutation) m).getMetadata(FetchHints.ALL);
+                if (previousMetadata == null) {
+                    previousMetadata = metadata;
+                } else {
+                    for (Metadata.Entry entry : metadata.entrySet()) {
+                        previousMetadata.add(entry.getKey(), entry.getValue(), entry.getVisibility());
+                    }
+                }
+            }
+            AddPropertyMetadataMutation previousMetadataMutation = new AddPropertyMetadataMutation(
+                removed.get(removed.size() - 1).getTimestamp(),
+                latest.getPropertyKey(),
+                latest.getPropertyName(),
+                previousMetadata,
+                latest.getPropertyVisibility()
+            );
+            retained.add(previousMetadataMutation);
+            Collections.sort(retained);
+            existing.replaceAll(retained);
+            mutations.removeAll(removed);
+            mutations.add(previousMetadataMutation);
+        }
+    }
+
+    /**
+     * The mutations of one property in the order of the mutation log. Writers append, or insert mutations with an
+     * earlier timestamp in place, while holding the mutation write lock. Readers which use the mutations after
+     * releasing the lock take a snapshot, which is only copied again once the mutations change.
+     */
+    private static class PropertyMutations {
+        private final ArrayList<PropertyMutation> mutations = new ArrayList<>();
+        private volatile List<PropertyMutation> snapshot;
+
+        void add(PropertyMutation m) {
+            int size = mutations.size();
+            if (size == 0 || mutations.get(size - 1).compareTo(m) < 0) {
+                mutations.add(m);
+            } else {
+                int index = Collections.binarySearch(mutations, m);
+                mutations.add(index < 0 ? -index - 1 : index, m);
+            }
+            snapshot = null;
+        }
+
+        void replaceAll(List<PropertyMutation> newMutations) {
+            mutations.clear();
+            mutations.addAll(newMutations);
+            snapshot = null;
+        }
+
+        AddPropertyValueMutation getLatestValue() {
+            for (int i = mutations.size() - 1; i >= 0; i--) {
+                if (mutations.get(i) instanceof AddPropertyValueMutation) {
+                    return (AddPropertyValueMutation) mutations.get(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Must be called while holding the mutation read or write lock.
+         */
+        List<PropertyMutation> snapshot() {
+            List<PropertyMutation> result = snapshot;
+            if (result == null) {
+                result = Collections.unmodifiableList(new ArrayList<>(mutations));
+                snapshot = result;
+            }
+            return result;
+        }
+    }
 }
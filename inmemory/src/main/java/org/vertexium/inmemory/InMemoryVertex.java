@@ -51,7 +51,7 @@ public class InMemoryVertex extends InMemoryElement<InMemoryVertex> implements V
     @Override
     public Iterable<EdgeInfo> getEdgeInfos(Direction direction, final String[] labels, Authorizations authorizations) {
         getFetchHints().validateHasEdgeFetchHints(direction, labels);
-        Iterable<EdgeInfo> results = internalGetEdgeInfo(direction, authorizations);
+        Iterable<EdgeInfo> results = internalGetEdgeInfo(direction, labels, authorizations);
         results = new FilterIterable<EdgeInfo>(results) {
             @Override
             protected boolean isIncluded(EdgeInfo o) {
@@ -73,8 +73,8 @@ public class InMemoryVertex extends InMemoryElement<InMemoryVertex> implements V
         return results;
     }
 
-    private Iterable<EdgeInfo> internalGetEdgeInfo(Direction direction, Authorizations authorizations) {
-        return new ConvertingIterable<Edge, EdgeInfo>(internalGetEdges(direction, getFetchHints(), null, authorizations)) {
+    private Iterable<EdgeInfo> internalGetEdgeInfo(Direction direction, String[] labels, Authorizations authorizations) {
+        return new ConvertingIterable<Edge, EdgeInfo>(internalGetEdges(direction, labels, getFetchHints(), null, authorizations)) {
             @Override
             protected EdgeInfo convert(Edge edge) {
                 return new EdgeInfo() {
@@ -121,21 +121,24 @@ public class InMemoryVertex extends InMemoryElement<InMemoryVertex> implements V
         if (!getFetchHints().isIncludeEdgeIds()) {
             throw new VertexiumMissingFetchHintException(getFetchHints(), "includeEdgeIds");
         }
-        return internalGetEdges(direction, fetchHints, endTime, authorizations);
+        return internalGetEdges(direction, null, fetchHints, endTime, authorizations);
     }
 
-    private Iterable<Edge> internalGetEdges(Direction direction, FetchHints fetchHints, Long endTime, Authorizations authorizations) {
-        return new FilterIterable<Edge>(getGraph().getEdgesFromVertex(getId(), fetchHints, endTime, authorizations)) {
+    private Iterable<Edge> internalGetEdges(
+        Direction direction,
+        String[] labels,
+        FetchHints fetchHints,
+        Long endTime,
+        Authorizations authorizations
+    ) {
+        Iterable<Edge> edges = getGraph().getEdgesFromVertex(getId(), direction, labels, fetchHints, endTime, authorizations);
+        if (getFetchHints().getOtherVertexIdsOfEdgeRefsToInclude() == null) {
+            return edges;
+        }
+        return new FilterIterable<Edge>(edges) {
             @Override
             protected boolean isIncluded(Edge edge) {
-                switch (direction) {
-                    case IN:
-                        return edge.getVertexId(Direction.IN).equals(getId());
-                    case OUT:
-                        return edge.getVertexId(Direction.OUT).equals(getId());
-                    default:
-                        return true;
-                }
+                return getFetchHints().isIncludeEdgeRefOtherVertexId(edge.getOtherVertexId(InMemoryVertex.this.getId()));
             }
         };
     }
@@ -173,20 +176,11 @@ public class InMemoryVertex extends InMemoryElement<InMemoryVertex> implements V
 
     @Override
     public Iterable<Edge> getEdges(Direction direction, final String[] labels, FetchHints fetchHints, Authorizations authorizations) {
-        return new FilterIterable<Edge>(getEdges(direction, authorizations)) {
-            @Override
-            protected boolean isIncluded(Edge edge) {
-                if (labels == null) {
-                    return true;
-                }
-                for (String label : labels) {
-                    if (label.equals(edge.getLabel())) {
-                        return true;
-                    }
-                }
-                return false;
-            }
-        };
+        getFetchHints().validateHasEdgeFetchHints(direction);
+        if (!getFetchHints().isIncludeEdgeIds()) {
+            throw new VertexiumMissingFetchHintException(getFetchHints(), "includeEdgeIds");
+        }
+        return internalGetEdges(direction, labels, getGraph().getDefaultFetchHints(), null, authorizations);
     }
 
     @Override
@@ -259,13 +253,13 @@ public class InMemoryVertex extends InMemoryElement<InMemoryVertex> implements V
         Map<String, Integer> outEdgeCountsByLabels = new HashMap<>();
         Map<String, Integer> inEdgeCountsByLabels = new HashMap<>();
 
-        for (EdgeInfo entry : internalGetEdgeInfo(Direction.IN, authorizations)) {
+        for (EdgeInfo entry : internalGetEdgeInfo(Direction.IN, null, authorizations)) {
             String label = entry.getLabel();
             Integer c = inEdgeCountsByLabels.getOrDefault(label, 0);
             inEdgeCountsByLabels.put(label, c + 1);
         }
 
-        for (EdgeInfo entry : internalGetEdgeInfo(Direction.OUT, authorizations)) {
+        for (EdgeInfo entry : internalGetEdgeInfo(Direction.OUT, null, authorizations)) {
             String label = entry.getLabel();
             Integer c = outEdgeCountsByLabels.getOrDefault(label, 0);
             outEdgeCountsByLabels.put(label, c + 1);
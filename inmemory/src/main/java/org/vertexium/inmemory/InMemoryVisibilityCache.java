@@ -0,0 +1,111 @@
+package org.vertexium.inmemory;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.vertexium.VertexiumException;
+import org.vertexium.security.CompiledVisibility;
+import org.vertexium.security.VisibilityParseException;
+
+import java.util.*;
+
+/**
+ * Holds the compiled form of visibility expressions, keyed by visibility string, and the results of evaluating them
+ * against sets of authorizations. Both caches are bounded. Each compiled expression numbers its own terms, so there
+ * is no table of every authorization token ever seen.
+ */
+public class InMemoryVisibilityCache {
+    private static final int COMPILED_VISIBILITY_CACHE_SIZE = 10000;
+    private static final int CAN_READ_CACHE_SIZE = 10000;
+    private static final Cache<String, TermVisibility> compiledVisibilities = Cache2kBuilder.of(String.class, TermVisibility.class)
+        .name(InMemoryVisibilityCache.class, "compiledVisibilities")
+        .entryCapacity(COMPILED_VISIBILITY_CACHE_SIZE)
+        .eternal(true)
+        .build();
+    private static final Cache<CanReadKey, Boolean> canReadResults = Cache2kBuilder.of(CanReadKey.class, Boolean.class)
+        .name(InMemoryVisibilityCache.class, "canReadResults")
+        .entryCapacity(CAN_READ_CACHE_SIZE)
+        .eternal(true)
+        .build();
+
+    private InMemoryVisibilityCache() {
+    }
+
+    /**
+     * @param authorizations an immutable set of authorizations, it is used as part of the cache key
+     */
+    public static boolean canRead(String visibilityString, Set<String> authorizations) {
+        CanReadKey key = new CanReadKey(visibilityString, authorizations);
+        Boolean result = canReadResults.peek(key);
+        if (result == null) {
+            result = getCompiledVisibility(visibilityString).evaluate(authorizations);
+            canReadResults.put(key, result);
+        }
+        return result;
+    }
+
+    private static TermVisibility getCompiledVisibility(String visibilityString) {
+        TermVisibility compiledVisibility = compiledVisibilities.peek(visibilityString);
+        if (compiledVisibility == null) {
+            compiledVisibility = new TermVisibility(visibilityString);
+            compiledVisibilities.put(visibilityString, compiledVisibility);
+        }
+        return compiledVisibility;
+    }
+
+    /**
+     * A compiled visibility along with its terms, indexed by the token index the compiled visibility uses for them.
+     */
+    private static class TermVisibility {
+        private final List<String> terms = new ArrayList<>();
+        private final CompiledVisibility compiledVisibility;
+
+        TermVisibility(String visibilityString) {
+            Map<String, Integer> termIndexes = new HashMap<>();
+            try {
+                compiledVisibility = CompiledVisibility.compile(visibilityString, term -> termIndexes.computeIfAbsent(term, t -> {
+                    terms.add(t);
+                    return terms.size() - 1;
+                }));
+            } catch (VisibilityParseException e) {
+                throw new VertexiumException("could not evaluate visibility " + visibilityString, e);
+            }
+        }
+
+        boolean evaluate(Set<String> authorizations) {
+            BitSet authorizationTokens = new BitSet(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                if (authorizations.contains(terms.get(i))) {
+                    authorizationTokens.set(i);
+                }
+            }
+            return compiledVisibility.evaluate(authorizationTokens);
+        }
+    }
+
+    private static class CanReadKey {
+        private final String visibilityString;
+        private final Set<String> authorizations;
+
+        CanReadKey(String visibilityString, Set<String> authorizations) {
+            this.visibilityString = visibilityString;
+            this.authorizations = authorizations;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CanReadKey that = (CanReadKey) o;
+            return visibilityString.equals(that.visibilityString) && authorizations.equals(that.authorizations);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * visibilityString.hashCode() + authorizations.hashCode();
+        }
+    }
+}
@@ -7,14 +7,27 @@ import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.vertexium.*;
 import org.vertexium.id.UUIDIdGenerator;
+import org.vertexium.query.*;
 import org.vertexium.search.DefaultSearchIndex;
 import org.vertexium.test.GraphTestBase;
 import org.vertexium.test.TestMetadataPlugin;
+import org.vertexium.util.IncreasingTime;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.vertexium.test.util.VertexiumAssert.assertEdgeIdsAnyOrder;
+import static org.vertexium.util.IterableUtils.count;
+import static org.vertexium.util.IterableUtils.toList;
 
 @RunWith(JUnit4.class)
 public class InMemoryGraphTest extends GraphTestBase {
@@ -24,7 +37,7 @@ public class InMemoryGraphTest extends GraphTestBase {
         return new GraphFactory().createGraph(config);
     }
 
-    private Map<String, String> createConfig() {
+    protected Map<String, String> createConfig() {
         Map<String, String> config = new HashMap<>();
         config.put("", InMemoryGraph.class.getName());
         config.put(GraphConfiguration.IDGENERATOR_PROP_PREFIX, UUIDIdGenerator.class.getName());
@@ -86,4 +99,326 @@ public class InMemoryGraphTest extends GraphTestBase {
             assertEquals(String.class, ex.getValueClass());
         }
     }
+
+    @Test
+    public void testEdgeAdjacencyIndexFollowsEdgeChanges() {
+        Graph graph = getGraph();
+        graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v3", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", "v1", "v2", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", "v1", "v3", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e3", "v1", "v1", LABEL_LABEL2, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        Vertex v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.BOTH, AUTHORIZATIONS_A), "e1", "e2", "e3");
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.OUT, LABEL_LABEL1, AUTHORIZATIONS_A), "e1", "e2");
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.IN, AUTHORIZATIONS_A), "e3");
+
+        graph.getEdge("e1", AUTHORIZATIONS_A).prepareMutation()
+            .alterEdgeLabel(LABEL_LABEL2)
+            .save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", "v3", "v1", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        v1 = graph.getVertex("v1", AUTHORIZATIONS_A);
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.OUT, LABEL_LABEL1, AUTHORIZATIONS_A));
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.OUT, LABEL_LABEL2, AUTHORIZATIONS_A), "e1", "e3");
+        assertEdgeIdsAnyOrder(v1.getEdges(Direction.IN, LABEL_LABEL1, AUTHORIZATIONS_A), "e2");
+        assertEdgeIdsAnyOrder(graph.getVertex("v3", AUTHORIZATIONS_A).getEdges(Direction.IN, AUTHORIZATIONS_A));
+
+        graph.deleteEdge("e1", AUTHORIZATIONS_A);
+        graph.flush();
+        assertEdgeIdsAnyOrder(graph.getVertex("v2", AUTHORIZATIONS_A).getEdges(Direction.BOTH, AUTHORIZATIONS_A));
+
+        graph.truncate();
+        graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+        assertEdgeIdsAnyOrder(graph.getVertex("v1", AUTHORIZATIONS_A).getEdges(Direction.BOTH, AUTHORIZATIONS_A));
+    }
+
+    @Test
+    public void testGetAdjacentEdgesWithLabelsAtEndTime() {
+        Graph graph = getGraph();
+        graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", "v1", "v2", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+        long beforeAlterLabel = IncreasingTime.currentTimeMillis();
+
+        graph.getEdge("e1", AUTHORIZATIONS_A).prepareMutation()
+            .alterEdgeLabel(LABEL_LABEL2)
+            .save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        List<AdjacentEdge> adjacentEdges = toList(graph.getAdjacentEdges(singletonList("v1"), Direction.OUT, new String[]{LABEL_LABEL1}, beforeAlterLabel, AUTHORIZATIONS_A));
+        assertEquals(1, adjacentEdges.size());
+        assertEquals("e1", adjacentEdges.get(0).getEdgeId());
+        assertEquals(LABEL_LABEL1, adjacentEdges.get(0).getLabel());
+        assertEquals(0, count(graph.getAdjacentEdges(singletonList("v1"), Direction.OUT, new String[]{LABEL_LABEL2}, beforeAlterLabel, AUTHORIZATIONS_A)));
+
+        assertEquals(0, count(graph.getAdjacentEdges(singletonList("v1"), Direction.OUT, new String[]{LABEL_LABEL1}, null, AUTHORIZATIONS_A)));
+        adjacentEdges = toList(graph.getAdjacentEdges(singletonList("v1"), Direction.OUT, new String[]{LABEL_LABEL2}, IncreasingTime.currentTimeMillis(), AUTHORIZATIONS_A));
+        assertEquals(1, adjacentEdges.size());
+        assertEquals(LABEL_LABEL2, adjacentEdges.get(0).getLabel());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueryInParallel() {
+        Map<String, String> config = createConfig();
+        config.put(GraphConfiguration.QUERY_PARALLELISM_THRESHOLD, "1");
+        InMemoryGraph g = InMemoryGraph.create((Map) config);
+        g.createAuthorizations("a");
+
+        for (int i = 0; i < 1000; i++) {
+            g.prepareVertex("v" + i, i % 2 == 0 ? VISIBILITY_A : VISIBILITY_EMPTY)
+                .setProperty("prop1", i % 10, VISIBILITY_EMPTY)
+                .setProperty("prop2", i, VISIBILITY_EMPTY)
+                .save(AUTHORIZATIONS_A);
+        }
+        g.flush();
+
+        assertEquals(100, g.query(AUTHORIZATIONS_A).has("prop1", 3).vertices().getTotalHits());
+        assertEquals(500, g.query(AUTHORIZATIONS_EMPTY).vertices().getTotalHits());
+
+        Query query = g.query(AUTHORIZATIONS_A)
+            .has("prop2", Compare.LESS_THAN, 500)
+            .addAggregation(new TermsAggregation("terms", "prop1"));
+        TermsResult terms = query.vertices().getAggregationResult("terms", TermsResult.class);
+        int bucketCount = 0;
+        for (TermsBucket bucket : terms.getBuckets()) {
+            assertEquals(50, bucket.getCount());
+            bucketCount++;
+        }
+        assertEquals(10, bucketCount);
+
+        List<Vertex> top = toList(g.query(AUTHORIZATIONS_A)
+            .sort("prop2", SortDirection.DESCENDING)
+            .limit(3)
+            .vertices());
+        assertEquals(3, top.size());
+        assertEquals("v999", top.get(0).getId());
+        assertEquals("v998", top.get(1).getId());
+        assertEquals("v997", top.get(2).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueryInParallelKeepsOrderOfTiedItems() {
+        Map<String, String> parallelConfig = createConfig();
+        parallelConfig.put(GraphConfiguration.QUERY_PARALLELISM_THRESHOLD, "1");
+        InMemoryGraph parallelGraph = InMemoryGraph.create((Map) parallelConfig);
+        Map<String, String> sequentialConfig = createConfig();
+        sequentialConfig.put(GraphConfiguration.QUERY_PARALLELISM_THRESHOLD, "0");
+        InMemoryGraph sequentialGraph = InMemoryGraph.create((Map) sequentialConfig);
+
+        for (InMemoryGraph g : new InMemoryGraph[]{parallelGraph, sequentialGraph}) {
+            for (int i = 0; i < 2000; i++) {
+                g.prepareVertex("v" + i, VISIBILITY_EMPTY)
+                    .setProperty("prop1", i % 3, VISIBILITY_EMPTY)
+                    .save(AUTHORIZATIONS_EMPTY);
+            }
+            g.flush();
+        }
+
+        for (int skip = 0; skip < 1000; skip += 100) {
+            List<Vertex> expected = toList(sequentialGraph.query(AUTHORIZATIONS_EMPTY)
+                .sort("prop1", SortDirection.ASCENDING)
+                .skip(skip)
+                .limit(100)
+                .vertices());
+            List<Vertex> found = toList(parallelGraph.query(AUTHORIZATIONS_EMPTY)
+                .sort("prop1", SortDirection.ASCENDING)
+                .skip(skip)
+                .limit(100)
+                .vertices());
+            assertEquals(100, found.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), found.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAggregationsInParallel() {
+        Map<String, String> parallelConfig = createConfig();
+        parallelConfig.put(GraphConfiguration.QUERY_PARALLELISM_THRESHOLD, "1");
+        InMemoryGraph parallelGraph = InMemoryGraph.create((Map) parallelConfig);
+        Map<String, String> sequentialConfig = createConfig();
+        sequentialConfig.put(GraphConfiguration.QUERY_PARALLELISM_THRESHOLD, "0");
+        InMemoryGraph sequentialGraph = InMemoryGraph.create((Map) sequentialConfig);
+
+        for (InMemoryGraph g : new InMemoryGraph[]{parallelGraph, sequentialGraph}) {
+            for (int i = 0; i < 3000; i++) {
+                g.prepareVertex("v" + i, VISIBILITY_EMPTY)
+                    .setProperty("prop1", i % 7, VISIBILITY_EMPTY)
+                    .setProperty("prop2", (i * 37 % 1000) / 10.0, VISIBILITY_EMPTY)
+                    .save(AUTHORIZATIONS_EMPTY);
+            }
+            g.flush();
+        }
+
+        QueryResultsIterable<Vertex> expected = queryAggregations(sequentialGraph);
+        QueryResultsIterable<Vertex> found = queryAggregations(parallelGraph);
+        QueryResultsIterable<Vertex> foundAgain = queryAggregations(parallelGraph);
+
+        Map<Object, Long> expectedTerms = new HashMap<>();
+        Map<Object, Double> expectedNestedSums = new HashMap<>();
+        for (TermsBucket bucket : expected.getAggregationResult("terms", TermsResult.class).getBuckets()) {
+            expectedTerms.put(bucket.getKey(), bucket.getCount());
+            expectedNestedSums.put(bucket.getKey(), ((StatisticsResult) bucket.getNestedResults().get("nested-stats")).getSum());
+        }
+        assertEquals(7, expectedTerms.size());
+        for (TermsBucket bucket : found.getAggregationResult("terms", TermsResult.class).getBuckets()) {
+            assertEquals(expectedTerms.get(bucket.getKey()), (Long) bucket.getCount());
+            assertEquals(expectedNestedSums.get(bucket.getKey()), ((StatisticsResult) bucket.getNestedResults().get("nested-stats")).getSum(), 0.0001);
+        }
+
+        List<HistogramBucket> expectedHistogram = toList(expected.getAggregationResult("hist", HistogramResult.class).getBuckets());
+        List<HistogramBucket> foundHistogram = toList(found.getAggregationResult("hist", HistogramResult.class).getBuckets());
+        assertEquals(expectedHistogram.size(), foundHistogram.size());
+        for (int i = 0; i < expectedHistogram.size(); i++) {
+            assertEquals(expectedHistogram.get(i).getKey(), foundHistogram.get(i).getKey());
+            assertEquals(expectedHistogram.get(i).getCount(), foundHistogram.get(i).getCount());
+        }
+
+        StatisticsResult expectedStatistics = expected.getAggregationResult("stats", StatisticsResult.class);
+        StatisticsResult foundStatistics = found.getAggregationResult("stats", StatisticsResult.class);
+        assertEquals(expectedStatistics.getCount(), foundStatistics.getCount());
+        assertEquals(expectedStatistics.getSum(), foundStatistics.getSum(), 0.0001);
+        assertEquals(expectedStatistics.getMin(), foundStatistics.getMin(), 0.0);
+        assertEquals(expectedStatistics.getMax(), foundStatistics.getMax(), 0.0);
+        assertEquals(expectedStatistics.getStandardDeviation(), foundStatistics.getStandardDeviation(), 0.0001);
+
+        // merged digests are estimates too, but the splits are merged in the same order every time
+        List<Percentile> expectedPercentiles = toList(expected.getAggregationResult("percentiles", PercentilesResult.class).getPercentiles());
+        List<Percentile> foundPercentiles = toList(found.getAggregationResult("percentiles", PercentilesResult.class).getPercentiles());
+        List<Percentile> foundPercentilesAgain = toList(foundAgain.getAggregationResult("percentiles", PercentilesResult.class).getPercentiles());
+        assertEquals(expectedPercentiles.size(), foundPercentiles.size());
+        for (int i = 0; i < expectedPercentiles.size(); i++) {
+            assertEquals(expectedPercentiles.get(i).getValue(), foundPercentiles.get(i).getValue(), 1.0);
+            assertEquals(foundPercentiles.get(i).getValue(), foundPercentilesAgain.get(i).getValue());
+        }
+    }
+
+    private QueryResultsIterable<Vertex> queryAggregations(InMemoryGraph g) {
+        TermsAggregation termsAggregation = new TermsAggregation("terms", "prop1");
+        termsAggregation.addNestedAggregation(new StatisticsAggregation("nested-stats", "prop2"));
+        return g.query(AUTHORIZATIONS_EMPTY)
+            .addAggregation(termsAggregation)
+            .addAggregation(new HistogramAggregation("hist", "prop2", "10", null))
+            .addAggregation(new StatisticsAggregation("stats", "prop2"))
+            .addAggregation(new PercentilesAggregation("percentiles", "prop2", null))
+            .limit(0)
+            .vertices();
+    }
+
+    @Test
+    public void testHistogramAggregationTooManyEmptyBuckets() {
+        graph.prepareVertex("v1", VISIBILITY_EMPTY).setProperty("prop1", 5, VISIBILITY_EMPTY).save(AUTHORIZATIONS_EMPTY);
+        graph.flush();
+
+        HistogramAggregation aggregation = new HistogramAggregation("hist", "prop1", "1", 0L);
+        aggregation.setExtendedBounds(new HistogramAggregation.ExtendedBounds<>(0L, 1_000_000_000L));
+        Query query = graph.query(AUTHORIZATIONS_EMPTY).addAggregation(aggregation);
+        try {
+            query.vertices().getAggregationResult("hist", HistogramResult.class);
+            fail("expected too many buckets");
+        } catch (VertexiumException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("buckets"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "deprecation"})
+    public void testMutationRetention() {
+        Map<String, String> config = createConfig();
+        config.put(InMemoryGraphConfiguration.MUTATION_RETENTION, "5s");
+        InMemoryGraph g = InMemoryGraph.create((Map) config);
+
+        g.prepareVertex("v1", VISIBILITY_A)
+            .addPropertyValue("k1", "prop1", "value1", createMetadata("m1", "meta1"), 1000L, VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        g.getVertex("v1", AUTHORIZATIONS_A).prepareMutation()
+            .addPropertyValue("k1", "prop1", "value2", createMetadata("m2", "meta2"), 2000L, VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        assertEquals(2, count(g.getVertex("v1", AUTHORIZATIONS_A).getHistoricalPropertyValues(AUTHORIZATIONS_A)));
+
+        g.getVertex("v1", AUTHORIZATIONS_A).prepareMutation()
+            .addPropertyValue("k1", "prop1", "value3", createMetadata("m3", "meta3"), 10000L, VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        List<HistoricalPropertyValue> values = toList(g.getVertex("v1", AUTHORIZATIONS_A).getHistoricalPropertyValues(AUTHORIZATIONS_A));
+        assertEquals(1, values.size());
+        assertEquals("value3", values.get(0).getValue());
+
+        // metadata of the compacted values is still merged when previous metadata is included
+        FetchHints includePreviousMetadataFetchHints = new FetchHintsBuilder(FetchHints.ALL)
+            .setIncludePreviousMetadata(true)
+            .build();
+        Property property = g.getVertex("v1", includePreviousMetadataFetchHints, AUTHORIZATIONS_A).getProperty("k1", "prop1");
+        assertEquals("meta1", property.getMetadata().getValue("m1"));
+        assertEquals("meta2", property.getMetadata().getValue("m2"));
+        assertEquals("meta3", property.getMetadata().getValue("m3"));
+        property = g.getVertex("v1", AUTHORIZATIONS_A).getProperty("k1", "prop1");
+        assertEquals(null, property.getMetadata().getEntry("m1"));
+        assertEquals("meta3", property.getMetadata().getValue("m3"));
+
+        // a value older than the latest one but within the retention is kept in the history but does not replace
+        // the latest value
+        g.getVertex("v1", AUTHORIZATIONS_A).prepareMutation()
+            .addPropertyValue("k1", "prop1", "value4", Metadata.create(), 8000L, VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        Vertex v1 = g.getVertex("v1", AUTHORIZATIONS_A);
+        assertEquals("value3", v1.getPropertyValue("k1", "prop1"));
+        assertEquals(2, count(v1.getHistoricalPropertyValues(AUTHORIZATIONS_A)));
+
+        // a value older than the retention is compacted as soon as it is added
+        g.getVertex("v1", AUTHORIZATIONS_A).prepareMutation()
+            .addPropertyValue("k1", "prop1", "value5", createMetadata("m5", "meta5"), 3000L, VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        v1 = g.getVertex("v1", includePreviousMetadataFetchHints, AUTHORIZATIONS_A);
+        assertEquals("value3", v1.getPropertyValue("k1", "prop1"));
+        assertEquals(2, count(v1.getHistoricalPropertyValues(AUTHORIZATIONS_A)));
+        assertEquals("meta5", v1.getProperty("k1", "prop1").getMetadata().getValue("m5"));
+    }
+
+    private static Metadata createMetadata(String key, String value) {
+        Metadata metadata = Metadata.create();
+        metadata.add(key, value, VISIBILITY_A);
+        return metadata;
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                String propertyKey = "k" + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        graph.prepareVertex("v" + i, VISIBILITY_A)
+                            .addPropertyValue(propertyKey, "prop1", i, VISIBILITY_A)
+                            .save(AUTHORIZATIONS_A);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        graph.flush();
+
+        assertEquals(100, count(graph.getVertices(AUTHORIZATIONS_A)));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(threadCount, count(graph.getVertex("v" + i, AUTHORIZATIONS_A).getProperties("prop1")));
+        }
+        assertEquals(100, graph.query(AUTHORIZATIONS_A).vertices().getTotalHits());
+    }
 }
@@ -0,0 +1,107 @@
+package org.vertexium.inmemory;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.vertexium.GraphConfiguration;
+import org.vertexium.TextIndexHint;
+import org.vertexium.query.*;
+import org.vertexium.type.GeoCircle;
+import org.vertexium.type.GeoPoint;
+import org.vertexium.type.GeoPolygon;
+import org.vertexium.type.GeoRect;
+import org.vertexium.type.GeoShape;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.vertexium.test.util.VertexiumAssert.assertEdgeIdsAnyOrder;
+import static org.vertexium.test.util.VertexiumAssert.assertVertexIdsAnyOrder;
+
+@RunWith(JUnit4.class)
+public class InMemorySearchIndexTest extends InMemoryGraphTest {
+    @Override
+    protected Map<String, String> createConfig() {
+        Map<String, String> config = super.createConfig();
+        config.put(GraphConfiguration.SEARCH_INDEX_PROP_PREFIX, InMemorySearchIndex.class.getName());
+        return config;
+    }
+
+    @Test
+    public void testQueryMixedValueTypes() {
+        graph.defineProperty("prop1").dataType(String.class).textIndexHint(TextIndexHint.ALL).define();
+        graph.defineProperty("prop2").dataType(String.class).textIndexHint(TextIndexHint.ALL).define();
+        graph.prepareVertex("v1", VISIBILITY_A).setProperty("prop1", 5L, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v2", VISIBILITY_A).setProperty("prop1", "15", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v3", VISIBILITY_A).setProperty("prop1", "Hello World", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v4", VISIBILITY_A).setProperty("prop2", "Hello", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", "v1", "v2", LABEL_LABEL1, VISIBILITY_A).setProperty("prop1", "hello", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", "v2", "v3", LABEL_LABEL2, VISIBILITY_A).setProperty("prop1", "hello", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.EQUAL, 15).vertices(), "v2");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.GREATER_THAN, 10).vertices(), "v2", "v3");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.LESS_THAN, "hi").vertices(), "v1", "v2", "v3");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.EQUAL, "hello world").vertices(), "v3");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.STARTS_WITH, "Hell").vertices(), "v3");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop2", TextPredicate.CONTAINS, "ELL").vertices(), "v4");
+        assertVertexIdsAnyOrder(graph.query("ello", AUTHORIZATIONS_A).vertices(), "v3", "v4");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop2").vertices(), "v4");
+        assertEdgeIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", "hello").hasEdgeLabel(LABEL_LABEL2).edges(), "e2");
+
+        graph.getVertex("v3", AUTHORIZATIONS_A).prepareMutation()
+            .setProperty("prop1", "Goodbye", VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        graph.deleteVertex("v4", AUTHORIZATIONS_A);
+        graph.flush();
+
+        assertVertexIdsAnyOrder(graph.query("ello", AUTHORIZATIONS_A).vertices());
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("prop1", Compare.STARTS_WITH, "Good").vertices(), "v3");
+    }
+
+    @Test
+    public void testQueryGeoShapes() {
+        graph.defineProperty("location").dataType(GeoShape.class).define();
+        graph.prepareVertex("v1", VISIBILITY_A).setProperty("location", new GeoPoint(38.9, -77.0), VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v2", VISIBILITY_A).setProperty("location", new GeoPoint(51.5, -0.1), VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v3", VISIBILITY_A).setProperty("location", new GeoPoint(-33.9, 151.2), VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v4", VISIBILITY_A).setProperty("location", new GeoPoint(10.0, 179.9), VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v5", VISIBILITY_A).setProperty("location", new GeoRect(new GeoPoint(40.0, -80.0), new GeoPoint(35.0, -75.0)), VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        GeoRect eastCoast = new GeoRect(new GeoPoint(40.0, -80.0), new GeoPoint(35.0, -70.0));
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.INTERSECTS, eastCoast).vertices(), "v1", "v5");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.WITHIN, new GeoCircle(38.9, -77.0, 100)).vertices(), "v1");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.WITHIN, new GeoCircle(10.0, -179.9, 50)).vertices(), "v4");
+        GeoPolygon london = new GeoPolygon(Arrays.asList(
+            new GeoPoint(51.0, -1.0),
+            new GeoPoint(51.0, 1.0),
+            new GeoPoint(52.0, 1.0),
+            new GeoPoint(52.0, -1.0),
+            new GeoPoint(51.0, -1.0)
+        ));
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.INTERSECTS, london).vertices(), "v2");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.DISJOINT, london).vertices(), "v1", "v3", "v4", "v5");
+
+        Query query = graph.query(AUTHORIZATIONS_A)
+            .has("location", GeoCompare.WITHIN, new GeoRect(new GeoPoint(60.0, -100.0), new GeoPoint(30.0, 10.0)))
+            .addAggregation(new GeohashAggregation("geo-count", "location", 2));
+        Map<String, Long> counts = new HashMap<>();
+        for (GeohashBucket bucket : query.vertices().getAggregationResult("geo-count", GeohashResult.class).getBuckets()) {
+            counts.put(bucket.getKey(), bucket.getCount());
+        }
+        assertEquals(2, counts.size());
+        assertEquals(1L, (long) counts.get("dq"));
+        assertEquals(1L, (long) counts.get("gc"));
+
+        graph.getVertex("v1", AUTHORIZATIONS_A).prepareMutation()
+            .setProperty("location", new GeoPoint(51.5, -0.12), VISIBILITY_A)
+            .save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.INTERSECTS, eastCoast).vertices(), "v5");
+        assertVertexIdsAnyOrder(graph.query(AUTHORIZATIONS_A).has("location", GeoCompare.INTERSECTS, london).vertices(), "v1", "v2");
+    }
+}
@@ -0,0 +1,96 @@
+package org.vertexium.inmemory.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.vertexium.Authorizations;
+import org.vertexium.Vertex;
+import org.vertexium.Visibility;
+import org.vertexium.inmemory.InMemoryGraph;
+import org.vertexium.query.SortDirection;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a sorted, limited default query, which only keeps skip + limit items, against sorting every item and
+ * then taking the same page.
+ * <p>
+ * Run the main method using the inmemory module's test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DefaultGraphQuerySortBenchmark {
+    private static final String PROPERTY_NAME = "score";
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"0", "100"})
+    public int skip;
+
+    public int limit = 20;
+
+    private InMemoryGraph graph;
+    private Authorizations authorizations;
+
+    @Setup
+    public void setup() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations();
+        Visibility visibility = new Visibility("");
+        Random random = new Random(1);
+        for (int i = 0; i < vertexCount; i++) {
+            graph.prepareVertex("v" + i, visibility)
+                .addPropertyValue("k1", PROPERTY_NAME, random.nextInt(), visibility)
+                .save(authorizations);
+        }
+        graph.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graph.shutdown();
+    }
+
+    @Benchmark
+    public void topItems(Blackhole blackhole) {
+        Iterable<Vertex> vertices = graph.query(authorizations)
+            .sort(PROPERTY_NAME, SortDirection.DESCENDING)
+            .skip(skip)
+            .limit(limit)
+            .vertices();
+        for (Vertex vertex : vertices) {
+            blackhole.consume(vertex);
+        }
+    }
+
+    @Benchmark
+    public void fullSort(Blackhole blackhole) {
+        Iterator<Vertex> vertices = graph.query(authorizations)
+            .sort(PROPERTY_NAME, SortDirection.DESCENDING)
+            .vertices()
+            .iterator();
+        for (int i = 0; i < skip && vertices.hasNext(); i++) {
+            vertices.next();
+        }
+        for (int i = 0; i < limit && vertices.hasNext(); i++) {
+            blackhole.consume(vertices.next());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(DefaultGraphQuerySortBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
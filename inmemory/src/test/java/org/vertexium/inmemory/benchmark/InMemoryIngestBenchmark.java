@@ -0,0 +1,83 @@
+package org.vertexium.inmemory.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.vertexium.Authorizations;
+import org.vertexium.Visibility;
+import org.vertexium.inmemory.InMemoryGraph;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput of adding vertices and edges to an in-memory graph from several threads at once. Each
+ * thread writes its own elements, so the throughput should grow with the number of threads up to the number of
+ * cores.
+ * <p>
+ * Run the main method using the inmemory module's test classpath. It runs the benchmark with 1, 2, 4, ... threads
+ * up to the number of available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InMemoryIngestBenchmark {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private InMemoryGraph graph;
+    private Authorizations authorizations;
+    private Visibility visibility;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        graph = InMemoryGraph.create();
+        authorizations = graph.createAuthorizations();
+        visibility = new Visibility("");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        graph.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final String idPrefix = "t" + threadCount.incrementAndGet() + "_";
+        private long count;
+
+        String nextId() {
+            return idPrefix + (count++);
+        }
+    }
+
+    @Benchmark
+    public void addVertexAndEdge(ThreadState threadState) {
+        String vertexId = threadState.nextId();
+        graph.prepareVertex(vertexId, visibility)
+            .addPropertyValue("k1", "name", vertexId, visibility)
+            .addPropertyValue("k1", "count", threadState.count, visibility)
+            .save(authorizations);
+        graph.prepareEdge(threadState.nextId(), vertexId, vertexId, "self", visibility)
+            .addPropertyValue("k1", "name", vertexId, visibility)
+            .save(authorizations);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                .include(InMemoryIngestBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
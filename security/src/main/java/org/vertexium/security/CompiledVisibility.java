@@ -0,0 +1,186 @@
+package org.vertexium.security;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link ColumnVisibility} compiled into flat arrays whose terms have been replaced by token indexes. Once
+ * compiled, the expression can be evaluated against a {@link BitSet} of authorization token indexes repeatedly
+ * without parsing or allocating.
+ * <p>
+ * Terms are unescaped before they are passed to the token indexer, so the same indexer applied to the raw
+ * authorization strings produces matching indexes.
+ */
+public class CompiledVisibility {
+    private static final int NO_ROOT = -1;
+    private static final byte TERM = 0;
+    private static final byte AND = 1;
+    private static final byte OR = 2;
+    private static final byte NOT = 3;
+
+    private final String expression;
+    private final int root;
+    private final byte[] nodeTypes;
+    private final int[] nodeValues;
+    private final int[] nodeChildCounts;
+    private final int[] children;
+
+    private CompiledVisibility(
+        String expression,
+        int root,
+        byte[] nodeTypes,
+        int[] nodeValues,
+        int[] nodeChildCounts,
+        int[] children
+    ) {
+        this.expression = expression;
+        this.root = root;
+        this.nodeTypes = nodeTypes;
+        this.nodeValues = nodeValues;
+        this.nodeChildCounts = nodeChildCounts;
+        this.children = children;
+    }
+
+    /**
+     * Parses and compiles a visibility expression.
+     *
+     * @param expression   the visibility expression
+     * @param tokenIndexer maps an unescaped term to its token index
+     * @return the compiled visibility
+     * @throws VisibilityParseException if an AND, OR or NOT subexpression has the wrong number of children
+     */
+    public static CompiledVisibility compile(String expression, ToIntFunction<String> tokenIndexer) throws VisibilityParseException {
+        ColumnVisibility columnVisibility = new ColumnVisibility(expression);
+        byte[] expressionBytes = columnVisibility.getExpression();
+        if (expressionBytes.length == 0) {
+            return new CompiledVisibility(expression, NO_ROOT, new byte[0], new int[0], new int[0], new int[0]);
+        }
+        Compiler compiler = new Compiler(expressionBytes, tokenIndexer);
+        int root = compiler.compile(columnVisibility.getParseTree());
+        return compiler.build(expression, root);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Evaluates this visibility.
+     *
+     * @param authorizationTokens the token indexes of the authorizations to evaluate against
+     * @return true if the authorizations satisfy this visibility
+     */
+    public boolean evaluate(BitSet authorizationTokens) {
+        if (root == NO_ROOT) {
+            return true;
+        }
+        return evaluate(root, authorizationTokens);
+    }
+
+    private boolean evaluate(int node, BitSet authorizationTokens) {
+        int childStart = nodeValues[node];
+        int childEnd = childStart + nodeChildCounts[node];
+        switch (nodeTypes[node]) {
+            case TERM:
+                return authorizationTokens.get(nodeValues[node]);
+            case AND:
+                for (int i = childStart; i < childEnd; i++) {
+                    if (!evaluate(children[i], authorizationTokens)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (int i = childStart; i < childEnd; i++) {
+                    if (evaluate(children[i], authorizationTokens)) {
+                        return true;
+                    }
+                }
+                return false;
+            case NOT:
+                return !evaluate(children[childStart], authorizationTokens);
+            default:
+                throw new IllegalStateException("Unexpected node type: " + nodeTypes[node]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static class Compiler {
+        private final byte[] expression;
+        private final ToIntFunction<String> tokenIndexer;
+        private final List<Byte> nodeTypes = new ArrayList<>();
+        private final List<Integer> nodeValues = new ArrayList<>();
+        private final List<Integer> nodeChildCounts = new ArrayList<>();
+        private final List<Integer> children = new ArrayList<>();
+
+        Compiler(byte[] expression, ToIntFunction<String> tokenIndexer) {
+            this.expression = expression;
+            this.tokenIndexer = tokenIndexer;
+        }
+
+        int compile(ColumnVisibility.Node node) throws VisibilityParseException {
+            switch (node.type) {
+                case TERM:
+                    String term = VisibilityEvaluator.unescape(node.getTerm(expression)).toString();
+                    return addNode(TERM, tokenIndexer.applyAsInt(term), 0);
+                case AND:
+                    if (node.children == null || node.children.size() < 2) {
+                        throw new VisibilityParseException("AND has less than 2 children", expression, node.start);
+                    }
+                    return addNode(AND, node.children);
+                case OR:
+                    if (node.children == null || node.children.size() < 2) {
+                        throw new VisibilityParseException("OR has less than 2 children", expression, node.start);
+                    }
+                    return addNode(OR, node.children);
+                case NOT:
+                    if (node.children == null || node.children.size() != 1) {
+                        throw new VisibilityParseException("NOT requires 1 child found " + (node.children == null ? "null" : node.children.size()), expression, node.start);
+                    }
+                    return addNode(NOT, node.children);
+                default:
+                    throw new VisibilityParseException("No such node type", expression, node.start);
+            }
+        }
+
+        private int addNode(byte type, List<ColumnVisibility.Node> childNodes) throws VisibilityParseException {
+            int[] childIndexes = new int[childNodes.size()];
+            for (int i = 0; i < childIndexes.length; i++) {
+                childIndexes[i] = compile(childNodes.get(i));
+            }
+            int childStart = children.size();
+            for (int childIndex : childIndexes) {
+                children.add(childIndex);
+            }
+            return addNode(type, childStart, childIndexes.length);
+        }
+
+        private int addNode(byte type, int value, int childCount) {
+            nodeTypes.add(type);
+            nodeValues.add(value);
+            nodeChildCounts.add(childCount);
+            return nodeTypes.size() - 1;
+        }
+
+        CompiledVisibility build(String expressionString, int root) {
+            byte[] nodeTypesArray = new byte[nodeTypes.size()];
+            for (int i = 0; i < nodeTypesArray.length; i++) {
+                nodeTypesArray[i] = nodeTypes.get(i);
+            }
+            return new CompiledVisibility(
+                expressionString,
+                root,
+                nodeTypesArray,
+                nodeValues.stream().mapToInt(Integer::intValue).toArray(),
+                nodeChildCounts.stream().mapToInt(Integer::intValue).toArray(),
+                children.stream().mapToInt(Integer::intValue).toArray()
+            );
+        }
+    }
+}
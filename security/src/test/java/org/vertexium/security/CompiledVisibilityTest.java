@@ -0,0 +1,62 @@
+package org.vertexium.security;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.vertexium.security.ColumnVisibility.quote;
+
+public class CompiledVisibilityTest {
+    private final Map<String, Integer> tokenIndexes = new HashMap<>();
+
+    @Test
+    public void testMatchesVisibilityEvaluator() throws VisibilityParseException {
+        String[] auths = new String[]{"one", "two", "three", "A#C", "A\"C", "A\\C", "五"};
+        VisibilityEvaluator evaluator = new VisibilityEvaluator(new Authorizations(auths));
+        BitSet authorizationTokens = toTokens(auths);
+
+        for (String marking : new String[]{
+            "", "one", "five", "one&two", "one&five", "foor|two", "(one&two)|(foo&bar)", "((one|foo)|bar)&goober",
+            "!one", "one|!five", "!(one)|!two", "one&!(five)",
+            quote("A#C") + "|" + quote("A?C"), quote("A\"C") + "&" + quote("A\\C"), quote("A#C") + "&B",
+            "(" + quote("A\"C") + "|B)&(" + quote("A#C") + "|D)", quote("五") + "&(" + quote("四") + "|" + quote("三") + ")"
+        }) {
+            CompiledVisibility compiledVisibility = CompiledVisibility.compile(marking, this::getTokenIndex);
+            assertEquals(marking, evaluator.evaluate(new ColumnVisibility(marking)), compiledVisibility.evaluate(authorizationTokens));
+        }
+    }
+
+    @Test
+    public void testEmptyVisibility() throws VisibilityParseException {
+        assertTrue(CompiledVisibility.compile("", this::getTokenIndex).evaluate(new BitSet()));
+    }
+
+    @Test
+    public void testTokensAddedAfterCompile() throws VisibilityParseException {
+        CompiledVisibility compiledVisibility = CompiledVisibility.compile("a&b", this::getTokenIndex);
+        assertFalse(compiledVisibility.evaluate(toTokens("a", "c")));
+        assertTrue(compiledVisibility.evaluate(toTokens("c", "a", "b")));
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testInvalidExpression() throws VisibilityParseException {
+        CompiledVisibility.compile("a|(b(c))", this::getTokenIndex);
+    }
+
+    private BitSet toTokens(String... auths) {
+        BitSet results = new BitSet();
+        for (String auth : auths) {
+            results.set(getTokenIndex(auth));
+        }
+        return results;
+    }
+
+    private int getTokenIndex(String token) {
+        return tokenIndexes.computeIfAbsent(token, t -> tokenIndexes.size());
+    }
+}
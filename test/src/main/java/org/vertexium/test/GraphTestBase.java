@@ -1537,6 +1537,15 @@ public abstract class GraphTestBase {
 
         vertices = toList(graph.getVerticesInRange(new IdRange(null, null), AUTHORIZATIONS_ALL));
         assertVertexIds(vertices, "a", "aa", "az", "b");
+
+        vertices = toList(graph.getVerticesInRange(new IdRange("aa", "b"), AUTHORIZATIONS_ALL));
+        assertVertexIds(vertices, "aa", "az");
+
+        vertices = toList(graph.getVerticesInRange(new IdRange("az", null), AUTHORIZATIONS_ALL));
+        assertVertexIds(vertices, "az", "b");
+
+        vertices = toList(graph.getVerticesInRange(new IdRange("aa", false, "b", true), AUTHORIZATIONS_ALL));
+        assertVertexIds(vertices, "az", "b");
     }
 
     @Test
@@ -1754,6 +1763,56 @@ public abstract class GraphTestBase {
         assertIdsAnyOrder(graph.query(AUTHORIZATIONS_ALL).hasAuthorization(VISIBILITY_A_STRING).vertexIds(IdFetchHint.ALL_INCLUDING_HIDDEN), "v1");
     }
 
+    @Test
+    public void testReindexWithOptions() {
+        for (int i = 0; i < 20; i++) {
+            graph.prepareVertex("v" + i, VISIBILITY_EMPTY)
+                .addPropertyValue("k1", "name", "joe", VISIBILITY_EMPTY)
+                .save(AUTHORIZATIONS_ALL);
+        }
+        for (int i = 1; i < 20; i++) {
+            graph.prepareEdge("e" + i, "v0", "v" + i, LABEL_LABEL1, VISIBILITY_EMPTY).save(AUTHORIZATIONS_ALL);
+        }
+        graph.flush();
+
+        SearchIndex searchIndex = ((GraphWithSearchIndex) graph).getSearchIndex();
+        searchIndex.drop(graph);
+
+        List<String> progress = new ArrayList<>();
+        ProgressCallback progressCallback = new ProgressCallback() {
+            @Override
+            public synchronized void progress(double progressPercent, Step step, Integer edgeIndex, Integer vertexCount) {
+                progress.add(step.formatMessage(edgeIndex, vertexCount));
+            }
+        };
+        graph.reindex(
+            new ReindexOptions()
+                .setJobId("testReindexWithOptions")
+                .setThreadCount(3)
+                .setRangeCount(4)
+                .setProgressCallback(progressCallback),
+            AUTHORIZATIONS_ALL
+        );
+        graph.flush();
+
+        assertResultsCount(20, 20, graph.query(AUTHORIZATIONS_ALL).has("name", "joe").vertexIds());
+        assertEquals("Complete", progress.get(progress.size() - 1));
+        assertNull(graph.getMetadata(GraphReindexer.METADATA_CHECKPOINT_PREFIX + "testReindexWithOptions"));
+
+        // resume a reindex which already completed the vertices
+        graph.setMetadata(GraphReindexer.METADATA_CHECKPOINT_PREFIX + "testReindexWithOptions", new HashSet<>(Collections.singletonList("VERTEX:null:null")));
+        progress.clear();
+        graph.reindex(
+            new ReindexOptions()
+                .setJobId("testReindexWithOptions")
+                .setRangeCount(1)
+                .setProgressCallback(progressCallback),
+            AUTHORIZATIONS_ALL
+        );
+        assertEquals(Lists.newArrayList("Reindexed 2 of 2 ranges", "Complete"), progress);
+        assertNull(graph.getMetadata(GraphReindexer.METADATA_CHECKPOINT_PREFIX + "testReindexWithOptions"));
+    }
+
     private boolean isSearchIndexDeleteElementSupported() {
         if (graph instanceof GraphWithSearchIndex) {
             return ((GraphWithSearchIndex) graph).getSearchIndex().isDeleteElementSupported();
@@ -5255,6 +5314,56 @@ public abstract class GraphTestBase {
         );
     }
 
+    @Test
+    public void testFindPathsManyHops() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v2 = graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v3 = graph.prepareVertex("v3", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v4 = graph.prepareVertex("v4", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v5 = graph.prepareVertex("v5", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v6 = graph.prepareVertex("v6", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v7 = graph.prepareVertex("v7", VISIBILITY_A).save(AUTHORIZATIONS_A);
+
+        graph.prepareEdge(v1, v2, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v1 -> v2
+        graph.prepareEdge(v2, v3, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v2 -> v3
+        graph.prepareEdge(v3, v4, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v3 -> v4
+        graph.prepareEdge(v5, v4, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v5 -> v4
+        graph.prepareEdge(v1, v6, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v1 -> v6
+        graph.prepareEdge(v6, v4, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v6 -> v4
+        graph.prepareEdge(v3, v6, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v3 -> v6
+        graph.prepareEdge(v7, v2, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A); // v7 -> v2
+        graph.flush();
+
+        List<Path> paths = toList(graph.findPaths(new FindPathOptions("v1", "v5", 3), AUTHORIZATIONS_A));
+        assertPaths(
+            paths,
+            new Path("v1", "v6", "v4", "v5")
+        );
+
+        paths = toList(graph.findPaths(new FindPathOptions("v1", "v5", 4), AUTHORIZATIONS_A));
+        assertPaths(
+            paths,
+            new Path("v1", "v6", "v4", "v5"),
+            new Path("v1", "v2", "v3", "v4", "v5"),
+            new Path("v1", "v6", "v3", "v4", "v5")
+        );
+
+        paths = toList(graph.findPaths(new FindPathOptions("v5", "v1", 6), AUTHORIZATIONS_A));
+        assertPaths(
+            paths,
+            new Path("v5", "v4", "v6", "v1"),
+            new Path("v5", "v4", "v3", "v2", "v1"),
+            new Path("v5", "v4", "v3", "v6", "v1"),
+            new Path("v5", "v4", "v6", "v3", "v2", "v1")
+        );
+
+        paths = toList(graph.findPaths(new FindPathOptions("v7", "v5", 5, true), AUTHORIZATIONS_A));
+        assertEquals(1, paths.size());
+
+        paths = toList(graph.findPaths(new FindPathOptions("v7", "v5", 3, true), AUTHORIZATIONS_A));
+        assertEquals(0, paths.size());
+    }
+
     @Test
     public void testFindPathsWithDifferentVisibilityData() {
         Vertex v1 = graph.prepareVertex("v1", VISIBILITY_EMPTY).save(AUTHORIZATIONS_A);
@@ -5495,6 +5604,102 @@ public abstract class GraphTestBase {
         assertEquals("value2-2", v.getPropertyValue("prop2"));
     }
 
+    @Test
+    public void testGetVertexWithOtherVertexIdsOfEdgeRefsToInclude() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v2 = graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v3 = graph.prepareVertex("v3", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v4 = graph.prepareVertex("v4", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", v1, v2, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", v1, v3, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e3", v4, v1, LABEL_LABEL2, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e4", v1, v2, LABEL_LABEL2, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        FetchHints fetchHints = FetchHints.builder(FetchHints.ALL)
+            .setOtherVertexIdsOfEdgeRefsToInclude("v2", "v4")
+            .build();
+        v1 = graph.getVertex("v1", fetchHints, AUTHORIZATIONS_A);
+        List<String> edgeIds = stream(v1.getEdgeInfos(Direction.BOTH, AUTHORIZATIONS_A))
+            .map(EdgeInfo::getEdgeId)
+            .sorted()
+            .collect(Collectors.toList());
+        assertEquals(Lists.newArrayList("e1", "e3", "e4"), edgeIds);
+        assertEquals(Lists.newArrayList("e1"), toList(v1.getEdgeIds(v2, Direction.OUT, LABEL_LABEL1, AUTHORIZATIONS_A)));
+        assertEquals(Lists.newArrayList("e1", "e3", "e4"), stream(v1.getEdgeIds(Direction.BOTH, AUTHORIZATIONS_A)).sorted().collect(Collectors.toList()));
+        EdgesSummary edgesSummary = v1.getEdgesSummary(AUTHORIZATIONS_A);
+        assertEquals(2, edgesSummary.getCountOfOutEdges());
+        assertEquals(1, edgesSummary.getCountOfInEdges());
+        assertEquals(ImmutableSet.of(LABEL_LABEL1, LABEL_LABEL2), edgesSummary.getOutEdgeLabels());
+
+        fetchHints = FetchHints.builder()
+            .setIncludeOutEdgeRefs(true)
+            .setOtherVertexIdsOfEdgeRefsToInclude("v3")
+            .build();
+        v1 = graph.getVertex("v1", fetchHints, AUTHORIZATIONS_A);
+        edgeIds = stream(v1.getEdgeInfos(Direction.OUT, AUTHORIZATIONS_A))
+            .map(EdgeInfo::getEdgeId)
+            .collect(Collectors.toList());
+        assertEquals(Lists.newArrayList("e2"), edgeIds);
+    }
+
+    @Test
+    public void testGetAdjacentEdges() {
+        Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v2 = graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Vertex v3 = graph.prepareVertex("v3", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v4", VISIBILITY_B).save(AUTHORIZATIONS_B);
+        graph.prepareEdge("e1", v1, v2, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", v1, v3, LABEL_LABEL2, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e3", v3, v1, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e4", v2, v3, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e5", v1, v2, LABEL_LABEL1, VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e6", v1, v3, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        Edge e7 = graph.prepareEdge("e7", v1, v2, LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e8", "v1", "v4", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+        graph.softDeleteEdge("e6", AUTHORIZATIONS_A);
+        graph.markEdgeHidden(e7, VISIBILITY_A, AUTHORIZATIONS_A);
+        graph.flush();
+
+        List<String> vertexIds = Lists.newArrayList("v1", "v2", "v4", "missing");
+        assertEquals(
+            Lists.newArrayList(
+                "v1:e1:label1:OUT:v2",
+                "v1:e2:label2:OUT:v3",
+                "v1:e3:label1:IN:v3",
+                "v1:e8:label1:OUT:v4",
+                "v2:e1:label1:IN:v1",
+                "v2:e4:label1:OUT:v3"
+            ),
+            adjacentEdgesToStrings(graph.getAdjacentEdges(vertexIds, Direction.BOTH, AUTHORIZATIONS_A))
+        );
+        assertEquals(
+            Lists.newArrayList("v1:e1:label1:OUT:v2", "v1:e8:label1:OUT:v4", "v2:e4:label1:OUT:v3"),
+            adjacentEdgesToStrings(graph.getAdjacentEdges(vertexIds, Direction.OUT, new String[]{LABEL_LABEL1}, null, AUTHORIZATIONS_A))
+        );
+        assertEquals(
+            Lists.newArrayList("v1:e3:label1:IN:v3", "v2:e1:label1:IN:v1"),
+            adjacentEdgesToStrings(graph.getAdjacentEdges(vertexIds, Direction.IN, AUTHORIZATIONS_A))
+        );
+        assertEquals(
+            Lists.newArrayList("v1:e1:label1:OUT:v2", "v1:e5:label1:OUT:v2", "v1:e8:label1:OUT:v4"),
+            adjacentEdgesToStrings(graph.getAdjacentEdges(Lists.newArrayList("v1"), Direction.OUT, new String[]{LABEL_LABEL1}, null, AUTHORIZATIONS_A_AND_B))
+        );
+        assertEquals(0, count(graph.getAdjacentEdges(new ArrayList<>(), Direction.BOTH, AUTHORIZATIONS_A)));
+    }
+
+    private static List<String> adjacentEdgesToStrings(Iterable<AdjacentEdge> adjacentEdges) {
+        return stream(adjacentEdges)
+            .map(adjacentEdge -> adjacentEdge.getVertexId()
+                + ":" + adjacentEdge.getEdgeId()
+                + ":" + adjacentEdge.getLabel()
+                + ":" + adjacentEdge.getDirection()
+                + ":" + adjacentEdge.getOtherVertexId())
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
     @Test
     public void testFindRelatedEdges() {
         Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
@@ -8445,6 +8650,147 @@ public abstract class GraphTestBase {
         assertEquals(1, graph.getEdgeCount(AUTHORIZATIONS_A));
     }
 
+    @Test
+    public void testGetCountsAfterUpdates() {
+        graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareVertex("v2", VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareVertex("v3", VISIBILITY_EMPTY)
+            .addAdditionalVisibility(VISIBILITY_B_STRING)
+            .save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e1", "v1", "v3", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e2", "v2", "v3", LABEL_LABEL1, VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_EMPTY, 0, 0);
+        assertCounts(AUTHORIZATIONS_A, 1, 1);
+        assertCounts(AUTHORIZATIONS_B, 2, 1);
+        assertCounts(AUTHORIZATIONS_A_AND_B, 3, 2);
+
+        graph.markVertexHidden(graph.getVertex("v1", AUTHORIZATIONS_A), VISIBILITY_B, AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_A, 1, 1);
+        assertCounts(AUTHORIZATIONS_A_AND_B, 2, 1);
+
+        graph.markVertexVisible(graph.getVertex("v1", FetchHints.ALL_INCLUDING_HIDDEN, AUTHORIZATIONS_A_AND_B), VISIBILITY_B, AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_A_AND_B, 3, 2);
+
+        graph.getVertex("v3", AUTHORIZATIONS_A_AND_B).prepareMutation()
+            .deleteAdditionalVisibility(VISIBILITY_B_STRING)
+            .save(AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_EMPTY, 1, 0);
+        assertCounts(AUTHORIZATIONS_A, 2, 1);
+
+        graph.getVertex("v2", AUTHORIZATIONS_B).prepareMutation()
+            .alterElementVisibility(VISIBILITY_A)
+            .save(AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_A, 3, 1);
+        assertCounts(AUTHORIZATIONS_B, 1, 1);
+
+        graph.softDeleteVertex("v2", AUTHORIZATIONS_A_AND_B);
+        graph.deleteEdge("e1", AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_A, 2, 0);
+        assertCounts(AUTHORIZATIONS_A_AND_B, 2, 0);
+
+        graph.prepareVertex("v2", VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        assertCounts(AUTHORIZATIONS_A_AND_B, 3, 0);
+    }
+
+    private void assertCounts(Authorizations authorizations, long expectedVertexCount, long expectedEdgeCount) {
+        assertEquals(expectedVertexCount, count(graph.getVertices(authorizations)));
+        assertEquals(expectedEdgeCount, count(graph.getEdges(authorizations)));
+        if (isExactElementCountSupported()) {
+            assertEquals(expectedVertexCount, graph.getVertexCount(authorizations));
+            assertEquals(expectedEdgeCount, graph.getEdgeCount(authorizations));
+        }
+    }
+
+    protected boolean isExactElementCountSupported() {
+        return true;
+    }
+
+    @Test
+    public void testGetCountsByVisibilityLabelAndTableName() {
+        graph.prepareVertex("v1", VISIBILITY_A)
+            .addExtendedData("table1", "row1", "name", "value1", VISIBILITY_A)
+            .addExtendedData("table1", "row1", "name2", "value2", VISIBILITY_A)
+            .addExtendedData("table1", "row2", "name", "value1", VISIBILITY_A)
+            .addExtendedData("table2", "row1", "name", "value1", VISIBILITY_B)
+            .save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareVertex("v2", VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareVertex("v3", VISIBILITY_A).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e1", "v1", "v2", LABEL_LABEL1, VISIBILITY_A)
+            .addExtendedData("table1", "row1", "name", "value1", VISIBILITY_A)
+            .save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e2", "v1", "v3", LABEL_LABEL1, VISIBILITY_B).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e3", "v2", "v3", LABEL_LABEL2, VISIBILITY_A).save(AUTHORIZATIONS_A_AND_B);
+        graph.prepareEdge("e4", "v3", "v1", LABEL_LABEL3, VISIBILITY_A).save(AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+        graph.deleteEdge("e4", AUTHORIZATIONS_A_AND_B);
+        graph.flush();
+
+        assertEquals(
+            ImmutableMap.of(VISIBILITY_A, 2L, VISIBILITY_B, 1L),
+            graph.getElementCountsByVisibility(ElementType.VERTEX, AUTHORIZATIONS_A_AND_B)
+        );
+        assertEquals(
+            ImmutableMap.of(VISIBILITY_A, 2L),
+            graph.getElementCountsByVisibility(ElementType.VERTEX, AUTHORIZATIONS_A)
+        );
+        assertEquals(
+            ImmutableMap.of(VISIBILITY_A, 2L, VISIBILITY_B, 1L),
+            graph.getElementCountsByVisibility(ElementType.EDGE, AUTHORIZATIONS_A_AND_B)
+        );
+
+        assertEquals(
+            ImmutableMap.of(LABEL_LABEL1, 2L, LABEL_LABEL2, 1L),
+            graph.getEdgeCountsByLabel(AUTHORIZATIONS_A_AND_B)
+        );
+        assertEquals(
+            ImmutableMap.of(LABEL_LABEL1, 1L, LABEL_LABEL2, 1L),
+            graph.getEdgeCountsByLabel(AUTHORIZATIONS_A)
+        );
+
+        assertEquals(
+            ImmutableMap.of("table1", 2L, "table2", 1L),
+            graph.getExtendedDataRowCountsByTableName(ElementType.VERTEX, AUTHORIZATIONS_A_AND_B)
+        );
+        assertEquals(
+            ImmutableMap.of("table1", 2L),
+            graph.getExtendedDataRowCountsByTableName(ElementType.VERTEX, AUTHORIZATIONS_A)
+        );
+        assertEquals(
+            ImmutableMap.of("table1", 1L),
+            graph.getExtendedDataRowCountsByTableName(ElementType.EDGE, AUTHORIZATIONS_A_AND_B)
+        );
+    }
+
+    @Test
+    public void testGetCountsByVisibilityAndLabelAfterAlterEdgeLabel() {
+        graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareVertex("v2", VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e1", "v1", "v2", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.prepareEdge("e2", "v2", "v1", LABEL_LABEL1, VISIBILITY_A).save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        graph.getEdge("e1", AUTHORIZATIONS_A).prepareMutation()
+            .alterEdgeLabel(LABEL_LABEL2)
+            .save(AUTHORIZATIONS_A);
+        graph.flush();
+
+        assertEquals(
+            ImmutableMap.of(LABEL_LABEL1, 1L, LABEL_LABEL2, 1L),
+            graph.getEdgeCountsByLabel(AUTHORIZATIONS_A)
+        );
+        assertEquals(
+            ImmutableMap.of(VISIBILITY_A, 2L),
+            graph.getElementCountsByVisibility(ElementType.EDGE, AUTHORIZATIONS_A)
+        );
+    }
+
     @Test
     public void testFetchHintsEdgeLabels() {
         Vertex v1 = graph.prepareVertex("v1", VISIBILITY_A).save(AUTHORIZATIONS_ALL);